@@ -0,0 +1,172 @@
+import { useEffect, useState } from 'react';
+import { Dialog, DialogContent, DialogHeader, DialogTitle, DialogDescription } from '@/components/ui/dialog';
+import { Badge } from '@/components/ui/badge';
+import { CalendarDays, ConciergeBell, CreditCard, MessageSquare } from 'lucide-react';
+
+import { ClienteService } from '../../../services/cliente.service';
+import type { ClienteDTO } from '../../../types/api/Cliente';
+import type { ClienteOverviewDTO } from '../../../types/api/ClienteOverview';
+import { toast } from 'sonner';
+
+interface ClienteDetailsDialogProps {
+    open: boolean;
+    onOpenChange: (open: boolean) => void;
+    cliente: ClienteDTO | null;
+}
+
+const formatDate = (value?: string | null) =>
+    value ? new Date(value).toLocaleDateString('es-ES', { day: 'numeric', month: 'short', year: 'numeric' }) : '-';
+
+const formatMoney = (value?: number | string | null) => `$${Number(value || 0).toLocaleString()}`;
+
+export const ClienteDetailsDialog = ({ open, onOpenChange, cliente }: ClienteDetailsDialogProps) => {
+    const [overview, setOverview] = useState<ClienteOverviewDTO | null>(null);
+    const [loading, setLoading] = useState(false);
+
+    useEffect(() => {
+        if (open && cliente?.id) {
+            loadOverview(cliente.id);
+        } else {
+            setOverview(null);
+        }
+    }, [open, cliente]);
+
+    // One request: reservas, servicios, pagos and messages come in the overview
+    const loadOverview = async (id: number) => {
+        setLoading(true);
+        try {
+            const res = await ClienteService.getClienteOverview(id);
+            setOverview(res.data);
+        } catch (error) {
+            console.error('Error fetching cliente overview', error);
+            toast.error('Error al cargar detalles del cliente');
+        } finally {
+            setLoading(false);
+        }
+    };
+
+    const c = overview?.cliente || cliente;
+
+    const emptyRow = (text: string) => (
+        <div className="text-sm text-muted-foreground italic p-4 bg-muted/30 rounded-lg text-center border border-dashed border-border">
+            {loading ? 'Cargando...' : text}
+        </div>
+    );
+
+    return (
+        <Dialog open={open} onOpenChange={onOpenChange}>
+            <DialogContent className="sm:max-w-[700px] p-0 overflow-hidden border-0 shadow-2xl">
+                <DialogHeader className="bg-[#0F172A] text-white p-6">
+                    <div className="flex justify-between items-start">
+                        <div>
+                            <DialogTitle className="text-2xl font-bold">
+                                {c?.nombre} {c?.apellido}
+                            </DialogTitle>
+                            <DialogDescription className="text-slate-400 mt-1">
+                                {c?.correo} {c?.telefono ? `· ${c.telefono}` : ''}
+                            </DialogDescription>
+                        </div>
+                        <div className="text-right">
+                            <span className="text-xs font-bold text-slate-400 uppercase tracking-widest block mb-1">Total Pagado</span>
+                            <span className="text-xl font-bold text-yellow-500">{formatMoney(overview?.totalPagado)}</span>
+                        </div>
+                    </div>
+                </DialogHeader>
+
+                <div className="p-6 bg-background space-y-8 max-h-[70vh] overflow-y-auto text-foreground">
+                    {/* RESERVAS */}
+                    <div>
+                        <h4 className="text-sm font-bold text-foreground mb-3 flex items-center gap-2 uppercase tracking-wider">
+                            <CalendarDays className="h-4 w-4 text-yellow-600" />
+                            Reservas ({overview?.reservas.length ?? 0})
+                        </h4>
+                        {overview && overview.reservas.length > 0 ? (
+                            <div className="space-y-2">
+                                {overview.reservas.map(r => (
+                                    <div key={r.id} className="flex justify-between items-center p-3 rounded-lg border border-border bg-card text-sm">
+                                        <div>
+                                            <span className="font-mono font-bold text-yellow-600 dark:text-yellow-500 mr-2">#{r.id}</span>
+                                            {formatDate(r.fechaInicio)} - {formatDate(r.fechaFin)}
+                                            {r.habitaciones.length > 0 && (
+                                                <span className="text-muted-foreground ml-2">Hab {r.habitaciones.join(', ')}</span>
+                                            )}
+                                        </div>
+                                        <Badge variant="outline">{r.estado}</Badge>
+                                    </div>
+                                ))}
+                            </div>
+                        ) : emptyRow('Sin reservas.')}
+                    </div>
+
+                    {/* SERVICIOS */}
+                    <div>
+                        <h4 className="text-sm font-bold text-foreground mb-3 flex items-center gap-2 uppercase tracking-wider">
+                            <ConciergeBell className="h-4 w-4 text-yellow-600" />
+                            Servicios ({overview?.servicios.length ?? 0})
+                        </h4>
+                        {overview && overview.servicios.length > 0 ? (
+                            <div className="space-y-2">
+                                {overview.servicios.map(s => (
+                                    <div key={s.id} className="flex justify-between items-center p-3 rounded-lg border border-border bg-card text-sm">
+                                        <div>
+                                            <span className="font-medium">{s.servicio || 'Servicio'}</span>
+                                            <span className="text-muted-foreground ml-2">
+                                                {formatDate(s.fechaServicio)} · {s.cantidad ?? 1} x {formatMoney(s.precioUnitario)}
+                                            </span>
+                                        </div>
+                                        <Badge variant="outline">{s.estado}</Badge>
+                                    </div>
+                                ))}
+                            </div>
+                        ) : emptyRow('Sin servicios contratados.')}
+                    </div>
+
+                    {/* PAGOS */}
+                    <div>
+                        <h4 className="text-sm font-bold text-foreground mb-3 flex items-center gap-2 uppercase tracking-wider">
+                            <CreditCard className="h-4 w-4 text-yellow-600" />
+                            Pagos ({overview?.pagos.length ?? 0})
+                        </h4>
+                        {overview && overview.pagos.length > 0 ? (
+                            <div className="space-y-2">
+                                {overview.pagos.map(p => (
+                                    <div key={p.id} className="flex justify-between items-center p-3 rounded-lg border border-border bg-card text-sm">
+                                        <div>
+                                            <span className="font-bold mr-2">{formatMoney(p.monto)}</span>
+                                            <span className="text-muted-foreground">
+                                                {formatDate(p.fechaPago)} · {p.metodoPago}
+                                                {p.reservaId ? ` · Reserva #${p.reservaId}` : ''}
+                                            </span>
+                                        </div>
+                                        <Badge variant="outline">{p.estado}</Badge>
+                                    </div>
+                                ))}
+                            </div>
+                        ) : emptyRow('Sin pagos.')}
+                    </div>
+
+                    {/* MENSAJES */}
+                    <div>
+                        <h4 className="text-sm font-bold text-foreground mb-3 flex items-center gap-2 uppercase tracking-wider">
+                            <MessageSquare className="h-4 w-4 text-yellow-600" />
+                            Últimos Mensajes
+                        </h4>
+                        {overview && overview.mensajes.length > 0 ? (
+                            <div className="space-y-2">
+                                {overview.mensajes.map(m => (
+                                    <div key={m.id} className="p-3 rounded-lg border border-border bg-card text-sm">
+                                        <div className="flex justify-between text-xs text-muted-foreground mb-1">
+                                            <span className="font-semibold">{m.remitente}</span>
+                                            <span>{formatDate(m.fechaMensaje)}</span>
+                                        </div>
+                                        <p className="text-foreground line-clamp-2">{m.mensaje}</p>
+                                    </div>
+                                ))}
+                            </div>
+                        ) : emptyRow('Sin mensajes.')}
+                    </div>
+                </div>
+            </DialogContent>
+        </Dialog>
+    );
+};
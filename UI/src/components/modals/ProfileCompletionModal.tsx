@@ -46,7 +46,7 @@ export const ProfileCompletionModal = () => {
 
             if (isAuthenticated && isClient() && user?.email && !isHomePage) {
                 try {
-                    const res = await ClienteService.getClientes({ size: 1000 });
+                    const res = await ClienteService.searchClientes(user.email, 5);
                     const found = res.data.find(c => c.correo === user.email);
 
                     if (!found) {
@@ -64,15 +64,21 @@ export const RoomInfoModal = ({ room, isOpen, onClose }: RoomInfoModalProps) =>
     const [clientes, setClientes] = useState<ClienteDTO[]>([]);
     const [selectedCliente, setSelectedCliente] = useState<ClienteDTO | null>(null);
     const [openClientCombo, setOpenClientCombo] = useState(false);
+    const [clienteQuery, setClienteQuery] = useState('');
 
-    // Load clients if user is staff
+    // Search clients on the server as staff types (3 characters at least)
     useEffect(() => {
-        if (isOpen && isStaff) {
-            ClienteService.getClientes({ size: 1000 }).then(res => {
-                setClientes(res.data);
-            }).catch(err => console.error("Error loading clients", err));
+        if (!isOpen || !isStaff || clienteQuery.trim().length < 3) {
+            setClientes([]);
+            return;
         }
-    }, [isOpen, isStaff]);
+        const timer = setTimeout(() => {
+            ClienteService.searchClientes(clienteQuery.trim(), 20).then(res => {
+                setClientes(res.data);
+            }).catch(err => console.error("Error searching clients", err));
+        }, 300);
+        return () => clearTimeout(timer);
+    }, [isOpen, isStaff, clienteQuery]);
 
     // Reset state when modal opens/closes or room changes
     useEffect(() => {
@@ -81,6 +87,7 @@ export const RoomInfoModal = ({ room, isOpen, onClose }: RoomInfoModalProps) =>
             setEndDate('');
             setAvailabilityStatus('idle');
             setSelectedCliente(null);
+            setClienteQuery('');
             setExtraImages([]);
         } else if (room?.id) {
             ImagenService.getImagens({ 'habitacionId.equals': room.id })
@@ -322,10 +329,16 @@ export const RoomInfoModal = ({ room, isOpen, onClose }: RoomInfoModalProps) =>
                                     </Button>
                                 </PopoverTrigger>
                                 <PopoverContent className="w-[calc(600px-4rem)] p-0 z-[10000]">
-                                    <Command>
-                                        <CommandInput placeholder="Ej: 001-XXXXXX-XXXXL o Nombre..." />
+                                    <Command shouldFilter={false}>
+                                        <CommandInput
+                                            placeholder="Ej: 001-XXXXXX-XXXXL o Nombre..."
+                                            value={clienteQuery}
+                                            onValueChange={setClienteQuery}
+                                        />
                                         <CommandList>
-                                            <CommandEmpty>No se encontraron clientes.</CommandEmpty>
+                                            <CommandEmpty>
+                                                {clienteQuery.trim().length < 3 ? 'Escriba al menos 3 caracteres.' : 'No se encontraron clientes.'}
+                                            </CommandEmpty>
                                             <CommandGroup className="max-h-64 overflow-y-auto">
                                                 {clientes.map((cliente) => (
                                                     <CommandItem
@@ -7,6 +7,7 @@ import {
 } from 'lucide-react';
 import { SeccionHeroService } from '../../services/seccion-hero.service';
 import { RedSociallandingService } from '../../services/red-sociallanding.service';
+import { LandingService } from '../../services/landing.service';
 import type { SeccionHeroDTO } from '../../types/api/SeccionHero';
 import type { RedSociallandingDTO } from '../../types/api/RedSociallanding';
 import { getImageUrl } from '../../utils/imageUtils';
@@ -48,12 +49,22 @@ export const HeroSection = () => {
     const [editIndex, setEditIndex] = useState(0);
     const fileInputRef = useRef<HTMLInputElement>(null);
 
+    const admin = isAdmin();
+
     useEffect(() => {
         loadData();
-    }, []);
+    }, [admin]);
 
     const loadData = async () => {
         try {
+            if (!admin) {
+                // Visitors: the cached landing document, already limited to active rows
+                const landing = await LandingService.getLanding();
+                setItems(landing.heroes);
+                setSocials(landing.redesSociales);
+                return;
+            }
+
             // Load Hero Sections
             const heroRes = await SeccionHeroService.getSeccionHeroes({ sort: 'orden,asc', size: 20 });
             setItems(heroRes.data); // Store all items (active and inactive)
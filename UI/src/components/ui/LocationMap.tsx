@@ -10,6 +10,7 @@ import { Label } from '@/components/ui/label';
 import { Edit, Save, MapPin } from 'lucide-react';
 import { toast } from 'sonner';
 import { saveUbicacion, getUbicacionPrincipal } from '@/services/ubicacion.service';
+import { LandingService } from '@/services/landing.service';
 import { type IUbicacion } from '@/types/api/Ubicacion';
 
 // Fix Leaflet Default Icon
@@ -63,13 +64,27 @@ export const LocationMap = () => {
     // Confirmation for Double Click Map Update
     const [confirmPos, setConfirmPos] = useState<{lat: number, lng: number} | null>(null);
 
+    const admin = isAdmin();
+
     useEffect(() => {
         loadData();
-    }, []);
+    }, [admin]);
+
+    // Visitors read the landing document; its newest location is the main one
+    const loadPublicUbicacion = async (): Promise<IUbicacion | null> => {
+        try {
+            const { ubicaciones } = await LandingService.getLanding();
+            const loc = ubicaciones[ubicaciones.length - 1];
+            return loc ? { ...loc, latitud: Number(loc.latitud), longitud: Number(loc.longitud) } : null;
+        } catch (error) {
+            console.error('Error cargando ubicación:', error);
+            return null;
+        }
+    };
 
     const loadData = async () => {
         setLoading(true);
-        const data = await getUbicacionPrincipal();
+        const data = admin ? await getUbicacionPrincipal() : await loadPublicUbicacion();
         if (data) {
             setLocation(data);
             setEditForm(data);
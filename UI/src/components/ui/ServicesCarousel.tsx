@@ -1,5 +1,5 @@
 import { useEffect, useState } from 'react';
-import { ServicioService } from '../../services';
+import { LandingService } from '../../services';
 import { getImageUrl } from '../../utils/imageUtils';
 import { TipoServicio, type ServicioDTO } from '../../types/api/Servicio';
 import {
@@ -52,10 +52,10 @@ export const ServicesCarousel = () => {
     useEffect(() => {
         const loadServices = async () => {
             try {
-                // Fetch services
-                const res = await ServicioService.getServicios({ page: 0, size: 50 });
+                // Fetch services, with the rest of the home page
+                const landing = await LandingService.getLanding();
                 // Filter those with images and available
-                const validServices = res.data.filter(s => s.urlImage && s.disponible);
+                const validServices = landing.servicios.filter(s => s.urlImage && s.disponible);
                 setServicios(validServices);
             } catch (error) {
                 console.error("Failed to load carousel services", error);
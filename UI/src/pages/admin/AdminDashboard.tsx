@@ -47,7 +47,8 @@ export const AdminDashboard = () => {
                     ReservaService.getReservas({ size: 1000 }),
                     HabitacionService.getHabitacions({ size: 1000 }),
                     PagoService.getPagos({ size: 1000 }),
-                    ClienteService.getClientes({ size: 1000 })
+                    // Only the total is shown: one row and the X-Total-Count header
+                    ClienteService.getClientes({ size: 1 })
                 ]);
 
                 setRawReservas(reservas.data);
@@ -101,7 +102,7 @@ export const AdminDashboard = () => {
                     reservasPendientes: pendientes,
                     habitacionesOcupadas: ocupadas,
                     ingresosMes: ingresos,
-                    totalClientes: clientes.data.length,
+                    totalClientes: parseInt(clientes.headers['x-total-count'] || '0', 10),
                     reservasHoy: reservasHoyCount,
                     totalHabitaciones: habitaciones.data.length
                 });
@@ -5,7 +5,7 @@ import { useAuth } from '../../hooks/useAuth';
 import { Card, CardContent, CardHeader, CardTitle, CardDescription } from '@/components/ui/card';
 import { Button } from '@/components/ui/button';
 import { Table, TableBody, TableCell, TableHead, TableHeader, TableRow } from '@/components/ui/table';
-import { Mail, Phone, Plus, Search, Pencil, Trash2, User, UserCircle, MapPin, ShieldCheck, CheckCircle2, XCircle } from 'lucide-react';
+import { Mail, Phone, Plus, Search, Pencil, Trash2, User, UserCircle, MapPin, ShieldCheck, CheckCircle2, XCircle, Eye } from 'lucide-react';
 import { PaginationControl } from '@/components/common/PaginationControl';
 import { Input } from '@/components/ui/input';
 import { Label } from '@/components/ui/label';
@@ -38,6 +38,7 @@ import {
 } from '../../utils/identification';
 import { ActiveFilter } from '@/components/ui/ActiveFilter';
 import { cn } from '@/lib/utils';
+import { ClienteDetailsDialog } from '@/components/admin/clientes/ClienteDetailsDialog';
 
 export const AdminClientes = () => {
     const { isAdmin } = useAuth();
@@ -56,6 +57,7 @@ export const AdminClientes = () => {
     const [isEditing, setIsEditing] = useState(false);
     const [idError, setIdError] = useState<string | null>(null);
     const [saving, setSaving] = useState(false);
+    const [detailsCliente, setDetailsCliente] = useState<ClienteDTO | null>(null);
 
     const loadClientes = async () => {
         setLoading(true);
@@ -501,6 +503,16 @@ export const AdminClientes = () => {
                                                             </Button>
                                                         )}
 
+                                                        <Button
+                                                            variant="outline"
+                                                            size="icon"
+                                                            className="h-8 w-8 border-border hover:border-yellow-600 hover:text-yellow-600 hover:bg-yellow-50 dark:hover:bg-yellow-900/20"
+                                                            onClick={() => setDetailsCliente(c)}
+                                                            title="Ver detalles"
+                                                        >
+                                                            <Eye className="h-3.5 w-3.5" />
+                                                        </Button>
+
                                                         <Button
                                                             variant="outline"
                                                             size="sm"
@@ -547,6 +559,12 @@ export const AdminClientes = () => {
                     />
                 </div>
 
+                <ClienteDetailsDialog
+                    open={!!detailsCliente}
+                    onOpenChange={(open) => !open && setDetailsCliente(null)}
+                    cliente={detailsCliente}
+                />
+
                 {/* CONVERT TO USER CONFIRMATION DIALOG */}
                 <Dialog open={isConvertDialogOpen} onOpenChange={setIsConvertDialogOpen}>
                     <DialogContent className="max-w-[400px] border-none cursor-pointer">
@@ -64,12 +64,13 @@ export const AdminReportes = ({ isEmbedded = false }: { isEmbedded?: boolean })
             const [pagosRes, resRes, cliRes] = await Promise.all([
                 PagoService.getPagos({ size: 1000, sort: 'fechaPago,desc' }),
                 ReservaService.getReservas({ size: 1000, sort: 'fechaInicio,desc' }),
-                ClienteService.getClientes({ size: 1000 })
+                // Only the total is shown: one row and the X-Total-Count header
+                ClienteService.getClientes({ size: 1 })
             ]);
 
             const loadedPagos = pagosRes.data;
             const loadedReservas = resRes.data;
-            const loadedClientes = cliRes.data;
+            const totalClientes = parseInt(cliRes.headers['x-total-count'] || '0', 10);
 
             // Basic Stats
             const totalIncome = loadedPagos.reduce((acc, curr) => acc + Number(curr.monto || 0), 0);
@@ -79,7 +80,7 @@ export const AdminReportes = ({ isEmbedded = false }: { isEmbedded?: boolean })
             setStats({
                 income: totalIncome,
                 reservations: loadedReservas.length,
-                clients: loadedClientes.length,
+                clients: totalClientes,
                 pendingReservations: pending,
                 averageReservaValue: avgValue
             });
@@ -108,7 +108,7 @@ export const NuevaReserva = () => {
         const checkProfile = async () => {
             if (!user?.email) return;
             try {
-                const res = await ClienteService.getClientes({ size: 1000 });
+                const res = await ClienteService.searchClientes(user.email, 5);
                 const found = res.data.find(c => c.correo === user.email);
                 if (found && found.id) {
                     setClienteId(found.id);
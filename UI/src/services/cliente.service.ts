@@ -1,11 +1,13 @@
 import { apiClient } from '../api/axios-instance';
-import type { ClienteDTO, NewClienteDTO } from '../types/api';
+import type { ClienteDTO, ClienteOverviewDTO, NewClienteDTO } from '../types/api';
 
 const base = '/clientes';
 
 export const ClienteService = {
     getClientes: (params?: Record<string, any>) => apiClient.get<ClienteDTO[]>(base, { params }),
+    searchClientes: (q: string, limit?: number) => apiClient.get<ClienteDTO[]>(`${base}/search`, { params: { q, limit } }),
     getCliente: (id: number) => apiClient.get<ClienteDTO>(`${base}/${id}`),
+    getClienteOverview: (id: number) => apiClient.get<ClienteOverviewDTO>(`${base}/${id}/overview`),
     getClientesInactivos: (params?: Record<string, any>) => apiClient.get<ClienteDTO[]>(`${base}/inactive`, { params }),
     activarCliente: (id: number) => apiClient.put<void>(`${base}/${id}/activate`),
     desactivarCliente: (id: number) => apiClient.put<void>(`${base}/${id}/deactivate`),
@@ -9,10 +9,12 @@ export { MensajeSoporteService } from './mensaje-soporte.service';
 export { CheckInCheckOutService } from './check-in-check-out.service';
 export { ServicioService } from './servicio.service';
 export { ServicioContratadoService } from './servicio-contratado.service';
+export { ListaEsperaServicioService } from './lista-espera-servicio.service';
 export { ImagenService } from './imagen.service';
 export { CarouselItemService } from './carousel-item.service';
 export { ConfiguracionSistemaService } from './configuracion-sistema.service';
 export { SeccionContactoService } from './seccion-contacto.service';
 export { RedSocialService } from './red-social.service';
 export { TelefonoService } from './telefono.service';
+export { LandingService } from './landing.service';
 
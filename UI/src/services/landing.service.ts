@@ -0,0 +1,21 @@
+import { apiClient } from '../api/axios-instance';
+import type { LandingDTO } from '../types/api/Landing';
+
+const base = '/public/landing';
+
+// The sections of the home page load together: they share one request
+let pending: Promise<LandingDTO> | null = null;
+
+export const LandingService = {
+    getLanding: (): Promise<LandingDTO> => {
+        if (!pending) {
+            pending = apiClient
+                .get<LandingDTO>(base)
+                .then(res => res.data)
+                .finally(() => {
+                    pending = null;
+                });
+        }
+        return pending;
+    },
+};
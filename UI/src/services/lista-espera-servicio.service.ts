@@ -0,0 +1,13 @@
+import { apiClient } from '../api/axios-instance';
+import type { ListaEsperaServicioDTO, NewListaEsperaServicioDTO } from '../types/api/ListaEsperaServicio';
+
+const base = '/lista-espera-servicios';
+
+export const ListaEsperaServicioService = {
+    getAll: (params?: Record<string, any>) => apiClient.get<ListaEsperaServicioDTO[]>(base, { params }),
+    getById: (id: number) => apiClient.get<ListaEsperaServicioDTO>(`${base}/${id}`),
+    getByReservaId: (reservaId: number) => apiClient.get<ListaEsperaServicioDTO[]>(`${base}/reserva/${reservaId}`),
+
+    unirse: (dto: NewListaEsperaServicioDTO) => apiClient.post<ListaEsperaServicioDTO>(base, dto),
+    cancelar: (id: number) => apiClient.put<void>(`${base}/${id}/cancelar`),
+};
@@ -21,6 +21,14 @@ export const ServicioDisponibilidadService = {
         return apiClient.get<ServicioDisponibilidadConCuposDTO[]>(`${base}/servicio/${servicioId}/cupos`, { params });
     },
 
+    // Get disponibilidad con cupos for several services in one request, keyed by servicio id
+    getDisponibilidadConCuposBatch: (servicioIds: number[], fechaInicio?: string, fechaFin?: string) => {
+        const params: any = { servicioIds: servicioIds.join(',') };
+        if (fechaInicio) params.fechaInicio = fechaInicio;
+        if (fechaFin) params.fechaFin = fechaFin;
+        return apiClient.get<Record<number, ServicioDisponibilidadConCuposDTO[]>>(`${base}/cupos`, { params });
+    },
+
     create: (dto: NewServicioDisponibilidadDTO) => apiClient.post<ServicioDisponibilidadDTO>(base, dto),
 
     update: (id: number, dto: ServicioDisponibilidadDTO) => apiClient.put<ServicioDisponibilidadDTO>(`${base}/${id}`, dto),
@@ -0,0 +1,52 @@
+import type { ClienteDTO } from './Cliente';
+
+// Summaries served by GET /api/clientes/{id}/overview, newest first
+export interface ReservaResumen {
+    id: number;
+    fechaReserva?: string | null;
+    fechaInicio?: string | null;
+    fechaFin?: string | null;
+    estado?: string | null; // enum EstadoReserva
+    activo?: boolean | null;
+    habitaciones: string[]; // numeros
+}
+
+export interface ServicioResumen {
+    id: number;
+    servicioId?: number | null;
+    servicio?: string | null;
+    fechaServicio?: string | null;
+    cantidad?: number | null;
+    precioUnitario?: number | null; // BigDecimal
+    estado?: string | null; // enum EstadoServicioContratado
+    reservaId?: number | null;
+    pagoId?: number | null;
+}
+
+export interface PagoResumen {
+    id: number;
+    fechaPago?: string | null;
+    monto?: number | null; // BigDecimal
+    metodoPago?: string | null; // enum MetodoPago
+    estado?: string | null; // enum EstadoPago
+    activo?: boolean | null;
+    reservaId?: number | null;
+}
+
+export interface MensajeResumen {
+    id: number;
+    fechaMensaje?: string | null;
+    remitente?: string | null;
+    mensaje?: string | null;
+    leido?: boolean | null;
+    reservaId?: number | null;
+}
+
+export interface ClienteOverviewDTO {
+    cliente: ClienteDTO;
+    reservas: ReservaResumen[];
+    servicios: ServicioResumen[];
+    pagos: PagoResumen[];
+    mensajes: MensajeResumen[];
+    totalPagado: number; // BigDecimal
+}
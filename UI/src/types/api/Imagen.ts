@@ -1,13 +1,23 @@
 import type { HabitacionDTO } from './Habitacion';
 import type { ServicioDTO } from './Servicio';
 
+export interface ImagenVarianteDTO {
+    nombre: string; // thumb, card, hero...
+    ancho: number;
+    ruta: string; // relative to /images/, like nombreArchivo
+}
+
 export interface ImagenDTO {
     id?: number;
     nombre: string;
     descripcion?: string | null;
-    fichero?: string | null; // bytes are typically handled as strings in JSON
+    fichero?: string | null; // base64, only sent on upload; responses point to nombreArchivo
     ficheroContentType?: string | null;
     nombreArchivo?: string | null;
+    sha256?: string | null;
+    tamano?: number | null;
+    variantes?: ImagenVarianteDTO[]; // resized copies, generated in the background after upload
+    srcset?: string | null; // ready for <img srcSet>, null until the variants exist
     activo: boolean;
     fechaCreacion?: string | null;
     habitacion?: HabitacionDTO | null;
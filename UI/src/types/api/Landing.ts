@@ -0,0 +1,20 @@
+import type { SeccionHeroDTO } from './SeccionHero';
+import type { CarouselItemDTO } from './CarouselItem';
+import type { RedSociallandingDTO } from './RedSociallanding';
+import type { SeccionContactoDTO } from './SeccionContacto';
+import type { TelefonoDTO } from './Telefono';
+import type { IUbicacion } from './Ubicacion';
+import type { ServicioDTO } from './Servicio';
+import type { CategoriaHabitacionDTO } from './CategoriaHabitacion';
+
+// Everything the public home page shows, only active rows, in display order
+export interface LandingDTO {
+    heroes: SeccionHeroDTO[];
+    carousel: CarouselItemDTO[];
+    redesSociales: RedSociallandingDTO[];
+    contactos: SeccionContactoDTO[];
+    telefonos: TelefonoDTO[];
+    ubicaciones: IUbicacion[];
+    servicios: ServicioDTO[];
+    categorias: CategoriaHabitacionDTO[];
+}
@@ -0,0 +1,27 @@
+import type { ServicioDTO } from './Servicio';
+import type { ReservaDTO } from './Reserva';
+import type { ClienteDTO } from './Cliente';
+import type { ServicioContratadoDTO } from './ServicioContratado';
+
+export enum EstadoListaEspera {
+    EN_ESPERA = 'EN_ESPERA',
+    PROMOVIDO = 'PROMOVIDO',
+    CANCELADO = 'CANCELADO',
+}
+
+export interface ListaEsperaServicioDTO {
+    id: number;
+    fechaSolicitud?: string | null;
+    fechaServicio: string;
+    numeroPersonas: number;
+    cantidad: number;
+    estado?: EstadoListaEspera | null;
+    fechaPromocion?: string | null;
+    posicion?: number | null;
+    servicio?: ServicioDTO | null;
+    reserva?: ReservaDTO | null;
+    cliente?: ClienteDTO | null;
+    servicioContratado?: ServicioContratadoDTO | null;
+}
+
+export type NewListaEsperaServicioDTO = Omit<ListaEsperaServicioDTO, 'id'> | { id?: null };
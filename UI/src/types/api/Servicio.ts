@@ -12,6 +12,8 @@ export interface ServicioDTO {
     disponible: boolean;
     urlImage?: string | null;
     imagenes?: import('./Imagen').ImagenDTO[] | null;
+    disponibilidades?: import('./ServicioDisponibilidad').ServicioDisponibilidadDTO[] | null;
+    imagenUrls?: string[] | null;
 }
 
 export type NewServicioDTO = Omit<ServicioDTO, 'id'> | { id?: null };
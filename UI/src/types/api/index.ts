@@ -1,6 +1,7 @@
 export * from './Reserva';
 export * from './ReservaDetalle';
 export * from './Cliente';
+export * from './ClienteOverview';
 export * from './Habitacion';
 export * from './CategoriaHabitacion';
 export * from './EstadoHabitacion';
@@ -12,6 +13,8 @@ export * from './CarouselItem';
 export * from './ConfiguracionSistema';
 export * from './Servicio';
 export * from './ServicioContratado';
+export * from './ListaEsperaServicio';
 export * from './SeccionContacto';
 export * from './RedSocial';
 export * from './Telefono';
+export * from './Landing';
@@ -0,0 +1,256 @@
+package com.hotel.app.gatling;
+
+import static io.gatling.javaapi.core.CoreDsl.StringBody;
+import static io.gatling.javaapi.core.CoreDsl.constantUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.details;
+import static io.gatling.javaapi.core.CoreDsl.exec;
+import static io.gatling.javaapi.core.CoreDsl.forAll;
+import static io.gatling.javaapi.core.CoreDsl.global;
+import static io.gatling.javaapi.core.CoreDsl.jsonPath;
+import static io.gatling.javaapi.core.CoreDsl.rampUsersPerSec;
+import static io.gatling.javaapi.core.CoreDsl.scenario;
+import static io.gatling.javaapi.http.HttpDsl.http;
+import static io.gatling.javaapi.http.HttpDsl.status;
+
+import io.gatling.javaapi.core.Assertion;
+import io.gatling.javaapi.core.ChainBuilder;
+import io.gatling.javaapi.core.ScenarioBuilder;
+import io.gatling.javaapi.core.Session;
+import io.gatling.javaapi.core.Simulation;
+import io.gatling.javaapi.http.HttpProtocolBuilder;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The booking funnel of the web client, against the {@link LoadTestEnvironment}.
+ * <p>
+ * Two populations arrive at a constant rate after a ramp:
+ * <ul>
+ * <li>visitors who only search availability ({@code -DbusquedasPorSegundo}, 5 by default);</li>
+ * <li>guests who go through the whole funnel ({@code -DreservasPorSegundo}, 1 by default): search, profile,
+ * reserva, room, payment intent, Stripe webhook and a chat message. One in ten arrives today, and reception
+ * checks them in.</li>
+ * </ul>
+ * The ramp and the plateau last {@code -Drampa} and {@code -Dduracion} seconds (30 and 120). The run fails
+ * when one of the {@link #SLOS} is missed; {@code -Dslo.factor} scales every latency threshold, e.g. on a
+ * slow machine.
+ */
+public class BookingFunnelSimulation extends Simulation {
+
+    static final String BUSCAR = "Buscar disponibilidad";
+    static final String REGISTRAR = "Registrar cliente";
+    static final String RESERVAR = "Crear reserva";
+    static final String AGREGAR_HABITACION = "Agregar habitacion";
+    static final String CREAR_PAGO = "Crear pago";
+    static final String WEBHOOK_PAGO = "Webhook de pago";
+    static final String CHECK_IN = "Check-in";
+    static final String ENVIAR_MENSAJE = "Enviar mensaje";
+    static final String LEER_MENSAJES = "Leer mensajes";
+
+    /**
+     * Latency objectives per request, in milliseconds.
+     */
+    record Slo(String peticion, int p95, int p99) {}
+
+    static final List<Slo> SLOS = List.of(
+        new Slo(BUSCAR, 300, 800),
+        new Slo(REGISTRAR, 300, 800),
+        new Slo(RESERVAR, 400, 1000),
+        new Slo(AGREGAR_HABITACION, 400, 1000),
+        new Slo(CREAR_PAGO, 300, 800),
+        new Slo(WEBHOOK_PAGO, 500, 1200),
+        new Slo(CHECK_IN, 400, 1000),
+        new Slo(ENVIAR_MENSAJE, 300, 800),
+        new Slo(LEER_MENSAJES, 300, 800)
+    );
+
+    /**
+     * Share of failed requests allowed, per request and overall, in percent.
+     */
+    static final double MAX_FALLIDAS = 1.0;
+
+    private static final double SLO_FACTOR = Double.parseDouble(System.getProperty("slo.factor", "1"));
+
+    private final LoadTestEnvironment entorno = LoadTestEnvironment.iniciar();
+
+    private final ExternalServicesStub stubs = entorno.stubs();
+
+    private final HttpProtocolBuilder httpProtocol = http
+        .baseUrl(entorno.baseUrl())
+        .acceptHeader("application/json")
+        .contentTypeHeader("application/json");
+
+    private final ChainBuilder buscar = exec(
+        http(BUSCAR)
+            .get("/api/habitacions/available")
+            .queryParam("fechaInicio", "#{fechaInicio}")
+            .queryParam("fechaFin", "#{fechaFin}")
+            .queryParam("size", 20)
+            .check(status().is(200), jsonPath("$[*]").ofMap().findRandom().saveAs("habitacion"))
+    );
+
+    private final ScenarioBuilder navegacion = scenario("Navegacion").exec(session -> estancia(session, false)).exec(buscar);
+
+    private final ScenarioBuilder reserva = scenario("Reserva completa")
+        .exec(session -> {
+            String sub = UUID.randomUUID().toString();
+            String login = "huesped-" + sub.substring(0, 8);
+            return estancia(session, ThreadLocalRandom.current().nextInt(10) == 0)
+                .set("sub", sub)
+                .set("login", login)
+                .set("token", stubs.token(sub, login, "ROLE_CLIENT", "ROLE_USER"))
+                .set("tokenRecepcion", stubs.token("load-test-recepcion", "recepcion", "ROLE_EMPLOYEE", "ROLE_USER"));
+        })
+        .exec(buscar)
+        .exitHereIfFailed()
+        .exec(session -> {
+            Map<String, Object> habitacion = session.get("habitacion");
+            Map<?, ?> categoria = (Map<?, ?>) habitacion.get("categoriaHabitacion");
+            BigDecimal monto = new BigDecimal(String.valueOf(categoria.get("precioBase"))).multiply(BigDecimal.valueOf(session.getInt("noches")));
+            return session
+                .set("habitacionId", habitacion.get("id"))
+                .set("monto", monto.toPlainString())
+                .set("centavos", monto.movePointRight(2).longValue())
+                .set("ahora", Instant.now().toString());
+        })
+        .exec(
+            http(REGISTRAR)
+                .post("/api/clientes")
+                .header("Authorization", "Bearer #{token}")
+                .body(
+                    StringBody(
+                        """
+                        {"nombre":"Huesped","apellido":"#{login}","correo":"#{sub}@carga.hotel","telefono":"555-0100",
+                        "keycloakId":"#{sub}","activo":true}"""
+                    )
+                )
+                .check(status().is(201), jsonPath("$.id").ofLong().saveAs("clienteId"))
+        )
+        .exitHereIfFailed()
+        .exec(
+            http(RESERVAR)
+                .post("/api/reservas")
+                .header("Authorization", "Bearer #{token}")
+                .body(
+                    StringBody(
+                        """
+                        {"fechaReserva":"#{ahora}","fechaInicio":"#{fechaInicio}","fechaFin":"#{fechaFin}","estado":"PENDIENTE",
+                        "activo":true,"cliente":{"id":#{clienteId}}}"""
+                    )
+                )
+                .check(status().is(201), jsonPath("$.id").ofLong().saveAs("reservaId"))
+        )
+        .exitHereIfFailed()
+        .exec(
+            http(AGREGAR_HABITACION)
+                .post("/api/reserva-detalles")
+                .header("Authorization", "Bearer #{token}")
+                .body(
+                    StringBody(
+                        """
+                        {"reserva":{"id":#{reservaId}},"habitacion":{"id":#{habitacionId}},"activo":true,"nota":"Prueba de carga"}"""
+                    )
+                )
+                .check(status().is(201), jsonPath("$.id").ofLong().saveAs("detalleId"))
+        )
+        .exitHereIfFailed()
+        .exec(
+            http(CREAR_PAGO)
+                .post("/api/stripe/payment-intent")
+                .header("Authorization", "Bearer #{token}")
+                .body(StringBody("{\"amount\":#{monto},\"currency\":\"usd\",\"reservaId\":#{reservaId},\"description\":\"Reserva #{reservaId}\"}"))
+                .check(status().is(200), jsonPath("$.transactionId").saveAs("paymentIntentId"))
+        )
+        .exitHereIfFailed()
+        .exec(session -> {
+            String evento = stubs.eventoPagoExitoso(session.getString("paymentIntentId"), session.getLong("reservaId"), session.getLong("centavos"));
+            return session.set("evento", evento).set("firma", stubs.firmar(evento));
+        })
+        .exec(
+            http(WEBHOOK_PAGO)
+                .post("/api/stripe/webhook")
+                .header("Stripe-Signature", "#{firma}")
+                .body(StringBody("#{evento}"))
+                .check(status().is(200))
+        )
+        .doIf("#{llegaHoy}")
+        .then(
+            exec(
+                http(CHECK_IN)
+                    .post("/api/check-in-check-outs")
+                    .header("Authorization", "Bearer #{tokenRecepcion}")
+                    .body(
+                        StringBody(
+                            """
+                            {"fechaHoraCheckIn":"#{ahora}","estado":"REALIZADO","activo":true,"reservaDetalle":{"id":#{detalleId}}}"""
+                        )
+                    )
+                    .check(status().is(201))
+            )
+        )
+        .exec(
+            http(ENVIAR_MENSAJE)
+                .post("/api/mensaje-soportes")
+                .header("Authorization", "Bearer #{token}")
+                .body(
+                    StringBody(
+                        """
+                        {"mensaje":"Consulta sobre la reserva #{reservaId}","fechaMensaje":"#{ahora}","userId":"client","leido":false,
+                        "activo":true,"remitente":"CLIENTE","reserva":{"id":#{reservaId}}}"""
+                    )
+                )
+                .check(status().is(201))
+        )
+        .exec(http(LEER_MENSAJES).get("/api/mensaje-soportes/my-messages").header("Authorization", "Bearer #{token}").check(status().is(200)));
+
+    {
+        int rampa = Integer.getInteger("rampa", 30);
+        int duracion = Integer.getInteger("duracion", 120);
+        double busquedas = Double.parseDouble(System.getProperty("busquedasPorSegundo", "5"));
+        double reservas = Double.parseDouble(System.getProperty("reservasPorSegundo", "1"));
+
+        setUp(
+            navegacion.injectOpen(rampUsersPerSec(0.1).to(busquedas).during(rampa), constantUsersPerSec(busquedas).during(duracion)),
+            reserva.injectOpen(rampUsersPerSec(0.1).to(reservas).during(rampa), constantUsersPerSec(reservas).during(duracion))
+        )
+            .protocols(httpProtocol)
+            .assertions(assertions());
+    }
+
+    @Override
+    public void after() {
+        entorno.detener();
+    }
+
+    private static List<Assertion> assertions() {
+        List<Assertion> assertions = new ArrayList<>();
+        assertions.add(global().failedRequests().percent().lt(MAX_FALLIDAS));
+        assertions.add(forAll().failedRequests().percent().lt(MAX_FALLIDAS));
+        for (Slo slo : SLOS) {
+            assertions.add(details(slo.peticion()).responseTime().percentile(95).lt((int) Math.round(slo.p95() * SLO_FACTOR)));
+            assertions.add(details(slo.peticion()).responseTime().percentile(99).lt((int) Math.round(slo.p99() * SLO_FACTOR)));
+        }
+        return assertions;
+    }
+
+    /**
+     * Picks the dates of the stay: a few nights from today, or from a random day of the next months.
+     */
+    private static Session estancia(Session session, boolean llegaHoy) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LocalDate llegada = LocalDate.now(ZoneOffset.UTC).plusDays(llegaHoy ? 0 : 7 + random.nextInt(300));
+        int noches = 1 + random.nextInt(4);
+        return session
+            .set("llegaHoy", llegaHoy)
+            .set("noches", noches)
+            .set("fechaInicio", llegada.atTime(15, 0).toInstant(ZoneOffset.UTC).toString())
+            .set("fechaFin", llegada.plusDays(noches).atTime(11, 0).toInstant(ZoneOffset.UTC).toString());
+    }
+}
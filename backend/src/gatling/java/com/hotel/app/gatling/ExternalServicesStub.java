@@ -0,0 +1,247 @@
+package com.hotel.app.gatling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.stripe.Stripe;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Stands in for Keycloak and Stripe during the load test, on one local HTTP server:
+ * <ul>
+ * <li>the OIDC discovery document and JWK set of the realm, so the application accepts the tokens minted by
+ * {@link #token(String, String, String...)};</li>
+ * <li>{@code POST /v1/payment_intents}, answered like the Stripe API without any latency of its own.</li>
+ * </ul>
+ * Stripe webhooks are not sent by the stub: the simulation posts the events built by
+ * {@link #eventoPagoExitoso(String, long, long)} itself, so their latency is measured like any other request.
+ * Anything else, such as the Keycloak admin API, gets a 404.
+ */
+final class ExternalServicesStub implements AutoCloseable {
+
+    static final String REALM = "hotel";
+
+    static final String STRIPE_SECRET_KEY = "sk_test_load";
+
+    static final String STRIPE_WEBHOOK_SECRET = "whsec_load";
+
+    private static final String AUDIENCE = "account";
+
+    private static final Duration VALIDEZ_TOKEN = Duration.ofHours(2);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final RSAKey clave;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final AtomicLong paymentIntents = new AtomicLong();
+
+    ExternalServicesStub() throws IOException {
+        try {
+            clave = new RSAKeyGenerator(2048).keyID("load-test").generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not generate the signing key", e);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        server.createContext("/", this::atender);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    String issuer() {
+        return baseUrl() + "/realms/" + REALM;
+    }
+
+    /**
+     * Mints an access token shaped like the ones of the Keycloak realm.
+     *
+     * @param sub   the Keycloak id of the user.
+     * @param login the {@code preferred_username}.
+     * @param roles the realm roles, e.g. {@code ROLE_CLIENT}.
+     * @return the signed JWT.
+     */
+    String token(String sub, String login, String... roles) {
+        Instant ahora = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+            .issuer(issuer())
+            .subject(sub)
+            .audience(AUDIENCE)
+            .issueTime(Date.from(ahora))
+            .expirationTime(Date.from(ahora.plus(VALIDEZ_TOKEN)))
+            .claim("typ", "Bearer")
+            .claim("azp", "web_app")
+            .claim("preferred_username", login)
+            .claim("email", login + "@carga.hotel")
+            .claim("realm_access", Map.of("roles", List.of(roles)))
+            .build();
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(clave.getKeyID()).build(), claims);
+        try {
+            jwt.sign(new RSASSASigner(clave));
+        } catch (JOSEException e) {
+            throw new IllegalStateException("Could not sign the token", e);
+        }
+        return jwt.serialize();
+    }
+
+    /**
+     * Builds the {@code payment_intent.succeeded} event Stripe sends once a reserva is paid.
+     */
+    String eventoPagoExitoso(String paymentIntentId, long reservaId, long centavos) {
+        Map<String, Object> paymentIntent = paymentIntent(paymentIntentId, centavos, Map.of("type", "reserva", "reservaId",
+                String.valueOf(reservaId)));
+        paymentIntent.put("status", "succeeded");
+        Map<String, Object> evento = new LinkedHashMap<>();
+        evento.put("id", "evt_" + UUID.randomUUID().toString().replace("-", ""));
+        evento.put("object", "event");
+        evento.put("api_version", Stripe.API_VERSION);
+        evento.put("created", Instant.now().getEpochSecond());
+        evento.put("livemode", false);
+        evento.put("type", "payment_intent.succeeded");
+        evento.put("data", Map.of("object", paymentIntent));
+        return json(evento);
+    }
+
+    /**
+     * @return the {@code Stripe-Signature} header of the payload, signed now with
+     *         {@link #STRIPE_WEBHOOK_SECRET}.
+     */
+    String firmar(String payload) {
+        long timestamp = Instant.now().getEpochSecond();
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(STRIPE_WEBHOOK_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            byte[] firma = mac.doFinal((timestamp + "." + payload).getBytes(StandardCharsets.UTF_8));
+            return "t=" + timestamp + ",v1=" + HexFormat.of().formatHex(firma);
+        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+            throw new IllegalStateException("Could not sign the webhook", e);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void atender(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String path = exchange.getRequestURI().getPath();
+            String realm = "/realms/" + REALM;
+            if (path.equals(realm + "/.well-known/openid-configuration")) {
+                responder(exchange, 200, json(discovery()));
+            } else if (path.equals(realm + "/protocol/openid-connect/certs")) {
+                responder(exchange, 200, new JWKSet(clave.toPublicJWK()).toString());
+            } else if (path.equals("/v1/payment_intents") && "POST".equals(exchange.getRequestMethod())) {
+                responder(exchange, 200, json(crearPaymentIntent(exchange)));
+            } else {
+                responder(exchange, 404, "{\"error\":\"not_found\"}");
+            }
+        }
+    }
+
+    private Map<String, Object> discovery() {
+        String openid = issuer() + "/protocol/openid-connect";
+        Map<String, Object> discovery = new LinkedHashMap<>();
+        discovery.put("issuer", issuer());
+        discovery.put("authorization_endpoint", openid + "/auth");
+        discovery.put("token_endpoint", openid + "/token");
+        discovery.put("userinfo_endpoint", openid + "/userinfo");
+        discovery.put("end_session_endpoint", openid + "/logout");
+        discovery.put("jwks_uri", openid + "/certs");
+        discovery.put("response_types_supported", List.of("code"));
+        discovery.put("subject_types_supported", List.of("public"));
+        discovery.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        discovery.put("scopes_supported", List.of("openid", "profile", "email"));
+        return discovery;
+    }
+
+    private Map<String, Object> crearPaymentIntent(HttpExchange exchange) throws IOException {
+        Map<String, String> parametros = new HashMap<>();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        for (String par : body.split("&")) {
+            int igual = par.indexOf('=');
+            if (igual > 0) {
+                parametros.put(URLDecoder.decode(par.substring(0, igual), StandardCharsets.UTF_8),
+                        URLDecoder.decode(par.substring(igual + 1), StandardCharsets.UTF_8));
+            }
+        }
+        Map<String, String> metadata = new HashMap<>();
+        parametros.forEach((clave, valor) -> {
+            if (clave.startsWith("metadata[") && clave.endsWith("]")) {
+                metadata.put(clave.substring("metadata[".length(), clave.length() - 1), valor);
+            }
+        });
+        String id = "pi_load" + paymentIntents.incrementAndGet();
+        return paymentIntent(id, Long.parseLong(parametros.getOrDefault("amount", "0")), metadata);
+    }
+
+    private static Map<String, Object> paymentIntent(String id, long centavos, Map<String, String> metadata) {
+        Map<String, Object> paymentIntent = new LinkedHashMap<>();
+        paymentIntent.put("id", id);
+        paymentIntent.put("object", "payment_intent");
+        paymentIntent.put("amount", centavos);
+        paymentIntent.put("currency", "usd");
+        paymentIntent.put("status", "requires_payment_method");
+        paymentIntent.put("client_secret", id + "_secret_load");
+        paymentIntent.put("created", Instant.now().getEpochSecond());
+        paymentIntent.put("livemode", false);
+        paymentIntent.put("metadata", metadata);
+        return paymentIntent;
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void responder(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.getResponseHeaders().set("Request-Id", "req_load");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package com.hotel.app.gatling;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.HotelApp;
+import com.hotel.app.config.PostgreSqlTestContainer;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+
+/**
+ * The system under load: a Postgres container, the {@link ExternalServicesStub} and the application.
+ * <p>
+ * The application runs in its own JVM, with the runtime classpath and the prod profile, so it is configured
+ * as in production and does not share its heap with the load generator. Its log is written to
+ * {@code target/gatling/app.log}. Once it is up, rooms are created through the API until there are
+ * {@code -Dhabitaciones} (200 by default).
+ * <p>
+ * {@code -Dgatling.app.javaHome} selects the JDK of the application and {@code -Dgatling.app.args} adds
+ * application arguments, e.g. to compare platform and virtual threads.
+ */
+final class LoadTestEnvironment {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LoadTestEnvironment.class);
+
+    private static final Duration ARRANQUE = Duration.ofSeconds(Long.getLong("gatling.app.startTimeout", 300));
+
+    private static final Map<String, BigDecimal> CATEGORIAS = Map.of(
+        "SENCILLA",
+        new BigDecimal("60.00"),
+        "DOBLE",
+        new BigDecimal("90.00"),
+        "SUITE",
+        new BigDecimal("150.00")
+    );
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private PostgreSqlTestContainer postgres;
+
+    private ExternalServicesStub stubs;
+
+    private Process app;
+
+    private String baseUrl;
+
+    static LoadTestEnvironment iniciar() {
+        LoadTestEnvironment entorno = new LoadTestEnvironment();
+        try {
+            entorno.arrancar();
+        } catch (Exception e) {
+            entorno.detener();
+            throw new IllegalStateException("Could not start the load test environment", e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(entorno::detener, "load-test-shutdown"));
+        return entorno;
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    ExternalServicesStub stubs() {
+        return stubs;
+    }
+
+    synchronized void detener() {
+        if (app != null) {
+            app.destroy();
+            try {
+                if (!app.waitFor(30, TimeUnit.SECONDS)) {
+                    app.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                app.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+            app = null;
+        }
+        if (stubs != null) {
+            stubs.close();
+            stubs = null;
+        }
+        if (postgres != null) {
+            postgres.destroy();
+            postgres = null;
+        }
+    }
+
+    private void arrancar() throws Exception {
+        postgres = new PostgreSqlTestContainer();
+        postgres.afterPropertiesSet();
+        stubs = new ExternalServicesStub();
+
+        int puerto = puertoLibre();
+        baseUrl = "http://localhost:" + puerto;
+        Path log = Path.of(System.getProperty("gatling.app.log", "target/gatling/app.log"));
+        Files.createDirectories(log.getParent());
+        LOG.info("Starting the application on port {}, logging to {}", puerto, log);
+        app = new ProcessBuilder(comando(puerto, postgres.getTestContainer()))
+            .redirectErrorStream(true)
+            .redirectOutput(log.toFile())
+            .start();
+        esperarArranque(log);
+        sembrar();
+    }
+
+    private List<String> comando(int puerto, JdbcDatabaseContainer<?> db) throws IOException {
+        String classpath =
+            System.getProperty("gatling.app.classes", "target/classes") +
+            File.pathSeparator +
+            Files.readString(Path.of(System.getProperty("gatling.app.classpath", "target/gatling-app-classpath.txt"))).trim();
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("gatling.app.javaHome", System.getProperty("java.home")), "bin", "java").toString());
+        comando.addAll(argumentos("gatling.app.jvmArgs", "-Xms512m -Xmx1g"));
+        // Check-in is only allowed on the arrival date, compared in the default zone
+        comando.add("-Duser.timezone=UTC");
+        comando.add("-cp");
+        comando.add(classpath);
+        comando.add(HotelApp.class.getName());
+        comando.add("--spring.profiles.active=prod");
+        comando.add("--spring.docker.compose.enabled=false");
+        comando.add("--server.port=" + puerto);
+        comando.add("--spring.datasource.url=" + db.getJdbcUrl());
+        comando.add("--spring.datasource.username=" + db.getUsername());
+        comando.add("--spring.datasource.password=" + db.getPassword());
+        comando.add("--spring.security.oauth2.client.provider.oidc.issuer-uri=" + stubs.issuer());
+        comando.add("--application.keycloak.server-url=" + stubs.baseUrl());
+        comando.add("--application.keycloak.realm=" + ExternalServicesStub.REALM);
+        comando.add("--stripe.api-base=" + stubs.baseUrl());
+        comando.add("--stripe.secret-key=" + ExternalServicesStub.STRIPE_SECRET_KEY);
+        comando.add("--stripe.webhook-secret=" + ExternalServicesStub.STRIPE_WEBHOOK_SECRET);
+        comando.addAll(argumentos("gatling.app.args", ""));
+        return comando;
+    }
+
+    private static List<String> argumentos(String propiedad, String porDefecto) {
+        List<String> argumentos = new ArrayList<>();
+        for (String arg : System.getProperty(propiedad, porDefecto).trim().split("\\s+")) {
+            if (!arg.isEmpty()) {
+                argumentos.add(arg);
+            }
+        }
+        return argumentos;
+    }
+
+    private void esperarArranque(Path log) throws InterruptedException {
+        Instant limite = Instant.now().plus(ARRANQUE);
+        HttpRequest health = HttpRequest.newBuilder(URI.create(baseUrl + "/management/health/readiness")).timeout(Duration.ofSeconds(5)).build();
+        while (Instant.now().isBefore(limite)) {
+            if (!app.isAlive()) {
+                throw new IllegalStateException("The application exited with code " + app.exitValue() + ", see " + log);
+            }
+            try {
+                if (httpClient.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    LOG.info("Application started at {}", baseUrl);
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("The application did not start within " + ARRANQUE + ", see " + log);
+    }
+
+    private void sembrar() throws IOException, InterruptedException {
+        int objetivo = Integer.getInteger("habitaciones", 200);
+        String token = "Bearer " + stubs.token("load-test-admin", "admin", "ROLE_ADMIN", "ROLE_USER");
+
+        HttpResponse<Void> existentes = httpClient.send(
+            HttpRequest.newBuilder(URI.create(baseUrl + "/api/habitacions?size=1")).header("Authorization", token).build(),
+            HttpResponse.BodyHandlers.discarding()
+        );
+        long total = existentes.headers().firstValueAsLong("X-Total-Count").orElse(0);
+        if (total >= objetivo) {
+            LOG.info("{} habitaciones already exist, nothing to create", total);
+            return;
+        }
+
+        JsonNode estado = crear("/api/estado-habitacions", token, Map.of("nombre", "DISPONIBLE", "activo", true));
+        List<JsonNode> categorias = new ArrayList<>();
+        for (Map.Entry<String, BigDecimal> categoria : CATEGORIAS.entrySet()) {
+            categorias.add(
+                crear("/api/categoria-habitacions", token, Map.of("nombre", categoria.getKey(), "precioBase", categoria.getValue(), "activo", true))
+            );
+        }
+        for (long i = total; i < objetivo; i++) {
+            JsonNode categoria = categorias.get((int) (i % categorias.size()));
+            crear(
+                "/api/habitacions",
+                token,
+                Map.of(
+                    "numero",
+                    "LT-" + (i + 1),
+                    "capacidad",
+                    2,
+                    "activo",
+                    true,
+                    "categoriaHabitacion",
+                    Map.of("id", categoria.get("id").asLong()),
+                    "estadoHabitacion",
+                    Map.of("id", estado.get("id").asLong())
+                )
+            );
+        }
+        LOG.info("Created {} habitaciones", objetivo - total);
+    }
+
+    private JsonNode crear(String path, String token, Map<String, Object> body) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .header("Authorization", token)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+            .build();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            throw new IllegalStateException("POST " + path + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static int puertoLibre() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
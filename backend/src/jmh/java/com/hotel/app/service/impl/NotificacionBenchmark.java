@@ -0,0 +1,150 @@
+package com.hotel.app.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.repository.PagoRepository;
+import com.hotel.app.repository.ReservaDetalleRepository;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.ListaEsperaServicioService;
+import com.hotel.app.service.MensajeSoporteService;
+import com.hotel.app.service.ServicioContratadoService;
+import com.hotel.app.service.dto.ConfiguracionSistemaDTO;
+import com.hotel.app.service.dto.ReservaDTO;
+import com.hotel.app.service.job.ExpiryScheduler;
+import com.hotel.app.service.mapper.ReservaMapperImpl;
+import com.hotel.app.service.mapper.ServicioContratadoMapper;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for building the notification messages sent to a cliente's support chat: the
+ * welcome and "reserva creada" messages of {@link ReservaServiceImpl#save} and the cancellation
+ * message of {@link ServicioContratadoServiceImpl#cancelar(Long, String)}.
+ * <p>
+ * Repositories and services are stubs and the {@code ConfiguracionSistema} templates are
+ * returned from memory, so what is measured is the template expansion, the DTO building and
+ * the mapping around it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NotificacionBenchmark {
+
+    private ReservaServiceImpl reservaService;
+
+    private ServicioContratadoServiceImpl servicioContratadoService;
+
+    private ReservaDTO nuevaReserva;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ConfiguracionSistemaService configuracion = mock(ConfiguracionSistemaService.class, withSettings().stubOnly());
+        when(configuracion.findByClave("MSG_WELCOME_CHAT")).thenReturn(plantilla("¡Bienvenido! Estamos aquí para ayudarle."));
+        when(configuracion.findByClave("MSG_RESERVA_CREADA")).thenReturn(
+            plantilla("¡Hola {clienteNombre}! Su reserva #{reservaId} del {fechaInicio} al {fechaFin} ha sido creada.")
+        );
+        when(configuracion.findByClave("MSG_SERVICE_CANCELADO")).thenReturn(
+            plantilla("Su servicio {servicioNombre} del {fechaServicio} por {total} ha sido cancelado.")
+        );
+        MensajeSoporteService mensajeSoporteService = mock(MensajeSoporteService.class, withSettings().stubOnly());
+        ExpiryScheduler expiryScheduler = mock(ExpiryScheduler.class, withSettings().stubOnly());
+
+        Cliente cliente = new Cliente().id(1L).nombre("Ana").apellido("Pérez").correo("ana@hotel.com").telefono("555").activo(true);
+        cliente.setKeycloakId("3f1c2a8e-0b5d-4a57-9d0e-5c2b7f6a1e90");
+
+        ReservaRepository reservaRepository = mock(ReservaRepository.class, withSettings().stubOnly());
+        when(reservaRepository.save(any(Reserva.class))).thenAnswer(invocation -> {
+            Reserva reserva = invocation.getArgument(0);
+            reserva.setId(2000L);
+            reserva.setCliente(cliente);
+            return reserva;
+        });
+        reservaService = new ReservaServiceImpl(
+            reservaRepository,
+            new ReservaMapperImpl(),
+            mock(ReservaDetalleRepository.class, withSettings().stubOnly()),
+            mock(PagoRepository.class, withSettings().stubOnly()),
+            mensajeSoporteService,
+            configuracion,
+            mock(ServicioContratadoService.class, withSettings().stubOnly()),
+            expiryScheduler,
+            new ApplicationProperties()
+        );
+        Instant inicio = Instant.parse("2025-01-10T15:00:00Z");
+        nuevaReserva = new ReservaDTO();
+        nuevaReserva.setFechaReserva(inicio.minus(7, ChronoUnit.DAYS));
+        nuevaReserva.setFechaInicio(inicio);
+        nuevaReserva.setFechaFin(inicio.plus(3, ChronoUnit.DAYS));
+        nuevaReserva.setEstado(EstadoReserva.PENDIENTE);
+        nuevaReserva.setActivo(true);
+
+        ServicioContratado contratado = new ServicioContratado()
+            .id(3000L)
+            .cantidad(2)
+            .estado(EstadoServicioContratado.CANCELADO)
+            .servicio(new Servicio().id(1L).nombre("Spa"))
+            .cliente(cliente);
+        contratado.setFechaServicio(ZonedDateTime.parse("2025-01-11T10:00:00-06:00"));
+        contratado.setPrecioUnitario(new BigDecimal("25.00"));
+        ServicioContratadoRepository contratadoRepository = mock(ServicioContratadoRepository.class, withSettings().stubOnly());
+        when(contratadoRepository.findById(3000L)).thenReturn(Optional.of(contratado));
+        servicioContratadoService = new ServicioContratadoServiceImpl(
+            contratadoRepository,
+            mock(ServicioContratadoMapper.class, withSettings().stubOnly()),
+            reservaRepository,
+            mock(ServicioDisponibilidadRepository.class, withSettings().stubOnly()),
+            mensajeSoporteService,
+            configuracion,
+            mock(ListaEsperaServicioService.class, withSettings().stubOnly()),
+            expiryScheduler
+        );
+    }
+
+    @Benchmark
+    public ReservaDTO reservaCreada() {
+        nuevaReserva.setId(null);
+        return reservaService.save(nuevaReserva);
+    }
+
+    @Benchmark
+    public void servicioCancelado() {
+        servicioContratadoService.cancelar(3000L, "MSG_SERVICE_CANCELADO");
+    }
+
+    private static Optional<ConfiguracionSistemaDTO> plantilla(String valor) {
+        ConfiguracionSistemaDTO dto = new ConfiguracionSistemaDTO();
+        dto.setValor(valor);
+        return Optional.of(dto);
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotel.app.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.repository.PagoRepository;
+import com.hotel.app.repository.ReservaDetalleRepository;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.MensajeSoporteService;
+import com.hotel.app.service.ServicioContratadoService;
+import com.hotel.app.service.job.ExpiryScheduler;
+import com.hotel.app.service.mapper.ReservaMapperImpl;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ReservaServiceImpl#obtenerEstadisticasGrafico}, the reservations-per-day
+ * chart of the dashboard.
+ * <p>
+ * The repository is stubbed with the reservas of the period, spread over its days, so only the
+ * bucketing by day and estado is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservaEstadisticasBenchmark {
+
+    @Param({ "semana", "mes" })
+    public String periodo;
+
+    @Param({ "100", "5000" })
+    public int reservas;
+
+    private ReservaServiceImpl service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate hoy = LocalDate.now();
+        LocalDate inicio = "mes".equals(periodo) ? hoy.withDayOfMonth(1) : hoy.minusDays(6);
+        int dias = (int) (hoy.toEpochDay() - inicio.toEpochDay()) + 1;
+        EstadoReserva[] estados = EstadoReserva.values();
+
+        List<Reserva> filas = new ArrayList<>(reservas);
+        for (int i = 0; i < reservas; i++) {
+            Reserva reserva = new Reserva().id((long) i).estado(estados[random.nextInt(estados.length)]).activo(true);
+            reserva.setFechaReserva(
+                inicio.plusDays(random.nextInt(dias)).atStartOfDay(ZoneId.systemDefault()).plusMinutes(random.nextInt(24 * 60)).toInstant()
+            );
+            filas.add(reserva);
+        }
+
+        ReservaRepository reservaRepository = mock(ReservaRepository.class, withSettings().stubOnly());
+        when(reservaRepository.findAllByFechaReservaBetween(any(), any())).thenReturn(filas);
+        service = new ReservaServiceImpl(
+            reservaRepository,
+            new ReservaMapperImpl(),
+            mock(ReservaDetalleRepository.class, withSettings().stubOnly()),
+            mock(PagoRepository.class, withSettings().stubOnly()),
+            mock(MensajeSoporteService.class, withSettings().stubOnly()),
+            mock(ConfiguracionSistemaService.class, withSettings().stubOnly()),
+            mock(ServicioContratadoService.class, withSettings().stubOnly()),
+            mock(ExpiryScheduler.class, withSettings().stubOnly()),
+            new ApplicationProperties()
+        );
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> estadisticasGrafico() {
+        return service.obtenerEstadisticasGrafico(periodo);
+    }
+}
@@ -0,0 +1,182 @@
+package com.hotel.app.service.impl;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.ServicioDisponibilidad;
+import com.hotel.app.domain.enumeration.DiaSemana;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.repository.ServicioContratadoRepository.CantidadPorHorario;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.service.ServicioCatalogService;
+import com.hotel.app.service.dto.ServicioDisponibilidadConCuposDTO;
+import com.hotel.app.service.mapper.ServicioDisponibilidadMapperImpl;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for {@link ServicioDisponibilidadServiceImpl#findDisponibilidadConCupos} over a 90-day range.
+ * <p>
+ * Repositories are stubbed with pre-aggregated rows, as returned by the SQL GROUP BY, so only the
+ * bucketing and DTO building are measured. {@link #bucketing()} measures building the index from raw bookings.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ServicioDisponibilidadBenchmark {
+
+    private static final int DIAS = 90;
+
+    private static final LocalTime[] HORAS = {
+        LocalTime.of(8, 0),
+        LocalTime.of(10, 0),
+        LocalTime.of(12, 30),
+        LocalTime.of(16, 0),
+        LocalTime.of(18, 0),
+    };
+
+    @Param({ "1000", "5000" })
+    public int contrataciones;
+
+    @Param({ "1", "10" })
+    public int servicios;
+
+    private ServicioDisponibilidadServiceImpl service;
+
+    private List<Long> servicioIds;
+
+    private List<CantidadPorHorario> reservas;
+
+    private ServicioDisponibilidad slot;
+
+    private LocalDate fechaInicio;
+
+    private LocalDate fechaFin;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        fechaInicio = LocalDate.of(2025, 1, 1);
+        fechaFin = fechaInicio.plusDays(DIAS - 1L);
+
+        servicioIds = new ArrayList<>();
+        List<ServicioDisponibilidad> disponibilidades = new ArrayList<>();
+        long dispId = 1;
+        for (long servicioId = 1; servicioId <= servicios; servicioId++) {
+            Servicio servicio = new Servicio().id(servicioId).nombre("Servicio " + servicioId);
+            servicioIds.add(servicioId);
+            for (DiaSemana dia : DiaSemana.values()) {
+                for (int h = 0; h < HORAS.length; h++) {
+                    boolean fija = h % 2 == 0;
+                    disponibilidades.add(
+                        new ServicioDisponibilidad()
+                            .id(dispId++)
+                            .diaSemana(dia)
+                            .horaInicio(HORAS[h])
+                            .horaFin(fija ? null : HORAS[h].plusHours(2))
+                            .horaFija(fija)
+                            .cupoMaximo(20)
+                            .activo(true)
+                            .servicio(servicio)
+                    );
+                }
+            }
+        }
+        slot = disponibilidades.get(0);
+
+        reservas = new ArrayList<>(contrataciones);
+        for (int i = 0; i < contrataciones; i++) {
+            long servicioId = 1 + random.nextInt(servicios);
+            LocalTime hora = HORAS[random.nextInt(HORAS.length)].plusMinutes(random.nextInt(2) * 30L);
+            ZonedDateTime fecha = fechaInicio.plusDays(random.nextInt(DIAS)).atTime(hora).atZone(ZoneId.systemDefault());
+            reservas.add(new Fila(servicioId, fecha, 1L + random.nextInt(3)));
+        }
+
+        // Same shape as the GROUP BY query: one row per (servicio, fechaServicio)
+        Map<String, Fila> agrupadas = new HashMap<>();
+        for (CantidadPorHorario r : reservas) {
+            agrupadas.merge(
+                r.getServicioId() + "|" + r.getFechaServicio(),
+                (Fila) r,
+                (a, b) -> new Fila(a.getServicioId(), a.getFechaServicio(), a.getCantidad() + b.getCantidad())
+            );
+        }
+        List<CantidadPorHorario> filas = new ArrayList<>(agrupadas.values());
+
+        ServicioDisponibilidadRepository disponibilidadRepository = mock(ServicioDisponibilidadRepository.class);
+        when(disponibilidadRepository.findByServicioIdInAndActivoTrue(anyCollection())).thenReturn(disponibilidades);
+        ServicioContratadoRepository contratadoRepository = mock(ServicioContratadoRepository.class);
+        when(
+            contratadoRepository.sumCantidadByServiciosAndFechaRangeGroupByHorario(anyCollection(), any(), any(), anyList())
+        ).thenReturn(filas);
+
+        service = new ServicioDisponibilidadServiceImpl(
+            disponibilidadRepository,
+            new ServicioDisponibilidadMapperImpl(),
+            contratadoRepository,
+            mock(ServicioCatalogService.class)
+        );
+    }
+
+    @Benchmark
+    public Map<Long, List<ServicioDisponibilidadConCuposDTO>> disponibilidadConCupos() {
+        return service.findDisponibilidadConCupos(servicioIds, fechaInicio, fechaFin);
+    }
+
+    @Benchmark
+    public long bucketing() {
+        CuposOcupadosIndex index = new CuposOcupadosIndex();
+        for (CantidadPorHorario r : reservas) {
+            index.add(r.getServicioId(), r.getFechaServicio(), r.getCantidad());
+        }
+        long total = 0;
+        for (LocalDate fecha = fechaInicio; !fecha.isAfter(fechaFin); fecha = fecha.plusDays(1)) {
+            total += index.cuposOcupados(1L, fecha, slot);
+        }
+        return total;
+    }
+
+    private record Fila(Long servicioId, ZonedDateTime fechaServicio, Long cantidad) implements CantidadPorHorario {
+        @Override
+        public Long getServicioId() {
+            return servicioId;
+        }
+
+        @Override
+        public ZonedDateTime getFechaServicio() {
+            return fechaServicio;
+        }
+
+        @Override
+        public Long getCantidad() {
+            return cantidad;
+        }
+    }
+}
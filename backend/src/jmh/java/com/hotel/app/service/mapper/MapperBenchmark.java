@@ -0,0 +1,132 @@
+package com.hotel.app.service.mapper;
+
+import com.hotel.app.domain.CategoriaHabitacion;
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.EstadoHabitacion;
+import com.hotel.app.domain.Habitacion;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.enumeration.CategoriaHabitacionNombre;
+import com.hotel.app.domain.enumeration.EstadoHabitacionNombre;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.service.dto.HabitacionDTO;
+import com.hotel.app.service.dto.ReservaDTO;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Benchmark for the {@link ReservaMapper} and {@link HabitacionMapper} lists, as a page of
+ * {@code GET /api/reservas} or {@code GET /api/habitacions} maps them.
+ * <p>
+ * Each entity has its to-one relationships set, so the nested summary DTOs are built too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({ "20", "1000" })
+    public int filas;
+
+    private ReservaMapper reservaMapper;
+
+    private HabitacionMapper habitacionMapper;
+
+    private List<Reserva> reservas;
+
+    private List<ReservaDTO> reservaDtos;
+
+    private List<Habitacion> habitaciones;
+
+    private List<HabitacionDTO> habitacionDtos;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        reservaMapper = new ReservaMapperImpl();
+        habitacionMapper = new HabitacionMapperImpl();
+        // Injected by Spring in the application
+        ReflectionTestUtils.setField(habitacionMapper, "categoriaHabitacionMapper", new CategoriaHabitacionMapperImpl());
+        ReflectionTestUtils.setField(habitacionMapper, "estadoHabitacionMapper", new EstadoHabitacionMapperImpl());
+
+        Instant inicio = Instant.parse("2025-01-01T15:00:00Z");
+        reservas = new ArrayList<>(filas);
+        habitaciones = new ArrayList<>(filas);
+        CategoriaHabitacionNombre[] categorias = CategoriaHabitacionNombre.values();
+        EstadoHabitacionNombre[] estados = EstadoHabitacionNombre.values();
+        for (int i = 0; i < filas; i++) {
+            Cliente cliente = new Cliente()
+                .id(1000L + i)
+                .nombre("Nombre " + i)
+                .apellido("Apellido " + i)
+                .correo("cliente" + i + "@hotel.com")
+                .telefono("555-" + i)
+                .activo(true);
+            Reserva reserva = new Reserva().id(2000L + i).estado(EstadoReserva.values()[i % EstadoReserva.values().length]).activo(true);
+            reserva.setFechaReserva(inicio.minus(i % 30, ChronoUnit.DAYS));
+            reserva.setFechaInicio(inicio.plus(i % 60, ChronoUnit.DAYS));
+            reserva.setFechaFin(inicio.plus(i % 60 + 3, ChronoUnit.DAYS));
+            reserva.setCliente(cliente);
+            reservas.add(reserva);
+
+            CategoriaHabitacion categoria = new CategoriaHabitacion()
+                .id((long) (i % categorias.length))
+                .nombre(categorias[i % categorias.length])
+                .descripcion("Categoria")
+                .activo(true);
+            categoria.setPrecioBase(new BigDecimal("80.00"));
+            Habitacion habitacion = new Habitacion()
+                .id(3000L + i)
+                .numero(String.valueOf(100 + i))
+                .capacidad(1 + i % 4)
+                .descripcion("Habitacion " + i)
+                .imagen("/images/habitacion-" + i + ".jpg")
+                .activo(true);
+            habitacion.setCategoriaHabitacion(categoria);
+            habitacion.setEstadoHabitacion(
+                new EstadoHabitacion().id((long) (i % estados.length)).nombre(estados[i % estados.length]).activo(true)
+            );
+            habitaciones.add(habitacion);
+        }
+        reservaDtos = reservaMapper.toDto(reservas);
+        habitacionDtos = habitacionMapper.toDto(habitaciones);
+    }
+
+    @Benchmark
+    public List<ReservaDTO> reservaToDto() {
+        return reservaMapper.toDto(reservas);
+    }
+
+    @Benchmark
+    public List<Reserva> reservaToEntity() {
+        return reservaMapper.toEntity(reservaDtos);
+    }
+
+    @Benchmark
+    public List<HabitacionDTO> habitacionToDto() {
+        return habitacionMapper.toDto(habitaciones);
+    }
+
+    @Benchmark
+    public List<Habitacion> habitacionToEntity() {
+        return habitacionMapper.toEntity(habitacionDtos);
+    }
+}
@@ -0,0 +1,133 @@
+package com.hotel.app.aop.lock;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Leases named locks stored in the {@code scheduler_lock} table.
+ * <p>
+ * A lock is free when its {@code lock_until} is in the past. Taking it is a
+ * single conditional UPDATE (or the INSERT of its row the first time), so
+ * exactly one node wins. Every statement runs and commits in its own
+ * transaction so the lease is visible to other nodes immediately.
+ */
+public class JdbcLockProvider {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JdbcLockProvider.class);
+
+    /**
+     * A lease held by this node.
+     */
+    public record Lease(String name, Instant lockedAt) {}
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String holderId;
+
+    public JdbcLockProvider(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager, String holderId) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.holderId = holderId;
+    }
+
+    public String getHolderId() {
+        return holderId;
+    }
+
+    /**
+     * Try to lease a lock.
+     *
+     * @param name      the lock name.
+     * @param lockUntil when the lease expires if it is never released.
+     * @return the lease, or empty if another holder has it.
+     */
+    public Optional<Lease> tryLock(String name, Instant lockUntil) {
+        // locked_at identifies the lease on release, so keep it within the column precision
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Boolean acquired = transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update(
+                "UPDATE scheduler_lock SET lock_until = ?, locked_at = ?, locked_by = ? WHERE name = ? AND lock_until <= ?",
+                Timestamp.from(lockUntil),
+                Timestamp.from(now),
+                holderId,
+                name,
+                Timestamp.from(now)
+            );
+            return updated == 1;
+        });
+        if (!Boolean.TRUE.equals(acquired)) {
+            acquired = insertLock(name, now, lockUntil);
+        }
+        return Boolean.TRUE.equals(acquired) ? Optional.of(new Lease(name, now)) : Optional.empty();
+    }
+
+    /**
+     * Whether some holder, this node included, has the lock now. Only a hint: the
+     * lock may be taken or released right after.
+     *
+     * @param name the lock name.
+     */
+    public boolean isLocked(String name) {
+        Integer held = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM scheduler_lock WHERE name = ? AND lock_until > ?",
+            Integer.class,
+            name,
+            Timestamp.from(Instant.now())
+        );
+        return held != null && held > 0;
+    }
+
+    /**
+     * Release a lease, keeping the lock taken until {@code lockUntil} if it is in
+     * the future.
+     *
+     * @param lease     the lease to release.
+     * @param lockUntil end of the minimum lease time.
+     */
+    public void unlock(Lease lease, Instant lockUntil) {
+        Instant until = lockUntil.isAfter(Instant.now()) ? lockUntil : Instant.now();
+        int updated = transactionTemplate.execute(status ->
+            jdbcTemplate.update(
+                "UPDATE scheduler_lock SET lock_until = ? WHERE name = ? AND locked_by = ? AND locked_at = ?",
+                Timestamp.from(until),
+                lease.name(),
+                holderId,
+                Timestamp.from(lease.lockedAt())
+            )
+        );
+        if (updated == 0) {
+            // The lease expired and another node took the lock: the job outlived lockAtMostFor
+            LOG.warn("Lock {} was no longer held by {} when released", lease.name(), holderId);
+        }
+    }
+
+    private Boolean insertLock(String name, Instant now, Instant lockUntil) {
+        try {
+            return transactionTemplate.execute(status ->
+                jdbcTemplate.update(
+                    "INSERT INTO scheduler_lock (name, lock_until, locked_at, locked_by) VALUES (?, ?, ?, ?)",
+                    name,
+                    Timestamp.from(lockUntil),
+                    Timestamp.from(now),
+                    holderId
+                ) ==
+                1
+            );
+        } catch (DuplicateKeyException e) {
+            // The row exists and the lock is held by someone else
+            return false;
+        }
+    }
+}
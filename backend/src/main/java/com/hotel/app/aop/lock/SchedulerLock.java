@@ -0,0 +1,37 @@
+package com.hotel.app.aop.lock;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Runs the annotated method on a single node of the cluster at a time.
+ * <p>
+ * The lock is a row of the {@code scheduler_lock} table, leased by the node
+ * that runs the method. Nodes that cannot take the lease skip the invocation.
+ * Meant for {@code void} methods such as {@code @Scheduled} jobs.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SchedulerLock {
+    /**
+     * Lock name, unique per job.
+     */
+    String name();
+
+    /**
+     * ISO-8601 duration after which the lease expires even if the holder never
+     * released it (e.g. the node died). Must be longer than the job takes.
+     */
+    String lockAtMostFor() default "PT30M";
+
+    /**
+     * ISO-8601 minimum lease duration, counted from the start of the run. It keeps
+     * nodes whose clocks are a little behind from running the same trigger again
+     * right after a fast run.
+     */
+    String lockAtLeastFor() default "PT1M";
+}
@@ -0,0 +1,64 @@
+package com.hotel.app.aop.lock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Aspect running {@link SchedulerLock} methods only while this node holds the
+ * lock.
+ * <p>
+ * Publishes {@code hotel.scheduler.lock.acquired} and
+ * {@code hotel.scheduler.lock.contention} counters and the
+ * {@code hotel.scheduler.lock.duration} timer of the locked executions, all
+ * tagged by lock name.
+ */
+@Aspect
+public class SchedulerLockAspect {
+
+    private static final Logger LOG = LoggerFactory.getLogger(SchedulerLockAspect.class);
+
+    private final JdbcLockProvider lockProvider;
+
+    private final MeterRegistry meterRegistry;
+
+    public SchedulerLockAspect(JdbcLockProvider lockProvider, MeterRegistry meterRegistry) {
+        this.lockProvider = lockProvider;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(schedulerLock)")
+    public Object lock(ProceedingJoinPoint joinPoint, SchedulerLock schedulerLock) throws Throwable {
+        String name = schedulerLock.name();
+        Instant start = Instant.now();
+        Optional<JdbcLockProvider.Lease> lease = lockProvider.tryLock(name, start.plus(Duration.parse(schedulerLock.lockAtMostFor())));
+        if (lease.isEmpty()) {
+            Counter.builder("hotel.scheduler.lock.contention").tag("name", name).register(meterRegistry).increment();
+            LOG.debug("Lock {} is held by another node, skipping {}", name, joinPoint.getSignature().toShortString());
+            return null;
+        }
+
+        Counter.builder("hotel.scheduler.lock.acquired").tag("name", name).register(meterRegistry).increment();
+        LOG.debug("Lock {} acquired by {}", name, lockProvider.getHolderId());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            sample.stop(Timer.builder("hotel.scheduler.lock.duration").tag("name", name).register(meterRegistry));
+            try {
+                lockProvider.unlock(lease.orElseThrow(), start.plus(Duration.parse(schedulerLock.lockAtLeastFor())));
+            } catch (RuntimeException e) {
+                // The lease still expires at lockAtMostFor
+                LOG.error("Could not release lock {}", name, e);
+            }
+        }
+    }
+}
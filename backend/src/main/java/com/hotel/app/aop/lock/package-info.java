@@ -0,0 +1,4 @@
+/**
+ * Cluster-wide locking of scheduled jobs.
+ */
+package com.hotel.app.aop.lock;
@@ -1,6 +1,12 @@
 package com.hotel.app.config;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Properties specific to Hotel App.
@@ -15,6 +21,22 @@ public class ApplicationProperties {
 
     private final Liquibase liquibase = new Liquibase();
 
+    private final ServicioCatalog servicioCatalog = new ServicioCatalog();
+
+    private final Landing landing = new Landing();
+
+    private final Jobs jobs = new Jobs();
+
+    private final Reservas reservas = new Reservas();
+
+    private final Imagenes imagenes = new Imagenes();
+
+    private final Keycloak keycloak = new Keycloak();
+
+    private final Clientes clientes = new Clientes();
+
+    private final HibernateCache hibernateCache = new HibernateCache();
+
     // jhipster-needle-application-properties-property
 
     public String getImagePath() {
@@ -29,6 +51,38 @@ public class ApplicationProperties {
         return liquibase;
     }
 
+    public ServicioCatalog getServicioCatalog() {
+        return servicioCatalog;
+    }
+
+    public Landing getLanding() {
+        return landing;
+    }
+
+    public Jobs getJobs() {
+        return jobs;
+    }
+
+    public Reservas getReservas() {
+        return reservas;
+    }
+
+    public Imagenes getImagenes() {
+        return imagenes;
+    }
+
+    public Keycloak getKeycloak() {
+        return keycloak;
+    }
+
+    public Clientes getClientes() {
+        return clientes;
+    }
+
+    public HibernateCache getHibernateCache() {
+        return hibernateCache;
+    }
+
     // jhipster-needle-application-properties-property-getter
 
     public static class Liquibase {
@@ -43,5 +97,1069 @@ public class ApplicationProperties {
             this.asyncStart = asyncStart;
         }
     }
+
+    public static class ServicioCatalog {
+
+        /**
+         * {@code max-age} of the catalog responses, in seconds. With 0 browsers
+         * revalidate every time using the ETag.
+         */
+        private long cacheMaxAge = 0;
+
+        /**
+         * Maximum age of the in-memory snapshot, in seconds, before it is rebuilt
+         * even without local writes (e.g. writes made on another node).
+         */
+        private long snapshotTtl = 600;
+
+        public long getCacheMaxAge() {
+            return cacheMaxAge;
+        }
+
+        public void setCacheMaxAge(long cacheMaxAge) {
+            this.cacheMaxAge = cacheMaxAge;
+        }
+
+        public long getSnapshotTtl() {
+            return snapshotTtl;
+        }
+
+        public void setSnapshotTtl(long snapshotTtl) {
+            this.snapshotTtl = snapshotTtl;
+        }
+    }
+
+    public static class Landing {
+
+        /**
+         * {@code max-age} of {@code /api/public/landing}, in seconds. With 0
+         * browsers revalidate every time using the ETag.
+         */
+        private long cacheMaxAge = 0;
+
+        /**
+         * Maximum age of the precomputed document, in seconds, before it is
+         * rebuilt even without local writes (e.g. writes made on another node).
+         */
+        private long snapshotTtl = 600;
+
+        public long getCacheMaxAge() {
+            return cacheMaxAge;
+        }
+
+        public void setCacheMaxAge(long cacheMaxAge) {
+            this.cacheMaxAge = cacheMaxAge;
+        }
+
+        public long getSnapshotTtl() {
+            return snapshotTtl;
+        }
+
+        public void setSnapshotTtl(long snapshotTtl) {
+            this.snapshotTtl = snapshotTtl;
+        }
+    }
+
+    public static class Jobs {
+
+        /**
+         * Rows processed and committed per transaction by the chunked
+         * scheduled jobs.
+         */
+        private int chunkSize = 500;
+
+        /**
+         * Runs in a row that may fail on the same chunk; the next one processes
+         * its rows one by one and skips the ones that still fail.
+         */
+        private int maxChunkAttempts = 3;
+
+        /**
+         * Cron of the safety-net sweeps; expirations are normally handled at
+         * their exact time by the expiry scheduler.
+         */
+        private String sweepCron = "0 0 */6 * * *";
+
+        /**
+         * Days of job run history kept in the {@code job_run} table.
+         */
+        private int historyDays = 30;
+
+        private final Expiry expiry = new Expiry();
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getMaxChunkAttempts() {
+            return maxChunkAttempts;
+        }
+
+        public void setMaxChunkAttempts(int maxChunkAttempts) {
+            this.maxChunkAttempts = maxChunkAttempts;
+        }
+
+        public String getSweepCron() {
+            return sweepCron;
+        }
+
+        public void setSweepCron(String sweepCron) {
+            this.sweepCron = sweepCron;
+        }
+
+        public int getHistoryDays() {
+            return historyDays;
+        }
+
+        public void setHistoryDays(int historyDays) {
+            this.historyDays = historyDays;
+        }
+
+        public Expiry getExpiry() {
+            return expiry;
+        }
+
+        public static class Expiry {
+
+            private boolean enabled = true;
+
+            /**
+             * Only deadlines within the next {@code horizonHours} hours are kept
+             * in memory.
+             */
+            private int horizonHours = 6;
+
+            /**
+             * Minutes between two reloads of the deadlines from the database; must
+             * be shorter than the horizon.
+             */
+            private int reloadMinutes = 60;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getHorizonHours() {
+                return horizonHours;
+            }
+
+            public void setHorizonHours(int horizonHours) {
+                this.horizonHours = horizonHours;
+            }
+
+            public int getReloadMinutes() {
+                return reloadMinutes;
+            }
+
+            public void setReloadMinutes(int reloadMinutes) {
+                this.reloadMinutes = reloadMinutes;
+            }
+        }
+    }
+    public static class Reservas {
+
+        /**
+         * Minutes a PENDIENTE (unpaid) reserva holds its rooms; 0, the default,
+         * keeps the holds until they are paid or cancelled by hand. Only for
+         * deployments where every PENDIENTE reserva is a client checkout.
+         */
+        private long holdTtlMinutes = 0;
+
+        /**
+         * Cron of the job that cancels the expired holds.
+         */
+        private String holdExpiryCron = "0 */5 * * * *";
+
+        public long getHoldTtlMinutes() {
+            return holdTtlMinutes;
+        }
+
+        public void setHoldTtlMinutes(long holdTtlMinutes) {
+            this.holdTtlMinutes = holdTtlMinutes;
+        }
+
+        public String getHoldExpiryCron() {
+            return holdExpiryCron;
+        }
+
+        public void setHoldExpiryCron(String holdExpiryCron) {
+            this.holdExpiryCron = holdExpiryCron;
+        }
+    }
+
+    public static class Imagenes {
+
+        /**
+         * Cron of the job that moves the legacy {@code imagen.fichero} blobs to
+         * the content-addressed store; it does nothing once the column is empty.
+         */
+        private String blobMigrationCron = "0 30 3 * * *";
+
+        /**
+         * Largest accepted image upload; checked while the upload is streamed to
+         * disk. The multipart limits in {@code spring.servlet.multipart} should be
+         * a little higher.
+         */
+        private DataSize maxUploadSize = DataSize.ofMegabytes(10);
+
+        /**
+         * Accepted image types, as sniffed from the uploaded content.
+         */
+        private List<String> allowedTypes = new ArrayList<>(
+                List.of("image/jpeg", "image/png", "image/gif", "image/webp", "image/avif"));
+
+        public DataSize getMaxUploadSize() {
+            return maxUploadSize;
+        }
+
+        public void setMaxUploadSize(DataSize maxUploadSize) {
+            this.maxUploadSize = maxUploadSize;
+        }
+
+        public List<String> getAllowedTypes() {
+            return allowedTypes;
+        }
+
+        public void setAllowedTypes(List<String> allowedTypes) {
+            this.allowedTypes = allowedTypes;
+        }
+
+        private final Variantes variantes = new Variantes();
+
+        private final Cache cache = new Cache();
+
+        private final Storage storage = new Storage();
+
+        private final Huerfanos huerfanos = new Huerfanos();
+
+        public Variantes getVariantes() {
+            return variantes;
+        }
+
+        public Cache getCache() {
+            return cache;
+        }
+
+        public Storage getStorage() {
+            return storage;
+        }
+
+        public Huerfanos getHuerfanos() {
+            return huerfanos;
+        }
+
+        public String getBlobMigrationCron() {
+            return blobMigrationCron;
+        }
+
+        public void setBlobMigrationCron(String blobMigrationCron) {
+            this.blobMigrationCron = blobMigrationCron;
+        }
+
+        public static class Variantes {
+
+            /**
+             * Variant name to width in pixels. Changing it regenerates the variants
+             * of every image.
+             */
+            private Map<String, Integer> anchos = new LinkedHashMap<>(Map.of("thumb", 160, "card", 480, "hero", 1600));
+
+            /**
+             * JPEG quality of the variants, between 0 and 1.
+             */
+            private float calidad = 0.82f;
+
+            /**
+             * Worker threads generating variants after uploads.
+             */
+            private int hilos = 2;
+
+            /**
+             * Uploads waiting for their variants; beyond it they are left to the
+             * regeneration job.
+             */
+            private int cola = 100;
+
+            /**
+             * Cron of the job that generates missing or outdated variants.
+             */
+            private String cron = "0 15 4 * * *";
+
+            /**
+             * Images with more pixels (width times height) get no variants: decoding
+             * them would take too much memory.
+             */
+            private long maxPixeles = 50_000_000L;
+
+            public Map<String, Integer> getAnchos() {
+                return anchos;
+            }
+
+            public void setAnchos(Map<String, Integer> anchos) {
+                this.anchos = anchos;
+            }
+
+            public float getCalidad() {
+                return calidad;
+            }
+
+            public void setCalidad(float calidad) {
+                this.calidad = calidad;
+            }
+
+            public int getHilos() {
+                return hilos;
+            }
+
+            public void setHilos(int hilos) {
+                this.hilos = hilos;
+            }
+
+            public int getCola() {
+                return cola;
+            }
+
+            public void setCola(int cola) {
+                this.cola = cola;
+            }
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+
+            public long getMaxPixeles() {
+                return maxPixeles;
+            }
+
+            public void setMaxPixeles(long maxPixeles) {
+                this.maxPixeles = maxPixeles;
+            }
+        }
+
+        public static class Huerfanos {
+
+            /**
+             * Cron of the job that quarantines the stored files no row points to.
+             */
+            private String cron = "0 45 4 * * *";
+
+            /**
+             * Only report the orphans, without moving or deleting anything.
+             */
+            private boolean dryRun = true;
+
+            /**
+             * Directories of the image root reconciled against the database; every
+             * file under them must be referenced by a row.
+             */
+            private List<String> prefijos = new ArrayList<>(List.of("cas/", "variants/"));
+
+            /**
+             * Younger files are never orphans: their row may not be committed yet.
+             */
+            private Duration edadMinima = Duration.ofDays(1);
+
+            /**
+             * Time a quarantined file is kept (and restored if referenced again)
+             * before it is deleted.
+             */
+            private Duration retencion = Duration.ofDays(7);
+
+            /**
+             * Files checked against the database per query.
+             */
+            private int lote = 500;
+
+            /**
+             * Orphan paths listed in the report.
+             */
+            private int muestra = 100;
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+
+            public boolean isDryRun() {
+                return dryRun;
+            }
+
+            public void setDryRun(boolean dryRun) {
+                this.dryRun = dryRun;
+            }
+
+            public List<String> getPrefijos() {
+                return prefijos;
+            }
+
+            public void setPrefijos(List<String> prefijos) {
+                this.prefijos = prefijos;
+            }
+
+            public Duration getEdadMinima() {
+                return edadMinima;
+            }
+
+            public void setEdadMinima(Duration edadMinima) {
+                this.edadMinima = edadMinima;
+            }
+
+            public Duration getRetencion() {
+                return retencion;
+            }
+
+            public void setRetencion(Duration retencion) {
+                this.retencion = retencion;
+            }
+
+            public int getLote() {
+                return lote;
+            }
+
+            public void setLote(int lote) {
+                this.lote = lote;
+            }
+
+            public int getMuestra() {
+                return muestra;
+            }
+
+            public void setMuestra(int muestra) {
+                this.muestra = muestra;
+            }
+        }
+
+        public static class Cache {
+
+            /**
+             * Memory held by the most requested image files; 0 disables the cache.
+             */
+            private DataSize maxSize = DataSize.ofMegabytes(64);
+
+            /**
+             * Larger files are always sent from disk.
+             */
+            private DataSize maxEntrySize = DataSize.ofMegabytes(2);
+
+            /**
+             * Distinct files remembered after a first request; a file is only
+             * loaded when requested again while remembered.
+             */
+            private int candidates = 10_000;
+
+            public DataSize getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(DataSize maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public DataSize getMaxEntrySize() {
+                return maxEntrySize;
+            }
+
+            public void setMaxEntrySize(DataSize maxEntrySize) {
+                this.maxEntrySize = maxEntrySize;
+            }
+
+            public int getCandidates() {
+                return candidates;
+            }
+
+            public void setCandidates(int candidates) {
+                this.candidates = candidates;
+            }
+        }
+
+        public static class Storage {
+
+            /**
+             * Where the image files live: {@code local} (under
+             * {@code application.image-path}) or {@code s3} (an S3-compatible
+             * bucket, shared by every node).
+             */
+            private String type = "local";
+
+            private final S3 s3 = new S3();
+
+            public String getType() {
+                return type;
+            }
+
+            public void setType(String type) {
+                this.type = type;
+            }
+
+            public S3 getS3() {
+                return s3;
+            }
+
+            public static class S3 {
+
+                /**
+                 * Base URL of the service, e.g. {@code https://s3.eu-west-1.amazonaws.com}
+                 * or {@code http://minio:9000}.
+                 */
+                private String endpoint;
+
+                private String region = "us-east-1";
+
+                private String bucket;
+
+                private String accessKey;
+
+                private String secretKey;
+
+                /**
+                 * {@code endpoint/bucket/key} URLs (MinIO) instead of
+                 * {@code bucket.endpoint/key}.
+                 */
+                private boolean pathStyle = true;
+
+                /**
+                 * Prepended to every key, e.g. {@code images/}.
+                 */
+                private String prefix = "";
+
+                /**
+                 * Larger files are uploaded in parts of this size; at least 5MB.
+                 */
+                private DataSize partSize = DataSize.ofMegabytes(8);
+
+                /**
+                 * Parts uploaded at the same time, over all uploads.
+                 */
+                private int parallelism = 4;
+
+                /**
+                 * Validity of the presigned URLs large files are redirected to.
+                 */
+                private Duration presignTtl = Duration.ofMinutes(15);
+
+                public String getEndpoint() {
+                    return endpoint;
+                }
+
+                public void setEndpoint(String endpoint) {
+                    this.endpoint = endpoint;
+                }
+
+                public String getRegion() {
+                    return region;
+                }
+
+                public void setRegion(String region) {
+                    this.region = region;
+                }
+
+                public String getBucket() {
+                    return bucket;
+                }
+
+                public void setBucket(String bucket) {
+                    this.bucket = bucket;
+                }
+
+                public String getAccessKey() {
+                    return accessKey;
+                }
+
+                public void setAccessKey(String accessKey) {
+                    this.accessKey = accessKey;
+                }
+
+                public String getSecretKey() {
+                    return secretKey;
+                }
+
+                public void setSecretKey(String secretKey) {
+                    this.secretKey = secretKey;
+                }
+
+                public boolean isPathStyle() {
+                    return pathStyle;
+                }
+
+                public void setPathStyle(boolean pathStyle) {
+                    this.pathStyle = pathStyle;
+                }
+
+                public String getPrefix() {
+                    return prefix;
+                }
+
+                public void setPrefix(String prefix) {
+                    this.prefix = prefix;
+                }
+
+                public DataSize getPartSize() {
+                    return partSize;
+                }
+
+                public void setPartSize(DataSize partSize) {
+                    this.partSize = partSize;
+                }
+
+                public int getParallelism() {
+                    return parallelism;
+                }
+
+                public void setParallelism(int parallelism) {
+                    this.parallelism = parallelism;
+                }
+
+                public Duration getPresignTtl() {
+                    return presignTtl;
+                }
+
+                public void setPresignTtl(Duration presignTtl) {
+                    this.presignTtl = presignTtl;
+                }
+            }
+        }
+    }
     // jhipster-needle-application-properties-property-class
+
+    /**
+     * The Keycloak admin API, used to provision guest and employee accounts.
+     */
+    public static class Keycloak {
+
+        private String serverUrl = "http://localhost:9080";
+
+        private String realm = "jhipster";
+
+        private String clientId = "admin-cli";
+
+        private String username = "admin";
+
+        private String password = "admin";
+
+        /**
+         * Pooled HTTP connections to the server, shared by every call.
+         */
+        private int poolSize = 20;
+
+        private Duration connectTimeout = Duration.ofSeconds(5);
+
+        private Duration readTimeout = Duration.ofSeconds(10);
+
+        /**
+         * The cached access token is refreshed when it is valid for less than this.
+         */
+        private Duration tokenMinValidity = Duration.ofSeconds(30);
+
+        private final Provisioning provisioning = new Provisioning();
+
+        private final Empleados empleados = new Empleados();
+
+        public String getServerUrl() {
+            return serverUrl;
+        }
+
+        public void setServerUrl(String serverUrl) {
+            this.serverUrl = serverUrl;
+        }
+
+        public String getRealm() {
+            return realm;
+        }
+
+        public void setRealm(String realm) {
+            this.realm = realm;
+        }
+
+        public String getClientId() {
+            return clientId;
+        }
+
+        public void setClientId(String clientId) {
+            this.clientId = clientId;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public void setPoolSize(int poolSize) {
+            this.poolSize = poolSize;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getTokenMinValidity() {
+            return tokenMinValidity;
+        }
+
+        public void setTokenMinValidity(Duration tokenMinValidity) {
+            this.tokenMinValidity = tokenMinValidity;
+        }
+
+        public Provisioning getProvisioning() {
+            return provisioning;
+        }
+
+        public Empleados getEmpleados() {
+            return empleados;
+        }
+
+        /**
+         * Accounts of new guests, created in the background after the cliente is
+         * saved.
+         */
+        public static class Provisioning {
+
+            private int hilos = 2;
+
+            /**
+             * Pending accounts held in memory; beyond that they wait for the job.
+             */
+            private int cola = 1000;
+
+            /**
+             * Attempts before the cliente is left as failed.
+             */
+            private int maxIntentos = 8;
+
+            /**
+             * Wait before the first retry, doubled after each failure.
+             */
+            private Duration espera = Duration.ofSeconds(2);
+
+            private Duration esperaMaxima = Duration.ofMinutes(30);
+
+            /**
+             * Cron of the job that retries the pending accounts, after a restart or a
+             * full queue.
+             */
+            private String cron = "0 */10 * * * *";
+
+            public int getHilos() {
+                return hilos;
+            }
+
+            public void setHilos(int hilos) {
+                this.hilos = hilos;
+            }
+
+            public int getCola() {
+                return cola;
+            }
+
+            public void setCola(int cola) {
+                this.cola = cola;
+            }
+
+            public int getMaxIntentos() {
+                return maxIntentos;
+            }
+
+            public void setMaxIntentos(int maxIntentos) {
+                this.maxIntentos = maxIntentos;
+            }
+
+            public Duration getEspera() {
+                return espera;
+            }
+
+            public void setEspera(Duration espera) {
+                this.espera = espera;
+            }
+
+            public Duration getEsperaMaxima() {
+                return esperaMaxima;
+            }
+
+            public void setEsperaMaxima(Duration esperaMaxima) {
+                this.esperaMaxima = esperaMaxima;
+            }
+
+            public String getCron() {
+                return cron;
+            }
+
+            public void setCron(String cron) {
+                this.cron = cron;
+            }
+        }
+
+        /**
+         * Directory of the employees (users with {@code ROLE_ADMIN} or
+         * {@code ROLE_EMPLOYEE}), held in memory and refreshed from Keycloak.
+         */
+        public static class Empleados {
+
+            /**
+             * Minutes between two full refreshes from Keycloak.
+             */
+            private int refreshMinutes = 5;
+
+            /**
+             * Role members read per request.
+             */
+            private int pageSize = 200;
+
+            /**
+             * Whether the directory is also kept in the {@code employee_directory}
+             * table, to be served when Keycloak is down at startup.
+             */
+            private boolean mirror = true;
+
+            public int getRefreshMinutes() {
+                return refreshMinutes;
+            }
+
+            public void setRefreshMinutes(int refreshMinutes) {
+                this.refreshMinutes = refreshMinutes;
+            }
+
+            public int getPageSize() {
+                return pageSize;
+            }
+
+            public void setPageSize(int pageSize) {
+                this.pageSize = pageSize;
+            }
+
+            public boolean isMirror() {
+                return mirror;
+            }
+
+            public void setMirror(boolean mirror) {
+                this.mirror = mirror;
+            }
+        }
+    }
+
+    public static class Clientes {
+
+        private final Importacion importacion = new Importacion();
+
+        public Importacion getImportacion() {
+            return importacion;
+        }
+
+        /**
+         * Bulk imports of guests from CSV or NDJSON files.
+         */
+        public static class Importacion {
+
+            /**
+             * Rows validated and inserted per transaction.
+             */
+            private int lote = 500;
+
+            /**
+             * Imports running at the same time; further uploads are refused.
+             */
+            private int simultaneas = 2;
+
+            /**
+             * Keycloak accounts created in parallel for an import.
+             */
+            private int hilosCuentas = 8;
+
+            /**
+             * Accounts waiting for a thread before the import itself waits.
+             */
+            private int colaCuentas = 200;
+
+            private DataSize maxSize = DataSize.ofMegabytes(100);
+
+            /**
+             * Row errors kept in the report of an import.
+             */
+            private int maxErrores = 1000;
+
+            /**
+             * Finished imports whose report is kept in memory.
+             */
+            private int retener = 20;
+
+            public int getLote() {
+                return lote;
+            }
+
+            public void setLote(int lote) {
+                this.lote = lote;
+            }
+
+            public int getSimultaneas() {
+                return simultaneas;
+            }
+
+            public void setSimultaneas(int simultaneas) {
+                this.simultaneas = simultaneas;
+            }
+
+            public int getHilosCuentas() {
+                return hilosCuentas;
+            }
+
+            public void setHilosCuentas(int hilosCuentas) {
+                this.hilosCuentas = hilosCuentas;
+            }
+
+            public int getColaCuentas() {
+                return colaCuentas;
+            }
+
+            public void setColaCuentas(int colaCuentas) {
+                this.colaCuentas = colaCuentas;
+            }
+
+            public DataSize getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(DataSize maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public int getMaxErrores() {
+                return maxErrores;
+            }
+
+            public void setMaxErrores(int maxErrores) {
+                this.maxErrores = maxErrores;
+            }
+
+            public int getRetener() {
+                return retener;
+            }
+
+            public void setRetener(int retener) {
+                this.retener = retener;
+            }
+        }
+    }
+
+    /**
+     * Hibernate second-level cache, one Caffeine region per cached entity plus
+     * the two regions of the query cache.
+     */
+    public static class HibernateCache {
+
+        /**
+         * Entries of a region without its own {@code max-entries}.
+         */
+        private long maxEntries = 1000;
+
+        /**
+         * Time to live of a region without its own {@code ttl}. Each node has its
+         * own cache, so this bounds how long a change made on another node can go
+         * unnoticed. Zero means no expiry.
+         */
+        private Duration ttl = Duration.ofMinutes(10);
+
+        /**
+         * Per-region overrides, keyed by the names used in {@code CacheConfiguration}
+         * ({@code habitacion}, {@code categoria-habitacion}, {@code consultas}...).
+         */
+        private Map<String, Region> regiones = new LinkedHashMap<>();
+
+        public long getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(long maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTtl() {
+            return ttl;
+        }
+
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        public Map<String, Region> getRegiones() {
+            return regiones;
+        }
+
+        public void setRegiones(Map<String, Region> regiones) {
+            this.regiones = regiones;
+        }
+
+        /**
+         * @return the settings of the region: its overrides, completed with the defaults.
+         */
+        public Region region(String nombre) {
+            Region region = regiones.getOrDefault(nombre, new Region());
+            Region efectiva = new Region();
+            efectiva.setMaxEntries(region.getMaxEntries() != null ? region.getMaxEntries() : maxEntries);
+            efectiva.setTtl(region.getTtl() != null ? region.getTtl() : ttl);
+            return efectiva;
+        }
+
+        public static class Region {
+
+            private Long maxEntries;
+
+            private Duration ttl;
+
+            public Long getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(Long maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Duration getTtl() {
+                return ttl;
+            }
+
+            public void setTtl(Duration ttl) {
+                this.ttl = ttl;
+            }
+        }
+    }
 }
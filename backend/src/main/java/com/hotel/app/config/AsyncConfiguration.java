@@ -1,14 +1,22 @@
 package com.hotel.app.config;
 
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
@@ -25,13 +33,36 @@ public class AsyncConfiguration implements AsyncConfigurer {
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final Environment environment;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, Environment environment) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.environment = environment;
     }
 
+    /**
+     * With {@code spring.threads.virtual.enabled} on Java 21, one virtual thread
+     * per task, at most {@code spring.task.execution.simple.concurrency-limit}
+     * at a time; otherwise the {@code spring.task.execution.pool} thread pool.
+     * <p>
+     * Like the pool, the virtual executor queues the tasks over the limit (up to
+     * {@code spring.task.execution.pool.queue-capacity}) instead of blocking the
+     * caller, often a request thread in an {@code afterCommit} callback, and only
+     * rejects them once that queue is full.
+     */
     @Override
     @Bean(name = "taskExecutor")
     public Executor getAsyncExecutor() {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            LOG.debug("Creating Async Task Executor with virtual threads");
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(taskExecutionProperties.getThreadNamePrefix());
+            executor.setVirtualThreads(true);
+            Integer concurrencyLimit = taskExecutionProperties.getSimple().getConcurrencyLimit();
+            if (concurrencyLimit != null && concurrencyLimit > 0) {
+                return new ExceptionHandlingAsyncTaskExecutor(new QueueingTaskExecutor(executor, concurrencyLimit, taskExecutionProperties.getPool().getQueueCapacity()));
+            }
+            return new ExceptionHandlingAsyncTaskExecutor(executor);
+        }
         LOG.debug("Creating Async Task Executor");
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
@@ -45,4 +76,64 @@ public class AsyncConfiguration implements AsyncConfigurer {
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new SimpleAsyncUncaughtExceptionHandler();
     }
+
+    /**
+     * Runs at most {@code limit} tasks at a time and queues the rest until one
+     * finishes, where {@link SimpleAsyncTaskExecutor#setConcurrencyLimit(int)}
+     * would block the caller; tasks are rejected only once {@code queueCapacity}
+     * are waiting.
+     */
+    static class QueueingTaskExecutor implements AsyncTaskExecutor {
+
+        private final AsyncTaskExecutor delegate;
+
+        private final int queueCapacity;
+
+        private final Semaphore permits;
+
+        private final BlockingQueue<Runnable> queue;
+
+        QueueingTaskExecutor(AsyncTaskExecutor delegate, int limit, int queueCapacity) {
+            this.delegate = delegate;
+            this.queueCapacity = queueCapacity;
+            this.permits = new Semaphore(limit);
+            this.queue = new LinkedBlockingQueue<>(Math.max(queueCapacity, 1));
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            if (!queue.offer(task)) {
+                throw new TaskRejectedException("Executor busy: " + queueCapacity + " tasks queued, " + task + " rejected");
+            }
+            drain();
+        }
+
+        /**
+         * Starts queued tasks while permits are free. Called after queueing a task
+         * and after each task finishes, so a task queued while the last permit was
+         * being released is still picked up.
+         */
+        private void drain() {
+            while (!queue.isEmpty() && permits.tryAcquire()) {
+                Runnable next = queue.poll();
+                if (next == null) {
+                    permits.release();
+                    continue;
+                }
+                try {
+                    delegate.execute(() -> {
+                        try {
+                            next.run();
+                        } finally {
+                            permits.release();
+                            drain();
+                        }
+                    });
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,90 @@
+package com.hotel.app.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.hotel.app.domain.CategoriaHabitacion;
+import com.hotel.app.domain.ConfiguracionSistema;
+import com.hotel.app.domain.EstadoHabitacion;
+import com.hotel.app.domain.Habitacion;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.ServicioDisponibilidad;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Hibernate second-level cache, backed by Caffeine through JCache.
+ * <p>
+ * Every region is created here, sized and expired from
+ * {@code application.hibernate-cache}, and Hibernate is configured to fail on a
+ * region that does not exist, so a new {@code @Cache} entity has to be added to
+ * {@link #REGIONES}. Hit, miss, put and eviction counts are published as the
+ * {@code cache.*} meters, tagged with the region name.
+ */
+@Configuration
+public class CacheConfiguration {
+
+    /**
+     * Hibernate region names and the keys of their settings.
+     */
+    static final Map<String, String> REGIONES = new LinkedHashMap<>();
+
+    static {
+        REGIONES.put(Habitacion.class.getName(), "habitacion");
+        REGIONES.put(CategoriaHabitacion.class.getName(), "categoria-habitacion");
+        REGIONES.put(EstadoHabitacion.class.getName(), "estado-habitacion");
+        REGIONES.put(Servicio.class.getName(), "servicio");
+        REGIONES.put(ServicioDisponibilidad.class.getName(), "servicio-disponibilidad");
+        REGIONES.put(ConfiguracionSistema.class.getName(), "configuracion-sistema");
+        REGIONES.put(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, "consultas");
+        // Must outlive the cached query results: an expired timestamp makes Hibernate drop every result of the table
+        REGIONES.put(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, "timestamps");
+    }
+
+    @Bean
+    public CacheManager hibernateCacheManager(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), getClass().getClassLoader());
+        ApplicationProperties.HibernateCache config = applicationProperties.getHibernateCache();
+        REGIONES.forEach((region, clave) -> {
+            Cache<Object, Object> cache = cacheManager.getCache(region);
+            if (cache != null) {
+                // Another application context of the same JVM (tests) already created it
+                cache.clear();
+            } else {
+                cache = cacheManager.createCache(region, configuracion(config.region(clave)));
+            }
+            JCacheMetrics.monitor(meterRegistry, cache);
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCachePropertiesCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> {
+            hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            hibernateProperties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> configuracion(ApplicationProperties.HibernateCache.Region region) {
+        CaffeineConfiguration<Object, Object> configuracion = new CaffeineConfiguration<>();
+        configuracion.setMaximumSize(OptionalLong.of(region.getMaxEntries()));
+        if (!region.getTtl().isZero()) {
+            configuracion.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        configuracion.setStatisticsEnabled(true);
+        return configuracion;
+    }
+}
@@ -0,0 +1,47 @@
+package com.hotel.app.config;
+
+import com.hotel.app.service.job.ImagenOrphanJob;
+import com.hotel.app.service.job.ImagenOrphanJob.Informe;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /management/imageorphans}: the orphan image files report.
+ * <ul>
+ * <li>{@code GET /management/imageorphans}: the report of the latest run of the
+ * {@code imagenHuerfanas} job on this node.</li>
+ * <li>{@code POST /management/imageorphans}: a dry run now, returning its
+ * report; nothing is moved or deleted.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "imageorphans")
+public class ImagenOrphansEndpoint {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenOrphansEndpoint.class);
+
+    private final ImagenOrphanJob imagenOrphanJob;
+
+    public ImagenOrphansEndpoint(ImagenOrphanJob imagenOrphanJob) {
+        this.imagenOrphanJob = imagenOrphanJob;
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<Informe> informe() {
+        return imagenOrphanJob
+                .getUltimoInforme()
+                .map(WebEndpointResponse::new)
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+
+    @WriteOperation
+    public Informe dryRun() {
+        LOG.info("Dry run of the orphan image files requested");
+        return imagenOrphanJob.ejecutar(true);
+    }
+}
@@ -0,0 +1,101 @@
+package com.hotel.app.config;
+
+import com.hotel.app.aop.lock.JdbcLockProvider;
+import com.hotel.app.service.dto.JobRunDTO;
+import com.hotel.app.service.job.JobRunHistory;
+import com.hotel.app.service.job.ManagedJob;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /management/jobs}: the scheduled jobs with their latest runs, and a
+ * manual trigger.
+ * <ul>
+ * <li>{@code GET /management/jobs}: job names and the latest runs of all of
+ * them.</li>
+ * <li>{@code GET /management/jobs/{job}}: the latest runs of a job.</li>
+ * <li>{@code POST /management/jobs/{job}}: runs a job now, in the background;
+ * the run shows up in the history. Answers 409 without running it when the
+ * job is disabled by configuration or its lock is held (a run in progress on
+ * any node, or within its {@code lockAtLeastFor}), and 503 when the executor
+ * is full.</li>
+ * </ul>
+ */
+@Component
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobsEndpoint.class);
+
+    private static final int RECENT_RUNS = 50;
+
+    private final Map<String, ManagedJob> jobs;
+
+    private final JobRunHistory jobRunHistory;
+
+    private final Executor taskExecutor;
+
+    private final JdbcLockProvider lockProvider;
+
+    public JobsEndpoint(List<ManagedJob> jobs, JobRunHistory jobRunHistory,
+            @Qualifier("taskExecutor") Executor taskExecutor, JdbcLockProvider lockProvider) {
+        this.jobs = jobs.stream()
+                .collect(Collectors.toMap(ManagedJob::getJobName, Function.identity(), (a, b) -> a, TreeMap::new));
+        this.jobRunHistory = jobRunHistory;
+        this.taskExecutor = taskExecutor;
+        this.lockProvider = lockProvider;
+    }
+
+    @ReadOperation
+    public Map<String, Object> jobs() {
+        return Map.of("jobs", jobs.keySet(), "runs", jobRunHistory.findRecent(null, RECENT_RUNS));
+    }
+
+    @ReadOperation
+    public WebEndpointResponse<List<JobRunDTO>> runs(@Selector String job) {
+        if (!jobs.containsKey(job)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(jobRunHistory.findRecent(job, RECENT_RUNS));
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<Map<String, String>> trigger(@Selector String job) {
+        ManagedJob managedJob = jobs.get(job);
+        if (managedJob == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        // In both cases the run would silently do nothing
+        if (!managedJob.isEnabled()) {
+            LOG.info("Manual run of job {} skipped: disabled", job);
+            return new WebEndpointResponse<>(Map.of("job", job, "status", "disabled"), 409);
+        }
+        if (lockProvider.isLocked(managedJob.getLockName())) {
+            LOG.info("Manual run of job {} skipped: lock held", job);
+            return new WebEndpointResponse<>(Map.of("job", job, "status", "skipped: lock held"), 409);
+        }
+        LOG.info("Manual run of job {} requested", job);
+        try {
+            taskExecutor.execute(managedJob::run);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Manual run of job {} rejected: executor full", job);
+            return new WebEndpointResponse<>(Map.of("job", job, "status", "rejected: executor full"),
+                    WebEndpointResponse.STATUS_SERVICE_UNAVAILABLE);
+        }
+        return new WebEndpointResponse<>(Map.of("job", job, "status", "triggered"), 202);
+    }
+}
@@ -1,45 +1,51 @@
 package com.hotel.app.config;
 
+import jakarta.ws.rs.client.Client;
+import jakarta.ws.rs.client.ClientBuilder;
+import java.util.concurrent.TimeUnit;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
+import org.keycloak.admin.client.JacksonProvider;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+/**
+ * The Keycloak admin client, shared by the whole application: its HTTP
+ * connections are pooled and its access token is obtained once and refreshed
+ * by the client's token manager before it expires, instead of a login and a
+ * new HTTP client per call.
+ */
 @Configuration
 public class KeycloakConfiguration {
 
-    @Value("${keycloak.auth-server-url:http://localhost:9080}")
-    private String serverUrl;
-
-    @Value("${keycloak.realm:jhipster}")
-    private String realm;
-
-    @Value("${keycloak.resource:admin-cli}")
-    private String clientId;
-
-    @Value("${keycloak.credentials.secret:}")
-    private String clientSecret;
-
-    // Credentials for the creating user (Admin)
-    // In a real prod environment, this should be a service account or configured
-    // securely
-    // For this task, we will default to the standard dev admin credentials if not
-    // provided
-    @Value("${keycloak.admin.username:admin}")
-    private String adminUsername;
-
-    @Value("${keycloak.admin.password:admin}")
-    private String adminPassword;
+    @Bean(destroyMethod = "close")
+    public Keycloak keycloak(ApplicationProperties applicationProperties) {
+        return keycloak(applicationProperties.getKeycloak());
+    }
 
-    @Bean
-    public Keycloak keycloak() {
-        return KeycloakBuilder.builder()
-                .serverUrl(serverUrl)
-                .realm(realm)
-                .clientId(clientId)
-                .username(adminUsername)
-                .password(adminPassword)
+    /**
+     * Builds an admin client from the properties; the caller closes it.
+     */
+    public static Keycloak keycloak(ApplicationProperties.Keycloak properties) {
+        int poolSize = Math.max(1, properties.getPoolSize());
+        Client client = ((ResteasyClientBuilder) ClientBuilder.newBuilder())
+                .connectionPoolSize(poolSize)
+                .maxPooledPerRoute(poolSize)
+                .connectionCheckoutTimeout(properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .connectTimeout(properties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .readTimeout(properties.getReadTimeout().toMillis(), TimeUnit.MILLISECONDS)
+                .register(JacksonProvider.class, 100)
+                .build();
+        Keycloak keycloak = KeycloakBuilder.builder()
+                .serverUrl(properties.getServerUrl())
+                .realm(properties.getRealm())
+                .clientId(properties.getClientId())
+                .username(properties.getUsername())
+                .password(properties.getPassword())
+                .resteasyClient(client)
                 .build();
+        keycloak.tokenManager().setMinTokenValidity(properties.getTokenMinValidity().toSeconds());
+        return keycloak;
     }
 }
@@ -0,0 +1,45 @@
+package com.hotel.app.config;
+
+import com.hotel.app.aop.lock.JdbcLockProvider;
+import com.hotel.app.aop.lock.SchedulerLockAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Cluster-wide locking of {@link com.hotel.app.aop.lock.SchedulerLock} methods.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class SchedulerLockConfiguration {
+
+    @Bean
+    public JdbcLockProvider jdbcLockProvider(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        return new JdbcLockProvider(jdbcTemplate, transactionManager, holderId());
+    }
+
+    @Bean
+    public SchedulerLockAspect schedulerLockAspect(JdbcLockProvider jdbcLockProvider, MeterRegistry meterRegistry) {
+        return new SchedulerLockAspect(jdbcLockProvider, meterRegistry);
+    }
+
+    /**
+     * Host name and process id, plus a random suffix so two instances on the same
+     * host (or containers with the same host name) never share an id.
+     */
+    private static String holderId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            host = "unknown";
+        }
+        return host + ":" + ProcessHandle.current().pid() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -3,11 +3,15 @@ package com.hotel.app.config;
 import jakarta.servlet.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.web.embedded.undertow.UndertowDeploymentInfoCustomizer;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import org.springframework.util.CollectionUtils;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -36,10 +40,28 @@ public class WebConfigurer implements ServletContextInitializer {
         if (env.getActiveProfiles().length != 0) {
             LOG.info("Web application configuration, using profiles: {}", (Object[]) env.getActiveProfiles());
         }
+        if (env.getProperty("spring.threads.virtual.enabled", Boolean.class, false) && !Threading.VIRTUAL.isActive(env)) {
+            LOG.warn("spring.threads.virtual.enabled is set, but virtual threads need Java 21: using platform threads");
+        }
 
         LOG.info("Web application fully configured");
     }
 
+    /**
+     * Runs each request on its own virtual thread instead of an Undertow worker
+     * thread, so requests blocked on Postgres, Keycloak or Stripe do not hold a
+     * worker; the Hikari and Keycloak client pools still bound those calls.
+     */
+    @Bean
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public UndertowDeploymentInfoCustomizer virtualThreadsDeploymentInfoCustomizer() {
+        return deploymentInfo -> {
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("undertow-request-");
+            deploymentInfo.setExecutor(executor);
+            deploymentInfo.setAsyncExecutor(executor);
+        };
+    }
+
     @Bean
     public CorsFilter corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -4,12 +4,15 @@ import com.hotel.app.domain.enumeration.EstadoHabitacionNombre;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 /**
  * A EstadoHabitacion.
  */
 @Entity
 @Table(name = "estado_habitacion")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @SuppressWarnings("common-java:DuplicatedBlocks")
 public class EstadoHabitacion implements Serializable {
 
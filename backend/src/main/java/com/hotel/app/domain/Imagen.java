@@ -30,8 +30,11 @@ public class Imagen implements Serializable {
     @Column(name = "descripcion", length = 500)
     private String descripcion;
 
-    @Lob
-    @Column(name = "fichero", nullable = false)
+    /**
+     * Uploaded content, only set on the way in: the file is stored under
+     * {@link #sha256} and the legacy {@code fichero} column is never read.
+     */
+    @Transient
     private byte[] fichero;
 
     @NotNull
@@ -41,6 +44,29 @@ public class Imagen implements Serializable {
     @Column(name = "nombre_archivo")
     private String nombreArchivo;
 
+    @Size(max = 64)
+    @Column(name = "sha256", length = 64)
+    private String sha256;
+
+    @Column(name = "tamano")
+    private Long tamano;
+
+    /**
+     * Generated variants, {@code nombre:ancho:ruta} separated by commas; see
+     * {@code ImagenVariantService}.
+     */
+    @Size(max = 2000)
+    @Column(name = "variantes_rutas", length = 2000)
+    private String variantesRutas;
+
+    /**
+     * Configured sizes the variants were generated for; they are regenerated when
+     * it no longer matches the configuration.
+     */
+    @Size(max = 255)
+    @Column(name = "variantes_firma")
+    private String variantesFirma;
+
     @NotNull
     @Column(name = "activo", nullable = false)
     private Boolean activo;
@@ -137,6 +163,58 @@ public class Imagen implements Serializable {
         this.nombreArchivo = nombreArchivo;
     }
 
+    public String getSha256() {
+        return this.sha256;
+    }
+
+    public Imagen sha256(String sha256) {
+        this.setSha256(sha256);
+        return this;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getTamano() {
+        return this.tamano;
+    }
+
+    public Imagen tamano(Long tamano) {
+        this.setTamano(tamano);
+        return this;
+    }
+
+    public void setTamano(Long tamano) {
+        this.tamano = tamano;
+    }
+
+    public String getVariantesRutas() {
+        return this.variantesRutas;
+    }
+
+    public Imagen variantesRutas(String variantesRutas) {
+        this.setVariantesRutas(variantesRutas);
+        return this;
+    }
+
+    public void setVariantesRutas(String variantesRutas) {
+        this.variantesRutas = variantesRutas;
+    }
+
+    public String getVariantesFirma() {
+        return this.variantesFirma;
+    }
+
+    public Imagen variantesFirma(String variantesFirma) {
+        this.setVariantesFirma(variantesFirma);
+        return this;
+    }
+
+    public void setVariantesFirma(String variantesFirma) {
+        this.variantesFirma = variantesFirma;
+    }
+
     public Boolean getActivo() {
         return this.activo;
     }
@@ -217,9 +295,11 @@ public class Imagen implements Serializable {
                 "id=" + getId() +
                 ", nombre='" + getNombre() + "'" +
                 ", descripcion='" + getDescripcion() + "'" +
-                ", fichero='" + getFichero() + "'" +
                 ", ficheroContentType='" + getFicheroContentType() + "'" +
                 ", nombreArchivo='" + getNombreArchivo() + "'" +
+                ", sha256='" + getSha256() + "'" +
+                ", tamano=" + getTamano() +
+                ", variantesRutas='" + getVariantesRutas() + "'" +
                 ", activo='" + getActivo() + "'" +
                 ", fechaCreacion='" + getFechaCreacion() + "'" +
                 "}";
@@ -0,0 +1,161 @@
+package com.hotel.app.domain;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Progress of a chunked scheduled job, so an interrupted run resumes where it
+ * stopped instead of starting over.
+ */
+@Entity
+@Table(name = "job_checkpoint")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class JobCheckpoint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "job_name", length = 100, nullable = false)
+    private String jobName;
+
+    /**
+     * Cut-off instant of the run; a resumed run keeps it so the selection is
+     * the same one that was interrupted.
+     */
+    @NotNull
+    @Column(name = "cutoff", nullable = false)
+    private Instant cutoff;
+
+    /**
+     * Highest id processed and committed by the run.
+     */
+    @NotNull
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+
+    /**
+     * Consecutive runs that failed on the chunk after {@link #lastId}.
+     */
+    @NotNull
+    @Column(name = "failed_attempts", nullable = false)
+    private Integer failedAttempts = 0;
+
+    @NotNull
+    @Column(name = "completed", nullable = false)
+    private Boolean completed;
+
+    @NotNull
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    public String getJobName() {
+        return this.jobName;
+    }
+
+    public JobCheckpoint jobName(String jobName) {
+        this.setJobName(jobName);
+        return this;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public Instant getCutoff() {
+        return this.cutoff;
+    }
+
+    public JobCheckpoint cutoff(Instant cutoff) {
+        this.setCutoff(cutoff);
+        return this;
+    }
+
+    public void setCutoff(Instant cutoff) {
+        this.cutoff = cutoff;
+    }
+
+    public Long getLastId() {
+        return this.lastId;
+    }
+
+    public JobCheckpoint lastId(Long lastId) {
+        this.setLastId(lastId);
+        return this;
+    }
+
+    public void setLastId(Long lastId) {
+        this.lastId = lastId;
+    }
+
+    public Integer getFailedAttempts() {
+        return this.failedAttempts;
+    }
+
+    public JobCheckpoint failedAttempts(Integer failedAttempts) {
+        this.setFailedAttempts(failedAttempts);
+        return this;
+    }
+
+    public void setFailedAttempts(Integer failedAttempts) {
+        this.failedAttempts = failedAttempts;
+    }
+
+    public Boolean getCompleted() {
+        return this.completed;
+    }
+
+    public JobCheckpoint completed(Boolean completed) {
+        this.setCompleted(completed);
+        return this;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public Instant getUpdatedAt() {
+        return this.updatedAt;
+    }
+
+    public JobCheckpoint updatedAt(Instant updatedAt) {
+        this.setUpdatedAt(updatedAt);
+        return this;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobCheckpoint)) {
+            return false;
+        }
+        return getJobName() != null && getJobName().equals(((JobCheckpoint) o).getJobName());
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobCheckpoint{" +
+                "jobName='" + getJobName() + "'" +
+                ", cutoff='" + getCutoff() + "'" +
+                ", lastId=" + getLastId() +
+                ", failedAttempts=" + getFailedAttempts() +
+                ", completed='" + getCompleted() + "'" +
+                ", updatedAt='" + getUpdatedAt() + "'" +
+                "}";
+    }
+}
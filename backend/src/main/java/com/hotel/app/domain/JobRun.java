@@ -0,0 +1,211 @@
+package com.hotel.app.domain;
+
+import com.hotel.app.domain.enumeration.JobRunOutcome;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * One run of a scheduled job: where and when it ran, how many rows it
+ * processed and how it ended.
+ */
+@Entity
+@Table(name = "job_run")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class JobRun implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Size(max = 100)
+    @Column(name = "job_name", length = 100, nullable = false)
+    private String jobName;
+
+    /**
+     * Instance that ran the job, see
+     * {@link com.hotel.app.aop.lock.JdbcLockProvider#getHolderId()}.
+     */
+    @NotNull
+    @Size(max = 255)
+    @Column(name = "node", length = 255, nullable = false)
+    private String node;
+
+    @NotNull
+    @Column(name = "started_at", nullable = false)
+    private Instant startedAt;
+
+    @Column(name = "finished_at")
+    private Instant finishedAt;
+
+    @Column(name = "rows_processed")
+    private Long rowsProcessed;
+
+    @Column(name = "chunks")
+    private Integer chunks;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "outcome", nullable = false)
+    private JobRunOutcome outcome;
+
+    @Size(max = 2000)
+    @Column(name = "error", length = 2000)
+    private String error;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public JobRun id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return this.jobName;
+    }
+
+    public JobRun jobName(String jobName) {
+        this.setJobName(jobName);
+        return this;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getNode() {
+        return this.node;
+    }
+
+    public JobRun node(String node) {
+        this.setNode(node);
+        return this;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Instant getStartedAt() {
+        return this.startedAt;
+    }
+
+    public JobRun startedAt(Instant startedAt) {
+        this.setStartedAt(startedAt);
+        return this;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return this.finishedAt;
+    }
+
+    public JobRun finishedAt(Instant finishedAt) {
+        this.setFinishedAt(finishedAt);
+        return this;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Long getRowsProcessed() {
+        return this.rowsProcessed;
+    }
+
+    public JobRun rowsProcessed(Long rowsProcessed) {
+        this.setRowsProcessed(rowsProcessed);
+        return this;
+    }
+
+    public void setRowsProcessed(Long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public Integer getChunks() {
+        return this.chunks;
+    }
+
+    public JobRun chunks(Integer chunks) {
+        this.setChunks(chunks);
+        return this;
+    }
+
+    public void setChunks(Integer chunks) {
+        this.chunks = chunks;
+    }
+
+    public JobRunOutcome getOutcome() {
+        return this.outcome;
+    }
+
+    public JobRun outcome(JobRunOutcome outcome) {
+        this.setOutcome(outcome);
+        return this;
+    }
+
+    public void setOutcome(JobRunOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getError() {
+        return this.error;
+    }
+
+    public JobRun error(String error) {
+        this.setError(error);
+        return this;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobRun)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((JobRun) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobRun{" +
+                "id=" + getId() +
+                ", jobName='" + getJobName() + "'" +
+                ", node='" + getNode() + "'" +
+                ", startedAt='" + getStartedAt() + "'" +
+                ", finishedAt='" + getFinishedAt() + "'" +
+                ", rowsProcessed=" + getRowsProcessed() +
+                ", chunks=" + getChunks() +
+                ", outcome='" + getOutcome() + "'" +
+                ", error='" + getError() + "'" +
+                "}";
+    }
+}
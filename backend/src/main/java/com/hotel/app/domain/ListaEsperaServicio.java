@@ -0,0 +1,244 @@
+package com.hotel.app.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.hotel.app.domain.enumeration.EstadoListaEspera;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+
+/**
+ * A ListaEsperaServicio: a guest waiting for a full
+ * {@link ServicioDisponibilidad} slot of a {@link Servicio}.
+ * <p>
+ * Entries of the same (servicio, fechaServicio) are served in id order.
+ */
+@Entity
+@Table(name = "lista_espera_servicio")
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ListaEsperaServicio implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    @Column(name = "id")
+    private Long id;
+
+    @NotNull
+    @Column(name = "fecha_solicitud", nullable = false)
+    private Instant fechaSolicitud;
+
+    @NotNull
+    @Column(name = "fecha_servicio", nullable = false)
+    private ZonedDateTime fechaServicio;
+
+    @NotNull
+    @Min(value = 1)
+    @Column(name = "numero_personas", nullable = false)
+    private Integer numeroPersonas;
+
+    @NotNull
+    @Min(value = 1)
+    @Column(name = "cantidad", nullable = false)
+    private Integer cantidad;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "estado", nullable = false)
+    private EstadoListaEspera estado;
+
+    @Column(name = "fecha_promocion")
+    private Instant fechaPromocion;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Servicio servicio;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnoreProperties(value = { "cliente" }, allowSetters = true)
+    private Reserva reserva;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Cliente cliente;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JsonIgnoreProperties(value = { "servicio", "reserva", "cliente", "pago" }, allowSetters = true)
+    private ServicioContratado servicioContratado;
+
+    public Long getId() {
+        return this.id;
+    }
+
+    public ListaEsperaServicio id(Long id) {
+        this.setId(id);
+        return this;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFechaSolicitud() {
+        return this.fechaSolicitud;
+    }
+
+    public ListaEsperaServicio fechaSolicitud(Instant fechaSolicitud) {
+        this.setFechaSolicitud(fechaSolicitud);
+        return this;
+    }
+
+    public void setFechaSolicitud(Instant fechaSolicitud) {
+        this.fechaSolicitud = fechaSolicitud;
+    }
+
+    public ZonedDateTime getFechaServicio() {
+        return this.fechaServicio;
+    }
+
+    public ListaEsperaServicio fechaServicio(ZonedDateTime fechaServicio) {
+        this.setFechaServicio(fechaServicio);
+        return this;
+    }
+
+    public void setFechaServicio(ZonedDateTime fechaServicio) {
+        this.fechaServicio = fechaServicio;
+    }
+
+    public Integer getNumeroPersonas() {
+        return this.numeroPersonas;
+    }
+
+    public ListaEsperaServicio numeroPersonas(Integer numeroPersonas) {
+        this.setNumeroPersonas(numeroPersonas);
+        return this;
+    }
+
+    public void setNumeroPersonas(Integer numeroPersonas) {
+        this.numeroPersonas = numeroPersonas;
+    }
+
+    public Integer getCantidad() {
+        return this.cantidad;
+    }
+
+    public ListaEsperaServicio cantidad(Integer cantidad) {
+        this.setCantidad(cantidad);
+        return this;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public EstadoListaEspera getEstado() {
+        return this.estado;
+    }
+
+    public ListaEsperaServicio estado(EstadoListaEspera estado) {
+        this.setEstado(estado);
+        return this;
+    }
+
+    public void setEstado(EstadoListaEspera estado) {
+        this.estado = estado;
+    }
+
+    public Instant getFechaPromocion() {
+        return this.fechaPromocion;
+    }
+
+    public ListaEsperaServicio fechaPromocion(Instant fechaPromocion) {
+        this.setFechaPromocion(fechaPromocion);
+        return this;
+    }
+
+    public void setFechaPromocion(Instant fechaPromocion) {
+        this.fechaPromocion = fechaPromocion;
+    }
+
+    public Servicio getServicio() {
+        return this.servicio;
+    }
+
+    public void setServicio(Servicio servicio) {
+        this.servicio = servicio;
+    }
+
+    public ListaEsperaServicio servicio(Servicio servicio) {
+        this.setServicio(servicio);
+        return this;
+    }
+
+    public Reserva getReserva() {
+        return this.reserva;
+    }
+
+    public void setReserva(Reserva reserva) {
+        this.reserva = reserva;
+    }
+
+    public ListaEsperaServicio reserva(Reserva reserva) {
+        this.setReserva(reserva);
+        return this;
+    }
+
+    public Cliente getCliente() {
+        return this.cliente;
+    }
+
+    public void setCliente(Cliente cliente) {
+        this.cliente = cliente;
+    }
+
+    public ListaEsperaServicio cliente(Cliente cliente) {
+        this.setCliente(cliente);
+        return this;
+    }
+
+    public ServicioContratado getServicioContratado() {
+        return this.servicioContratado;
+    }
+
+    public void setServicioContratado(ServicioContratado servicioContratado) {
+        this.servicioContratado = servicioContratado;
+    }
+
+    public ListaEsperaServicio servicioContratado(ServicioContratado servicioContratado) {
+        this.setServicioContratado(servicioContratado);
+        return this;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ListaEsperaServicio)) {
+            return false;
+        }
+        return getId() != null && getId().equals(((ListaEsperaServicio) o).getId());
+    }
+
+    @Override
+    public int hashCode() {
+        // see
+        // https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ListaEsperaServicio{" +
+                "id=" + getId() +
+                ", fechaSolicitud='" + getFechaSolicitud() + "'" +
+                ", fechaServicio='" + getFechaServicio() + "'" +
+                ", numeroPersonas=" + getNumeroPersonas() +
+                ", cantidad=" + getCantidad() +
+                ", estado='" + getEstado() + "'" +
+                ", fechaPromocion='" + getFechaPromocion() + "'" +
+                "}";
+    }
+}
@@ -43,6 +43,14 @@ public class Reserva implements Serializable {
     @Column(name = "activo", nullable = false)
     private Boolean activo;
 
+    /**
+     * Booked anonymously: while PENDIENTE and unpaid, its rooms are only held for
+     * {@code application.reservas.hold-ttl-minutes}. Set on creation only.
+     */
+    @NotNull
+    @Column(name = "expira_sin_pago", nullable = false, updatable = false)
+    private Boolean expiraSinPago = false;
+
     @ManyToOne(fetch = FetchType.LAZY)
     private Cliente cliente;
 
@@ -126,6 +134,19 @@ public class Reserva implements Serializable {
         this.activo = activo;
     }
 
+    public Boolean getExpiraSinPago() {
+        return this.expiraSinPago;
+    }
+
+    public Reserva expiraSinPago(Boolean expiraSinPago) {
+        this.setExpiraSinPago(expiraSinPago);
+        return this;
+    }
+
+    public void setExpiraSinPago(Boolean expiraSinPago) {
+        this.expiraSinPago = expiraSinPago;
+    }
+
     public Cliente getCliente() {
         return this.cliente;
     }
@@ -168,6 +189,7 @@ public class Reserva implements Serializable {
             ", fechaFin='" + getFechaFin() + "'" +
             ", estado='" + getEstado() + "'" +
             ", activo='" + getActivo() + "'" +
+            ", expiraSinPago='" + getExpiraSinPago() + "'" +
             "}";
     }
 }
@@ -0,0 +1,10 @@
+package com.hotel.app.domain.enumeration;
+
+/**
+ * The EstadoListaEspera enumeration.
+ */
+public enum EstadoListaEspera {
+    EN_ESPERA,
+    PROMOVIDO,
+    CANCELADO,
+}
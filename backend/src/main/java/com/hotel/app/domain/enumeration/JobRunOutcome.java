@@ -0,0 +1,10 @@
+package com.hotel.app.domain.enumeration;
+
+/**
+ * The JobRunOutcome enumeration.
+ */
+public enum JobRunOutcome {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+}
@@ -1,14 +1,23 @@
 package com.hotel.app.repository;
 
 import com.hotel.app.domain.Cliente;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 /**
  * Spring Data JPA repository for the Cliente entity.
+ * <p>
+ * Native updates declare the table they change, otherwise Hibernate empties the
+ * whole second-level cache after each of them.
  */
 @SuppressWarnings("unused")
 @Repository
@@ -20,4 +29,114 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     Optional<Cliente> findOneByNumeroIdentificacion(String numeroIdentificacion);
 
     Page<Cliente> findByActivo(Boolean activo, Pageable pageable);
+
+    /**
+     * Guests whose normalized {@code busqueda} column contains the text (or its
+     * compact form, for phones and identifications) or is similar to it, served by
+     * the trigram index. An exact email comes first, then substring matches, then
+     * by word similarity.
+     *
+     * @param texto the normalized query.
+     * @param patron {@code %texto%}, with LIKE wildcards escaped.
+     * @param patronCompacto {@code %compacto%}, with LIKE wildcards escaped.
+     * @param limite the maximum number of rows.
+     */
+    @Query(value = "select c.* from cliente c " +
+            "where c.busqueda like :patron or c.busqueda like :patronCompacto or :texto <% c.busqueda " +
+            "order by c.correo_normalizado = :texto desc, " +
+            "(c.busqueda like :patron or c.busqueda like :patronCompacto) desc, " +
+            "word_similarity(:texto, c.busqueda) desc, c.id " +
+            "limit :limite", nativeQuery = true)
+    List<Cliente> buscar(
+            @Param("texto") String texto,
+            @Param("patron") String patron,
+            @Param("patronCompacto") String patronCompacto,
+            @Param("limite") int limite);
+
+    /**
+     * Keycloak account provisioning state of a cliente, see
+     * {@code com.hotel.app.service.KeycloakProvisioningService}.
+     */
+    interface ProvisionKeycloak {
+        Long getId();
+
+        String getCorreo();
+
+        String getNombre();
+
+        String getApellido();
+
+        String getKeycloakId();
+
+        String getEstado();
+
+        Integer getIntentos();
+    }
+
+    @Query("select c.keycloakId from Cliente c where c.id = :id")
+    Optional<String> findKeycloakIdById(@Param("id") Long id);
+
+    @Query(value = "select id, correo, nombre, apellido, keycloak_id as keycloakId, keycloak_provision as estado, " +
+            "keycloak_provision_intentos as intentos from cliente where id = :id", nativeQuery = true)
+    Optional<ProvisionKeycloak> findProvisionKeycloakById(@Param("id") Long id);
+
+    /**
+     * Marks a cliente without Keycloak account as waiting for one, with no
+     * failed attempts.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cliente"))
+    @Query(value = "update cliente set keycloak_provision = 'PENDIENTE', keycloak_provision_intentos = 0, " +
+            "keycloak_provision_siguiente = :siguiente, keycloak_provision_error = null " +
+            "where id = :id and keycloak_id is null", nativeQuery = true)
+    int marcarProvisionPendiente(@Param("id") Long id, @Param("siguiente") Instant siguiente);
+
+    /**
+     * Links the Keycloak account, unless the cliente got one meanwhile.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cliente"))
+    @Query(value = "update cliente set keycloak_provision = 'PENDIENTE', keycloak_provision_intentos = 0, " +
+            "keycloak_provision_siguiente = :siguiente, keycloak_provision_error = null " +
+            "where id in (:ids) and keycloak_id is null", nativeQuery = true)
+    int marcarProvisionesPendientes(@Param("ids") Collection<Long> ids, @Param("siguiente") Instant siguiente);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cliente"))
+    @Query(value = "update cliente set keycloak_id = :keycloakId, keycloak_provision = null, " +
+            "keycloak_provision_intentos = null, keycloak_provision_siguiente = null, keycloak_provision_error = null " +
+            "where id = :id and keycloak_id is null", nativeQuery = true)
+    int vincularKeycloak(@Param("id") Long id, @Param("keycloakId") String keycloakId);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cliente"))
+    @Query(value = "update cliente set keycloak_provision = :estado, keycloak_provision_intentos = :intentos, " +
+            "keycloak_provision_siguiente = :siguiente, keycloak_provision_error = :error " +
+            "where id = :id and keycloak_id is null", nativeQuery = true)
+    int registrarFalloProvision(
+            @Param("id") Long id,
+            @Param("estado") String estado,
+            @Param("intentos") int intentos,
+            @Param("siguiente") Instant siguiente,
+            @Param("error") String error);
+
+    /**
+     * Ids of the clientes whose Keycloak account is due for an attempt, in id
+     * order.
+     */
+    @Query(value = "select id from cliente where keycloak_provision = 'PENDIENTE' and keycloak_provision_siguiente <= :cutoff " +
+            "and id > :afterId order by id limit :limit", nativeQuery = true)
+    List<Long> findChunkIdsConProvisionPendiente(
+            @Param("cutoff") Instant cutoff,
+            @Param("afterId") long afterId,
+            @Param("limit") int limit);
+
+    /**
+     * Which of the given lower-case emails are already taken.
+     */
+    @Query(value = "select correo_normalizado from cliente where correo_normalizado in (:correos)", nativeQuery = true)
+    List<String> findCorreosExistentes(@Param("correos") Collection<String> correos);
+
+    @Query("select c.numeroIdentificacion from Cliente c where c.numeroIdentificacion in :numeros")
+    List<String> findNumerosIdentificacionExistentes(@Param("numeros") Collection<String> numeros);
 }
@@ -1,8 +1,10 @@
 package com.hotel.app.repository;
 
 import com.hotel.app.domain.ConfiguracionSistema;
+import jakarta.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -35,5 +37,10 @@ public interface ConfiguracionSistemaRepository extends JpaRepository<Configurac
     @Query("select configuracionSistema from ConfiguracionSistema configuracionSistema left join fetch configuracionSistema.imagen where configuracionSistema.id =:id")
     Optional<ConfiguracionSistema> findOneWithToOneRelationships(@Param("id") Long id);
 
+    /**
+     * Message templates are looked up on every notification, so the result is kept
+     * in the query cache until the table changes.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<ConfiguracionSistema> findByClave(String clave);
 }
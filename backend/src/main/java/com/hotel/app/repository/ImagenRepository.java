@@ -1,8 +1,11 @@
 package com.hotel.app.repository;
 
 import com.hotel.app.domain.Imagen;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
@@ -11,6 +14,9 @@ import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the Imagen entity.
+ * <p>
+ * Native updates declare the table they change, otherwise Hibernate empties the
+ * whole second-level cache after each of them.
  */
 @Repository
 public interface ImagenRepository extends JpaRepository<Imagen, Long> {
@@ -38,4 +44,125 @@ public interface ImagenRepository extends JpaRepository<Imagen, Long> {
     List<Imagen> findByHabitacionId(Long habitacionId);
 
     List<Imagen> findByServicioId(Long servicioId);
+
+    /**
+     * URLs of the active images of every servicio, without loading the file content.
+     */
+    @Query("select imagen.servicio.id as servicioId, imagen.nombreArchivo as nombreArchivo from Imagen imagen " +
+            "where imagen.servicio is not null and imagen.activo = true and imagen.nombreArchivo is not null " +
+            "order by imagen.id")
+    List<ServicioImagenUrl> findServicioImagenUrls();
+
+    /**
+     * Ids of the images whose content is still in the legacy {@code fichero}
+     * column, in id order, for the blob migration.
+     */
+    @Query(value = "select id from imagen where fichero is not null and id > :afterId order by id limit :limit", nativeQuery = true)
+    List<Long> findChunkIdsWithFichero(@Param("afterId") long afterId, @Param("limit") int limit);
+
+    /**
+     * Legacy content of an image, read only on explicit request.
+     */
+    @Query(value = "select fichero from imagen where id = :id", nativeQuery = true)
+    byte[] findFicheroById(@Param("id") Long id);
+
+    /**
+     * Points an image to its stored file and clears the legacy {@code fichero}
+     * column.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "imagen"))
+    @Query(value = "update imagen set fichero = null, nombre_archivo = :nombreArchivo, sha256 = :sha256, tamano = :tamano " +
+            "where id = :id", nativeQuery = true)
+    int moveFichero(@Param("id") Long id, @Param("nombreArchivo") String nombreArchivo,
+            @Param("sha256") String sha256, @Param("tamano") long tamano);
+
+    /**
+     * Ids of the images whose variants are missing or were generated for other
+     * sizes, in id order.
+     */
+    @Query("select imagen.id from Imagen imagen where imagen.sha256 is not null and imagen.id > :afterId " +
+            "and (imagen.variantesFirma is null or imagen.variantesFirma <> :firma) order by imagen.id")
+    List<Long> findChunkIdsWithVariantesPendientes(@Param("firma") String firma, @Param("afterId") long afterId,
+            Pageable pageable);
+
+    /**
+     * Records the variants of an image, unless its content changed since they
+     * were generated.
+     */
+    @Modifying
+    @Query("update Imagen imagen set imagen.variantesRutas = :variantes, imagen.variantesFirma = :firma " +
+            "where imagen.id = :id and imagen.sha256 = :sha256")
+    int updateVariantes(@Param("id") Long id, @Param("sha256") String sha256, @Param("variantes") String variantes,
+            @Param("firma") String firma);
+
+    /**
+     * Stored files of the images of a habitacion, read before they are deleted in
+     * bulk.
+     */
+    @Query("select imagen.nombreArchivo as nombreArchivo, imagen.variantesRutas as variantesRutas from Imagen imagen " +
+            "where imagen.habitacion.id = :habitacionId")
+    List<ImagenArchivos> findArchivosByHabitacionId(@Param("habitacionId") Long habitacionId);
+
+    /**
+     * Stored files of the images of a servicio, read before they are deleted in
+     * bulk.
+     */
+    @Query("select imagen.nombreArchivo as nombreArchivo, imagen.variantesRutas as variantesRutas from Imagen imagen " +
+            "where imagen.servicio.id = :servicioId")
+    List<ImagenArchivos> findArchivosByServicioId(@Param("servicioId") Long servicioId);
+
+    /**
+     * Deletes the images of a habitacion in one statement; their files are left
+     * to the caller.
+     */
+    @Modifying
+    @Query("delete from Imagen imagen where imagen.habitacion.id = :habitacionId")
+    int bulkDeleteByHabitacionId(@Param("habitacionId") Long habitacionId);
+
+    /**
+     * Deletes the images of a servicio in one statement; their files are left to
+     * the caller.
+     */
+    @Modifying
+    @Query("delete from Imagen imagen where imagen.servicio.id = :servicioId")
+    int bulkDeleteByServicioId(@Param("servicioId") Long servicioId);
+
+    /**
+     * Of the given paths, those some row points to: an image file or an image URL
+     * of a habitacion, servicio, landing section or social network.
+     */
+    @Query(value = "select nombre_archivo from imagen where nombre_archivo in (:rutas) " +
+            "union select imagen from habitacion where imagen in (:rutas) " +
+            "union select url_image from servicio where url_image in (:rutas) " +
+            "union select imagen_fondo_url from seccion_hero where imagen_fondo_url in (:rutas) " +
+            "union select imagen_fondo_url from seccion_contacto where imagen_fondo_url in (:rutas) " +
+            "union select icono_url from red_social where icono_url in (:rutas) " +
+            "union select icono_url from red_social_landing where icono_url in (:rutas)", nativeQuery = true)
+    List<String> findRutasReferenciadas(@Param("rutas") Collection<String> rutas);
+
+    /**
+     * Of the given content hashes, those of existing images; variants are named
+     * after the hash of their original.
+     */
+    @Query("select distinct imagen.sha256 from Imagen imagen where imagen.sha256 in :shas")
+    List<String> findShasReferenciados(@Param("shas") Collection<String> shas);
+
+    /**
+     * Stored files of an image.
+     */
+    interface ImagenArchivos {
+        String getNombreArchivo();
+
+        String getVariantesRutas();
+    }
+
+    /**
+     * Image file name of a servicio.
+     */
+    interface ServicioImagenUrl {
+        Long getServicioId();
+
+        String getNombreArchivo();
+    }
 }
@@ -0,0 +1,11 @@
+package com.hotel.app.repository;
+
+import com.hotel.app.domain.JobCheckpoint;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the JobCheckpoint entity.
+ */
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {}
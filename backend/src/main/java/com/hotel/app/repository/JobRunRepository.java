@@ -0,0 +1,23 @@
+package com.hotel.app.repository;
+
+import com.hotel.app.domain.JobRun;
+import java.time.Instant;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the JobRun entity.
+ */
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+    Page<JobRun> findAllByOrderByStartedAtDesc(Pageable pageable);
+
+    Page<JobRun> findByJobNameOrderByStartedAtDesc(String jobName, Pageable pageable);
+
+    @Modifying
+    @Query("delete from JobRun jobRun where jobRun.startedAt < :before")
+    int deleteByStartedAtBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,65 @@
+package com.hotel.app.repository;
+
+import com.hotel.app.domain.ListaEsperaServicio;
+import com.hotel.app.domain.enumeration.EstadoListaEspera;
+import jakarta.persistence.LockModeType;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Spring Data JPA repository for the ListaEsperaServicio entity.
+ * <p>
+ * Queue lookups are served by the
+ * {@code (servicio_id, fecha_servicio, estado, id)} index.
+ */
+@Repository
+public interface ListaEsperaServicioRepository extends JpaRepository<ListaEsperaServicio, Long> {
+    @Query(
+        value = "select listaEspera from ListaEsperaServicio listaEspera left join fetch listaEspera.servicio left join fetch listaEspera.cliente",
+        countQuery = "select count(listaEspera) from ListaEsperaServicio listaEspera"
+    )
+    Page<ListaEsperaServicio> findAllWithToOneRelationships(Pageable pageable);
+
+    @Query(
+        "select listaEspera from ListaEsperaServicio listaEspera left join fetch listaEspera.servicio left join fetch listaEspera.cliente where listaEspera.id = :id"
+    )
+    Optional<ListaEsperaServicio> findOneWithToOneRelationships(@Param("id") Long id);
+
+    List<ListaEsperaServicio> findByReservaIdOrderByIdAsc(Long reservaId);
+
+    /**
+     * Head of the queue of a slot, locked so concurrent cancellations of the
+     * same slot promote one guest at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<ListaEsperaServicio> findFirstByServicioIdAndFechaServicioAndEstadoOrderByIdAsc(
+        Long servicioId,
+        ZonedDateTime fechaServicio,
+        EstadoListaEspera estado
+    );
+
+    boolean existsByReservaIdAndServicioIdAndFechaServicioAndEstado(
+        Long reservaId,
+        Long servicioId,
+        ZonedDateTime fechaServicio,
+        EstadoListaEspera estado
+    );
+
+    /**
+     * Number of entries ahead of the given one in its slot queue.
+     */
+    @Query(
+        "select count(le) from ListaEsperaServicio le " +
+        "where le.servicio.id = :servicioId " +
+        "and le.fechaServicio = :fechaServicio " +
+        "and le.estado = com.hotel.app.domain.enumeration.EstadoListaEspera.EN_ESPERA " +
+        "and le.id < :id"
+    )
+    long countAhead(@Param("servicioId") Long servicioId, @Param("fechaServicio") ZonedDateTime fechaServicio, @Param("id") Long id);
+}
@@ -25,4 +25,9 @@ public interface MensajeSoporteRepository extends JpaRepository<MensajeSoporte,
 
         org.springframework.data.domain.Page<MensajeSoporte> findByActivo(Boolean activo,
                         org.springframework.data.domain.Pageable pageable);
+
+        // Messages about the reservas of a client, or sent by or to its account
+        @Query("SELECT m FROM MensajeSoporte m WHERE m.reserva.id IN :reservaIds OR m.userId = :userId OR m.destinatarioId = :userId ORDER BY m.fechaMensaje DESC")
+        java.util.List<MensajeSoporte> findByReservaIdInOrUserId(@Param("reservaIds") java.util.Collection<Long> reservaIds,
+                        @Param("userId") String userId, org.springframework.data.domain.Pageable pageable);
 }
@@ -1,8 +1,12 @@
 package com.hotel.app.repository;
 
 import com.hotel.app.domain.Pago;
+import com.hotel.app.domain.enumeration.EstadoPago;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -12,4 +16,9 @@ import java.util.Optional;
 @Repository
 public interface PagoRepository extends JpaRepository<Pago, Long> {
     Optional<Pago> findByTransactionId(String transactionId);
+
+    @Query("select pago from Pago pago where pago.reserva.id in :reservaIds or pago.id in :ids order by pago.fechaPago desc")
+    List<Pago> findAllByReservaIdInOrIdIn(@Param("reservaIds") Collection<Long> reservaIds, @Param("ids") Collection<Long> ids);
+
+    boolean existsByReservaIdAndEstadoAndActivoTrue(Long reservaId, EstadoPago estado);
 }
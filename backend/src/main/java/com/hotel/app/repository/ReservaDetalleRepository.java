@@ -40,6 +40,9 @@ public interface ReservaDetalleRepository extends JpaRepository<ReservaDetalle,
 
     Page<ReservaDetalle> findByActivo(Boolean activo, Pageable pageable);
 
+    @Query("select reservaDetalle from ReservaDetalle reservaDetalle left join fetch reservaDetalle.habitacion where reservaDetalle.reserva.id in :reservaIds")
+    List<ReservaDetalle> findAllWithHabitacionByReservaIdIn(@Param("reservaIds") java.util.Collection<Long> reservaIds);
+
     @Query("select reservaDetalle from ReservaDetalle reservaDetalle where reservaDetalle.reserva.id = :reservaId")
     List<ReservaDetalle> findAllByReservaId(@Param("reservaId") Long reservaId);
 
@@ -55,14 +58,28 @@ public interface ReservaDetalleRepository extends JpaRepository<ReservaDetalle,
      */
     boolean existsByHabitacion_Id(Long habitacionId);
 
+    /**
+     * Habitaciones ocupadas en un rango de fechas. Las reservas anónimas
+     * PENDIENTE sin pago completado creadas antes de {@code holdsDesde} han
+     * vencido y no ocupan sus habitaciones, aunque todavía no se hayan cancelado.
+     */
     @Query("select distinct rd.habitacion.id from ReservaDetalle rd " +
             "where rd.reserva.activo = true " +
             "and rd.activo = true " +
             "and rd.reserva.estado <> 'CANCELADA' " +
+            "and (rd.reserva.estado <> 'PENDIENTE' or rd.reserva.expiraSinPago = false " +
+            "or rd.reserva.fechaReserva >= :holdsDesde " +
+            "or exists (select pago.id from Pago pago where pago.reserva = rd.reserva " +
+            "and pago.estado = 'COMPLETADO' and pago.activo = true)) " +
             "and rd.reserva.fechaInicio <= :fechaFin " +
             "and rd.reserva.fechaFin >= :fechaInicio")
     List<Long> findOccupiedHabitacionIds(@Param("fechaInicio") java.time.Instant fechaInicio,
-            @Param("fechaFin") java.time.Instant fechaFin);
+            @Param("fechaFin") java.time.Instant fechaFin,
+            @Param("holdsDesde") java.time.Instant holdsDesde);
+
+    @Modifying
+    @Query("update ReservaDetalle rd set rd.activo = false where rd.reserva.id in :reservaIds and rd.activo = true")
+    int deactivateByReservaIdIn(@Param("reservaIds") java.util.Collection<Long> reservaIds);
 
     @Query("select reservaDetalle from ReservaDetalle reservaDetalle " +
             "left join fetch reservaDetalle.habitacion h " +
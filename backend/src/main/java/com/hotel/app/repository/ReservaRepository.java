@@ -37,6 +37,8 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
 
     Page<Reserva> findByClienteId(Long clienteId, Pageable pageable);
 
+    List<Reserva> findByClienteIdOrderByFechaInicioDesc(Long clienteId);
+
     Page<Reserva> findByActivo(Boolean activo, Pageable pageable);
 
     @Query("select distinct reserva from Reserva reserva left join fetch reserva.cliente where reserva.activo = :activo")
@@ -45,5 +47,79 @@ public interface ReservaRepository extends JpaRepository<Reserva, Long> {
     List<Reserva> findByFechaFinBeforeAndEstadoIn(java.time.Instant fechaFin,
             java.util.List<com.hotel.app.domain.enumeration.EstadoReserva> estados);
 
+    /**
+     * Keyset page of reservas ended before a date, in id order, with the cliente
+     * fetched for notifications.
+     */
+    @Query("select reserva from Reserva reserva left join fetch reserva.cliente " +
+            "where reserva.fechaFin < :fechaFin and reserva.estado in :estados and reserva.id > :afterId " +
+            "order by reserva.id")
+    List<Reserva> findChunkByFechaFinBeforeAndEstadoIn(
+            @Param("fechaFin") java.time.Instant fechaFin,
+            @Param("estados") java.util.List<com.hotel.app.domain.enumeration.EstadoReserva> estados,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    /**
+     * Keyset page of the ids of the unpaid holds created before a date: PENDIENTE
+     * reservas booked anonymously and without a completed pago.
+     */
+    @Query("select reserva.id from Reserva reserva " +
+            "where reserva.estado = 'PENDIENTE' and reserva.expiraSinPago = true " +
+            "and reserva.fechaReserva < :fechaReserva and reserva.id > :afterId " +
+            "and not exists (select pago.id from Pago pago where pago.reserva = reserva " +
+            "and pago.estado = 'COMPLETADO' and pago.activo = true) " +
+            "order by reserva.id")
+    List<Long> findChunkIdsOfHoldsBefore(
+            @Param("fechaReserva") java.time.Instant fechaReserva,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Modifying
+    @Query("update Reserva reserva set reserva.estado = :nuevoEstado " +
+            "where reserva.id in :ids and reserva.estado in :estados")
+    int updateEstadoByIdInAndEstadoIn(
+            @Param("ids") java.util.Collection<Long> ids,
+            @Param("estados") java.util.List<com.hotel.app.domain.enumeration.EstadoReserva> estados,
+            @Param("nuevoEstado") com.hotel.app.domain.enumeration.EstadoReserva nuevoEstado);
+
+    /**
+     * Reserva con bloqueo de escritura, para cambios de estado que no pueden
+     * cruzarse con el job de holds vencidos ni con un pago.
+     */
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("select reserva from Reserva reserva where reserva.id = :id")
+    Optional<Reserva> findByIdForUpdate(@Param("id") Long id);
+
+    /**
+     * Reservas ya vencidas entre las indicadas, bloqueadas hasta el fin de la
+     * transacción para que solo un nodo las finalice.
+     */
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("select reserva from Reserva reserva " +
+            "where reserva.id in :ids and reserva.fechaFin <= :ahora and reserva.estado in :estados " +
+            "order by reserva.id")
+    List<Reserva> findVencidasForUpdate(
+            @Param("ids") java.util.Collection<Long> ids,
+            @Param("ahora") java.time.Instant ahora,
+            @Param("estados") java.util.List<com.hotel.app.domain.enumeration.EstadoReserva> estados);
+
+    /**
+     * Fechas de fin de las reservas en los estados dados que vencen en el
+     * intervalo [desde, hasta).
+     */
+    @Query("select reserva.id as id, reserva.fechaFin as fechaFin from Reserva reserva " +
+            "where reserva.fechaFin >= :desde and reserva.fechaFin < :hasta and reserva.estado in :estados")
+    List<Vencimiento> findVencimientos(
+            @Param("desde") java.time.Instant desde,
+            @Param("hasta") java.time.Instant hasta,
+            @Param("estados") java.util.List<com.hotel.app.domain.enumeration.EstadoReserva> estados);
+
+    interface Vencimiento {
+        Long getId();
+
+        java.time.Instant getFechaFin();
+    }
+
     List<Reserva> findAllByFechaReservaBetween(java.time.Instant fechaInicio, java.time.Instant fechaFin);
 }
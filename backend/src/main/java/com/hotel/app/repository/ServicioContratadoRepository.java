@@ -39,12 +39,82 @@ public interface ServicioContratadoRepository extends JpaRepository<ServicioCont
 
     List<ServicioContratado> findByClienteId(Long clienteId);
 
+    /**
+     * Servicios of a cliente, including the ones booked on its reservas, with
+     * their {@code Servicio}.
+     */
+    @Query("SELECT sc FROM ServicioContratado sc LEFT JOIN FETCH sc.servicio " +
+            "WHERE sc.cliente.id = :clienteId OR sc.reserva.id IN :reservaIds ORDER BY sc.fechaServicio DESC")
+    List<ServicioContratado> findAllWithServicioByClienteIdOrReservaIdIn(
+            @Param("clienteId") Long clienteId,
+            @Param("reservaIds") java.util.Collection<Long> reservaIds);
+
     List<ServicioContratado> findByEstado(com.hotel.app.domain.enumeration.EstadoServicioContratado estado);
 
     List<ServicioContratado> findByEstadoAndFechaServicioBefore(
             com.hotel.app.domain.enumeration.EstadoServicioContratado estado,
             java.time.ZonedDateTime date);
 
+    /**
+     * Keyset page of servicios contratados in a state with a service date before
+     * the given one, in id order, with servicio and cliente fetched for
+     * notifications.
+     */
+    @Query("SELECT sc FROM ServicioContratado sc LEFT JOIN FETCH sc.servicio LEFT JOIN FETCH sc.cliente " +
+            "WHERE sc.estado = :estado AND sc.fechaServicio < :fecha AND sc.id > :afterId " +
+            "ORDER BY sc.id")
+    List<ServicioContratado> findChunkByEstadoAndFechaServicioBefore(
+            @Param("estado") com.hotel.app.domain.enumeration.EstadoServicioContratado estado,
+            @Param("fecha") java.time.ZonedDateTime fecha,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE ServicioContratado sc SET sc.estado = :nuevoEstado " +
+            "WHERE sc.id IN :ids AND sc.estado = :estado")
+    int updateEstadoByIdInAndEstado(
+            @Param("ids") java.util.Collection<Long> ids,
+            @Param("estado") com.hotel.app.domain.enumeration.EstadoServicioContratado estado,
+            @Param("nuevoEstado") com.hotel.app.domain.enumeration.EstadoServicioContratado nuevoEstado);
+
+    @Modifying
+    @Query("UPDATE ServicioContratado sc SET sc.estado = :nuevoEstado " +
+            "WHERE sc.reserva.id IN :reservaIds AND sc.estado = :estado")
+    int updateEstadoByReservaIdInAndEstado(
+            @Param("reservaIds") java.util.Collection<Long> reservaIds,
+            @Param("estado") com.hotel.app.domain.enumeration.EstadoServicioContratado estado,
+            @Param("nuevoEstado") com.hotel.app.domain.enumeration.EstadoServicioContratado nuevoEstado);
+
+    /**
+     * Servicios contratados ya vencidos entre los indicados, bloqueados hasta el
+     * fin de la transacción para que solo un nodo los complete.
+     */
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT sc FROM ServicioContratado sc " +
+            "WHERE sc.id IN :ids AND sc.estado = :estado AND sc.fechaServicio <= :ahora " +
+            "ORDER BY sc.id")
+    List<ServicioContratado> findVencidosForUpdate(
+            @Param("ids") java.util.Collection<Long> ids,
+            @Param("estado") com.hotel.app.domain.enumeration.EstadoServicioContratado estado,
+            @Param("ahora") java.time.ZonedDateTime ahora);
+
+    /**
+     * Fechas de servicio de los servicios contratados en un estado que vencen en
+     * el intervalo [desde, hasta).
+     */
+    @Query("SELECT sc.id AS id, sc.fechaServicio AS fechaServicio FROM ServicioContratado sc " +
+            "WHERE sc.estado = :estado AND sc.fechaServicio >= :desde AND sc.fechaServicio < :hasta")
+    List<Vencimiento> findVencimientos(
+            @Param("estado") com.hotel.app.domain.enumeration.EstadoServicioContratado estado,
+            @Param("desde") java.time.ZonedDateTime desde,
+            @Param("hasta") java.time.ZonedDateTime hasta);
+
+    interface Vencimiento {
+        Long getId();
+
+        java.time.ZonedDateTime getFechaServicio();
+    }
+
     long countByServicioIdAndFechaServicioAndEstadoIn(
             Long servicioId,
             java.time.ZonedDateTime fechaServicio,
@@ -89,6 +159,34 @@ public interface ServicioContratadoRepository extends JpaRepository<ServicioCont
             @Param("fechaFin") java.time.ZonedDateTime fechaFin,
             @Param("estados") List<com.hotel.app.domain.enumeration.EstadoServicioContratado> estados);
 
+    /**
+     * Suma de cantidades contratadas agrupada por servicio y fecha/hora de
+     * servicio para varios servicios en un rango de fechas
+     */
+    @Query("SELECT sc.servicio.id AS servicioId, sc.fechaServicio AS fechaServicio, " +
+            "COALESCE(SUM(sc.cantidad), 0) AS cantidad " +
+            "FROM ServicioContratado sc " +
+            "WHERE sc.servicio.id IN :servicioIds " +
+            "AND sc.fechaServicio BETWEEN :fechaInicio AND :fechaFin " +
+            "AND sc.estado IN :estados " +
+            "GROUP BY sc.servicio.id, sc.fechaServicio")
+    List<CantidadPorHorario> sumCantidadByServiciosAndFechaRangeGroupByHorario(
+            @Param("servicioIds") java.util.Collection<Long> servicioIds,
+            @Param("fechaInicio") java.time.ZonedDateTime fechaInicio,
+            @Param("fechaFin") java.time.ZonedDateTime fechaFin,
+            @Param("estados") List<com.hotel.app.domain.enumeration.EstadoServicioContratado> estados);
+
+    /**
+     * Cantidad contratada de un servicio en una fecha/hora concreta.
+     */
+    interface CantidadPorHorario {
+        Long getServicioId();
+
+        java.time.ZonedDateTime getFechaServicio();
+
+        Long getCantidad();
+    }
+
     /**
      * Obtiene todos los servicios contratados por un cliente para un servicio
      * específico
@@ -5,6 +5,7 @@ import com.hotel.app.domain.enumeration.DiaSemana;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -20,6 +21,22 @@ public interface ServicioDisponibilidadRepository extends JpaRepository<Servicio
 
     List<ServicioDisponibilidad> findByServicioIdAndActivoTrue(Long servicioId);
 
+    List<ServicioDisponibilidad> findByActivoTrue();
+
+    List<ServicioDisponibilidad> findByServicioIdInAndActivoTrue(java.util.Collection<Long> servicioIds);
+
     List<ServicioDisponibilidad> findByServicioIdAndDiaSemanaAndActivoTrue(
             Long servicioId, DiaSemana diaSemana);
+
+    /**
+     * Franjas activas de un servicio en un día de la semana, bloqueadas hasta el
+     * fin de la transacción: contratar, entrar en la lista de espera y promoverla
+     * cuentan el cupo de la franja de uno en uno.
+     */
+    @Lock(jakarta.persistence.LockModeType.PESSIMISTIC_WRITE)
+    @Query("select disponibilidad from ServicioDisponibilidad disponibilidad " +
+            "where disponibilidad.servicio.id = :servicioId and disponibilidad.diaSemana = :diaSemana " +
+            "and disponibilidad.activo = true order by disponibilidad.id")
+    List<ServicioDisponibilidad> findForUpdateByServicioIdAndDiaSemana(
+            @Param("servicioId") Long servicioId, @Param("diaSemana") DiaSemana diaSemana);
 }
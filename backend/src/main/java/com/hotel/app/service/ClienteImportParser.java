@@ -0,0 +1,216 @@
+package com.hotel.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads the rows of an import file one at a time, so the file is never held in
+ * memory: CSV (RFC 4180, with a header row, comma or semicolon separated) or
+ * NDJSON (one JSON object per line).
+ * <p>
+ * Column names are compared without case, spaces, dashes nor underscores, so
+ * {@code numero_identificacion} and {@code Numero Identificacion} both are
+ * {@code numeroidentificacion}.
+ */
+final class ClienteImportParser implements Closeable {
+
+    /**
+     * Longest accepted value, so an unclosed quote cannot read the whole file
+     * into one field.
+     */
+    static final int MAX_CAMPO = 4096;
+
+    private static final int MAX_CABECERA = 64 * 1024;
+
+    private static final char BOM = '\uFEFF';
+
+    /**
+     * A row of the file, by normalized column name; {@code error} is set instead
+     * when the row cannot be read.
+     */
+    record Fila(long linea, Map<String, String> campos, String error) {}
+
+    private final BufferedReader reader;
+
+    private final ClienteImportService.Formato formato;
+
+    private final ObjectMapper objectMapper;
+
+    private List<String> cabecera;
+
+    private char separador = ',';
+
+    private long linea;
+
+    ClienteImportParser(Reader reader, ClienteImportService.Formato formato, ObjectMapper objectMapper) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        this.formato = formato;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return the next non-blank row, or {@code null} at the end of the file.
+     * @throws IOException if the file cannot be read, or is not a valid CSV.
+     */
+    Fila siguiente() throws IOException {
+        return formato == ClienteImportService.Formato.CSV ? siguienteCsv() : siguienteNdjson();
+    }
+
+    private Fila siguienteCsv() throws IOException {
+        if (cabecera == null) {
+            List<String> nombres = leerCabecera();
+            if (nombres == null) {
+                return null;
+            }
+            cabecera = nombres.stream().map(ClienteImportParser::normalizarColumna).toList();
+        }
+        while (true) {
+            long inicio = linea + 1;
+            List<String> valores = leerRegistro();
+            if (valores == null) {
+                return null;
+            }
+            if (valores.size() == 1 && valores.get(0).isBlank()) {
+                continue;
+            }
+            if (valores.size() > cabecera.size()) {
+                return new Fila(inicio, Map.of(), "More values (" + valores.size() + ") than columns (" + cabecera.size() + ")");
+            }
+            Map<String, String> campos = new HashMap<>();
+            for (int i = 0; i < valores.size(); i++) {
+                campos.put(cabecera.get(i), valores.get(i));
+            }
+            return new Fila(inicio, campos, null);
+        }
+    }
+
+    private List<String> leerCabecera() throws IOException {
+        reader.mark(MAX_CABECERA);
+        String primera = reader.readLine();
+        if (primera == null) {
+            return null;
+        }
+        // The separator is whichever of ',' and ';' the header uses
+        if (primera.indexOf(';') >= 0 && primera.indexOf(',') < 0) {
+            separador = ';';
+        }
+        reader.reset();
+        int c = reader.read();
+        if (c != BOM && c != -1) {
+            reader.reset();
+        }
+        return leerRegistro();
+    }
+
+    /**
+     * @return the values of the next record, or {@code null} at the end.
+     */
+    private List<String> leerRegistro() throws IOException {
+        List<String> valores = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean comillas = false;
+        boolean leido = false;
+        int c;
+        while ((c = reader.read()) != -1) {
+            leido = true;
+            if (comillas) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int siguiente = reader.read();
+                    if (siguiente == '"') {
+                        campo.append('"');
+                    } else {
+                        comillas = false;
+                        if (siguiente != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    if (c == '\n') {
+                        linea++;
+                    }
+                    campo.append((char) c);
+                }
+            } else if (c == '"' && campo.isEmpty()) {
+                comillas = true;
+            } else if (c == separador) {
+                valores.add(campo.toString().trim());
+                campo.setLength(0);
+            } else if (c == '\n') {
+                linea++;
+                valores.add(campo.toString().trim());
+                return valores;
+            } else if (c != '\r') {
+                campo.append((char) c);
+            }
+            if (campo.length() > MAX_CAMPO) {
+                throw new IOException("Value longer than " + MAX_CAMPO + " characters at line " + (linea + 1));
+            }
+        }
+        if (!leido) {
+            return null;
+        }
+        if (comillas) {
+            throw new IOException("Unclosed quote at line " + (linea + 1));
+        }
+        linea++;
+        valores.add(campo.toString().trim());
+        return valores;
+    }
+
+    private Fila siguienteNdjson() throws IOException {
+        String texto;
+        do {
+            texto = reader.readLine();
+            if (texto == null) {
+                return null;
+            }
+            linea++;
+        } while (texto.isBlank());
+        if (texto.charAt(0) == BOM) {
+            texto = texto.substring(1);
+        }
+        JsonNode nodo;
+        try {
+            nodo = objectMapper.readTree(texto);
+        } catch (JsonProcessingException e) {
+            return new Fila(linea, Map.of(), "Invalid JSON: " + e.getOriginalMessage());
+        }
+        if (!nodo.isObject()) {
+            return new Fila(linea, Map.of(), "Not a JSON object");
+        }
+        Map<String, String> campos = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> it = nodo.fields(); it.hasNext();) {
+            Map.Entry<String, JsonNode> campo = it.next();
+            JsonNode valor = campo.getValue();
+            campos.put(normalizarColumna(campo.getKey()), valor.isNull() ? null : valor.isValueNode() ? valor.asText().trim() : valor.toString());
+        }
+        return new Fila(linea, campos, null);
+    }
+
+    static String normalizarColumna(String nombre) {
+        StringBuilder normalizado = new StringBuilder(nombre.length());
+        for (char c : nombre.toLowerCase(Locale.ROOT).toCharArray()) {
+            if (c != ' ' && c != '_' && c != '-' && c != BOM) {
+                normalizado.append(c);
+            }
+        }
+        return normalizado.toString();
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
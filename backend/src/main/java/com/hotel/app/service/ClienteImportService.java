@@ -0,0 +1,562 @@
+package com.hotel.app.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.enumeration.TipoIdentificacion;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.service.dto.ClienteDTO;
+import com.hotel.app.service.dto.ClienteImportDTO;
+import com.hotel.app.service.mapper.ClienteMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk import of clientes from a CSV or NDJSON file, for corporate accounts and
+ * migrations from other systems.
+ * <p>
+ * The upload is written to a temporary file and imported in the background,
+ * on at most {@code simultaneas} imports at a time. Rows are read one at a
+ * time, validated like the cliente form, and deduplicated by email and
+ * document number: within the file with in-memory hash sets, against the
+ * database with one query per batch of {@code lote} rows. Each batch is
+ * inserted in one transaction, through JDBC batches and the pooled
+ * {@code sequence_generator}; if it fails, its rows are inserted one by one so
+ * only the offending ones are rejected. When asked to, the Keycloak accounts of
+ * a batch are created once it is committed, {@code hilosCuentas} at a time;
+ * accounts that fail are retried by {@link KeycloakProvisioningService}.
+ * <p>
+ * Reports are kept in memory, for the last {@code retener} imports of this
+ * node.
+ */
+@Service
+public class ClienteImportService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClienteImportService.class);
+
+    private static final Pattern CORREO = Pattern.compile("^[^@\\s]+@[^@\\s]+\\.[^@\\s]+$");
+
+    static final int MAX_LONGITUD = 255;
+
+    public enum Formato {
+        CSV,
+        NDJSON,
+    }
+
+    public enum Estado {
+        EN_CURSO,
+        CREANDO_CUENTAS,
+        COMPLETADA,
+        FALLIDA,
+    }
+
+    /**
+     * The upload could not be accepted; {@code key} is the error key for the
+     * client.
+     */
+    public static class ImportacionNoValidaException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String key;
+
+        public ImportacionNoValidaException(String message, String key) {
+            super(message);
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private record Candidato(long linea, ClienteDTO cliente) {}
+
+    private final ClienteRepository clienteRepository;
+
+    private final ClienteMapper clienteMapper;
+
+    private final KeycloakProvisioningService keycloakProvisioningService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Clientes.Importacion properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ThreadPoolExecutor importaciones;
+
+    private final ThreadPoolExecutor cuentas;
+
+    private final Map<String, Importacion> recientes;
+
+    public ClienteImportService(
+            ClienteRepository clienteRepository,
+            ClienteMapper clienteMapper,
+            KeycloakProvisioningService keycloakProvisioningService,
+            ObjectMapper objectMapper,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.clienteRepository = clienteRepository;
+        this.clienteMapper = clienteMapper;
+        this.keycloakProvisioningService = keycloakProvisioningService;
+        this.objectMapper = objectMapper;
+        this.properties = applicationProperties.getClientes().getImportacion();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory importFactory = new CustomizableThreadFactory("cliente-import-");
+        importFactory.setDaemon(true);
+        int simultaneas = Math.max(1, properties.getSimultaneas());
+        this.importaciones = new ThreadPoolExecutor(simultaneas, simultaneas, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>(), importFactory);
+        CustomizableThreadFactory cuentasFactory = new CustomizableThreadFactory("cliente-import-cuentas-");
+        cuentasFactory.setDaemon(true);
+        int hilos = Math.max(1, properties.getHilosCuentas());
+        // A full queue makes the import thread create the account itself, which
+        // slows the reading of rows down to the pace of Keycloak
+        this.cuentas = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getColaCuentas())), cuentasFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        int retener = Math.max(1, properties.getRetener());
+        this.recientes = Collections.synchronizedMap(new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Importacion> eldest) {
+                return size() > retener && eldest.getValue().terminada();
+            }
+        });
+        Gauge.builder("hotel.clientes.import.cuentas.pending", cuentas, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void detener() {
+        importaciones.shutdownNow();
+        cuentas.shutdownNow();
+    }
+
+    /**
+     * Reads an upload into a temporary file and imports it in the background.
+     *
+     * @param in           the file, read to the end but not closed.
+     * @param crearCuentas whether to create the Keycloak accounts of the new
+     *                     clientes.
+     * @return the report of the import, or empty if too many imports are
+     *         running.
+     * @throws ImportacionNoValidaException if the file is empty or too large.
+     */
+    public Optional<ClienteImportDTO> iniciar(InputStream in, Formato formato, boolean crearCuentas) throws IOException {
+        Path archivo = Files.createTempFile("clientes-", "." + formato.name().toLowerCase(Locale.ROOT));
+        try {
+            copiar(in, archivo, properties.getMaxSize().toBytes());
+            Importacion importacion = new Importacion(formato, crearCuentas, properties.getMaxErrores());
+            importaciones.execute(() -> {
+                try {
+                    importar(importacion, archivo);
+                } finally {
+                    borrar(archivo);
+                }
+            });
+            recientes.put(importacion.id, importacion);
+            LOG.info("Importing clientes from {} ({} bytes) as {}", formato, Files.size(archivo), importacion.id);
+            return Optional.of(importacion.toDto());
+        } catch (RejectedExecutionException e) {
+            borrar(archivo);
+            return Optional.empty();
+        } catch (IOException | RuntimeException e) {
+            borrar(archivo);
+            throw e;
+        }
+    }
+
+    public Optional<ClienteImportDTO> findOne(String id) {
+        return Optional.ofNullable(recientes.get(id)).map(Importacion::toDto);
+    }
+
+    /**
+     * @return the kept imports, the latest first, without their errors.
+     */
+    public List<ClienteImportDTO> findAll() {
+        List<Importacion> todas;
+        synchronized (recientes) {
+            todas = new ArrayList<>(recientes.values());
+        }
+        Collections.reverse(todas);
+        return todas.stream().map(Importacion::toDto).peek(dto -> dto.setErrores(null)).toList();
+    }
+
+    private static void copiar(InputStream in, Path archivo, long maxBytes) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(archivo)) {
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                size += n;
+                if (size > maxBytes) {
+                    throw new ImportacionNoValidaException("File larger than " + maxBytes + " bytes", "importtoolarge");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        if (size == 0) {
+            throw new ImportacionNoValidaException("File is empty", "importempty");
+        }
+    }
+
+    private static void borrar(Path archivo) {
+        try {
+            Files.deleteIfExists(archivo);
+        } catch (IOException e) {
+            LOG.warn("Could not delete {}", archivo, e);
+        }
+    }
+
+    void importar(Importacion importacion, Path archivo) {
+        Set<String> correos = new HashSet<>();
+        Set<String> documentos = new HashSet<>();
+        int tamanoLote = Math.max(1, properties.getLote());
+        List<Candidato> lote = new ArrayList<>(tamanoLote);
+        try (ClienteImportParser parser = new ClienteImportParser(Files.newBufferedReader(archivo, StandardCharsets.UTF_8),
+                importacion.formato, objectMapper)) {
+            ClienteImportParser.Fila fila;
+            while ((fila = parser.siguiente()) != null) {
+                importacion.leidas.incrementAndGet();
+                String error = fila.error();
+                ClienteDTO cliente = null;
+                if (error == null) {
+                    try {
+                        cliente = convertir(fila.campos());
+                    } catch (IllegalArgumentException e) {
+                        error = e.getMessage();
+                    }
+                }
+                if (error != null) {
+                    importacion.rechazar(fila.linea(), error, importacion.invalidas);
+                    continue;
+                }
+                if (!correos.add(claveCorreo(cliente.getCorreo()))) {
+                    importacion.rechazar(fila.linea(), "Email repeated in the file: " + cliente.getCorreo(), importacion.duplicadas);
+                    continue;
+                }
+                if (cliente.getNumeroIdentificacion() != null && !documentos.add(cliente.getNumeroIdentificacion())) {
+                    importacion.rechazar(fila.linea(), "Document repeated in the file: " + cliente.getNumeroIdentificacion(),
+                            importacion.duplicadas);
+                    continue;
+                }
+                lote.add(new Candidato(fila.linea(), cliente));
+                if (lote.size() >= tamanoLote) {
+                    insertar(importacion, lote);
+                    lote.clear();
+                }
+            }
+            insertar(importacion, lote);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Import {} of clientes failed after {} rows", importacion.id, importacion.leidas.get(), e);
+            importacion.fallar(e.getMessage());
+            contar("failed");
+            return;
+        }
+        LOG.info("Import {} of clientes: {} rows read, {} imported, {} duplicated, {} invalid", importacion.id,
+                importacion.leidas.get(), importacion.importadas.get(), importacion.duplicadas.get(), importacion.invalidas.get());
+        importacion.terminarFilas();
+        contar("completed");
+    }
+
+    /**
+     * Inserts the rows of a batch not already in the database.
+     */
+    private void insertar(Importacion importacion, List<Candidato> lote) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        List<String> claves = lote.stream().map(c -> claveCorreo(c.cliente().getCorreo())).toList();
+        Set<String> correosExistentes = new HashSet<>(clienteRepository.findCorreosExistentes(claves));
+        List<String> numeros = lote.stream().map(c -> c.cliente().getNumeroIdentificacion()).filter(n -> n != null).toList();
+        Set<String> documentosExistentes = numeros.isEmpty()
+                ? Set.of()
+                : new HashSet<>(clienteRepository.findNumerosIdentificacionExistentes(numeros));
+        List<Candidato> nuevos = new ArrayList<>(lote.size());
+        for (Candidato candidato : lote) {
+            ClienteDTO cliente = candidato.cliente();
+            if (correosExistentes.contains(claveCorreo(cliente.getCorreo()))) {
+                importacion.rechazar(candidato.linea(), "A client with this email already exists: " + cliente.getCorreo(),
+                        importacion.duplicadas);
+            } else if (cliente.getNumeroIdentificacion() != null && documentosExistentes.contains(cliente.getNumeroIdentificacion())) {
+                importacion.rechazar(candidato.linea(),
+                        "A client with this document ID already exists: " + cliente.getNumeroIdentificacion(), importacion.duplicadas);
+            } else {
+                nuevos.add(candidato);
+            }
+        }
+        if (nuevos.isEmpty()) {
+            return;
+        }
+        List<Long> ids;
+        try {
+            ids = guardar(nuevos, importacion.crearCuentas);
+        } catch (DataAccessException e) {
+            LOG.debug("Batch of import {} failed, inserting its rows one by one", importacion.id, e);
+            ids = new ArrayList<>(nuevos.size());
+            for (Candidato candidato : nuevos) {
+                try {
+                    ids.addAll(guardar(List.of(candidato), importacion.crearCuentas));
+                } catch (DataAccessException ex) {
+                    importacion.rechazar(candidato.linea(), "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage(),
+                            importacion.invalidas);
+                }
+            }
+        }
+        importacion.importadas.addAndGet(ids.size());
+        meterRegistry.counter("hotel.clientes.import.rows").increment(ids.size());
+        if (importacion.crearCuentas) {
+            ids.forEach(id -> crearCuenta(importacion, id));
+        }
+    }
+
+    private List<Long> guardar(List<Candidato> candidatos, boolean crearCuentas) {
+        return transactionTemplate.execute(status -> {
+            List<Cliente> clientes = candidatos.stream().map(c -> clienteMapper.toEntity(c.cliente())).toList();
+            List<Long> ids = clienteRepository.saveAll(clientes).stream().map(Cliente::getId).toList();
+            clienteRepository.flush();
+            if (crearCuentas) {
+                // Also picked up by the provisioning job if this node stops
+                clienteRepository.marcarProvisionesPendientes(ids, Instant.now());
+            }
+            return ids;
+        });
+    }
+
+    private void crearCuenta(Importacion importacion, Long id) {
+        importacion.cuentasEnCurso.incrementAndGet();
+        try {
+            cuentas.execute(() -> {
+                try {
+                    if (keycloakProvisioningService.provisionar(id)) {
+                        importacion.cuentasCreadas.incrementAndGet();
+                    } else {
+                        importacion.cuentasPendientes.incrementAndGet();
+                    }
+                } catch (RuntimeException e) {
+                    LOG.warn("Could not create the Keycloak account of Cliente {}: {}", id, e.getMessage());
+                    importacion.cuentasPendientes.incrementAndGet();
+                } finally {
+                    importacion.cuentaTerminada();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the provisioning job creates it
+            importacion.cuentasPendientes.incrementAndGet();
+            importacion.cuentaTerminada();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the row is not a valid cliente.
+     */
+    ClienteDTO convertir(Map<String, String> campos) {
+        ClienteDTO cliente = new ClienteDTO();
+        cliente.setNombre(requerido(campos, "nombre"));
+        cliente.setApellido(requerido(campos, "apellido"));
+        String correo = requerido(campos, "correo");
+        if (!CORREO.matcher(correo).matches()) {
+            throw new IllegalArgumentException("Invalid email: " + correo);
+        }
+        cliente.setCorreo(correo);
+        cliente.setTelefono(requerido(campos, "telefono"));
+        cliente.setDireccion(opcional(campos, "direccion"));
+        String tipo = opcional(campos, "tipoidentificacion");
+        if (tipo != null) {
+            try {
+                cliente.setTipoIdentificacion(TipoIdentificacion.valueOf(tipo.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid tipoIdentificacion: " + tipo);
+            }
+        }
+        cliente.setNumeroIdentificacion(opcional(campos, "numeroidentificacion"));
+        String fecha = opcional(campos, "fechanacimiento");
+        if (fecha != null) {
+            try {
+                cliente.setFechaNacimiento(LocalDate.parse(fecha));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid fechaNacimiento, expected yyyy-MM-dd: " + fecha);
+            }
+        }
+        String activo = opcional(campos, "activo");
+        cliente.setActivo(activo == null || !("false".equalsIgnoreCase(activo) || "0".equals(activo) || "no".equalsIgnoreCase(activo)));
+        ClienteValidator.validar(cliente).ifPresent(error -> {
+            throw new IllegalArgumentException(error.getMensaje());
+        });
+        return cliente;
+    }
+
+    private static String requerido(Map<String, String> campos, String columna) {
+        String valor = opcional(campos, columna);
+        if (valor == null) {
+            throw new IllegalArgumentException("Missing " + columna);
+        }
+        return valor;
+    }
+
+    private static String opcional(Map<String, String> campos, String columna) {
+        String valor = campos.get(columna);
+        if (valor == null || valor.isBlank()) {
+            return null;
+        }
+        if (valor.length() > MAX_LONGITUD) {
+            throw new IllegalArgumentException(columna + " longer than " + MAX_LONGITUD + " characters");
+        }
+        return valor.trim();
+    }
+
+    private static String claveCorreo(String correo) {
+        return correo.toLowerCase(Locale.ROOT);
+    }
+
+    private void contar(String outcome) {
+        meterRegistry.counter("hotel.clientes.import", "outcome", outcome).increment();
+    }
+
+    /**
+     * Progress of one import, updated by the import and account threads.
+     */
+    static final class Importacion {
+
+        final String id = UUID.randomUUID().toString();
+
+        final Formato formato;
+
+        final boolean crearCuentas;
+
+        final Instant inicio = Instant.now();
+
+        final AtomicReference<Estado> estado = new AtomicReference<>(Estado.EN_CURSO);
+
+        final AtomicLong leidas = new AtomicLong();
+
+        final AtomicLong importadas = new AtomicLong();
+
+        final AtomicLong duplicadas = new AtomicLong();
+
+        final AtomicLong invalidas = new AtomicLong();
+
+        final AtomicLong cuentasCreadas = new AtomicLong();
+
+        final AtomicLong cuentasPendientes = new AtomicLong();
+
+        final AtomicInteger cuentasEnCurso = new AtomicInteger();
+
+        private final int maxErrores;
+
+        private final List<ClienteImportDTO.Error> errores = new ArrayList<>();
+
+        private volatile boolean filasTerminadas;
+
+        private volatile Instant fin;
+
+        private volatile String mensaje;
+
+        Importacion(Formato formato, boolean crearCuentas, int maxErrores) {
+            this.formato = formato;
+            this.crearCuentas = crearCuentas;
+            this.maxErrores = maxErrores;
+        }
+
+        void rechazar(long linea, String mensaje, AtomicLong contador) {
+            contador.incrementAndGet();
+            synchronized (errores) {
+                if (errores.size() < maxErrores) {
+                    errores.add(new ClienteImportDTO.Error(linea, mensaje));
+                }
+            }
+        }
+
+        void terminarFilas() {
+            filasTerminadas = true;
+            if (!estado.compareAndSet(Estado.EN_CURSO, Estado.CREANDO_CUENTAS) || cuentasEnCurso.get() == 0) {
+                terminar();
+            }
+        }
+
+        void cuentaTerminada() {
+            if (cuentasEnCurso.decrementAndGet() == 0 && filasTerminadas) {
+                terminar();
+            }
+        }
+
+        private void terminar() {
+            if (estado.compareAndSet(Estado.CREANDO_CUENTAS, Estado.COMPLETADA)) {
+                fin = Instant.now();
+            }
+        }
+
+        void fallar(String mensaje) {
+            this.mensaje = mensaje;
+            this.fin = Instant.now();
+            estado.set(Estado.FALLIDA);
+        }
+
+        boolean terminada() {
+            Estado actual = estado.get();
+            return actual == Estado.COMPLETADA || actual == Estado.FALLIDA;
+        }
+
+        ClienteImportDTO toDto() {
+            ClienteImportDTO dto = new ClienteImportDTO();
+            dto.setId(id);
+            dto.setFormato(formato.name());
+            dto.setCrearCuentas(crearCuentas);
+            dto.setEstado(estado.get().name());
+            dto.setInicio(inicio);
+            dto.setFin(fin);
+            dto.setLeidas(leidas.get());
+            dto.setImportadas(importadas.get());
+            dto.setDuplicadas(duplicadas.get());
+            dto.setInvalidas(invalidas.get());
+            dto.setCuentasCreadas(cuentasCreadas.get());
+            dto.setCuentasPendientes(cuentasPendientes.get());
+            dto.setMensaje(mensaje);
+            synchronized (errores) {
+                dto.setErrores(List.copyOf(errores));
+            }
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.hotel.app.service;
+
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.MensajeSoporte;
+import com.hotel.app.domain.Pago;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.ReservaDetalle;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.domain.enumeration.EstadoPago;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.repository.MensajeSoporteRepository;
+import com.hotel.app.repository.PagoRepository;
+import com.hotel.app.repository.ReservaDetalleRepository;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.service.dto.ClienteOverviewDTO;
+import com.hotel.app.service.dto.ClienteOverviewDTO.MensajeResumen;
+import com.hotel.app.service.dto.ClienteOverviewDTO.PagoResumen;
+import com.hotel.app.service.dto.ClienteOverviewDTO.ReservaResumen;
+import com.hotel.app.service.dto.ClienteOverviewDTO.ServicioResumen;
+import com.hotel.app.service.mapper.ClienteMapper;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Builds the {@link ClienteOverviewDTO} of a cliente with one query per kind
+ * of row, whatever the number of reservas: the cliente, its reservas, their
+ * details with the habitacion, the servicios with the servicio, the pagos and
+ * the latest messages. Related rows are loaded by IN lists of the reserva ids
+ * and only their ids are read from the associations, so no lazy load is
+ * triggered while mapping.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ClienteOverviewService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClienteOverviewService.class);
+
+    /**
+     * Queries run by {@link #findOverview(Long)}.
+     */
+    public static final int QUERY_BUDGET = 6;
+
+    static final int MAX_MENSAJES = 50;
+
+    static final int MAX_LONGITUD_MENSAJE = 280;
+
+    private final ClienteRepository clienteRepository;
+
+    private final ReservaRepository reservaRepository;
+
+    private final ReservaDetalleRepository reservaDetalleRepository;
+
+    private final ServicioContratadoRepository servicioContratadoRepository;
+
+    private final PagoRepository pagoRepository;
+
+    private final MensajeSoporteRepository mensajeSoporteRepository;
+
+    private final ClienteMapper clienteMapper;
+
+    public ClienteOverviewService(
+            ClienteRepository clienteRepository,
+            ReservaRepository reservaRepository,
+            ReservaDetalleRepository reservaDetalleRepository,
+            ServicioContratadoRepository servicioContratadoRepository,
+            PagoRepository pagoRepository,
+            MensajeSoporteRepository mensajeSoporteRepository,
+            ClienteMapper clienteMapper) {
+        this.clienteRepository = clienteRepository;
+        this.reservaRepository = reservaRepository;
+        this.reservaDetalleRepository = reservaDetalleRepository;
+        this.servicioContratadoRepository = servicioContratadoRepository;
+        this.pagoRepository = pagoRepository;
+        this.mensajeSoporteRepository = mensajeSoporteRepository;
+        this.clienteMapper = clienteMapper;
+    }
+
+    public Optional<ClienteOverviewDTO> findOverview(Long id) {
+        LOG.debug("Request to get the overview of Cliente : {}", id);
+        return clienteRepository.findById(id).map(this::overview);
+    }
+
+    private ClienteOverviewDTO overview(Cliente cliente) {
+        ClienteOverviewDTO overview = new ClienteOverviewDTO();
+        overview.setCliente(clienteMapper.toDto(cliente));
+
+        List<Reserva> reservas = reservaRepository.findByClienteIdOrderByFechaInicioDesc(cliente.getId());
+        List<Long> reservaIds = reservas.stream().map(Reserva::getId).toList();
+
+        Map<Long, List<String>> habitaciones = new HashMap<>();
+        if (!reservaIds.isEmpty()) {
+            for (ReservaDetalle detalle : reservaDetalleRepository.findAllWithHabitacionByReservaIdIn(reservaIds)) {
+                if (detalle.getHabitacion() != null) {
+                    habitaciones.computeIfAbsent(detalle.getReserva().getId(), k -> new ArrayList<>()).add(detalle.getHabitacion().getNumero());
+                }
+            }
+        }
+        overview.setReservas(
+            reservas.stream()
+                .map(r -> new ReservaResumen(r.getId(), r.getFechaReserva(), r.getFechaInicio(), r.getFechaFin(), r.getEstado(),
+                        r.getActivo(), habitaciones.getOrDefault(r.getId(), List.of())))
+                .toList()
+        );
+
+        List<ServicioContratado> servicios = servicioContratadoRepository.findAllWithServicioByClienteIdOrReservaIdIn(cliente.getId(),
+                reservaIds);
+        overview.setServicios(
+            servicios.stream()
+                .map(sc -> new ServicioResumen(sc.getId(), sc.getServicio() != null ? sc.getServicio().getId() : null,
+                        sc.getServicio() != null ? sc.getServicio().getNombre() : null, sc.getFechaServicio(), sc.getCantidad(),
+                        sc.getPrecioUnitario(), sc.getEstado(), sc.getReserva() != null ? sc.getReserva().getId() : null,
+                        sc.getPago() != null ? sc.getPago().getId() : null))
+                .toList()
+        );
+
+        List<Long> pagoIds = overview.getServicios().stream().map(ServicioResumen::pagoId).filter(Objects::nonNull).distinct().toList();
+        if (!reservaIds.isEmpty() || !pagoIds.isEmpty()) {
+            List<Pago> pagos = pagoRepository.findAllByReservaIdInOrIdIn(reservaIds, pagoIds);
+            overview.setPagos(
+                pagos.stream()
+                    .map(p -> new PagoResumen(p.getId(), p.getFechaPago(), p.getMonto(), p.getMetodoPago(), p.getEstado(), p.getActivo(),
+                            p.getReserva() != null ? p.getReserva().getId() : null))
+                    .toList()
+            );
+            overview.setTotalPagado(
+                pagos.stream()
+                    .filter(p -> p.getEstado() == EstadoPago.COMPLETADO && p.getMonto() != null)
+                    .map(Pago::getMonto)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+            );
+        }
+
+        if (!reservaIds.isEmpty() || cliente.getKeycloakId() != null) {
+            List<MensajeSoporte> mensajes = mensajeSoporteRepository.findByReservaIdInOrUserId(reservaIds, cliente.getKeycloakId(),
+                    PageRequest.of(0, MAX_MENSAJES));
+            overview.setMensajes(
+                mensajes.stream()
+                    .map(m -> new MensajeResumen(m.getId(), m.getFechaMensaje(), m.getRemitente(), resumen(m.getMensaje()), m.getLeido(),
+                            m.getReserva() != null ? m.getReserva().getId() : null))
+                    .toList()
+            );
+        }
+        return overview;
+    }
+
+    private static String resumen(String mensaje) {
+        if (mensaje == null || mensaje.length() <= MAX_LONGITUD_MENSAJE) {
+            return mensaje;
+        }
+        return mensaje.substring(0, MAX_LONGITUD_MENSAJE - 1) + "…";
+    }
+}
@@ -1,6 +1,7 @@
 package com.hotel.app.service;
 
 import com.hotel.app.service.dto.ClienteDTO;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -78,4 +79,14 @@ public interface ClienteService {
      * @return the list of entities.
      */
     Page<ClienteDTO> findByActivo(Boolean activo, Pageable pageable);
+
+    /**
+     * Search the clientes by partial name, email, phone or identification number,
+     * best matches first.
+     *
+     * @param query the text typed by the user.
+     * @param limit the maximum number of results, capped.
+     * @return the matching clientes; empty if the query is too short.
+     */
+    List<ClienteDTO> search(String query, int limit);
 }
@@ -0,0 +1,73 @@
+package com.hotel.app.service;
+
+import com.hotel.app.domain.enumeration.TipoIdentificacion;
+import com.hotel.app.service.dto.ClienteDTO;
+import java.time.LocalDate;
+import java.time.Period;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+
+/**
+ * Rules on the data of a cliente that need no lookup, shared by the REST API
+ * and the bulk import.
+ */
+public final class ClienteValidator {
+
+    public enum Error {
+        MENOR_DE_EDAD("User must be at least 18 years old", "fechaNacimientoInvalid"),
+        CEDULA_NO_COINCIDE("Cedula does not match date of birth", "cedulaMismatch");
+
+        private final String mensaje;
+
+        private final String clave;
+
+        Error(String mensaje, String clave) {
+            this.mensaje = mensaje;
+            this.clave = clave;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        public String getClave() {
+            return clave;
+        }
+    }
+
+    private static final DateTimeFormatter FECHA_CEDULA = DateTimeFormatter.ofPattern("ddMMyy");
+
+    private ClienteValidator() {}
+
+    public static Optional<Error> validar(ClienteDTO clienteDTO) {
+        // Validate Age >= 18 ONLY if DOB available
+        LocalDate fechaNacimiento = clienteDTO.getFechaNacimiento();
+        if (fechaNacimiento != null && Period.between(fechaNacimiento, LocalDate.now()).getYears() < 18) {
+            return Optional.of(Error.MENOR_DE_EDAD);
+        }
+
+        // Validate Cedula matches DOB (Nicaragua format: XXX-DDMMYY-XXXXL)
+        String cedula = clienteDTO.getNumeroIdentificacion();
+        if (TipoIdentificacion.CEDULA.equals(clienteDTO.getTipoIdentificacion()) && cedula != null && fechaNacimiento != null) {
+            String datePart = null;
+            // Remove any whitespace
+            cedula = cedula.trim();
+
+            if (cedula.contains("-")) {
+                String[] parts = cedula.split("-");
+                if (parts.length >= 2) {
+                    datePart = parts[1];
+                }
+            } else if (cedula.length() >= 9) {
+                // Assuming format without hyphens matches the sequence order: XXXDDMMYY...
+                datePart = cedula.substring(3, 9);
+            }
+
+            if (datePart != null && datePart.length() == 6 && datePart.matches("\\d+")
+                    && !datePart.equals(fechaNacimiento.format(FECHA_CEDULA))) {
+                return Optional.of(Error.CEDULA_NO_COINCIDE);
+            }
+        }
+        return Optional.empty();
+    }
+}
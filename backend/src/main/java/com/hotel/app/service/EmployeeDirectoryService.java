@@ -0,0 +1,329 @@
+package com.hotel.app.service;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.dto.EmployeeDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RoleResource;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory directory of the employees: the Keycloak users with
+ * {@code ROLE_ADMIN} or {@code ROLE_EMPLOYEE}, indexed by login.
+ * <p>
+ * Reads never call Keycloak once the directory is loaded. It is refreshed
+ * every {@code application.keycloak.empleados.refresh-minutes} (including
+ * changes made in the Keycloak console), and an employee is re-read right
+ * after {@link EmployeeService} changes it. When Keycloak cannot be reached
+ * the last directory keeps being served; if there is none yet, the copy in the
+ * {@code employee_directory} table is.
+ */
+@Service
+public class EmployeeDirectoryService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EmployeeDirectoryService.class);
+
+    static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    static final String ROLE_EMPLOYEE = "ROLE_EMPLOYEE";
+
+    private static final String SELECT_MIRROR = "select login, email, first_name, last_name, role, active from employee_directory";
+
+    private static final String DELETE_MIRROR = "delete from employee_directory";
+
+    private static final String DELETE_MIRROR_LOGIN = "delete from employee_directory where login = ?";
+
+    private static final String INSERT_MIRROR =
+        "insert into employee_directory (login, email, first_name, last_name, role, active, synced_at) values (?, ?, ?, ?, ?, ?, ?)";
+
+    /**
+     * Employees in role order (admins first), then in the order Keycloak
+     * returned them.
+     */
+    record Directorio(Map<String, EmployeeDTO> porLogin, List<EmployeeDTO> empleados, Instant sincronizado) {
+        Directorio(Map<String, EmployeeDTO> porLogin, Instant sincronizado) {
+            this(Collections.unmodifiableMap(porLogin), List.copyOf(porLogin.values()), sincronizado);
+        }
+    }
+
+    private final Keycloak keycloak;
+
+    private final String realm;
+
+    private final ApplicationProperties.Keycloak.Empleados properties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private volatile Directorio directorio;
+
+    /**
+     * Guards the loads and updates of the directory, which call Keycloak; a
+     * monitor held across that call would pin a virtual thread.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public EmployeeDirectoryService(
+            Keycloak keycloak,
+            ApplicationProperties applicationProperties,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.keycloak = keycloak;
+        this.realm = applicationProperties.getKeycloak().getRealm();
+        this.properties = applicationProperties.getKeycloak().getEmpleados();
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("hotel.employees.directory.size", this, s -> s.directorio != null ? s.directorio.empleados().size() : 0)
+            .register(meterRegistry);
+    }
+
+    /**
+     * @return every employee, admins first; the list is shared and read-only.
+     */
+    public List<EmployeeDTO> findAll() {
+        return directorio().empleados();
+    }
+
+    public Optional<EmployeeDTO> findByLogin(String login) {
+        return login == null ? Optional.empty() : Optional.ofNullable(directorio().porLogin().get(clave(login)));
+    }
+
+    private Directorio directorio() {
+        Directorio actual = directorio;
+        if (actual == null) {
+            lock.lock();
+            try {
+                actual = directorio;
+                if (actual == null) {
+                    if (!refrescar()) {
+                        // Until the next refresh, so reads do not wait for Keycloak
+                        directorio = cargarCopia();
+                    }
+                    actual = directorio;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return actual;
+    }
+
+    @Scheduled(fixedDelayString = "${application.keycloak.empleados.refresh-minutes:5}",
+            initialDelayString = "${application.keycloak.empleados.refresh-minutes:5}", timeUnit = TimeUnit.MINUTES)
+    public void refrescarPeriodicamente() {
+        refrescar();
+    }
+
+    /**
+     * Reloads the whole directory from Keycloak.
+     *
+     * @return whether Keycloak could be read; otherwise the directory is left
+     *         as it was.
+     */
+    public boolean refrescar() {
+        lock.lock();
+        try {
+            Map<String, EmployeeDTO> porLogin = new LinkedHashMap<>();
+            try {
+                RealmResource realmResource = keycloak.realm(realm);
+                // A user with both roles is listed once, as admin
+                leerMiembros(realmResource.roles().get(ROLE_ADMIN), "ADMIN", porLogin);
+                leerMiembros(realmResource.roles().get(ROLE_EMPLOYEE), "EMPLOYEE", porLogin);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not refresh the employee directory from Keycloak, serving the last one: {}", e.getMessage());
+                contar("failed");
+                return false;
+            }
+            Instant ahora = Instant.now();
+            directorio = new Directorio(porLogin, ahora);
+            contar("refreshed");
+            if (properties.isMirror()) {
+                guardarCopia(porLogin.values(), ahora);
+            }
+            LOG.debug("Employee directory refreshed with {} employees", porLogin.size());
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void leerMiembros(RoleResource role, String rol, Map<String, EmployeeDTO> porLogin) {
+        int pagina = Math.max(1, properties.getPageSize());
+        for (int primero = 0;; primero += pagina) {
+            List<UserRepresentation> miembros = role.getUserMembers(primero, pagina);
+            miembros.forEach(u -> porLogin.putIfAbsent(clave(u.getUsername()), toDto(u, rol)));
+            if (miembros.size() < pagina) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Re-reads one employee from Keycloak after it was changed, dropping it if
+     * it is no longer an employee. If Keycloak cannot be read the next refresh
+     * picks the change up.
+     */
+    public void actualizar(String login) {
+        lock.lock();
+        try {
+            if (login == null || directorio == null) {
+                return;
+            }
+            EmployeeDTO empleado;
+            try {
+                empleado = leerEmpleado(login);
+            } catch (RuntimeException e) {
+                LOG.warn("Could not re-read employee {} from Keycloak: {}", login, e.getMessage());
+                contar("failed");
+                return;
+            }
+            Map<String, EmployeeDTO> porLogin = new LinkedHashMap<>(directorio.porLogin());
+            String clave = clave(login);
+            if (empleado == null) {
+                porLogin.remove(clave);
+            } else {
+                porLogin.put(clave, empleado);
+            }
+            Instant ahora = Instant.now();
+            directorio = new Directorio(ordenar(porLogin), directorio.sincronizado());
+            contar("updated");
+            if (properties.isMirror()) {
+                guardarEmpleado(clave, empleado, ahora);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private EmployeeDTO leerEmpleado(String login) {
+        RealmResource realmResource = keycloak.realm(realm);
+        List<UserRepresentation> users = realmResource.users().search(login, true);
+        if (users.isEmpty()) {
+            return null;
+        }
+        UserRepresentation user = users.get(0);
+        List<String> roles = realmResource.users().get(user.getId()).roles().realmLevel().listAll().stream()
+            .map(RoleRepresentation::getName)
+            .toList();
+        if (roles.contains(ROLE_ADMIN)) {
+            return toDto(user, "ADMIN");
+        }
+        return roles.contains(ROLE_EMPLOYEE) ? toDto(user, "EMPLOYEE") : null;
+    }
+
+    /**
+     * Keeps admins before employees, as a full refresh lists them.
+     */
+    private static Map<String, EmployeeDTO> ordenar(Map<String, EmployeeDTO> porLogin) {
+        Map<String, EmployeeDTO> ordenado = new LinkedHashMap<>();
+        porLogin.forEach((clave, e) -> {
+            if ("ADMIN".equals(e.getRole())) {
+                ordenado.put(clave, e);
+            }
+        });
+        porLogin.forEach(ordenado::putIfAbsent);
+        return ordenado;
+    }
+
+    private Directorio cargarCopia() {
+        Map<String, EmployeeDTO> porLogin = new LinkedHashMap<>();
+        if (properties.isMirror()) {
+            try {
+                jdbcTemplate.query(SELECT_MIRROR + " order by case when role = 'ADMIN' then 0 else 1 end, login", rs -> {
+                    EmployeeDTO dto = new EmployeeDTO();
+                    dto.setLogin(rs.getString("login"));
+                    dto.setEmail(rs.getString("email"));
+                    dto.setFirstName(rs.getString("first_name"));
+                    dto.setLastName(rs.getString("last_name"));
+                    dto.setRole(rs.getString("role"));
+                    dto.setActive(rs.getBoolean("active"));
+                    porLogin.put(clave(dto.getLogin()), dto);
+                });
+            } catch (RuntimeException e) {
+                LOG.warn("Could not read the employee directory copy: {}", e.getMessage());
+            }
+        }
+        LOG.info("Serving the stored copy of the employee directory ({} employees) until Keycloak can be read", porLogin.size());
+        return new Directorio(porLogin, null);
+    }
+
+    private void guardarCopia(Iterable<EmployeeDTO> empleados, Instant ahora) {
+        List<Object[]> filas = new ArrayList<>();
+        empleados.forEach(e -> filas.add(fila(e, ahora)));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_MIRROR);
+                jdbcTemplate.batchUpdate(INSERT_MIRROR, filas);
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not store the employee directory copy: {}", e.getMessage());
+        }
+    }
+
+    private void guardarEmpleado(String clave, EmployeeDTO empleado, Instant ahora) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(DELETE_MIRROR_LOGIN, clave);
+                if (empleado != null) {
+                    jdbcTemplate.update(INSERT_MIRROR, fila(empleado, ahora));
+                }
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not store employee {} in the directory copy: {}", clave, e.getMessage());
+        }
+    }
+
+    private static Object[] fila(EmployeeDTO e, Instant ahora) {
+        return new Object[] {
+            clave(e.getLogin()), e.getEmail(), e.getFirstName(), e.getLastName(), e.getRole(), e.isActive(), Timestamp.from(ahora),
+        };
+    }
+
+    /**
+     * Keycloak usernames are case-insensitive.
+     */
+    private static String clave(String login) {
+        return login.toLowerCase(Locale.ROOT);
+    }
+
+    static EmployeeDTO toDto(UserRepresentation u, String role) {
+        EmployeeDTO dto = new EmployeeDTO();
+        dto.setLogin(u.getUsername());
+        dto.setEmail(u.getEmail());
+        dto.setFirstName(u.getFirstName());
+        dto.setLastName(u.getLastName());
+        dto.setRole(role);
+        dto.setActive(u.isEnabled() != null ? u.isEnabled() : false);
+        return dto;
+    }
+
+    private void contar(String outcome) {
+        meterRegistry.counter("hotel.employees.directory.sync", "outcome", outcome).increment();
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotel.app.service;
 
+import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.service.dto.EmployeeDTO;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.RealmResource;
@@ -10,12 +11,10 @@ import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 import org.keycloak.admin.client.CreatedResponseUtil;
 import jakarta.ws.rs.core.Response;
 
@@ -26,11 +25,15 @@ public class EmployeeService {
 
     private final Keycloak keycloak;
 
-    @Value("${keycloak.realm:jhipster}")
-    private String realm;
+    private final String realm;
 
-    public EmployeeService(Keycloak keycloak) {
+    private final EmployeeDirectoryService employeeDirectoryService;
+
+    public EmployeeService(Keycloak keycloak, ApplicationProperties applicationProperties,
+            EmployeeDirectoryService employeeDirectoryService) {
         this.keycloak = keycloak;
+        this.realm = applicationProperties.getKeycloak().getRealm();
+        this.employeeDirectoryService = employeeDirectoryService;
     }
 
     public String createEmployee(EmployeeDTO employeeDTO) {
@@ -114,6 +117,7 @@ public class EmployeeService {
             log.warn("Could not clean up default roles for user {}: {}", userId, e.getMessage());
         }
 
+        employeeDirectoryService.actualizar(employeeDTO.getLogin());
         return tempPassword;
     }
 
@@ -168,6 +172,7 @@ public class EmployeeService {
                 userResource.roles().realmLevel().add(Collections.singletonList(newRole));
             }
         }
+        employeeDirectoryService.actualizar(employeeDTO.getLogin());
     }
 
     public void deactivateEmployee(String login) {
@@ -177,6 +182,7 @@ public class EmployeeService {
             UserRepresentation user = users.get(0);
             user.setEnabled(false);
             realmResource.users().get(user.getId()).update(user);
+            employeeDirectoryService.actualizar(login);
         }
     }
 
@@ -187,46 +193,14 @@ public class EmployeeService {
             UserRepresentation user = users.get(0);
             user.setEnabled(true);
             realmResource.users().get(user.getId()).update(user);
+            employeeDirectoryService.actualizar(login);
         }
     }
 
+    /**
+     * Served from the {@link EmployeeDirectoryService}, without calling Keycloak.
+     */
     public List<EmployeeDTO> getAllEmployees() {
-        RealmResource realmResource = keycloak.realm(realm);
-        List<EmployeeDTO> employees = new java.util.ArrayList<>();
-
-        // Helper to fetch keys
-        String adminRole = "ROLE_ADMIN";
-        String employeeRole = "ROLE_EMPLOYEE";
-
-        try {
-            // Get users with ROLE_ADMIN
-            realmResource.roles().get(adminRole).getUserMembers().stream()
-                    .forEach(u -> employees.add(mapToDTO(u, "ADMIN")));
-
-            // Get users with ROLE_EMPLOYEE
-            realmResource.roles().get(employeeRole).getUserMembers().stream()
-                    .filter(u -> employees.stream().noneMatch(e -> e.getLogin().equals(u.getUsername()))) // Avoid
-                                                                                                          // duplicates
-                                                                                                          // if user has
-                                                                                                          // both
-                    .forEach(u -> employees.add(mapToDTO(u, "EMPLOYEE")));
-
-        } catch (Exception e) {
-            log.error("Error fetching employees from Keycloak", e);
-            // Fallback or empty list
-        }
-
-        return employees;
-    }
-
-    private EmployeeDTO mapToDTO(UserRepresentation u, String role) {
-        EmployeeDTO dto = new EmployeeDTO();
-        dto.setLogin(u.getUsername());
-        dto.setEmail(u.getEmail());
-        dto.setFirstName(u.getFirstName());
-        dto.setLastName(u.getLastName());
-        dto.setRole(role);
-        dto.setActive(u.isEnabled() != null ? u.isEnabled() : false);
-        return dto;
+        return employeeDirectoryService.findAll();
     }
 }
@@ -0,0 +1,185 @@
+package com.hotel.app.service;
+
+import com.hotel.app.repository.ImagenRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Deletes stored image files once no row points to them.
+ * <p>
+ * Files are shared: identical uploads share one content-addressed file, and
+ * habitaciones, servicios and the landing sections hold image paths of their
+ * own. So a file is only deleted after checking every reference, see
+ * {@link #referenciadas(Collection)}, and after the transaction that dropped
+ * the rows has committed. An upload of the same content may still be about to
+ * commit its row: uploads store the file again (or touch it), and files
+ * written in the last {@link #GRACIA} are kept. What is missed or kept here (a
+ * failed delete, a crash, a recent file) is left to the {@code imagenHuerfanas}
+ * job.
+ */
+@Service
+public class ImagenCleanupService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenCleanupService.class);
+
+    /**
+     * Prefix of the image URLs held by habitaciones, servicios and landing
+     * sections; {@code Imagen.nombreArchivo} holds the bare path.
+     */
+    static final String URL_PREFIX = "/images/";
+
+    /**
+     * Longer than the transaction of an upload: a file written this recently may
+     * belong to a row not committed yet.
+     */
+    static final Duration GRACIA = Duration.ofMinutes(10);
+
+    private final ImagenRepository imagenRepository;
+
+    private final ImagenContentStore contentStore;
+
+    private final ImagenHotCache imagenHotCache;
+
+    private final Executor taskExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    public ImagenCleanupService(
+            ImagenRepository imagenRepository,
+            ImagenContentStore contentStore,
+            ImagenHotCache imagenHotCache,
+            @Qualifier("taskExecutor") Executor taskExecutor,
+            MeterRegistry meterRegistry) {
+        this.imagenRepository = imagenRepository;
+        this.contentStore = contentStore;
+        this.imagenHotCache = imagenHotCache;
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Deletes the files in the background once the current transaction commits,
+     * unless they are still referenced then.
+     *
+     * @param rutas paths relative to the image root.
+     */
+    public void programarBorrado(Collection<String> rutas) {
+        if (rutas.isEmpty()) {
+            return;
+        }
+        List<String> copia = List.copyOf(new HashSet<>(rutas));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviar(copia);
+                }
+            });
+        } else {
+            enviar(copia);
+        }
+    }
+
+    private void enviar(List<String> rutas) {
+        try {
+            taskExecutor.execute(() -> borrarSinReferencias(rutas));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Executor full, {} image files left to the orphan job", rutas.size());
+        }
+    }
+
+    /**
+     * Deletes the files that no row points to and that were not written in the
+     * last {@link #GRACIA}.
+     *
+     * @return the number of deleted files.
+     */
+    public int borrarSinReferencias(Collection<String> rutas) {
+        Set<String> referenciadas = referenciadas(rutas);
+        Instant limite = Instant.now().minus(GRACIA);
+        List<String> borradas = new ArrayList<>();
+        for (String ruta : rutas) {
+            if (!referenciadas.contains(ruta) && !escritaDespues(ruta, limite) && contentStore.delete(ruta)) {
+                borradas.add(ruta);
+            }
+        }
+        imagenHotCache.invalidar(rutas);
+        meterRegistry.counter("hotel.imagen.archivos.borrados").increment(borradas.size());
+        LOG.debug("Deleted {} of {} image files", borradas.size(), rutas.size());
+        return borradas.size();
+    }
+
+    private boolean escritaDespues(String ruta, Instant limite) {
+        try {
+            return contentStore.info(ruta).map(info -> info.lastModified().isAfter(limite)).orElse(false);
+        } catch (IOException e) {
+            LOG.warn("Could not read the date of image file {}, keeping it", ruta, e);
+            return true;
+        }
+    }
+
+    /**
+     * Of the given files, those still in use: pointed to by an image, by the
+     * image URL of a habitacion, servicio, landing section or social network
+     * (with or without the {@code /images/} prefix), or, for variants, whose
+     * original still belongs to an image.
+     *
+     * @param rutas paths relative to the image root.
+     */
+    public Set<String> referenciadas(Collection<String> rutas) {
+        Set<String> referenciadas = new HashSet<>();
+        if (rutas.isEmpty()) {
+            return referenciadas;
+        }
+        Set<String> candidatas = new HashSet<>(rutas.size() * 2);
+        Map<String, List<String>> variantesPorSha = new HashMap<>();
+        for (String ruta : rutas) {
+            candidatas.add(ruta);
+            candidatas.add(URL_PREFIX + ruta);
+            String sha = shaDeVariante(ruta);
+            if (sha != null) {
+                variantesPorSha.computeIfAbsent(sha, k -> new ArrayList<>()).add(ruta);
+            }
+        }
+        for (String referencia : imagenRepository.findRutasReferenciadas(candidatas)) {
+            referenciadas.add(referencia.startsWith(URL_PREFIX) ? referencia.substring(URL_PREFIX.length()) : referencia);
+        }
+        if (!variantesPorSha.isEmpty()) {
+            for (String sha : imagenRepository.findShasReferenciados(variantesPorSha.keySet())) {
+                referenciadas.addAll(variantesPorSha.get(sha));
+            }
+        }
+        return referenciadas;
+    }
+
+    /**
+     * @return the SHA-256 of the original of a variant path
+     *         ({@code variants/ab/<sha256>-<ancho>q<calidad>.<ext>}), or
+     *         {@code null} for other paths.
+     */
+    static String shaDeVariante(String ruta) {
+        if (!ruta.startsWith(ImagenVariantService.VARIANTS_DIR + "/")) {
+            return null;
+        }
+        String nombre = ruta.substring(ruta.lastIndexOf('/') + 1);
+        int guion = nombre.indexOf('-');
+        return guion == 64 ? nombre.substring(0, guion) : null;
+    }
+}
@@ -0,0 +1,401 @@
+package com.hotel.app.service;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.storage.ImagenStorage;
+import com.hotel.app.service.storage.ImagenStorage.ObjectInfo;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Content-addressed storage of the image files, kept in the configured
+ * {@link ImagenStorage} (the local disk under {@code application.image-path} by
+ * default).
+ * <p>
+ * A file is stored as {@code cas/<h0h1>/<h2h3>/<sha256>.<ext>}, the SHA-256 of
+ * its content, so identical uploads share one file. Content is written to a
+ * local temporary file (under {@code application.image-path}) while it is
+ * hashed and then handed to the storage, so a reader never sees a partial file.
+ * The stored path, relative to the image root, is what
+ * {@code Imagen.nombreArchivo} holds and what {@code /images/**} serves.
+ * <p>
+ * Uploads ({@link #storeUpload(InputStream)}) are streamed through a fixed
+ * buffer: the content type is sniffed from the first bytes and the size limit
+ * checked while copying, so a request never holds the file in memory.
+ */
+@Service
+public class ImagenContentStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenContentStore.class);
+
+    static final String CAS_DIR = "cas";
+
+    private static final String TMP_DIR = ".tmp";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final int SNIFF_SIZE = 16;
+
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", "jpg",
+            "image/png", "png",
+            "image/gif", "gif",
+            "image/webp", "webp",
+            "image/svg+xml", "svg",
+            "image/avif", "avif");
+
+    /**
+     * A stored file: its SHA-256 (hex), its path relative to the image root, its
+     * size in bytes and its content type.
+     */
+    public record StoredContent(String sha256, String path, long size, String contentType) {}
+
+    /**
+     * Upload rejected because of its size or content; {@link #getKey()} is the
+     * error key reported to the client.
+     */
+    public static class ContenidoNoValidoException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final String key;
+
+        public ContenidoNoValidoException(String message, String key) {
+            super(message);
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    /**
+     * Writes content to the stream it is given.
+     */
+    @FunctionalInterface
+    public interface ContentWriter {
+        void write(OutputStream out) throws IOException;
+    }
+
+    /**
+     * A local file with the content of a stored file: the stored file itself, or
+     * a temporary copy deleted on {@link #close()} when the storage is remote.
+     */
+    public record LocalCopy(Path path, boolean temporary) implements AutoCloseable {
+        @Override
+        public void close() throws IOException {
+            if (temporary) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ImagenStorage storage;
+
+    public ImagenContentStore(ApplicationProperties applicationProperties, ImagenStorage storage) {
+        this.applicationProperties = applicationProperties;
+        this.storage = storage;
+    }
+
+    /**
+     * Stores an upload, unless a file with the same content already exists. The
+     * content type is sniffed from the content, not taken from the client, and
+     * must be one of {@code application.imagenes.allowed-types}; the size may not
+     * exceed {@code application.imagenes.max-upload-size}.
+     *
+     * @param in the content, read up to the limit but not closed.
+     * @return the stored content.
+     * @throws ContenidoNoValidoException if the content is empty, too large or not
+     *                                    an allowed image type.
+     */
+    public StoredContent storeUpload(InputStream in) throws IOException {
+        ApplicationProperties.Imagenes imagenes = applicationProperties.getImagenes();
+        return write(in, null, imagenes.getMaxUploadSize().toBytes(), imagenes.getAllowedTypes());
+    }
+
+    /**
+     * Stores content of a known type, unless a file with the same content already
+     * exists. No limits apply; used for content already accepted once.
+     *
+     * @param in          the content, read to the end but not closed.
+     * @param contentType the MIME type, used for the file extension.
+     * @return the stored content.
+     */
+    public StoredContent store(InputStream in, String contentType) throws IOException {
+        return write(in, contentType, Long.MAX_VALUE, null);
+    }
+
+    private StoredContent write(InputStream in, String contentType, long maxBytes, List<String> allowedTypes)
+            throws IOException {
+        Path tmp = Files.createTempFile(tmpDir(), "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                int n;
+                while ((n = in.read(buffer, 0, buffer.length)) != -1) {
+                    if (size == 0 && allowedTypes != null) {
+                        n = fill(in, buffer, n, SNIFF_SIZE);
+                        contentType = sniff(buffer, n);
+                        if (contentType == null || !allowedTypes.contains(contentType)) {
+                            throw new ContenidoNoValidoException("Unsupported image type", "imagetypeinvalid");
+                        }
+                    }
+                    size += n;
+                    if (size > maxBytes) {
+                        throw new ContenidoNoValidoException("Image larger than " + maxBytes + " bytes", "imagetoolarge");
+                    }
+                    digest.update(buffer, 0, n);
+                    out.write(buffer, 0, n);
+                }
+            }
+            if (size == 0 && allowedTypes != null) {
+                throw new ContenidoNoValidoException("Image is empty", "imageempty");
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+            String path = relativePath(hash, contentType);
+            // Stored again if it exists: a cleanup of the same content may be deleting it
+            // right now, and the new date makes the cleanups leave it alone
+            storage.put(path, tmp, contentType);
+            return new StoredContent(hash, path, size, contentType);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Writes a derived file (e.g. an image variant) at a path chosen by the
+     * caller, unless it already exists, in which case it is only touched (see
+     * {@link ImagenStorage#touch(String)}). Like the other writes it goes
+     * through a temporary file, so a reader never sees a partial file.
+     *
+     * @return whether the file was written.
+     */
+    public boolean put(String relativePath, ContentWriter writer) throws IOException {
+        Path normalized = Paths.get(relativePath).normalize();
+        if (normalized.isAbsolute() || normalized.startsWith("..")) {
+            throw new IllegalArgumentException("Path outside the image root: " + relativePath);
+        }
+        if (storage.get(relativePath).isPresent()) {
+            try {
+                storage.touch(relativePath);
+                return false;
+            } catch (NoSuchFileException e) {
+                // Deleted in the meantime
+            }
+        }
+        Path tmp = Files.createTempFile(tmpDir(), "derived-", ".part");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                writer.write(out);
+            }
+            storage.put(relativePath, tmp, MediaTypeFactory.getMediaType(relativePath).map(Object::toString).orElse(null));
+            return true;
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * @return the SHA-256 (hex) of the content, read to the end but not closed.
+     */
+    public String hash(InputStream in) throws IOException {
+        MessageDigest digest = sha256();
+        new DigestInputStream(in, digest).transferTo(OutputStream.nullOutputStream());
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * @param relativePath a path relative to the image root.
+     * @return the file, if the storage is the local disk, the file exists and
+     *         lies under the image root.
+     */
+    public Optional<Path> resolve(String relativePath) {
+        return storage.localFile(relativePath);
+    }
+
+    /**
+     * @return the size, date and type of a stored file, if it exists.
+     */
+    public Optional<ObjectInfo> info(String relativePath) throws IOException {
+        if (relativePath == null || relativePath.isBlank()) {
+            return Optional.empty();
+        }
+        return storage.get(relativePath);
+    }
+
+    /**
+     * Opens the bytes {@code [offset, offset + length)} of a stored file.
+     *
+     * @param length the number of bytes, or {@code -1} up to the end.
+     * @throws NoSuchFileException if the file does not exist.
+     */
+    public InputStream open(String relativePath, long offset, long length) throws IOException {
+        return storage.stream(relativePath, offset, length);
+    }
+
+    /**
+     * @return a URL clients may download the file from directly, for
+     *         {@code application.imagenes.storage.s3.presign-ttl}, if the storage
+     *         has one.
+     */
+    public Optional<URI> presign(String relativePath) {
+        return storage.presign(relativePath, applicationProperties.getImagenes().getStorage().getS3().getPresignTtl());
+    }
+
+    /**
+     * @return the stored file as a resource, if it exists.
+     */
+    public Optional<Resource> resource(String relativePath) throws IOException {
+        Optional<Path> local = resolve(relativePath);
+        if (local.isPresent()) {
+            return Optional.of(new FileSystemResource(local.get()));
+        }
+        return info(relativePath).map(info -> new AbstractResource() {
+            @Override
+            public InputStream getInputStream() throws IOException {
+                return open(relativePath, 0, -1);
+            }
+
+            @Override
+            public long contentLength() {
+                return info.size();
+            }
+
+            @Override
+            public String getDescription() {
+                return "Stored image [" + relativePath + "]";
+            }
+        });
+    }
+
+    /**
+     * @return the stored file as a local file, copied from the storage if it is
+     *         remote; to be closed after use.
+     */
+    public Optional<LocalCopy> localCopy(String relativePath) throws IOException {
+        Optional<Path> local = resolve(relativePath);
+        if (local.isPresent()) {
+            return Optional.of(new LocalCopy(local.get(), false));
+        }
+        if (info(relativePath).isEmpty()) {
+            return Optional.empty();
+        }
+        Path tmp = Files.createTempFile(tmpDir(), "copy-", ".part");
+        try (InputStream in = open(relativePath, 0, -1)) {
+            Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            return Optional.of(new LocalCopy(tmp, true));
+        } catch (IOException e) {
+            Files.deleteIfExists(tmp);
+            if (e instanceof NoSuchFileException) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Deletes a stored file; missing files are ignored.
+     *
+     * @return whether a file was deleted.
+     */
+    public boolean delete(String relativePath) {
+        if (relativePath == null || relativePath.isBlank()) {
+            return false;
+        }
+        try {
+            return storage.delete(relativePath);
+        } catch (IOException e) {
+            LOG.error("Error deleting image file {}", relativePath, e);
+            return false;
+        }
+    }
+
+    /**
+     * @return the absolute local image root, which also holds the temporary
+     *         files.
+     */
+    public Path root() {
+        return Paths.get(applicationProperties.getImagePath()).toAbsolutePath().normalize();
+    }
+
+    private Path tmpDir() throws IOException {
+        return Files.createDirectories(root().resolve(TMP_DIR));
+    }
+
+    /**
+     * Reads until the buffer holds at least {@code min} bytes or the stream ends.
+     */
+    private static int fill(InputStream in, byte[] buffer, int n, int min) throws IOException {
+        int r;
+        while (n < min && (r = in.read(buffer, n, buffer.length - n)) != -1) {
+            n += r;
+        }
+        return n;
+    }
+
+    /**
+     * @return the image type of the content by its magic number, or {@code null}.
+     */
+    static String sniff(byte[] b, int n) {
+        if (n >= 3 && (b[0] & 0xFF) == 0xFF && (b[1] & 0xFF) == 0xD8 && (b[2] & 0xFF) == 0xFF) {
+            return "image/jpeg";
+        }
+        if (n >= 8 && (b[0] & 0xFF) == 0x89 && b[1] == 'P' && b[2] == 'N' && b[3] == 'G'
+                && b[4] == 0x0D && b[5] == 0x0A && b[6] == 0x1A && b[7] == 0x0A) {
+            return "image/png";
+        }
+        if (n >= 6 && b[0] == 'G' && b[1] == 'I' && b[2] == 'F' && b[3] == '8' && (b[4] == '7' || b[4] == '9')
+                && b[5] == 'a') {
+            return "image/gif";
+        }
+        if (n >= 12 && b[0] == 'R' && b[1] == 'I' && b[2] == 'F' && b[3] == 'F'
+                && b[8] == 'W' && b[9] == 'E' && b[10] == 'B' && b[11] == 'P') {
+            return "image/webp";
+        }
+        if (n >= 12 && b[4] == 'f' && b[5] == 't' && b[6] == 'y' && b[7] == 'p'
+                && b[8] == 'a' && b[9] == 'v' && b[10] == 'i' && (b[11] == 'f' || b[11] == 's')) {
+            return "image/avif";
+        }
+        return null;
+    }
+
+    static String relativePath(String hash, String contentType) {
+        String extension = contentType == null ? null : EXTENSIONS.get(contentType.toLowerCase(Locale.ROOT));
+        return CAS_DIR + "/" + hash.substring(0, 2) + "/" + hash.substring(2, 4) + "/" + hash
+                + (extension != null ? "." + extension : "");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.hotel.app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hotel.app.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the content of the most requested image files (carousel, hero...) in
+ * memory, so that they are served without touching the filesystem.
+ * <p>
+ * The cache is bounded by the total size of the files
+ * ({@code application.imagenes.cache.max-size}) and admits by frequency: a
+ * file is only loaded on its second request while remembered as a candidate,
+ * and then Caffeine's TinyLFU policy only keeps it if it is requested more
+ * often than the entry it would evict. Content-addressed files never change;
+ * the other names are invalidated when their {@code Imagen} is updated or
+ * deleted.
+ * <p>
+ * Metrics: the {@code cache.*} meters of {@code cache=imagenes} (hit rate,
+ * evictions, weighted size) and {@code hotel.images.cache.bytes_saved}.
+ */
+@Service
+public class ImagenHotCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenHotCache.class);
+
+    /**
+     * Estimated heap used by an entry besides its content.
+     */
+    private static final int ENTRY_OVERHEAD = 96;
+
+    /**
+     * A cached file. {@code lastModified} is the file's, as read when loaded.
+     */
+    public record Entrada(byte[] contenido, long lastModified) {}
+
+    private final Cache<String, Entrada> entradas;
+
+    private final Cache<String, Boolean> candidatos;
+
+    private final long maxEntrySize;
+
+    private final Counter bytesSaved;
+
+    public ImagenHotCache(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Imagenes.Cache config = applicationProperties.getImagenes().getCache();
+        this.maxEntrySize = config.getMaxSize().toBytes() > 0 ? config.getMaxEntrySize().toBytes() : -1;
+        this.entradas = Caffeine.newBuilder()
+                .maximumWeight(Math.max(config.getMaxSize().toBytes(), 0))
+                .<String, Entrada>weigher((ruta, entrada) -> entrada.contenido().length + 2 * ruta.length() + ENTRY_OVERHEAD)
+                .recordStats()
+                .build();
+        this.candidatos = Caffeine.newBuilder().maximumSize(config.getCandidates()).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entradas, "imagenes");
+        this.bytesSaved = Counter.builder("hotel.images.cache.bytes_saved")
+                .description("Image bytes sent from memory instead of the filesystem")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the cached content of the file, without any filesystem access.
+     */
+    public Optional<Entrada> get(String ruta) {
+        return Optional.ofNullable(entradas.getIfPresent(ruta));
+    }
+
+    /**
+     * Loads the file in the cache if it is small enough and requested often
+     * enough.
+     *
+     * @return the loaded entry, or {@code null} when the file is not admitted and
+     *         must be served from disk.
+     */
+    public Entrada cargar(String ruta, long size, long lastModified, InputStreamSource contenido) throws IOException {
+        if (!admite(size)) {
+            return null;
+        }
+        if (candidatos.asMap().putIfAbsent(ruta, Boolean.TRUE) == null) {
+            // First request: remember it, serve it from disk
+            return null;
+        }
+        Entrada entrada;
+        try (InputStream in = contenido.getInputStream()) {
+            entrada = new Entrada(in.readAllBytes(), lastModified);
+        }
+        entradas.put(ruta, entrada);
+        LOG.debug("Image {} loaded in memory ({} bytes)", ruta, entrada.contenido().length);
+        return entrada;
+    }
+
+    /**
+     * @return whether a file of this size may be cached.
+     */
+    public boolean admite(long size) {
+        return size <= maxEntrySize;
+    }
+
+    /**
+     * Records bytes sent from a cached entry.
+     */
+    public void servido(long bytes) {
+        bytesSaved.increment(bytes);
+    }
+
+    /**
+     * Drops the files (relative to the image root) from the cache.
+     */
+    public void invalidar(Collection<String> rutas) {
+        entradas.invalidateAll(rutas);
+        candidatos.invalidateAll(rutas);
+    }
+}
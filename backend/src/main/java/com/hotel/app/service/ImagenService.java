@@ -2,6 +2,8 @@ package com.hotel.app.service;
 
 import com.hotel.app.service.dto.ImagenDTO;
 import java.util.Optional;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -9,6 +11,12 @@ import org.springframework.data.domain.Pageable;
  * Service Interface for managing {@link com.hotel.app.domain.Imagen}.
  */
 public interface ImagenService {
+    /**
+     * Content of an imagen: the stored file, or the legacy blob until it has been
+     * migrated.
+     */
+    record Contenido(Resource resource, String contentType, String sha256) {}
+
     /**
      * Save a imagen.
      *
@@ -17,6 +25,16 @@ public interface ImagenService {
      */
     ImagenDTO save(ImagenDTO imagenDTO);
 
+    /**
+     * Save a imagen with its content streamed from an upload, without holding the
+     * file in memory.
+     *
+     * @param imagenDTO the entity to save; its {@code fichero} is ignored.
+     * @param contenido the uploaded content.
+     * @return the persisted entity.
+     */
+    ImagenDTO saveContenido(ImagenDTO imagenDTO, InputStreamSource contenido);
+
     /**
      * Updates a imagen.
      *
@@ -57,6 +75,14 @@ public interface ImagenService {
      */
     Optional<ImagenDTO> findOne(Long id);
 
+    /**
+     * Get the content of the "id" imagen. The other finders never load it.
+     *
+     * @param id the id of the entity.
+     * @return the content, if the imagen and its content exist.
+     */
+    Optional<Contenido> findContenido(Long id);
+
     java.util.List<ImagenDTO> findByHabitacionId(Long habitacionId);
 
     java.util.List<ImagenDTO> findByServicioId(Long servicioId);
@@ -0,0 +1,342 @@
+package com.hotel.app.service;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Imagen;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.service.ImagenContentStore.LocalCopy;
+import com.hotel.app.service.dto.ImagenVarianteDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Generates the resized variants of the images ({@code thumb}, {@code card},
+ * {@code hero}... see {@code application.imagenes.variantes.anchos}) so pages
+ * do not download the original uploads.
+ * <p>
+ * Variants are generated with ImageIO after each upload, on a bounded pool of
+ * {@code hilos} threads with a queue of {@code cola} uploads; uploads that do
+ * not fit, and images whose variants were generated for other sizes, are
+ * handled by {@code ImagenVariantJob}. A variant is stored at
+ * {@code variants/<h0h1>/<sha256>-<ancho>q<calidad>.<jpg|png>}, so its URL
+ * changes with its content, and recorded on {@link Imagen#getVariantesRutas()}.
+ * Large originals are subsampled while they are decoded, so a 24-megapixel
+ * photo is never fully held in memory. Animated GIFs, and formats ImageIO
+ * cannot read (WebP, AVIF), get no variants.
+ */
+@Service
+public class ImagenVariantService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenVariantService.class);
+
+    static final String VARIANTS_DIR = "variants";
+
+    private final ImagenRepository imagenRepository;
+
+    private final ImagenContentStore contentStore;
+
+    private final ApplicationProperties.Imagenes.Variantes properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final LandingSnapshotService landingSnapshotService;
+
+    private final ThreadPoolExecutor executor;
+
+    public ImagenVariantService(
+            ImagenRepository imagenRepository,
+            ImagenContentStore contentStore,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            LandingSnapshotService landingSnapshotService) {
+        this.imagenRepository = imagenRepository;
+        this.contentStore = contentStore;
+        this.landingSnapshotService = landingSnapshotService;
+        this.properties = applicationProperties.getImagenes().getVariantes();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("imagen-variantes-");
+        threadFactory.setDaemon(true);
+        int hilos = Math.max(1, properties.getHilos());
+        this.executor = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getCola())), threadFactory);
+        Gauge.builder("hotel.imagen.variantes.pending", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Generates the variants of an image in the background, once the current
+     * transaction commits.
+     */
+    public void programar(Long imagenId) {
+        if (imagenId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enviar(imagenId);
+                }
+            });
+        } else {
+            enviar(imagenId);
+        }
+    }
+
+    private void enviar(Long imagenId) {
+        try {
+            executor.execute(() -> generar(imagenId));
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Variant queue full, the variants of Imagen {} are left to the {} job", imagenId, "imagenVariantes");
+            contar("rejected");
+        }
+    }
+
+    /**
+     * Generates and records the variants of an image for the configured sizes.
+     *
+     * @return whether they were recorded.
+     */
+    public boolean generar(Long imagenId) {
+        Optional<Imagen> imagen = transactionTemplate.execute(status -> imagenRepository.findById(imagenId));
+        if (imagen.isEmpty() || imagen.get().getSha256() == null) {
+            return false;
+        }
+        String sha256 = imagen.get().getSha256();
+        String nombreArchivo = imagen.get().getNombreArchivo();
+        List<ImagenVarianteDTO> variantes;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (LocalCopy original = contentStore.localCopy(nombreArchivo).orElse(null)) {
+            if (original == null) {
+                LOG.debug("File of Imagen {} not found: {}", imagenId, nombreArchivo);
+                return false;
+            }
+            variantes = generarVariantes(sha256, original.path(), nombreArchivo);
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not generate the variants of Imagen {}", imagenId, e);
+            contar("failed");
+            return false;
+        } finally {
+            sample.stop(meterRegistry.timer("hotel.imagen.variantes.duration"));
+        }
+        // Only if the content has not changed meanwhile
+        Integer actualizadas = transactionTemplate.execute(status ->
+                imagenRepository.updateVariantes(imagenId, sha256, escribirVariantes(variantes), firma()));
+        contar(variantes.isEmpty() ? "unsupported" : "generated");
+        if (actualizadas == null || actualizadas == 0) {
+            return false;
+        }
+        // The carousel of the landing document carries the srcset of its images
+        landingSnapshotService.invalidate();
+        return true;
+    }
+
+    /**
+     * @return the configured sizes, as recorded in
+     *         {@link Imagen#getVariantesFirma()}.
+     */
+    public String firma() {
+        return anchos().stream().map(e -> e.getKey() + ":" + e.getValue()).collect(Collectors.joining(","))
+                + ";q" + calidad();
+    }
+
+    /**
+     * Writes the variants of an image file, skipping those already written.
+     *
+     * @return the variants, or none if the file is not a still image ImageIO can
+     *         read or has more than {@code max-pixeles}. Variants at least as wide
+     *         as the original point to the original.
+     */
+    List<ImagenVarianteDTO> generarVariantes(String sha256, Path original, String rutaOriginal) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return List.of();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                if ("gif".equalsIgnoreCase(reader.getFormatName())) {
+                    return List.of();
+                }
+                int anchoOriginal = reader.getWidth(0);
+                int altoOriginal = reader.getHeight(0);
+                long pixeles = (long) anchoOriginal * altoOriginal;
+                if (pixeles > properties.getMaxPixeles()) {
+                    LOG.warn("{} is {}x{}, over {} pixels: no variants", rutaOriginal, anchoOriginal, altoOriginal,
+                            properties.getMaxPixeles());
+                    return List.of();
+                }
+                List<Map.Entry<String, Integer>> anchos = anchos();
+                int anchoMaximo = anchos.stream().mapToInt(Map.Entry::getValue).max().orElse(anchoOriginal);
+                ImageReadParam param = reader.getDefaultReadParam();
+                // Decoded about twice as wide as the widest variant, and within the pixels of
+                // a square of that side however tall the image is
+                long lado = 2L * Math.max(1, anchoMaximo);
+                int paso = (int) Math.max(anchoOriginal / lado, (long) Math.sqrt((double) pixeles / (lado * lado)));
+                if (paso > 1) {
+                    param.setSourceSubsampling(paso, paso, 0, 0);
+                }
+                BufferedImage imagen = reader.read(0, param);
+                boolean alfa = imagen.getColorModel().hasAlpha();
+                List<ImagenVarianteDTO> variantes = new ArrayList<>();
+                for (Map.Entry<String, Integer> ancho : anchos) {
+                    if (ancho.getValue() >= anchoOriginal) {
+                        variantes.add(new ImagenVarianteDTO(ancho.getKey(), anchoOriginal, rutaOriginal));
+                        continue;
+                    }
+                    String ruta = rutaVariante(sha256, ancho.getValue(), calidad(), alfa ? "png" : "jpg");
+                    if (contentStore.put(ruta, out -> escribir(escalar(imagen, ancho.getValue()), alfa, out))) {
+                        LOG.debug("Variant {} written", ruta);
+                    }
+                    variantes.add(new ImagenVarianteDTO(ancho.getKey(), ancho.getValue(), ruta));
+                }
+                return variantes;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void escribir(BufferedImage imagen, boolean alfa, OutputStream out) throws IOException {
+        if (alfa) {
+            ImageIO.write(imagen, "png", out);
+            return;
+        }
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(properties.getCalidad());
+            param.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.setOutput(ios);
+            writer.write(null, new IIOImage(imagen, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    /**
+     * Scales an image down to a width, halving it step by step so bilinear
+     * interpolation does not skip pixels.
+     */
+    static BufferedImage escalar(BufferedImage origen, int ancho) {
+        int alto = Math.max(1, (int) Math.round(origen.getHeight() * (double) ancho / origen.getWidth()));
+        int tipo = origen.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+        BufferedImage actual = origen;
+        int w = origen.getWidth();
+        int h = origen.getHeight();
+        do {
+            w = Math.max(ancho, w / 2);
+            h = Math.max(alto, h / 2);
+            BufferedImage paso = new BufferedImage(w, h, tipo);
+            Graphics2D g = paso.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.drawImage(actual, 0, 0, w, h, null);
+            } finally {
+                g.dispose();
+            }
+            actual = paso;
+        } while (w != ancho || h != alto);
+        return actual;
+    }
+
+    static String rutaVariante(String sha256, int ancho, int calidad, String extension) {
+        return VARIANTS_DIR + "/" + sha256.substring(0, 2) + "/" + sha256 + "-" + ancho + "q" + calidad + "." + extension;
+    }
+
+    /**
+     * @param variantes the variants as recorded on {@link Imagen#getVariantesRutas()}.
+     * @return the variants, narrowest first.
+     */
+    public static List<ImagenVarianteDTO> leerVariantes(String variantes) {
+        List<ImagenVarianteDTO> result = new ArrayList<>();
+        if (variantes == null || variantes.isEmpty()) {
+            return result;
+        }
+        for (String variante : variantes.split(",")) {
+            String[] partes = variante.split(":", 3);
+            if (partes.length == 3) {
+                result.add(new ImagenVarianteDTO(partes[0], Integer.valueOf(partes[1]), partes[2]));
+            }
+        }
+        return result;
+    }
+
+    static String escribirVariantes(List<ImagenVarianteDTO> variantes) {
+        return variantes.stream()
+                .map(v -> v.getNombre() + ":" + v.getAncho() + ":" + v.getRuta())
+                .collect(Collectors.joining(","));
+    }
+
+    /**
+     * @return the {@code srcset} attribute of the variants, or {@code null} if
+     *         there are none.
+     */
+    public static String srcset(List<ImagenVarianteDTO> variantes) {
+        if (variantes.isEmpty()) {
+            return null;
+        }
+        return variantes.stream()
+                .map(v -> "/images/" + v.getRuta() + " " + v.getAncho() + "w")
+                .distinct()
+                .collect(Collectors.joining(", "));
+    }
+
+    private List<Map.Entry<String, Integer>> anchos() {
+        return properties.getAnchos().entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .toList();
+    }
+
+    private int calidad() {
+        return Math.round(properties.getCalidad() * 100);
+    }
+
+    private void contar(String outcome) {
+        meterRegistry.counter("hotel.imagen.variantes", "outcome", outcome).increment();
+    }
+}
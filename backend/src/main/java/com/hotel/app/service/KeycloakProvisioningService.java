@@ -0,0 +1,206 @@
+package com.hotel.app.service;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.repository.ClienteRepository.ProvisionKeycloak;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Creates the Keycloak accounts of the guests in the background, so saving a
+ * cliente does not wait for Keycloak nor fails when it is down.
+ * <p>
+ * A cliente saved with {@link #NOT_LINKED} as Keycloak id is marked
+ * {@code PENDIENTE} and its account is created, once the transaction commits,
+ * on a pool of {@code hilos} threads; then its {@code keycloak_id} is linked.
+ * A failed attempt is retried after {@code espera}, doubled on each failure up
+ * to {@code esperaMaxima}, until {@code maxIntentos} attempts leave it
+ * {@code FALLIDO}. Attempts that do not fit in the queue of {@code cola}, or
+ * were lost with a restart, are picked up by {@code KeycloakProvisioningJob}.
+ */
+@Service
+public class KeycloakProvisioningService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(KeycloakProvisioningService.class);
+
+    /**
+     * Keycloak id sent by the client to ask for an account.
+     */
+    public static final String NOT_LINKED = "not-linked";
+
+    static final int ERROR_MAX_LENGTH = 255;
+
+    enum Estado {
+        PENDIENTE,
+        FALLIDO,
+    }
+
+    private final ClienteRepository clienteRepository;
+
+    private final KeycloakService keycloakService;
+
+    private final ApplicationProperties.Keycloak.Provisioning properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledThreadPoolExecutor executor;
+
+    public KeycloakProvisioningService(
+            ClienteRepository clienteRepository,
+            KeycloakService keycloakService,
+            ApplicationProperties applicationProperties,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.clienteRepository = clienteRepository;
+        this.keycloakService = keycloakService;
+        this.properties = applicationProperties.getKeycloak().getProvisioning();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("keycloak-provisioning-");
+        threadFactory.setDaemon(true);
+        this.executor = new ScheduledThreadPoolExecutor(Math.max(1, properties.getHilos()), threadFactory);
+        this.executor.setRemoveOnCancelPolicy(true);
+        Gauge.builder("hotel.keycloak.provisioning.pending", executor, e -> e.getQueue().size()).register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void detener() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Asks for the Keycloak account of a cliente, created in the background once
+     * the current transaction commits.
+     */
+    public void solicitar(Long clienteId) {
+        if (clienteId == null) {
+            return;
+        }
+        clienteRepository.marcarProvisionPendiente(clienteId, Instant.now());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    programar(clienteId, Duration.ZERO);
+                }
+            });
+        } else {
+            programar(clienteId, Duration.ZERO);
+        }
+    }
+
+    /**
+     * Attempts the account of a cliente after the given delay, unless the queue
+     * is full.
+     */
+    public void programar(Long clienteId, Duration espera) {
+        if (executor.getQueue().size() >= Math.max(1, properties.getCola())) {
+            LOG.warn("Provisioning queue full, the Keycloak account of Cliente {} is left to the {} job", clienteId,
+                    "keycloakProvisioning");
+            contar("rejected");
+            return;
+        }
+        try {
+            executor.schedule(() -> provisionar(clienteId), espera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.debug("Provisioning stopped, Cliente {} is left to the job", clienteId);
+        }
+    }
+
+    /**
+     * Creates and links the Keycloak account of a cliente waiting for one.
+     *
+     * @return whether it was linked.
+     */
+    public boolean provisionar(Long clienteId) {
+        Optional<ProvisionKeycloak> provision = transactionTemplate.execute(status ->
+                clienteRepository.findProvisionKeycloakById(clienteId));
+        if (provision == null || provision.isEmpty()) {
+            return false;
+        }
+        ProvisionKeycloak cliente = provision.get();
+        if (cliente.getKeycloakId() != null || !Estado.PENDIENTE.name().equals(cliente.getEstado())) {
+            return false;
+        }
+        String keycloakId;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            keycloakId = keycloakService.createUser(cliente.getCorreo(), cliente.getNombre(), cliente.getApellido());
+        } catch (RuntimeException e) {
+            registrarFallo(cliente, e);
+            return false;
+        } finally {
+            sample.stop(meterRegistry.timer("hotel.keycloak.provisioning.duration"));
+        }
+        Integer vinculados = transactionTemplate.execute(status -> clienteRepository.vincularKeycloak(clienteId, keycloakId));
+        if (vinculados == null || vinculados == 0) {
+            // Linked meanwhile by an update of the cliente
+            contar("skipped");
+            return false;
+        }
+        LOG.info("Linked Keycloak user {} to Cliente {}", keycloakId, clienteId);
+        contar("linked");
+        return true;
+    }
+
+    private void registrarFallo(ProvisionKeycloak cliente, RuntimeException e) {
+        int intentos = (cliente.getIntentos() != null ? cliente.getIntentos() : 0) + 1;
+        boolean agotado = intentos >= properties.getMaxIntentos();
+        Duration espera = espera(intentos);
+        String error = String.valueOf(e.getMessage());
+        if (error.length() > ERROR_MAX_LENGTH) {
+            error = error.substring(0, ERROR_MAX_LENGTH);
+        }
+        String mensaje = error;
+        transactionTemplate.executeWithoutResult(status ->
+                clienteRepository.registrarFalloProvision(
+                        cliente.getId(),
+                        (agotado ? Estado.FALLIDO : Estado.PENDIENTE).name(),
+                        intentos,
+                        agotado ? null : Instant.now().plus(espera),
+                        mensaje));
+        if (agotado) {
+            LOG.error("Could not create the Keycloak account of Cliente {} after {} attempts", cliente.getId(), intentos, e);
+            contar("failed");
+        } else {
+            LOG.warn("Could not create the Keycloak account of Cliente {}, retrying in {}: {}", cliente.getId(), espera,
+                    e.getMessage());
+            contar("retried");
+            programar(cliente.getId(), espera);
+        }
+    }
+
+    /**
+     * @return the wait after the given number of failed attempts.
+     */
+    Duration espera(int intentos) {
+        Duration maxima = properties.getEsperaMaxima();
+        Duration espera = properties.getEspera();
+        for (int i = 1; i < intentos && espera.compareTo(maxima) < 0; i++) {
+            espera = espera.multipliedBy(2);
+        }
+        return espera.compareTo(maxima) > 0 ? maxima : espera;
+    }
+
+    private void contar(String outcome) {
+        meterRegistry.counter("hotel.keycloak.provisioning", "outcome", outcome).increment();
+    }
+}
@@ -1,112 +1,92 @@
 package com.hotel.app.service;
 
+import com.hotel.app.config.ApplicationProperties;
+import jakarta.ws.rs.core.Response;
 import java.util.Collections;
 import java.util.List;
-
 import org.keycloak.admin.client.Keycloak;
-import org.keycloak.admin.client.KeycloakBuilder;
+import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.CredentialRepresentation;
+import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+/**
+ * Guest accounts in Keycloak, through the shared admin client (see
+ * {@link com.hotel.app.config.KeycloakConfiguration}): no login nor HTTP client
+ * per call.
+ */
 @Service
 public class KeycloakService {
 
     private static final Logger LOG = LoggerFactory.getLogger(KeycloakService.class);
 
-    @Value("${application.keycloak.server-url}")
-    private String serverUrl;
-
-    @Value("${application.keycloak.realm}")
-    private String realm;
+    static final String CLIENT_ROLE = "ROLE_CLIENT";
 
-    @Value("${application.keycloak.client-id}")
-    private String clientId;
+    private final Keycloak keycloak;
 
-    @Value("${application.keycloak.username}")
-    private String username;
+    private final String realm;
 
-    @Value("${application.keycloak.password}")
-    private String password;
+    public KeycloakService(Keycloak keycloak, ApplicationProperties applicationProperties) {
+        this.keycloak = keycloak;
+        this.realm = applicationProperties.getKeycloak().getRealm();
+    }
 
+    /**
+     * Creates the account of a guest, with a temporary password and
+     * {@code ROLE_CLIENT}. Safe to repeat: an account that already exists for the
+     * email is reused.
+     *
+     * @return the Keycloak id of the account.
+     * @throws IllegalStateException if Keycloak refused the account.
+     * @throws RuntimeException      if Keycloak could not be reached.
+     */
     public String createUser(String email, String firstName, String lastName) {
-        Keycloak keycloak = null;
-        try {
-            keycloak = KeycloakBuilder.builder()
-                    .serverUrl(serverUrl)
-                    .realm(realm)
-                    .clientId(clientId)
-                    .username(username)
-                    .password(password)
-                    .build();
-
-            UserRepresentation user = new UserRepresentation();
-            user.setEnabled(true);
-            user.setUsername(email);
-            user.setEmail(email);
-            user.setFirstName(firstName);
-            user.setLastName(lastName);
-            user.setEmailVerified(true);
-            user.setRequiredActions(Collections.singletonList("UPDATE_PASSWORD"));
-
-            CredentialRepresentation credential = new CredentialRepresentation();
-            credential.setType(CredentialRepresentation.PASSWORD);
-            credential.setValue("Bienvenido@123");
-            credential.setTemporary(true);
-            user.setCredentials(Collections.singletonList(credential));
-
-            try (var response = keycloak.realm(realm).users().create(user)) {
-                if (response.getStatus() == 201) {
-                    String path = response.getLocation().getPath();
-                    String userId = path.substring(path.lastIndexOf("/") + 1);
-                    LOG.info("Created Keycloak user with ID: {}", userId);
-
-                    // Assign ROLE_CLIENT
-                    try {
-                        org.keycloak.representations.idm.RoleRepresentation clientRole = keycloak.realm(realm).roles()
-                                .get("ROLE_CLIENT").toRepresentation();
-                        keycloak.realm(realm).users().get(userId).roles().realmLevel()
-                                .add(Collections.singletonList(clientRole));
-                        LOG.info("Assigned ROLE_CLIENT to user {}", userId);
-                    } catch (Exception e) {
-                        LOG.error("Failed to assign ROLE_CLIENT to user {}", userId, e);
-                    }
-
-                    return userId;
-                } else if (response.getStatus() == 409) {
-                    LOG.warn("User already exists in Keycloak: {}", email);
-                    List<UserRepresentation> existing = keycloak.realm(realm).users().search(email);
-                    if (!existing.isEmpty()) {
-                        return existing.get(0).getId();
-                    }
-                } else {
-                    LOG.error("Failed to create user in Keycloak. Status: {}", response.getStatus());
+        UserRepresentation user = new UserRepresentation();
+        user.setEnabled(true);
+        user.setUsername(email);
+        user.setEmail(email);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmailVerified(true);
+        user.setRequiredActions(Collections.singletonList("UPDATE_PASSWORD"));
+
+        CredentialRepresentation credential = new CredentialRepresentation();
+        credential.setType(CredentialRepresentation.PASSWORD);
+        credential.setValue("Bienvenido@123");
+        credential.setTemporary(true);
+        user.setCredentials(Collections.singletonList(credential));
+
+        UsersResource users = keycloak.realm(realm).users();
+        String userId;
+        try (Response response = users.create(user)) {
+            if (response.getStatus() == 201) {
+                String path = response.getLocation().getPath();
+                userId = path.substring(path.lastIndexOf("/") + 1);
+                LOG.info("Created Keycloak user with ID: {}", userId);
+            } else if (response.getStatus() == 409) {
+                LOG.warn("User already exists in Keycloak: {}", email);
+                List<UserRepresentation> existing = users.search(email, true);
+                if (existing.isEmpty()) {
+                    throw new IllegalStateException("Keycloak reports a conflict but no user " + email);
                 }
-            }
-        } catch (Exception e) {
-            LOG.error("Error connecting to Keycloak or creating user", e);
-        } finally {
-            if (keycloak != null) {
-                keycloak.close();
+                userId = existing.get(0).getId();
+            } else {
+                throw new IllegalStateException("Failed to create user in Keycloak. Status: " + response.getStatus());
             }
         }
-        return null;
+
+        // Assigning a role the user already has is a no-op, so a retry can finish it
+        RoleRepresentation clientRole = keycloak.realm(realm).roles().get(CLIENT_ROLE).toRepresentation();
+        users.get(userId).roles().realmLevel().add(Collections.singletonList(clientRole));
+        LOG.info("Assigned {} to user {}", CLIENT_ROLE, userId);
+        return userId;
     }
 
     public void updateUser(String userId, String email, String firstName, String lastName) {
-        Keycloak keycloak = null;
         try {
-            keycloak = KeycloakBuilder.builder()
-                    .serverUrl(serverUrl)
-                    .realm(realm)
-                    .clientId(clientId)
-                    .username(username)
-                    .password(password)
-                    .build();
-
             // 1. Obtenemos la representación actual del usuario
             UserRepresentation user = keycloak.realm(realm).users().get(userId).toRepresentation();
 
@@ -120,40 +100,21 @@ public class KeycloakService {
             // 3. Enviamos la actualización
             keycloak.realm(realm).users().get(userId).update(user);
             LOG.info("Sincronización exitosa con Keycloak para el usuario: {}", userId);
-
         } catch (Exception e) {
             LOG.error("Error al sincronizar con Keycloak (ID: {}): {}", userId, e.getMessage());
             // No lanzamos excepción para que la App siga funcionando aunque Keycloak falle
-        } finally {
-            if (keycloak != null) {
-                keycloak.close();
-            }
         }
     }
 
     public void updateUserStatus(String userId, boolean enabled) {
-        Keycloak keycloak = null;
         try {
-            keycloak = KeycloakBuilder.builder()
-                    .serverUrl(serverUrl)
-                    .realm(realm)
-                    .clientId(clientId)
-                    .username(username)
-                    .password(password)
-                    .build();
-
             UserRepresentation user = new UserRepresentation();
             user.setEnabled(enabled);
             keycloak.realm(realm).users().get(userId).update(user);
             LOG.info("Updated Keycloak user {} status to enabled={}", userId, enabled);
-
         } catch (Exception e) {
             LOG.error("Error updating Keycloak user status", e);
             throw new RuntimeException("Failed to update user status in Keycloak", e);
-        } finally {
-            if (keycloak != null) {
-                keycloak.close();
-            }
         }
     }
 }
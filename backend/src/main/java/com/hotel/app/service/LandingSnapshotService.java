@@ -0,0 +1,284 @@
+package com.hotel.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.CarouselItem;
+import com.hotel.app.repository.CarouselItemRepository;
+import com.hotel.app.repository.CategoriaHabitacionRepository;
+import com.hotel.app.repository.RedSociallandingRepository;
+import com.hotel.app.repository.SeccionContactoRepository;
+import com.hotel.app.repository.SeccionHeroRepository;
+import com.hotel.app.repository.TelefonoRepository;
+import com.hotel.app.repository.UbicacionRepository;
+import com.hotel.app.service.ServicioCatalogService.CatalogPage;
+import com.hotel.app.service.ServicioCatalogService.Vista;
+import com.hotel.app.service.dto.LandingDTO;
+import com.hotel.app.service.mapper.CarouselItemMapper;
+import com.hotel.app.service.mapper.CategoriaHabitacionMapper;
+import com.hotel.app.service.mapper.RedSociallandingMapper;
+import com.hotel.app.service.mapper.SeccionContactoMapper;
+import com.hotel.app.service.mapper.SeccionHeroMapper;
+import com.hotel.app.service.mapper.TelefonoMapper;
+import com.hotel.app.service.mapper.UbicacionMapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The public home page as one precomputed document ({@link LandingDTO}): hero
+ * sections, carousel, social networks, contact sections, phones, locations,
+ * available servicios and room categories.
+ * <p>
+ * The document is serialized and gzip-compressed once per rebuild and kept in
+ * memory as bytes, so anonymous requests never reach the database nor Jackson.
+ * It is rebuilt lazily, by a single thread, after an edit of any of those
+ * entities ({@link #invalidate()}), when the {@link ServicioCatalogService}
+ * snapshot changes, or after {@code application.landing.snapshot-ttl} for the
+ * writes made on other nodes.
+ */
+@Service
+public class LandingSnapshotService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LandingSnapshotService.class);
+
+    /**
+     * The serialized document, its gzip encoding and the SHA-256 (hex) of the
+     * JSON.
+     */
+    public record Documento(byte[] json, byte[] gzip, String sha256) {}
+
+    private record Snapshot(Documento documento, long generation, String catalogEtag, Instant builtAt) {}
+
+    private final SeccionHeroRepository seccionHeroRepository;
+
+    private final CarouselItemRepository carouselItemRepository;
+
+    private final RedSociallandingRepository redSociallandingRepository;
+
+    private final SeccionContactoRepository seccionContactoRepository;
+
+    private final TelefonoRepository telefonoRepository;
+
+    private final UbicacionRepository ubicacionRepository;
+
+    private final CategoriaHabitacionRepository categoriaHabitacionRepository;
+
+    private final SeccionHeroMapper seccionHeroMapper;
+
+    private final CarouselItemMapper carouselItemMapper;
+
+    private final RedSociallandingMapper redSociallandingMapper;
+
+    private final SeccionContactoMapper seccionContactoMapper;
+
+    private final TelefonoMapper telefonoMapper;
+
+    private final UbicacionMapper ubicacionMapper;
+
+    private final CategoriaHabitacionMapper categoriaHabitacionMapper;
+
+    private final ServicioCatalogService servicioCatalogService;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration snapshotTtl;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Held while the document is rebuilt; unlike a monitor, waiting for it does
+     * not pin a virtual thread to its carrier.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public LandingSnapshotService(
+            SeccionHeroRepository seccionHeroRepository,
+            CarouselItemRepository carouselItemRepository,
+            RedSociallandingRepository redSociallandingRepository,
+            SeccionContactoRepository seccionContactoRepository,
+            TelefonoRepository telefonoRepository,
+            UbicacionRepository ubicacionRepository,
+            CategoriaHabitacionRepository categoriaHabitacionRepository,
+            SeccionHeroMapper seccionHeroMapper,
+            CarouselItemMapper carouselItemMapper,
+            RedSociallandingMapper redSociallandingMapper,
+            SeccionContactoMapper seccionContactoMapper,
+            TelefonoMapper telefonoMapper,
+            UbicacionMapper ubicacionMapper,
+            CategoriaHabitacionMapper categoriaHabitacionMapper,
+            ServicioCatalogService servicioCatalogService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties) {
+        this.seccionHeroRepository = seccionHeroRepository;
+        this.carouselItemRepository = carouselItemRepository;
+        this.redSociallandingRepository = redSociallandingRepository;
+        this.seccionContactoRepository = seccionContactoRepository;
+        this.telefonoRepository = telefonoRepository;
+        this.ubicacionRepository = ubicacionRepository;
+        this.categoriaHabitacionRepository = categoriaHabitacionRepository;
+        this.seccionHeroMapper = seccionHeroMapper;
+        this.carouselItemMapper = carouselItemMapper;
+        this.redSociallandingMapper = redSociallandingMapper;
+        this.seccionContactoMapper = seccionContactoMapper;
+        this.telefonoMapper = telefonoMapper;
+        this.ubicacionMapper = ubicacionMapper;
+        this.categoriaHabitacionMapper = categoriaHabitacionMapper;
+        this.servicioCatalogService = servicioCatalogService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.snapshotTtl = Duration.ofSeconds(applicationProperties.getLanding().getSnapshotTtl());
+    }
+
+    /**
+     * @return the current document, rebuilt first if stale.
+     */
+    public Documento get() {
+        CatalogPage servicios = servicioCatalogService.findPage(Vista.DISPONIBLES, Pageable.unpaged()).orElseThrow();
+        Snapshot current = snapshot;
+        if (isFresh(current, servicios.etag())) {
+            return current.documento();
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            if (!isFresh(current, servicios.etag())) {
+                current = rebuild(servicios);
+                snapshot = current;
+            }
+            return current.documento();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Marks the document as stale; to be called after any write of the landing
+     * entities. When called inside a transaction the document is invalidated
+     * again after commit, so a rebuild running concurrently with the write cannot
+     * keep the old data.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            generation.incrementAndGet();
+                        }
+                    });
+        }
+    }
+
+    private boolean isFresh(Snapshot current, String catalogEtag) {
+        return current != null
+                && current.generation() == generation.get()
+                && current.catalogEtag().equals(catalogEtag)
+                && current.builtAt().plus(snapshotTtl).isAfter(Instant.now());
+    }
+
+    private Snapshot rebuild(CatalogPage servicios) {
+        long buildGeneration = generation.get();
+        LOG.debug("Rebuilding landing snapshot");
+
+        LandingDTO landing = transactionTemplate.execute(status -> {
+            LandingDTO dto = new LandingDTO();
+            dto.setHeroes(seccionHeroRepository.findAll(Sort.by("orden", "id")).stream()
+                    .filter(hero -> !Boolean.FALSE.equals(hero.getActivo()))
+                    .map(seccionHeroMapper::toDto)
+                    .toList());
+            dto.setCarousel(carouselItemRepository.findAllWithEagerRelationships().stream()
+                    .filter(item -> !Boolean.FALSE.equals(item.getActivo()))
+                    .sorted(Comparator.comparing(CarouselItem::getOrden, Comparator.nullsLast(Comparator.<Integer>naturalOrder()))
+                            .thenComparing(CarouselItem::getId))
+                    .map(carouselItemMapper::toDto)
+                    .toList());
+            dto.setRedesSociales(redSociallandingRepository.findAll(Sort.by("id")).stream()
+                    .filter(red -> !Boolean.FALSE.equals(red.getActivo()))
+                    .map(redSociallandingMapper::toDto)
+                    .toList());
+            dto.setContactos(seccionContactoRepository.findAll(Sort.by("id")).stream()
+                    .filter(contacto -> !Boolean.FALSE.equals(contacto.getActivo()))
+                    .map(seccionContactoMapper::toDto)
+                    .toList());
+            dto.setTelefonos(telefonoRepository.findAll(Sort.by("id")).stream()
+                    .filter(telefono -> !Boolean.FALSE.equals(telefono.getActivo()))
+                    .map(telefonoMapper::toDto)
+                    .toList());
+            dto.setUbicaciones(ubicacionRepository.findAll(Sort.by("id")).stream()
+                    .filter(ubicacion -> !Boolean.FALSE.equals(ubicacion.getActivo()))
+                    .map(ubicacionMapper::toDto)
+                    .toList());
+            dto.setCategorias(categoriaHabitacionRepository.findAll(Sort.by("id")).stream()
+                    .filter(categoria -> !Boolean.FALSE.equals(categoria.getActivo()))
+                    .map(categoriaHabitacionMapper::toDto)
+                    .toList());
+            return dto;
+        });
+        landing.setServicios(servicios.page().getContent());
+
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(landing);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize the landing document", e);
+        }
+        byte[] gzip = gzip(json);
+        Documento documento = new Documento(json, gzip, sha256(json));
+        LOG.debug("Landing snapshot rebuilt: {}, {} bytes ({} gzipped), version {}", landing, json.length, gzip.length,
+                documento.sha256());
+        return new Snapshot(documento, buildGeneration, servicios.etag(), Instant.now());
+    }
+
+    /**
+     * Compressed once per rebuild, so the slowest level costs nothing per
+     * request.
+     */
+    private static byte[] gzip(byte[] content) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            gzip.write(content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] value) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(value));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
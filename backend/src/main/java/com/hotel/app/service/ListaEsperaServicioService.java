@@ -0,0 +1,64 @@
+package com.hotel.app.service;
+
+import com.hotel.app.service.dto.ListaEsperaServicioDTO;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Service Interface for managing
+ * {@link com.hotel.app.domain.ListaEsperaServicio}.
+ */
+public interface ListaEsperaServicioService {
+    /**
+     * Add a guest to the waitlist of a full service slot.
+     *
+     * @param listaEsperaServicioDTO the entry to create.
+     * @return the persisted entry, with its position in the queue.
+     */
+    ListaEsperaServicioDTO unirse(ListaEsperaServicioDTO listaEsperaServicioDTO);
+
+    /**
+     * Get all the waitlist entries.
+     *
+     * @param pageable the pagination information.
+     * @return the list of entities.
+     */
+    Page<ListaEsperaServicioDTO> findAll(Pageable pageable);
+
+    /**
+     * Get the "id" waitlist entry.
+     *
+     * @param id the id of the entity.
+     * @return the entity.
+     */
+    Optional<ListaEsperaServicioDTO> findOne(Long id);
+
+    /**
+     * Get the waitlist entries of a reserva.
+     *
+     * @param reservaId the id of the reserva.
+     * @return the list of entities.
+     */
+    List<ListaEsperaServicioDTO> findByReservaId(Long reservaId);
+
+    /**
+     * Remove a guest from the waitlist.
+     *
+     * @param id the id of the entry.
+     */
+    void cancelar(Long id);
+
+    /**
+     * Promote waiting guests of a slot while the freed quota allows it,
+     * creating a PENDIENTE servicioContratado for each one. Runs in the
+     * caller's transaction; guests are notified after commit.
+     *
+     * @param servicioId    the id of the servicio.
+     * @param fechaServicio the slot date/time.
+     * @return the number of promoted entries.
+     */
+    int promoverSiguientes(Long servicioId, ZonedDateTime fechaServicio);
+}
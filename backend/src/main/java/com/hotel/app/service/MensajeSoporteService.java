@@ -17,6 +17,13 @@ public interface MensajeSoporteService {
      */
     MensajeSoporteDTO save(MensajeSoporteDTO mensajeSoporteDTO);
 
+    /**
+     * Save a batch of mensajeSoportes in a single flush.
+     *
+     * @param mensajeSoporteDTOs the entities to save.
+     */
+    void saveAll(java.util.List<MensajeSoporteDTO> mensajeSoporteDTOs);
+
     /**
      * Updates a mensajeSoporte.
      *
@@ -1,6 +1,7 @@
 package com.hotel.app.service;
 
 import com.hotel.app.service.dto.ReservaDTO;
+import java.time.Instant;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -106,6 +107,37 @@ public interface ReservaService {
      */
     void deactivate(Long id);
 
+    /**
+     * Check that the "id" reserva can still be paid: it is not cancelled and,
+     * if it is an unpaid hold, the hold has not expired.
+     *
+     * @param id the id of the entity.
+     * @throws com.hotel.app.web.rest.errors.BadRequestAlertException if it cannot be paid.
+     */
+    void verificarPagable(Long id);
+
+    /**
+     * Record a successful payment of the "id" reserva by activating it and its
+     * details and confirming it if it was PENDIENTE, unless it was cancelled or
+     * its hold expired in the meantime.
+     *
+     * @param id the id of the entity.
+     * @return {@code false} if the payment arrived for a reserva that can no longer be paid
+     *         and has to be refunded.
+     */
+    boolean registrarPago(Long id);
+
+    /**
+     * Cancel the "id" reserva if it is still an unpaid anonymous hold created
+     * before {@code limite}, with the same side effects as a cancellation by
+     * hand.
+     *
+     * @param id     the id of the entity.
+     * @param limite holds created before this instant have expired.
+     * @return whether the reserva was cancelled.
+     */
+    boolean cancelarHoldVencido(Long id, Instant limite);
+
     /**
      * Get reservation statistics for chart.
      *
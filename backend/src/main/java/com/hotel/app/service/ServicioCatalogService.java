@@ -0,0 +1,279 @@
+package com.hotel.app.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.ServicioDisponibilidad;
+import com.hotel.app.domain.enumeration.TipoServicio;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.service.dto.ServicioDTO;
+import com.hotel.app.service.dto.ServicioDisponibilidadDTO;
+import com.hotel.app.service.mapper.ServicioDisponibilidadMapper;
+import com.hotel.app.service.mapper.ServicioMapper;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * In-memory snapshot of the public {@link com.hotel.app.domain.Servicio} catalog,
+ * with the active schedules and image URLs of every servicio.
+ * <p>
+ * The snapshot is rebuilt lazily after any Servicio, ServicioDisponibilidad or
+ * Imagen write (see {@link #invalidate()}), so catalog reads and conditional
+ * requests are answered without touching the database.
+ */
+@Service
+public class ServicioCatalogService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServicioCatalogService.class);
+
+    /**
+     * The catalog views exposed by {@code /api/servicios}.
+     */
+    public enum Vista {
+        TODOS(servicio -> true),
+        DISPONIBLES(servicio -> Boolean.TRUE.equals(servicio.getDisponible())),
+        GRATUITOS(servicio -> Boolean.TRUE.equals(servicio.getDisponible()) && servicio.getTipo() == TipoServicio.GRATUITO),
+        PAGO(servicio -> Boolean.TRUE.equals(servicio.getDisponible()) && servicio.getTipo() == TipoServicio.PAGO);
+
+        private final Predicate<ServicioDTO> filtro;
+
+        Vista(Predicate<ServicioDTO> filtro) {
+            this.filtro = filtro;
+        }
+    }
+
+    /**
+     * A page of the catalog and its strong ETag.
+     */
+    public record CatalogPage(Page<ServicioDTO> page, String etag) {}
+
+    private record Snapshot(Map<Vista, List<ServicioDTO>> vistas, String version, long generation, Instant builtAt) {}
+
+    private static final Map<String, Comparator<ServicioDTO>> SORTABLE_PROPERTIES = Map.of(
+            "id", Comparator.comparing(ServicioDTO::getId, Comparator.nullsLast(Comparator.naturalOrder())),
+            "nombre", Comparator.comparing(ServicioDTO::getNombre, Comparator.nullsLast(Comparator.naturalOrder())),
+            "precio", Comparator.comparing(ServicioDTO::getPrecio, Comparator.nullsLast(Comparator.naturalOrder())),
+            "tipo", Comparator.comparing(ServicioDTO::getTipo, Comparator.nullsLast(Comparator.naturalOrder())),
+            "disponible", Comparator.comparing(ServicioDTO::getDisponible, Comparator.nullsLast(Comparator.naturalOrder())));
+
+    private final ServicioRepository servicioRepository;
+
+    private final ServicioDisponibilidadRepository servicioDisponibilidadRepository;
+
+    private final ImagenRepository imagenRepository;
+
+    private final ServicioMapper servicioMapper;
+
+    private final ServicioDisponibilidadMapper servicioDisponibilidadMapper;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Duration snapshotTtl;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Serializes rebuilds. A lock rather than {@code synchronized}, which would
+     * pin the carrier of a virtual thread waiting on the database.
+     */
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private volatile Snapshot snapshot;
+
+    public ServicioCatalogService(
+            ServicioRepository servicioRepository,
+            ServicioDisponibilidadRepository servicioDisponibilidadRepository,
+            ImagenRepository imagenRepository,
+            ServicioMapper servicioMapper,
+            ServicioDisponibilidadMapper servicioDisponibilidadMapper,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties) {
+        this.servicioRepository = servicioRepository;
+        this.servicioDisponibilidadRepository = servicioDisponibilidadRepository;
+        this.imagenRepository = imagenRepository;
+        this.servicioMapper = servicioMapper;
+        this.servicioDisponibilidadMapper = servicioDisponibilidadMapper;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.snapshotTtl = Duration.ofSeconds(applicationProperties.getServicioCatalog().getSnapshotTtl());
+    }
+
+    /**
+     * Get a page of a catalog view from the snapshot.
+     *
+     * @param vista    the catalog view.
+     * @param pageable the pagination information.
+     * @return the page and its ETag, or empty if the requested sort cannot be
+     *         served from memory.
+     */
+    public Optional<CatalogPage> findPage(Vista vista, Pageable pageable) {
+        Comparator<ServicioDTO> comparator = comparatorFor(pageable.getSort());
+        if (comparator == null) {
+            return Optional.empty();
+        }
+
+        Snapshot current = currentSnapshot();
+        List<ServicioDTO> servicios = current.vistas().get(vista);
+        if (pageable.getSort().isSorted()) {
+            servicios = new ArrayList<>(servicios);
+            servicios.sort(comparator);
+        }
+
+        List<ServicioDTO> content = servicios;
+        if (pageable.isPaged()) {
+            int from = (int) Math.min(pageable.getOffset(), servicios.size());
+            int to = (int) Math.min((long) from + pageable.getPageSize(), servicios.size());
+            content = servicios.subList(from, to);
+        }
+
+        String etag = sha256(current.version() + '|' + vista + '|' + pageable);
+        return Optional.of(new CatalogPage(new PageImpl<>(content, pageable, servicios.size()), etag));
+    }
+
+    /**
+     * Marks the snapshot as stale. When called inside a transaction the snapshot
+     * is invalidated again after commit, so a rebuild running concurrently with
+     * the write cannot keep the old data.
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                    new TransactionSynchronization() {
+                        @Override
+                        public void afterCommit() {
+                            generation.incrementAndGet();
+                        }
+                    });
+        }
+    }
+
+    private Snapshot currentSnapshot() {
+        Snapshot current = snapshot;
+        if (isFresh(current)) {
+            return current;
+        }
+        rebuildLock.lock();
+        try {
+            current = snapshot;
+            if (!isFresh(current)) {
+                current = rebuild();
+                snapshot = current;
+            }
+            return current;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private boolean isFresh(Snapshot current) {
+        return current != null
+                && current.generation() == generation.get()
+                && current.builtAt().plus(snapshotTtl).isAfter(Instant.now());
+    }
+
+    private Snapshot rebuild() {
+        long buildGeneration = generation.get();
+        LOG.debug("Rebuilding Servicio catalog snapshot");
+
+        List<ServicioDTO> servicios = transactionTemplate.execute(status -> {
+            Map<Long, List<ServicioDisponibilidadDTO>> disponibilidades = new HashMap<>();
+            for (ServicioDisponibilidad disp : servicioDisponibilidadRepository.findByActivoTrue()) {
+                if (disp.getServicio() != null) {
+                    disponibilidades
+                            .computeIfAbsent(disp.getServicio().getId(), id -> new ArrayList<>())
+                            .add(servicioDisponibilidadMapper.toDto(disp));
+                }
+            }
+
+            Map<Long, List<String>> imagenUrls = new HashMap<>();
+            for (ImagenRepository.ServicioImagenUrl imagen : imagenRepository.findServicioImagenUrls()) {
+                imagenUrls.computeIfAbsent(imagen.getServicioId(), id -> new ArrayList<>()).add(imagen.getNombreArchivo());
+            }
+
+            List<ServicioDTO> dtos = new ArrayList<>();
+            servicioRepository.findAll(Sort.by("id")).forEach(servicio -> {
+                ServicioDTO dto = servicioMapper.toDto(servicio);
+                dto.setDisponibilidades(Collections.unmodifiableList(
+                        disponibilidades.getOrDefault(servicio.getId(), List.of())));
+                dto.setImagenUrls(Collections.unmodifiableList(imagenUrls.getOrDefault(servicio.getId(), List.of())));
+                dtos.add(dto);
+            });
+            return dtos;
+        });
+
+        Map<Vista, List<ServicioDTO>> vistas = new HashMap<>();
+        for (Vista vista : Vista.values()) {
+            vistas.put(vista, servicios.stream().filter(vista.filtro).toList());
+        }
+
+        String version;
+        try {
+            version = sha256(objectMapper.writeValueAsString(servicios));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize Servicio catalog", e);
+        }
+
+        LOG.debug("Servicio catalog snapshot rebuilt: {} servicios, version {}", servicios.size(), version);
+        return new Snapshot(vistas, version, buildGeneration, Instant.now());
+    }
+
+    private static Comparator<ServicioDTO> comparatorFor(Sort sort) {
+        Comparator<ServicioDTO> comparator = SORTABLE_PROPERTIES.get("id");
+        if (sort.isUnsorted()) {
+            return comparator;
+        }
+        Comparator<ServicioDTO> result = null;
+        for (Sort.Order order : sort) {
+            Comparator<ServicioDTO> byProperty = SORTABLE_PROPERTIES.get(order.getProperty());
+            if (byProperty == null) {
+                return null;
+            }
+            if (order.isDescending()) {
+                byProperty = byProperty.reversed();
+            }
+            result = result == null ? byProperty : result.thenComparing(byProperty);
+        }
+        return result;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
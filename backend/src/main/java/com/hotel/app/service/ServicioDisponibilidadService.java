@@ -79,4 +79,17 @@ public interface ServicioDisponibilidadService {
     List<ServicioDisponibilidadConCuposDTO> findDisponibilidadConCupos(Long servicioId,
             java.time.LocalDate fechaInicio,
             java.time.LocalDate fechaFin);
+
+    /**
+     * Get disponibilidad con cupos for several services in the same date range.
+     *
+     * @param servicioIds the service ids
+     * @param fechaInicio the start date
+     * @param fechaFin    the end date
+     * @return availabilities with quota information, keyed by service id
+     */
+    java.util.Map<Long, List<ServicioDisponibilidadConCuposDTO>> findDisponibilidadConCupos(
+            java.util.Collection<Long> servicioIds,
+            java.time.LocalDate fechaInicio,
+            java.time.LocalDate fechaFin);
 }
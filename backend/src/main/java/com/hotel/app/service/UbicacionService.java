@@ -25,9 +25,16 @@ public class UbicacionService {
 
     private final UbicacionMapper ubicacionMapper;
 
-    public UbicacionService(UbicacionRepository ubicacionRepository, UbicacionMapper ubicacionMapper) {
+    private final LandingSnapshotService landingSnapshotService;
+
+    public UbicacionService(
+        UbicacionRepository ubicacionRepository,
+        UbicacionMapper ubicacionMapper,
+        LandingSnapshotService landingSnapshotService
+    ) {
         this.ubicacionRepository = ubicacionRepository;
         this.ubicacionMapper = ubicacionMapper;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     /**
@@ -40,6 +47,7 @@ public class UbicacionService {
         LOG.debug("Request to save Ubicacion : {}", ubicacionDTO);
         Ubicacion ubicacion = ubicacionMapper.toEntity(ubicacionDTO);
         ubicacion = ubicacionRepository.save(ubicacion);
+        landingSnapshotService.invalidate();
         return ubicacionMapper.toDto(ubicacion);
     }
 
@@ -53,6 +61,7 @@ public class UbicacionService {
         LOG.debug("Request to update Ubicacion : {}", ubicacionDTO);
         Ubicacion ubicacion = ubicacionMapper.toEntity(ubicacionDTO);
         ubicacion = ubicacionRepository.save(ubicacion);
+        landingSnapshotService.invalidate();
         return ubicacionMapper.toDto(ubicacion);
     }
 
@@ -64,6 +73,7 @@ public class UbicacionService {
      */
     public Optional<UbicacionDTO> partialUpdate(UbicacionDTO ubicacionDTO) {
         LOG.debug("Request to partially update Ubicacion : {}", ubicacionDTO);
+        landingSnapshotService.invalidate();
 
         return ubicacionRepository
             .findById(ubicacionDTO.getId())
@@ -108,5 +118,6 @@ public class UbicacionService {
     public void delete(Long id) {
         LOG.debug("Request to delete Ubicacion : {}", id);
         ubicacionRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 }
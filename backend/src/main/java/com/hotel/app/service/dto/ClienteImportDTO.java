@@ -0,0 +1,201 @@
+package com.hotel.app.service.dto;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress and report of a bulk import of clientes, see
+ * {@link com.hotel.app.service.ClienteImportService}.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ClienteImportDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String id;
+
+    private String formato;
+
+    private boolean crearCuentas;
+
+    private String estado;
+
+    private Instant inicio;
+
+    private Instant fin;
+
+    private long leidas;
+
+    private long importadas;
+
+    private long duplicadas;
+
+    private long invalidas;
+
+    private long cuentasCreadas;
+
+    /**
+     * Accounts not created on the first attempt, left to the retries of
+     * {@link com.hotel.app.service.KeycloakProvisioningService}.
+     */
+    private long cuentasPendientes;
+
+    /**
+     * Why the import stopped, if it failed.
+     */
+    private String mensaje;
+
+    /**
+     * The first {@code application.clientes.importacion.max-errores} rejected
+     * rows.
+     */
+    private List<Error> errores;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getFormato() {
+        return formato;
+    }
+
+    public void setFormato(String formato) {
+        this.formato = formato;
+    }
+
+    public boolean isCrearCuentas() {
+        return crearCuentas;
+    }
+
+    public void setCrearCuentas(boolean crearCuentas) {
+        this.crearCuentas = crearCuentas;
+    }
+
+    public String getEstado() {
+        return estado;
+    }
+
+    public void setEstado(String estado) {
+        this.estado = estado;
+    }
+
+    public Instant getInicio() {
+        return inicio;
+    }
+
+    public void setInicio(Instant inicio) {
+        this.inicio = inicio;
+    }
+
+    public Instant getFin() {
+        return fin;
+    }
+
+    public void setFin(Instant fin) {
+        this.fin = fin;
+    }
+
+    public long getLeidas() {
+        return leidas;
+    }
+
+    public void setLeidas(long leidas) {
+        this.leidas = leidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public void setImportadas(long importadas) {
+        this.importadas = importadas;
+    }
+
+    public long getDuplicadas() {
+        return duplicadas;
+    }
+
+    public void setDuplicadas(long duplicadas) {
+        this.duplicadas = duplicadas;
+    }
+
+    public long getInvalidas() {
+        return invalidas;
+    }
+
+    public void setInvalidas(long invalidas) {
+        this.invalidas = invalidas;
+    }
+
+    public long getCuentasCreadas() {
+        return cuentasCreadas;
+    }
+
+    public void setCuentasCreadas(long cuentasCreadas) {
+        this.cuentasCreadas = cuentasCreadas;
+    }
+
+    public long getCuentasPendientes() {
+        return cuentasPendientes;
+    }
+
+    public void setCuentasPendientes(long cuentasPendientes) {
+        this.cuentasPendientes = cuentasPendientes;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+
+    public List<Error> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<Error> errores) {
+        this.errores = errores;
+    }
+
+    /**
+     * A rejected row; {@code linea} is the line it starts on.
+     */
+    public static class Error implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private long linea;
+
+        private String mensaje;
+
+        public Error() {}
+
+        public Error(long linea, String mensaje) {
+            this.linea = linea;
+            this.mensaje = mensaje;
+        }
+
+        public long getLinea() {
+            return linea;
+        }
+
+        public void setLinea(long linea) {
+            this.linea = linea;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+
+        public void setMensaje(String mensaje) {
+            this.mensaje = mensaje;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.hotel.app.service.dto;
+
+import com.hotel.app.domain.enumeration.EstadoPago;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.domain.enumeration.MetodoPago;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the cliente detail screen shows, served by
+ * {@code GET /api/clientes/:id/overview} in one response. Related rows are
+ * summaries that only carry the ids of what they point to, newest first.
+ */
+public class ClienteOverviewDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public record ReservaResumen(
+        Long id,
+        Instant fechaReserva,
+        Instant fechaInicio,
+        Instant fechaFin,
+        EstadoReserva estado,
+        Boolean activo,
+        List<String> habitaciones
+    )
+        implements Serializable {}
+
+    public record ServicioResumen(
+        Long id,
+        Long servicioId,
+        String servicio,
+        ZonedDateTime fechaServicio,
+        Integer cantidad,
+        BigDecimal precioUnitario,
+        EstadoServicioContratado estado,
+        Long reservaId,
+        Long pagoId
+    )
+        implements Serializable {}
+
+    public record PagoResumen(
+        Long id,
+        Instant fechaPago,
+        BigDecimal monto,
+        MetodoPago metodoPago,
+        EstadoPago estado,
+        Boolean activo,
+        Long reservaId
+    )
+        implements Serializable {}
+
+    public record MensajeResumen(Long id, Instant fechaMensaje, String remitente, String mensaje, Boolean leido, Long reservaId)
+        implements Serializable {}
+
+    private ClienteDTO cliente;
+
+    private List<ReservaResumen> reservas = new ArrayList<>();
+
+    private List<ServicioResumen> servicios = new ArrayList<>();
+
+    private List<PagoResumen> pagos = new ArrayList<>();
+
+    private List<MensajeResumen> mensajes = new ArrayList<>();
+
+    private BigDecimal totalPagado = BigDecimal.ZERO;
+
+    public ClienteDTO getCliente() {
+        return cliente;
+    }
+
+    public void setCliente(ClienteDTO cliente) {
+        this.cliente = cliente;
+    }
+
+    public List<ReservaResumen> getReservas() {
+        return reservas;
+    }
+
+    public void setReservas(List<ReservaResumen> reservas) {
+        this.reservas = reservas;
+    }
+
+    public List<ServicioResumen> getServicios() {
+        return servicios;
+    }
+
+    public void setServicios(List<ServicioResumen> servicios) {
+        this.servicios = servicios;
+    }
+
+    public List<PagoResumen> getPagos() {
+        return pagos;
+    }
+
+    public void setPagos(List<PagoResumen> pagos) {
+        this.pagos = pagos;
+    }
+
+    public List<MensajeResumen> getMensajes() {
+        return mensajes;
+    }
+
+    public void setMensajes(List<MensajeResumen> mensajes) {
+        this.mensajes = mensajes;
+    }
+
+    /**
+     * @return the sum of the completed pagos.
+     */
+    public BigDecimal getTotalPagado() {
+        return totalPagado;
+    }
+
+    public void setTotalPagado(BigDecimal totalPagado) {
+        this.totalPagado = totalPagado;
+    }
+}
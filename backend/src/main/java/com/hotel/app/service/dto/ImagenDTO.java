@@ -4,6 +4,8 @@ import jakarta.persistence.Lob;
 import jakarta.validation.constraints.*;
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -27,6 +29,14 @@ public class ImagenDTO implements Serializable {
 
     private String nombreArchivo;
 
+    private String sha256;
+
+    private Long tamano;
+
+    private List<ImagenVarianteDTO> variantes = new ArrayList<>();
+
+    private String srcset;
+
     @NotNull
     private Boolean activo;
 
@@ -84,6 +94,43 @@ public class ImagenDTO implements Serializable {
         this.nombreArchivo = nombreArchivo;
     }
 
+    public String getSha256() {
+        return sha256;
+    }
+
+    public void setSha256(String sha256) {
+        this.sha256 = sha256;
+    }
+
+    public Long getTamano() {
+        return tamano;
+    }
+
+    public void setTamano(Long tamano) {
+        this.tamano = tamano;
+    }
+
+    public List<ImagenVarianteDTO> getVariantes() {
+        return variantes;
+    }
+
+    public void setVariantes(List<ImagenVarianteDTO> variantes) {
+        this.variantes = variantes;
+    }
+
+    /**
+     * @return the {@code srcset} of the variants, e.g.
+     *         {@code /images/variants/..-160.jpg 160w, /images/variants/..-480.jpg 480w};
+     *         {@code null} until they are generated.
+     */
+    public String getSrcset() {
+        return srcset;
+    }
+
+    public void setSrcset(String srcset) {
+        this.srcset = srcset;
+    }
+
     public Boolean getActivo() {
         return activo;
     }
@@ -144,8 +191,10 @@ public class ImagenDTO implements Serializable {
             "id=" + getId() +
             ", nombre='" + getNombre() + "'" +
             ", descripcion='" + getDescripcion() + "'" +
-            ", fichero='" + getFichero() + "'" +
             ", nombreArchivo='" + getNombreArchivo() + "'" +
+            ", sha256='" + getSha256() + "'" +
+            ", tamano=" + getTamano() +
+            ", variantes=" + getVariantes() +
             ", activo='" + getActivo() + "'" +
             ", fechaCreacion='" + getFechaCreacion() + "'" +
             ", habitacion=" + getHabitacion() +
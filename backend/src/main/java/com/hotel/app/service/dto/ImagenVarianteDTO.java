@@ -0,0 +1,78 @@
+package com.hotel.app.service.dto;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * A resized copy of an {@link ImagenDTO}: its name ({@code thumb}, {@code card},
+ * {@code hero}...), its width in pixels and its path under {@code /images/}.
+ */
+public class ImagenVarianteDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String nombre;
+
+    private Integer ancho;
+
+    private String ruta;
+
+    public ImagenVarianteDTO() {}
+
+    public ImagenVarianteDTO(String nombre, Integer ancho, String ruta) {
+        this.nombre = nombre;
+        this.ancho = ancho;
+        this.ruta = ruta;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Integer getAncho() {
+        return ancho;
+    }
+
+    public void setAncho(Integer ancho) {
+        this.ancho = ancho;
+    }
+
+    public String getRuta() {
+        return ruta;
+    }
+
+    public void setRuta(String ruta) {
+        this.ruta = ruta;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ImagenVarianteDTO)) {
+            return false;
+        }
+        ImagenVarianteDTO other = (ImagenVarianteDTO) o;
+        return Objects.equals(nombre, other.nombre) && Objects.equals(ancho, other.ancho) && Objects.equals(ruta, other.ruta);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(nombre, ancho, ruta);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ImagenVarianteDTO{" +
+            "nombre='" + getNombre() + "'" +
+            ", ancho=" + getAncho() +
+            ", ruta='" + getRuta() + "'" +
+            "}";
+    }
+}
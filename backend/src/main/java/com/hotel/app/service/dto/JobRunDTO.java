@@ -0,0 +1,140 @@
+package com.hotel.app.service.dto;
+
+import com.hotel.app.domain.enumeration.JobRunOutcome;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.hotel.app.domain.JobRun} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class JobRunDTO implements Serializable {
+
+    private Long id;
+
+    private String jobName;
+
+    private String node;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private Long rowsProcessed;
+
+    private Integer chunks;
+
+    private JobRunOutcome outcome;
+
+    private String error;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getJobName() {
+        return jobName;
+    }
+
+    public void setJobName(String jobName) {
+        this.jobName = jobName;
+    }
+
+    public String getNode() {
+        return node;
+    }
+
+    public void setNode(String node) {
+        this.node = node;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public Long getRowsProcessed() {
+        return rowsProcessed;
+    }
+
+    public void setRowsProcessed(Long rowsProcessed) {
+        this.rowsProcessed = rowsProcessed;
+    }
+
+    public Integer getChunks() {
+        return chunks;
+    }
+
+    public void setChunks(Integer chunks) {
+        this.chunks = chunks;
+    }
+
+    public JobRunOutcome getOutcome() {
+        return outcome;
+    }
+
+    public void setOutcome(JobRunOutcome outcome) {
+        this.outcome = outcome;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof JobRunDTO)) {
+            return false;
+        }
+
+        JobRunDTO jobRunDTO = (JobRunDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, jobRunDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "JobRunDTO{" +
+                "id=" + getId() +
+                ", jobName='" + getJobName() + "'" +
+                ", node='" + getNode() + "'" +
+                ", startedAt='" + getStartedAt() + "'" +
+                ", finishedAt='" + getFinishedAt() + "'" +
+                ", rowsProcessed=" + getRowsProcessed() +
+                ", chunks=" + getChunks() +
+                ", outcome='" + getOutcome() + "'" +
+                ", error='" + getError() + "'" +
+                "}";
+    }
+}
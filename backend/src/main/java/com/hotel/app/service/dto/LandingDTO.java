@@ -0,0 +1,109 @@
+package com.hotel.app.service.dto;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Everything the public home page shows, served by {@code GET /api/public/landing}
+ * in one document: only active rows, in display order.
+ */
+public class LandingDTO implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private List<SeccionHeroDTO> heroes = new ArrayList<>();
+
+    private List<CarouselItemDTO> carousel = new ArrayList<>();
+
+    private List<RedSociallandingDTO> redesSociales = new ArrayList<>();
+
+    private List<SeccionContactoDTO> contactos = new ArrayList<>();
+
+    private List<TelefonoDTO> telefonos = new ArrayList<>();
+
+    private List<UbicacionDTO> ubicaciones = new ArrayList<>();
+
+    private List<ServicioDTO> servicios = new ArrayList<>();
+
+    private List<CategoriaHabitacionDTO> categorias = new ArrayList<>();
+
+    public List<SeccionHeroDTO> getHeroes() {
+        return heroes;
+    }
+
+    public void setHeroes(List<SeccionHeroDTO> heroes) {
+        this.heroes = heroes;
+    }
+
+    public List<CarouselItemDTO> getCarousel() {
+        return carousel;
+    }
+
+    public void setCarousel(List<CarouselItemDTO> carousel) {
+        this.carousel = carousel;
+    }
+
+    public List<RedSociallandingDTO> getRedesSociales() {
+        return redesSociales;
+    }
+
+    public void setRedesSociales(List<RedSociallandingDTO> redesSociales) {
+        this.redesSociales = redesSociales;
+    }
+
+    public List<SeccionContactoDTO> getContactos() {
+        return contactos;
+    }
+
+    public void setContactos(List<SeccionContactoDTO> contactos) {
+        this.contactos = contactos;
+    }
+
+    public List<TelefonoDTO> getTelefonos() {
+        return telefonos;
+    }
+
+    public void setTelefonos(List<TelefonoDTO> telefonos) {
+        this.telefonos = telefonos;
+    }
+
+    public List<UbicacionDTO> getUbicaciones() {
+        return ubicaciones;
+    }
+
+    public void setUbicaciones(List<UbicacionDTO> ubicaciones) {
+        this.ubicaciones = ubicaciones;
+    }
+
+    public List<ServicioDTO> getServicios() {
+        return servicios;
+    }
+
+    public void setServicios(List<ServicioDTO> servicios) {
+        this.servicios = servicios;
+    }
+
+    public List<CategoriaHabitacionDTO> getCategorias() {
+        return categorias;
+    }
+
+    public void setCategorias(List<CategoriaHabitacionDTO> categorias) {
+        this.categorias = categorias;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "LandingDTO{" +
+            "heroes=" + heroes.size() +
+            ", carousel=" + carousel.size() +
+            ", redesSociales=" + redesSociales.size() +
+            ", contactos=" + contactos.size() +
+            ", telefonos=" + telefonos.size() +
+            ", ubicaciones=" + ubicaciones.size() +
+            ", servicios=" + servicios.size() +
+            ", categorias=" + categorias.size() +
+            "}";
+    }
+}
@@ -0,0 +1,183 @@
+package com.hotel.app.service.dto;
+
+import com.hotel.app.domain.enumeration.EstadoListaEspera;
+import jakarta.validation.constraints.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.Objects;
+
+/**
+ * A DTO for the {@link com.hotel.app.domain.ListaEsperaServicio} entity.
+ */
+@SuppressWarnings("common-java:DuplicatedBlocks")
+public class ListaEsperaServicioDTO implements Serializable {
+
+    private Long id;
+
+    private Instant fechaSolicitud;
+
+    @NotNull
+    private ZonedDateTime fechaServicio;
+
+    @NotNull
+    @Min(value = 1)
+    private Integer numeroPersonas;
+
+    @NotNull
+    @Min(value = 1)
+    private Integer cantidad;
+
+    private EstadoListaEspera estado;
+
+    private Instant fechaPromocion;
+
+    /**
+     * 1-based position in the queue while the entry is EN_ESPERA.
+     */
+    private Long posicion;
+
+    private ServicioDTO servicio;
+
+    private ReservaDTO reserva;
+
+    private ClienteDTO cliente;
+
+    private ServicioContratadoDTO servicioContratado;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Instant getFechaSolicitud() {
+        return fechaSolicitud;
+    }
+
+    public void setFechaSolicitud(Instant fechaSolicitud) {
+        this.fechaSolicitud = fechaSolicitud;
+    }
+
+    public ZonedDateTime getFechaServicio() {
+        return fechaServicio;
+    }
+
+    public void setFechaServicio(ZonedDateTime fechaServicio) {
+        this.fechaServicio = fechaServicio;
+    }
+
+    public Integer getNumeroPersonas() {
+        return numeroPersonas;
+    }
+
+    public void setNumeroPersonas(Integer numeroPersonas) {
+        this.numeroPersonas = numeroPersonas;
+    }
+
+    public Integer getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(Integer cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public EstadoListaEspera getEstado() {
+        return estado;
+    }
+
+    public void setEstado(EstadoListaEspera estado) {
+        this.estado = estado;
+    }
+
+    public Instant getFechaPromocion() {
+        return fechaPromocion;
+    }
+
+    public void setFechaPromocion(Instant fechaPromocion) {
+        this.fechaPromocion = fechaPromocion;
+    }
+
+    public Long getPosicion() {
+        return posicion;
+    }
+
+    public void setPosicion(Long posicion) {
+        this.posicion = posicion;
+    }
+
+    public ServicioDTO getServicio() {
+        return servicio;
+    }
+
+    public void setServicio(ServicioDTO servicio) {
+        this.servicio = servicio;
+    }
+
+    public ReservaDTO getReserva() {
+        return reserva;
+    }
+
+    public void setReserva(ReservaDTO reserva) {
+        this.reserva = reserva;
+    }
+
+    public ClienteDTO getCliente() {
+        return cliente;
+    }
+
+    public void setCliente(ClienteDTO cliente) {
+        this.cliente = cliente;
+    }
+
+    public ServicioContratadoDTO getServicioContratado() {
+        return servicioContratado;
+    }
+
+    public void setServicioContratado(ServicioContratadoDTO servicioContratado) {
+        this.servicioContratado = servicioContratado;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ListaEsperaServicioDTO)) {
+            return false;
+        }
+
+        ListaEsperaServicioDTO listaEsperaServicioDTO = (ListaEsperaServicioDTO) o;
+        if (this.id == null) {
+            return false;
+        }
+        return Objects.equals(this.id, listaEsperaServicioDTO.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(this.id);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ListaEsperaServicioDTO{" +
+                "id=" + getId() +
+                ", fechaSolicitud='" + getFechaSolicitud() + "'" +
+                ", fechaServicio='" + getFechaServicio() + "'" +
+                ", numeroPersonas=" + getNumeroPersonas() +
+                ", cantidad=" + getCantidad() +
+                ", estado='" + getEstado() + "'" +
+                ", fechaPromocion='" + getFechaPromocion() + "'" +
+                ", posicion=" + getPosicion() +
+                ", servicio=" + getServicio() +
+                ", reserva=" + getReserva() +
+                ", cliente=" + getCliente() +
+                ", servicioContratado=" + getServicioContratado() +
+                "}";
+    }
+}
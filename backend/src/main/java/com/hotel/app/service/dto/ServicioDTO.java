@@ -36,6 +36,10 @@ public class ServicioDTO implements Serializable {
 
     private java.util.List<ImagenDTO> imagenes;
 
+    private java.util.List<ServicioDisponibilidadDTO> disponibilidades;
+
+    private java.util.List<String> imagenUrls;
+
     public Long getId() {
         return id;
     }
@@ -100,6 +104,22 @@ public class ServicioDTO implements Serializable {
         this.imagenes = imagenes;
     }
 
+    public java.util.List<ServicioDisponibilidadDTO> getDisponibilidades() {
+        return disponibilidades;
+    }
+
+    public void setDisponibilidades(java.util.List<ServicioDisponibilidadDTO> disponibilidades) {
+        this.disponibilidades = disponibilidades;
+    }
+
+    public java.util.List<String> getImagenUrls() {
+        return imagenUrls;
+    }
+
+    public void setImagenUrls(java.util.List<String> imagenUrls) {
+        this.imagenUrls = imagenUrls;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
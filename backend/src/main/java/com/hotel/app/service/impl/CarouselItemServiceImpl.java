@@ -3,6 +3,7 @@ package com.hotel.app.service.impl;
 import com.hotel.app.domain.CarouselItem;
 import com.hotel.app.repository.CarouselItemRepository;
 import com.hotel.app.service.CarouselItemService;
+import com.hotel.app.service.LandingSnapshotService;
 import com.hotel.app.service.dto.CarouselItemDTO;
 import com.hotel.app.service.mapper.CarouselItemMapper;
 import java.util.Optional;
@@ -26,9 +27,15 @@ public class CarouselItemServiceImpl implements CarouselItemService {
 
     private final CarouselItemMapper carouselItemMapper;
 
-    public CarouselItemServiceImpl(CarouselItemRepository carouselItemRepository, CarouselItemMapper carouselItemMapper) {
+    private final LandingSnapshotService landingSnapshotService;
+
+    public CarouselItemServiceImpl(
+            CarouselItemRepository carouselItemRepository,
+            CarouselItemMapper carouselItemMapper,
+            LandingSnapshotService landingSnapshotService) {
         this.carouselItemRepository = carouselItemRepository;
         this.carouselItemMapper = carouselItemMapper;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -36,6 +43,7 @@ public class CarouselItemServiceImpl implements CarouselItemService {
         LOG.debug("Request to save CarouselItem : {}", carouselItemDTO);
         CarouselItem carouselItem = carouselItemMapper.toEntity(carouselItemDTO);
         carouselItem = carouselItemRepository.save(carouselItem);
+        landingSnapshotService.invalidate();
         return carouselItemMapper.toDto(carouselItem);
     }
 
@@ -44,12 +52,14 @@ public class CarouselItemServiceImpl implements CarouselItemService {
         LOG.debug("Request to update CarouselItem : {}", carouselItemDTO);
         CarouselItem carouselItem = carouselItemMapper.toEntity(carouselItemDTO);
         carouselItem = carouselItemRepository.save(carouselItem);
+        landingSnapshotService.invalidate();
         return carouselItemMapper.toDto(carouselItem);
     }
 
     @Override
     public Optional<CarouselItemDTO> partialUpdate(CarouselItemDTO carouselItemDTO) {
         LOG.debug("Request to partially update CarouselItem : {}", carouselItemDTO);
+        landingSnapshotService.invalidate();
 
         return carouselItemRepository
             .findById(carouselItemDTO.getId())
@@ -84,5 +94,6 @@ public class CarouselItemServiceImpl implements CarouselItemService {
     public void delete(Long id) {
         LOG.debug("Request to delete CarouselItem : {}", id);
         carouselItemRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 }
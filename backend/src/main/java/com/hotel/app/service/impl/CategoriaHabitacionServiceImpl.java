@@ -3,6 +3,7 @@ package com.hotel.app.service.impl;
 import com.hotel.app.domain.CategoriaHabitacion;
 import com.hotel.app.repository.CategoriaHabitacionRepository;
 import com.hotel.app.service.CategoriaHabitacionService;
+import com.hotel.app.service.LandingSnapshotService;
 import com.hotel.app.service.dto.CategoriaHabitacionDTO;
 import com.hotel.app.service.mapper.CategoriaHabitacionMapper;
 import java.util.Optional;
@@ -27,11 +28,15 @@ public class CategoriaHabitacionServiceImpl implements CategoriaHabitacionServic
 
     private final CategoriaHabitacionMapper categoriaHabitacionMapper;
 
+    private final LandingSnapshotService landingSnapshotService;
+
     public CategoriaHabitacionServiceImpl(
             CategoriaHabitacionRepository categoriaHabitacionRepository,
-            CategoriaHabitacionMapper categoriaHabitacionMapper) {
+            CategoriaHabitacionMapper categoriaHabitacionMapper,
+            LandingSnapshotService landingSnapshotService) {
         this.categoriaHabitacionRepository = categoriaHabitacionRepository;
         this.categoriaHabitacionMapper = categoriaHabitacionMapper;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -39,6 +44,7 @@ public class CategoriaHabitacionServiceImpl implements CategoriaHabitacionServic
         LOG.debug("Request to save CategoriaHabitacion : {}", categoriaHabitacionDTO);
         CategoriaHabitacion categoriaHabitacion = categoriaHabitacionMapper.toEntity(categoriaHabitacionDTO);
         categoriaHabitacion = categoriaHabitacionRepository.save(categoriaHabitacion);
+        landingSnapshotService.invalidate();
         return categoriaHabitacionMapper.toDto(categoriaHabitacion);
     }
 
@@ -47,12 +53,14 @@ public class CategoriaHabitacionServiceImpl implements CategoriaHabitacionServic
         LOG.debug("Request to update CategoriaHabitacion : {}", categoriaHabitacionDTO);
         CategoriaHabitacion categoriaHabitacion = categoriaHabitacionMapper.toEntity(categoriaHabitacionDTO);
         categoriaHabitacion = categoriaHabitacionRepository.save(categoriaHabitacion);
+        landingSnapshotService.invalidate();
         return categoriaHabitacionMapper.toDto(categoriaHabitacion);
     }
 
     @Override
     public Optional<CategoriaHabitacionDTO> partialUpdate(CategoriaHabitacionDTO categoriaHabitacionDTO) {
         LOG.debug("Request to partially update CategoriaHabitacion : {}", categoriaHabitacionDTO);
+        landingSnapshotService.invalidate();
 
         return categoriaHabitacionRepository
                 .findById(categoriaHabitacionDTO.getId())
@@ -83,11 +91,13 @@ public class CategoriaHabitacionServiceImpl implements CategoriaHabitacionServic
     public void delete(Long id) {
         LOG.debug("Request to delete CategoriaHabitacion : {}", id);
         categoriaHabitacionRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 
     @Override
     public void activate(Long id) {
         LOG.debug("Request to activate CategoriaHabitacion : {}", id);
+        landingSnapshotService.invalidate();
         categoriaHabitacionRepository
                 .findById(id)
                 .ifPresent(categoriaHabitacion -> {
@@ -99,6 +109,7 @@ public class CategoriaHabitacionServiceImpl implements CategoriaHabitacionServic
     @Override
     public void deactivate(Long id) {
         LOG.debug("Request to deactivate CategoriaHabitacion : {}", id);
+        landingSnapshotService.invalidate();
         categoriaHabitacionRepository
                 .findById(id)
                 .ifPresent(categoriaHabitacion -> {
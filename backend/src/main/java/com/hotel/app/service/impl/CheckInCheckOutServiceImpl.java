@@ -13,6 +13,7 @@ import com.hotel.app.repository.ServicioContratadoRepository;
 import com.hotel.app.service.CheckInCheckOutService;
 import com.hotel.app.service.MensajeSoporteService;
 import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.ServicioContratadoService;
 import com.hotel.app.service.dto.CheckInCheckOutDTO;
 import com.hotel.app.service.dto.MensajeSoporteDTO;
 import com.hotel.app.service.mapper.CheckInCheckOutMapper;
@@ -53,6 +54,8 @@ public class CheckInCheckOutServiceImpl implements CheckInCheckOutService {
 
     private final ConfiguracionSistemaService configuracionSistemaService;
 
+    private final ServicioContratadoService servicioContratadoService;
+
     public CheckInCheckOutServiceImpl(
             CheckInCheckOutRepository checkInCheckOutRepository,
             CheckInCheckOutMapper checkInCheckOutMapper,
@@ -60,7 +63,8 @@ public class CheckInCheckOutServiceImpl implements CheckInCheckOutService {
             ReservaDetalleRepository reservaDetalleRepository,
             ServicioContratadoRepository servicioContratadoRepository,
             MensajeSoporteService mensajeSoporteService,
-            ConfiguracionSistemaService configuracionSistemaService) {
+            ConfiguracionSistemaService configuracionSistemaService,
+            ServicioContratadoService servicioContratadoService) {
         this.checkInCheckOutRepository = checkInCheckOutRepository;
         this.checkInCheckOutMapper = checkInCheckOutMapper;
         this.reservaRepository = reservaRepository;
@@ -68,6 +72,7 @@ public class CheckInCheckOutServiceImpl implements CheckInCheckOutService {
         this.servicioContratadoRepository = servicioContratadoRepository;
         this.mensajeSoporteService = mensajeSoporteService;
         this.configuracionSistemaService = configuracionSistemaService;
+        this.servicioContratadoService = servicioContratadoService;
     }
 
     @Override
@@ -169,9 +174,8 @@ public class CheckInCheckOutServiceImpl implements CheckInCheckOutService {
                                         servicioContratadoRepository.save(s);
                                         enviarMensajeServicioCompletado(s, reserva);
                                     } else if (s.getEstado() == EstadoServicioContratado.PENDIENTE) {
-                                        s.setEstado(EstadoServicioContratado.CANCELADO);
-                                        servicioContratadoRepository.save(s);
-                                        enviarMensajeServicioCancelado(s, reserva);
+                                        // Same path as any cancellation, so the waitlist gets the slot
+                                        servicioContratadoService.cancelar(s.getId(), "MSG_SERVICIO_CANCELADO");
                                     }
                                 }
 
@@ -258,55 +262,6 @@ public class CheckInCheckOutServiceImpl implements CheckInCheckOutService {
         }
     }
 
-    /**
-     * Envía un mensaje al cliente cuando un servicio se cancela automáticamente
-     */
-    private void enviarMensajeServicioCancelado(ServicioContratado servicio, Reserva reserva) {
-        if (reserva.getCliente() == null || reserva.getCliente().getKeycloakId() == null) {
-            LOG.warn("No se puede enviar mensaje de servicio cancelado. Cliente no tiene keycloakId");
-            return;
-        }
-
-        try {
-            String servicioNombre = servicio.getServicio() != null ? servicio.getServicio().getNombre() : "Servicio";
-            String msgText = "El servicio '" + servicioNombre + "' de su reserva #" + reserva.getId()
-                    + " ha sido CANCELADO porque estaba pendiente al momento del check-out. "
-                    + "Si desea contratarlo nuevamente, contáctenos.";
-
-            // Intentar obtener plantilla personalizada
-            try {
-                var configOpt = configuracionSistemaService.findByClave("MSG_SERVICIO_CANCELADO");
-                if (configOpt.isPresent() && configOpt.get().getValor() != null) {
-                    msgText = configOpt.get().getValor()
-                            .replace("{servicioNombre}", servicioNombre)
-                            .replace("{reservaId}", reserva.getId().toString())
-                            .replace("{clienteNombre}",
-                                    reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre()
-                                            : "Cliente");
-                }
-            } catch (Exception e) {
-                LOG.debug("Usando mensaje por defecto para servicio cancelado");
-            }
-
-            MensajeSoporteDTO mensaje = new MensajeSoporteDTO();
-            mensaje.setUserId(reserva.getCliente().getKeycloakId());
-            mensaje.setUserName(
-                    ((reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre() : "") + " " +
-                            (reserva.getCliente().getApellido() != null ? reserva.getCliente().getApellido() : ""))
-                            .trim());
-            mensaje.setMensaje(msgText);
-            mensaje.setRemitente("SISTEMA");
-            mensaje.setLeido(false);
-            mensaje.setActivo(true);
-            mensaje.setFechaMensaje(java.time.Instant.now());
-
-            mensajeSoporteService.save(mensaje);
-            LOG.info("Mensaje de servicio cancelado enviado para servicio ID: {}", servicio.getId());
-        } catch (Exception e) {
-            LOG.error("Error enviando mensaje de servicio cancelado", e);
-        }
-    }
-
     /**
      * Envía un mensaje al cliente cuando se realiza el check-in
      */
@@ -3,9 +3,15 @@ package com.hotel.app.service.impl;
 import com.hotel.app.domain.Cliente;
 import com.hotel.app.repository.ClienteRepository;
 import com.hotel.app.service.ClienteService;
+import com.hotel.app.service.KeycloakProvisioningService;
+import com.hotel.app.service.KeycloakService;
 import com.hotel.app.service.dto.ClienteDTO;
 import com.hotel.app.service.mapper.ClienteMapper;
+import java.text.Normalizer;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -22,32 +28,68 @@ public class ClienteServiceImpl implements ClienteService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ClienteServiceImpl.class);
 
+    /**
+     * Shorter queries have no trigram to look up in the index.
+     */
+    static final int SEARCH_MIN_LENGTH = 3;
+
+    static final int SEARCH_MAX_RESULTS = 50;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final Pattern NOT_ALPHANUMERIC = Pattern.compile("[^0-9a-z]");
+
     private final ClienteRepository clienteRepository;
 
     private final ClienteMapper clienteMapper;
 
-    private final com.hotel.app.service.KeycloakService keycloakService;
+    private final KeycloakService keycloakService;
+
+    private final KeycloakProvisioningService keycloakProvisioningService;
 
     public ClienteServiceImpl(ClienteRepository clienteRepository, ClienteMapper clienteMapper,
-            com.hotel.app.service.KeycloakService keycloakService) {
+            KeycloakService keycloakService, KeycloakProvisioningService keycloakProvisioningService) {
         this.clienteRepository = clienteRepository;
         this.clienteMapper = clienteMapper;
         this.keycloakService = keycloakService;
+        this.keycloakProvisioningService = keycloakProvisioningService;
     }
 
     @Override
     public ClienteDTO save(ClienteDTO clienteDTO) {
         LOG.debug("Request to save Cliente : {}", clienteDTO);
+        boolean solicitarCuenta = KeycloakProvisioningService.NOT_LINKED.equals(clienteDTO.getKeycloakId());
+        if (solicitarCuenta) {
+            clienteDTO.setKeycloakId(null);
+        }
         Cliente cliente = clienteMapper.toEntity(clienteDTO);
         cliente = clienteRepository.save(cliente);
+        if (solicitarCuenta) {
+            clienteRepository.flush();
+            keycloakProvisioningService.solicitar(cliente.getId());
+        }
         return clienteMapper.toDto(cliente);
     }
 
     @Override
     public ClienteDTO update(ClienteDTO clienteDTO) {
         LOG.debug("Request to update Cliente : {}", clienteDTO);
+        // Conversion flow: the account is created in the background and linked
+        // later, which a client sending back what it read must not undo
+        boolean solicitarCuenta = KeycloakProvisioningService.NOT_LINKED.equals(clienteDTO.getKeycloakId());
+        if (solicitarCuenta || clienteDTO.getKeycloakId() == null) {
+            clienteDTO.setKeycloakId(
+                    clienteDTO.getId() != null ? clienteRepository.findKeycloakIdById(clienteDTO.getId()).orElse(null) : null);
+            solicitarCuenta = solicitarCuenta && clienteDTO.getKeycloakId() == null;
+        }
         Cliente cliente = clienteMapper.toEntity(clienteDTO);
         cliente = clienteRepository.save(cliente);
+        if (solicitarCuenta) {
+            clienteRepository.flush();
+            keycloakProvisioningService.solicitar(cliente.getId());
+        }
         syncWithKeycloak(cliente);
         return clienteMapper.toDto(cliente);
     }
@@ -135,4 +177,41 @@ public class ClienteServiceImpl implements ClienteService {
         LOG.debug("Request to get Clientes by activo : {}", activo);
         return clienteRepository.findByActivo(activo, pageable).map(clienteMapper::toDto);
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ClienteDTO> search(String query, int limit) {
+        LOG.debug("Request to search Clientes : {}", query);
+        String texto = normalizar(query);
+        if (texto.length() < SEARCH_MIN_LENGTH) {
+            return List.of();
+        }
+        // Phones and identifications are stored as digits and letters only
+        String compacto = texto.chars().anyMatch(Character::isDigit) ? NOT_ALPHANUMERIC.matcher(texto).replaceAll("") : texto;
+        if (compacto.length() < SEARCH_MIN_LENGTH) {
+            compacto = texto;
+        }
+        int limite = Math.max(1, Math.min(limit, SEARCH_MAX_RESULTS));
+        return clienteRepository
+                .buscar(texto, "%" + escaparLike(texto) + "%", "%" + escaparLike(compacto) + "%", limite)
+                .stream()
+                .map(clienteMapper::toDto)
+                .toList();
+    }
+
+    /**
+     * Lowercase, without accents and with single spaces, like the
+     * {@code cliente.busqueda} column.
+     */
+    static String normalizar(String value) {
+        if (value == null) {
+            return "";
+        }
+        String sinAcentos = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(sinAcentos.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private static String escaparLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
 }
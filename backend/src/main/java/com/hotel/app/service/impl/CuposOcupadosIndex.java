@@ -0,0 +1,76 @@
+package com.hotel.app.service.impl;
+
+import com.hotel.app.domain.ServicioDisponibilidad;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Índice de cupos ocupados agrupados por servicio, fecha y hora.
+ * <p>
+ * Se construye una sola vez por consulta a partir de los servicios contratados
+ * (o de las sumas ya agrupadas en SQL) y permite resolver los cupos ocupados de
+ * cada franja sin volver a recorrer todas las contrataciones.
+ */
+final class CuposOcupadosIndex {
+
+    private final Map<Long, Map<LocalDate, NavigableMap<LocalTime, Long>>> buckets = new HashMap<>();
+
+    /**
+     * Registra una cantidad contratada para un servicio en una fecha/hora concreta.
+     */
+    void add(Long servicioId, ZonedDateTime fechaServicio, long cantidad) {
+        if (servicioId == null || fechaServicio == null || cantidad == 0) {
+            return;
+        }
+        buckets
+                .computeIfAbsent(servicioId, id -> new HashMap<>())
+                .computeIfAbsent(fechaServicio.toLocalDate(), fecha -> new TreeMap<>())
+                .merge(fechaServicio.toLocalTime(), cantidad, Long::sum);
+    }
+
+    /**
+     * Cupos ocupados de una franja de disponibilidad en una fecha.
+     * <p>
+     * Para hora fija se suman las contrataciones del mismo minuto de inicio; para
+     * rangos, las contratadas entre la hora de inicio y la hora de fin (ambas
+     * incluidas).
+     */
+    long cuposOcupados(Long servicioId, LocalDate fecha, ServicioDisponibilidad disp) {
+        Map<LocalDate, NavigableMap<LocalTime, Long>> porFecha = buckets.get(servicioId);
+        if (porFecha == null) {
+            return 0;
+        }
+        NavigableMap<LocalTime, Long> porHora = porFecha.get(fecha);
+        if (porHora == null || porHora.isEmpty()) {
+            return 0;
+        }
+
+        NavigableMap<LocalTime, Long> franja;
+        if (Boolean.TRUE.equals(disp.getHoraFija())) {
+            LocalTime inicio = disp.getHoraInicio().truncatedTo(ChronoUnit.MINUTES);
+            LocalTime siguienteMinuto = inicio.plusMinutes(1);
+            // 23:59 + 1 minuto da la vuelta a 00:00
+            franja = siguienteMinuto.isAfter(inicio)
+                    ? porHora.subMap(inicio, true, siguienteMinuto, false)
+                    : porHora.tailMap(inicio, true);
+        } else if (disp.getHoraFin() == null) {
+            franja = porHora.tailMap(disp.getHoraInicio(), true);
+        } else if (disp.getHoraFin().isBefore(disp.getHoraInicio())) {
+            return 0;
+        } else {
+            franja = porHora.subMap(disp.getHoraInicio(), true, disp.getHoraFin(), true);
+        }
+
+        long total = 0;
+        for (Long cantidad : franja.values()) {
+            total += cantidad;
+        }
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package com.hotel.app.service.impl;
 
+import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.domain.Habitacion;
 import com.hotel.app.repository.CheckInCheckOutRepository;
 import com.hotel.app.repository.HabitacionRepository;
@@ -8,6 +9,7 @@ import com.hotel.app.service.HabitacionService;
 import com.hotel.app.service.dto.HabitacionDTO;
 import com.hotel.app.service.mapper.HabitacionMapper;
 import com.hotel.app.service.ImagenService;
+import com.hotel.app.service.job.ReservaHoldExpiryJob;
 import com.hotel.app.web.rest.errors.BadRequestAlertException;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -35,17 +37,21 @@ public class HabitacionServiceImpl implements HabitacionService {
     private final ReservaDetalleRepository reservaDetalleRepository;
     private final ImagenService imagenService;
 
+    private final ApplicationProperties applicationProperties;
+
     public HabitacionServiceImpl(
             HabitacionRepository habitacionRepository,
             HabitacionMapper habitacionMapper,
             CheckInCheckOutRepository checkInCheckOutRepository,
             ReservaDetalleRepository reservaDetalleRepository,
-            ImagenService imagenService) {
+            ImagenService imagenService,
+            ApplicationProperties applicationProperties) {
         this.habitacionRepository = habitacionRepository;
         this.habitacionMapper = habitacionMapper;
         this.checkInCheckOutRepository = checkInCheckOutRepository;
         this.reservaDetalleRepository = reservaDetalleRepository;
         this.imagenService = imagenService;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -172,7 +178,8 @@ public class HabitacionServiceImpl implements HabitacionService {
             Pageable pageable) {
         LOG.debug("Request to get available Habitacions between {} and {}", fechaInicio, fechaFin);
 
-        java.util.List<Long> occupiedIds = reservaDetalleRepository.findOccupiedHabitacionIds(fechaInicio, fechaFin);
+        java.util.List<Long> occupiedIds = reservaDetalleRepository.findOccupiedHabitacionIds(fechaInicio, fechaFin,
+                ReservaHoldExpiryJob.limiteHolds(applicationProperties.getReservas(), java.time.Instant.now()));
 
         // Filter out nulls to prevent JPA errors
         java.util.List<Long> validOccupiedIds = occupiedIds.stream()
@@ -0,0 +1,41 @@
+package com.hotel.app.service.impl;
+
+import com.hotel.app.domain.ServicioDisponibilidad;
+import com.hotel.app.domain.enumeration.DiaSemana;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+
+/**
+ * Reglas de horario compartidas por la contratación de servicios y la lista de
+ * espera.
+ */
+final class HorarioServicio {
+
+    private HorarioServicio() {}
+
+    /**
+     * Día de la semana de la disponibilidad correspondiente a un {@link DayOfWeek}.
+     */
+    static DiaSemana diaSemana(DayOfWeek dayOfWeek) {
+        return switch (dayOfWeek) {
+            case MONDAY -> DiaSemana.LUNES;
+            case TUESDAY -> DiaSemana.MARTES;
+            case WEDNESDAY -> DiaSemana.MIERCOLES;
+            case THURSDAY -> DiaSemana.JUEVES;
+            case FRIDAY -> DiaSemana.VIERNES;
+            case SATURDAY -> DiaSemana.SABADO;
+            case SUNDAY -> DiaSemana.DOMINGO;
+        };
+    }
+
+    /**
+     * Indica si una hora cae dentro de una franja: el mismo minuto para hora fija,
+     * o el rango [horaInicio, horaFin] (sin fin si horaFin es nulo).
+     */
+    static boolean admite(ServicioDisponibilidad disp, LocalTime hora) {
+        if (Boolean.TRUE.equals(disp.getHoraFija())) {
+            return disp.getHoraInicio().getHour() == hora.getHour() && disp.getHoraInicio().getMinute() == hora.getMinute();
+        }
+        return !hora.isBefore(disp.getHoraInicio()) && (disp.getHoraFin() == null || !hora.isAfter(disp.getHoraFin()));
+    }
+}
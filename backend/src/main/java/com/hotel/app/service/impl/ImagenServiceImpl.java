@@ -1,21 +1,34 @@
 package com.hotel.app.service.impl;
 
-import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.repository.HabitacionRepository;
 import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.repository.ImagenRepository.ImagenArchivos;
 import com.hotel.app.repository.ServicioRepository;
 import com.hotel.app.domain.Imagen;
+import com.hotel.app.service.ImagenCleanupService;
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.ImagenContentStore.ContenidoNoValidoException;
+import com.hotel.app.service.ImagenContentStore.StoredContent;
+import com.hotel.app.service.ImagenHotCache;
 import com.hotel.app.service.ImagenService;
+import com.hotel.app.service.ImagenVariantService;
+import com.hotel.app.service.LandingSnapshotService;
+import com.hotel.app.service.ServicioCatalogService;
 import com.hotel.app.service.dto.ImagenDTO;
+import com.hotel.app.service.dto.ImagenVarianteDTO;
 import com.hotel.app.service.mapper.ImagenMapper;
+import com.hotel.app.web.rest.errors.BadRequestAlertException;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -34,23 +47,43 @@ public class ImagenServiceImpl implements ImagenService {
 
     private final ImagenMapper imagenMapper;
 
-    private final ApplicationProperties applicationProperties;
+    private final ImagenContentStore contentStore;
 
     private final HabitacionRepository habitacionRepository;
 
     private final ServicioRepository servicioRepository;
 
+    private final ServicioCatalogService servicioCatalogService;
+
+    private final ImagenVariantService imagenVariantService;
+
+    private final ImagenHotCache imagenHotCache;
+
+    private final ImagenCleanupService imagenCleanupService;
+
+    private final LandingSnapshotService landingSnapshotService;
+
     public ImagenServiceImpl(
             ImagenRepository imagenRepository,
             ImagenMapper imagenMapper,
-            ApplicationProperties applicationProperties,
+            ImagenContentStore contentStore,
             HabitacionRepository habitacionRepository,
-            ServicioRepository servicioRepository) {
+            ServicioRepository servicioRepository,
+            ServicioCatalogService servicioCatalogService,
+            ImagenVariantService imagenVariantService,
+            ImagenHotCache imagenHotCache,
+            ImagenCleanupService imagenCleanupService,
+            LandingSnapshotService landingSnapshotService) {
         this.imagenRepository = imagenRepository;
         this.imagenMapper = imagenMapper;
-        this.applicationProperties = applicationProperties;
+        this.contentStore = contentStore;
         this.habitacionRepository = habitacionRepository;
         this.servicioRepository = servicioRepository;
+        this.servicioCatalogService = servicioCatalogService;
+        this.imagenVariantService = imagenVariantService;
+        this.imagenHotCache = imagenHotCache;
+        this.imagenCleanupService = imagenCleanupService;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -58,9 +91,12 @@ public class ImagenServiceImpl implements ImagenService {
         LOG.debug("Request to save Imagen : {}", imagenDTO);
         Imagen imagen = imagenMapper.toEntity(imagenDTO);
         if (imagen.getFichero() != null) {
-            saveFileToLocal(imagenDTO, imagen);
+            saveFileToLocal(imagen, new ByteArrayResource(imagen.getFichero()));
         }
         imagen = imagenRepository.save(imagen);
+        programarVariantes(imagen);
+        servicioCatalogService.invalidate();
+        landingSnapshotService.invalidate();
         return imagenMapper.toDto(imagen);
     }
 
@@ -68,20 +104,39 @@ public class ImagenServiceImpl implements ImagenService {
     public ImagenDTO update(ImagenDTO imagenDTO) {
         LOG.debug("Request to update Imagen : {}", imagenDTO);
         Imagen imagen = imagenMapper.toEntity(imagenDTO);
+        Optional<Imagen> existing = imagenRepository.findById(imagen.getId());
+        existing.ifPresent(this::invalidarCache);
         if (imagen.getFichero() != null) {
-            saveFileToLocal(imagenDTO, imagen);
+            saveFileToLocal(imagen, new ByteArrayResource(imagen.getFichero()));
+        } else {
+            // Same content: keep its variants, which the DTO does not carry back
+            if (existing.isPresent()) {
+                imagen.variantesRutas(existing.get().getVariantesRutas()).variantesFirma(existing.get().getVariantesFirma());
+            }
         }
         imagen = imagenRepository.save(imagen);
+        programarVariantes(imagen);
+        servicioCatalogService.invalidate();
+        landingSnapshotService.invalidate();
         return imagenMapper.toDto(imagen);
     }
 
-    private void saveFileToLocal(ImagenDTO imagenDTO, Imagen imagen) {
-        try {
-            String subFolder = "carousel";
+    @Override
+    public ImagenDTO saveContenido(ImagenDTO imagenDTO, InputStreamSource contenido) {
+        LOG.debug("Request to save Imagen with streamed content : {}", imagenDTO);
+        Imagen imagen = imagenMapper.toEntity(imagenDTO);
+        saveFileToLocal(imagen, contenido);
+        imagen = imagenRepository.save(imagen);
+        programarVariantes(imagen);
+        servicioCatalogService.invalidate();
+        landingSnapshotService.invalidate();
+        return imagenMapper.toDto(imagen);
+    }
 
-            // 1. Determine folder and Link existing parent to the Imagen entity
+    private void saveFileToLocal(Imagen imagen, InputStreamSource contenido) {
+        try {
+            // 1. Link existing parent to the Imagen entity
             if (imagen.getHabitacion() != null) {
-                subFolder = "habitaciones";
                 Long habId = imagen.getHabitacion().getId();
                 if (habId != null) {
                     habitacionRepository.findById(habId).ifPresent(h -> {
@@ -89,7 +144,7 @@ public class ImagenServiceImpl implements ImagenService {
                         // multiple images.
                         // Only set as main image if none exists.
                         if (h.getImagen() == null || h.getImagen().isEmpty()) {
-                            // This will be set later in step 5
+                            // This will be set later in step 4
                         }
                         imagen.setHabitacion(h); // LINK: Sets the foreign key for the Imagen table
                     });
@@ -97,13 +152,12 @@ public class ImagenServiceImpl implements ImagenService {
                     imagen.setHabitacion(null);
                 }
             } else if (imagen.getServicio() != null) {
-                subFolder = "servicios";
                 Long servId = imagen.getServicio().getId();
                 if (servId != null) {
                     servicioRepository.findById(servId).ifPresent(s -> {
                         // LOGIC CHANGED: Do NOT delete old file automatically.
                         if (s.getUrlImage() == null || s.getUrlImage().isEmpty()) {
-                            // This will be set later in step 5
+                            // This will be set later in step 4
                         }
                         imagen.setServicio(s); // LINK: Sets the foreign key for the Imagen table
                     });
@@ -112,24 +166,25 @@ public class ImagenServiceImpl implements ImagenService {
                 }
             }
 
-            // 2. Prepare filename
-            String fileName = imagen.getNombreArchivo();
-            if (fileName == null || fileName.isEmpty()) {
-                fileName = UUID.randomUUID().toString() + "_" + imagen.getNombre();
+            // 2. Stream the content to the store under its SHA-256; identical uploads
+            // share one file
+            StoredContent stored;
+            try (InputStream in = contenido.getInputStream()) {
+                stored = contentStore.storeUpload(in);
             }
-            fileName = fileName.replaceAll("[^a-zA-Z0-9._-]", "_");
-
-            // 3. Write file
-            Path rootPath = Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-            Path targetPath = rootPath.resolve(subFolder).resolve(fileName);
-            Files.createDirectories(targetPath.getParent());
-            Files.write(targetPath, imagen.getFichero());
 
-            // 4. Update the path string
-            String relativePath = subFolder + "/" + fileName;
-            imagen.setNombreArchivo(relativePath);
+            // 3. Point the image to the stored file; the bytes are never persisted in the
+            // table
+            String relativePath = stored.path();
+            imagen.nombreArchivo(relativePath)
+                    .sha256(stored.sha256())
+                    .tamano(stored.size())
+                    .ficheroContentType(stored.contentType())
+                    .variantesRutas(null)
+                    .variantesFirma(null)
+                    .setFichero(null);
 
-            // 5. Update the parent's path field ONLY if it is empty (First image becomes
+            // 4. Update the parent's path field ONLY if it is empty (First image becomes
             // main)
             // Or if we want to explicitly support "setting main image", we'd need another
             // flag.
@@ -146,41 +201,66 @@ public class ImagenServiceImpl implements ImagenService {
                 }
             }
 
-            LOG.debug("File saved and relationship established: {}", targetPath);
+            LOG.debug("File stored and relationship established: {}", relativePath);
+        } catch (ContenidoNoValidoException e) {
+            throw new BadRequestAlertException(e.getMessage(), "imagen", e.getKey());
         } catch (IOException e) {
             LOG.error("Error saving file to local storage", e);
             throw new RuntimeException("Could not save file", e);
         }
     }
 
-    private void deleteFileFromLocal(String relativePath) {
-        if (relativePath == null || relativePath.isEmpty())
-            return;
-        try {
-            Path rootPath = Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-            Path targetPath = rootPath.resolve(relativePath);
-            if (Files.exists(targetPath)) {
-                Files.delete(targetPath);
-                LOG.debug("Deleted file from local storage: {}", targetPath);
-            }
-        } catch (IOException e) {
-            LOG.error("Error deleting file from local storage: {}", relativePath, e);
+    /**
+     * The served file and variants of the image may change or disappear: drop
+     * them from the in-memory cache.
+     */
+    private void invalidarCache(Imagen imagen) {
+        imagenHotCache.invalidar(rutas(imagen.getNombreArchivo(), imagen.getVariantesRutas()));
+    }
+
+    /**
+     * The stored file of an image and its variants.
+     */
+    private static List<String> rutas(String nombreArchivo, String variantesRutas) {
+        List<String> rutas = new ArrayList<>();
+        if (nombreArchivo != null && !nombreArchivo.isEmpty()) {
+            rutas.add(nombreArchivo);
         }
+        ImagenVariantService.leerVariantes(variantesRutas).stream().map(ImagenVarianteDTO::getRuta).forEach(rutas::add);
+        return rutas;
     }
 
     @Override
     public Optional<ImagenDTO> partialUpdate(ImagenDTO imagenDTO) {
         LOG.debug("Request to partially update Imagen : {}", imagenDTO);
+        servicioCatalogService.invalidate();
+        landingSnapshotService.invalidate();
 
         return imagenRepository
                 .findById(imagenDTO.getId())
                 .map(existingImagen -> {
+                    invalidarCache(existingImagen);
                     imagenMapper.partialUpdate(existingImagen, imagenDTO);
+                    if (existingImagen.getFichero() != null) {
+                        saveFileToLocal(existingImagen, new ByteArrayResource(existingImagen.getFichero()));
+                    }
 
                     return existingImagen;
                 })
                 .map(imagenRepository::save)
-                .map(imagenMapper::toDto);
+                .map(imagen -> {
+                    programarVariantes(imagen);
+                    return imagenMapper.toDto(imagen);
+                });
+    }
+
+    /**
+     * Variants are generated in the background once the image is committed.
+     */
+    private void programarVariantes(Imagen imagen) {
+        if (imagen.getSha256() != null && imagen.getVariantesFirma() == null) {
+            imagenVariantService.programar(imagen.getId());
+        }
     }
 
     @Override
@@ -201,29 +281,66 @@ public class ImagenServiceImpl implements ImagenService {
         return imagenRepository.findOneWithEagerRelationships(id).map(imagenMapper::toDto);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Contenido> findContenido(Long id) {
+        LOG.debug("Request to get the content of Imagen : {}", id);
+        return imagenRepository.findById(id).flatMap(imagen -> {
+            Optional<Resource> resource;
+            try {
+                resource = contentStore.resource(imagen.getNombreArchivo());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            resource = resource.or(() -> Optional.ofNullable(imagenRepository.findFicheroById(id)).map(ByteArrayResource::new));
+            return resource.map(r -> new Contenido(r, imagen.getFicheroContentType(), imagen.getSha256()));
+        });
+    }
+
     @Override
     public void delete(Long id) {
         LOG.debug("Request to delete Imagen : {}", id);
         imagenRepository.findById(id).ifPresent(imagen -> {
-            if (imagen.getNombreArchivo() != null) {
-                deleteFileFromLocal(imagen.getNombreArchivo());
-            }
+            invalidarCache(imagen);
             imagenRepository.delete(imagen);
+            // After commit, if nothing else points to the file or its variants
+            imagenCleanupService.programarBorrado(rutas(imagen.getNombreArchivo(), imagen.getVariantesRutas()));
+            servicioCatalogService.invalidate();
+            landingSnapshotService.invalidate();
         });
     }
 
     @Override
     public void deleteByHabitacionId(Long habitacionId) {
-        imagenRepository.findByHabitacionId(habitacionId).forEach(imagen -> {
-            delete(imagen.getId());
-        });
+        LOG.debug("Request to delete the Imagens of Habitacion : {}", habitacionId);
+        List<ImagenArchivos> archivos = imagenRepository.findArchivosByHabitacionId(habitacionId);
+        if (!archivos.isEmpty()) {
+            imagenRepository.bulkDeleteByHabitacionId(habitacionId);
+            borrarArchivos(archivos);
+        }
     }
 
     @Override
     public void deleteByServicioId(Long servicioId) {
-        imagenRepository.findByServicioId(servicioId).forEach(imagen -> {
-            delete(imagen.getId());
-        });
+        LOG.debug("Request to delete the Imagens of Servicio : {}", servicioId);
+        List<ImagenArchivos> archivos = imagenRepository.findArchivosByServicioId(servicioId);
+        if (!archivos.isEmpty()) {
+            imagenRepository.bulkDeleteByServicioId(servicioId);
+            borrarArchivos(archivos);
+        }
+    }
+
+    /**
+     * The rows are gone with one DELETE; the files follow in the background once
+     * it commits, if nothing else points to them.
+     */
+    private void borrarArchivos(List<ImagenArchivos> archivos) {
+        List<String> rutas = new ArrayList<>();
+        archivos.forEach(archivo -> rutas.addAll(rutas(archivo.getNombreArchivo(), archivo.getVariantesRutas())));
+        imagenHotCache.invalidar(rutas);
+        imagenCleanupService.programarBorrado(rutas);
+        servicioCatalogService.invalidate();
+        landingSnapshotService.invalidate();
     }
 
     @Override
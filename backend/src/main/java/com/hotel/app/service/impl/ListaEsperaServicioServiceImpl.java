@@ -0,0 +1,331 @@
+package com.hotel.app.service.impl;
+
+import com.hotel.app.domain.ListaEsperaServicio;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.domain.ServicioDisponibilidad;
+import com.hotel.app.domain.enumeration.EstadoListaEspera;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.repository.ListaEsperaServicioRepository;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.ListaEsperaServicioService;
+import com.hotel.app.service.MensajeSoporteService;
+import com.hotel.app.service.dto.ListaEsperaServicioDTO;
+import com.hotel.app.service.dto.MensajeSoporteDTO;
+import com.hotel.app.service.mapper.ListaEsperaServicioMapper;
+import com.hotel.app.web.rest.errors.BadRequestAlertException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Service Implementation for managing
+ * {@link com.hotel.app.domain.ListaEsperaServicio}.
+ * <p>
+ * Each (servicio, fechaServicio) slot has a FIFO queue. When quota is freed the
+ * head of the queue is promoted to a PENDIENTE servicioContratado in the same
+ * transaction; promotion stops at the first entry that does not fit, so larger
+ * requests are not overtaken by later, smaller ones.
+ */
+@Service
+@Transactional
+public class ListaEsperaServicioServiceImpl implements ListaEsperaServicioService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListaEsperaServicioServiceImpl.class);
+
+    private static final String ENTITY_NAME = "listaEsperaServicio";
+
+    static final String MSG_PROMOVIDO = "MSG_LISTA_ESPERA_PROMOVIDO";
+
+    private static final List<EstadoServicioContratado> ESTADOS_CON_CUPO = List.of(
+            EstadoServicioContratado.CONFIRMADO,
+            EstadoServicioContratado.PENDIENTE,
+            EstadoServicioContratado.COMPLETADO);
+
+    /**
+     * Published when a waitlist entry is promoted; handled after commit.
+     */
+    public record Promocion(Long listaEsperaId) {}
+
+    private final ListaEsperaServicioRepository listaEsperaServicioRepository;
+
+    private final ListaEsperaServicioMapper listaEsperaServicioMapper;
+
+    private final ServicioContratadoRepository servicioContratadoRepository;
+
+    private final ServicioDisponibilidadRepository servicioDisponibilidadRepository;
+
+    private final ServicioRepository servicioRepository;
+
+    private final ReservaRepository reservaRepository;
+
+    private final MensajeSoporteService mensajeSoporteService;
+
+    private final ConfiguracionSistemaService configuracionSistemaService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ListaEsperaServicioServiceImpl(
+            ListaEsperaServicioRepository listaEsperaServicioRepository,
+            ListaEsperaServicioMapper listaEsperaServicioMapper,
+            ServicioContratadoRepository servicioContratadoRepository,
+            ServicioDisponibilidadRepository servicioDisponibilidadRepository,
+            ServicioRepository servicioRepository,
+            ReservaRepository reservaRepository,
+            MensajeSoporteService mensajeSoporteService,
+            ConfiguracionSistemaService configuracionSistemaService,
+            ApplicationEventPublisher eventPublisher) {
+        this.listaEsperaServicioRepository = listaEsperaServicioRepository;
+        this.listaEsperaServicioMapper = listaEsperaServicioMapper;
+        this.servicioContratadoRepository = servicioContratadoRepository;
+        this.servicioDisponibilidadRepository = servicioDisponibilidadRepository;
+        this.servicioRepository = servicioRepository;
+        this.reservaRepository = reservaRepository;
+        this.mensajeSoporteService = mensajeSoporteService;
+        this.configuracionSistemaService = configuracionSistemaService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public ListaEsperaServicioDTO unirse(ListaEsperaServicioDTO listaEsperaServicioDTO) {
+        LOG.debug("Request to join waitlist : {}", listaEsperaServicioDTO);
+
+        if (listaEsperaServicioDTO.getServicio() == null || listaEsperaServicioDTO.getServicio().getId() == null) {
+            throw new BadRequestAlertException("Servicio is required", ENTITY_NAME, "servicionull");
+        }
+        if (listaEsperaServicioDTO.getReserva() == null || listaEsperaServicioDTO.getReserva().getId() == null) {
+            throw new BadRequestAlertException("Reserva ID is null", "reserva", "idnull");
+        }
+        Long servicioId = listaEsperaServicioDTO.getServicio().getId();
+        Reserva reserva = reservaRepository.findById(listaEsperaServicioDTO.getReserva().getId())
+                .orElseThrow(() -> new BadRequestAlertException("Reserva not found", "reserva", "idnotfound"));
+        if (!reservaActiva(reserva)) {
+            throw new BadRequestAlertException("Reservation is not confirmed or checked-in", ENTITY_NAME,
+                    "reservanotactive");
+        }
+
+        ZoneId systemZone = ZoneId.systemDefault();
+        ZonedDateTime fechaServicio = listaEsperaServicioDTO.getFechaServicio().withZoneSameInstant(systemZone);
+        LocalDate fecha = fechaServicio.toLocalDate();
+        if (fecha.isBefore(reserva.getFechaInicio().atZone(systemZone).toLocalDate())
+                || fecha.isAfter(reserva.getFechaFin().atZone(systemZone).toLocalDate())) {
+            throw new BadRequestAlertException("Service date must be within reservation dates", ENTITY_NAME,
+                    "servicedateoutofrange");
+        }
+
+        List<ServicioDisponibilidad> franjas = franjas(servicioId, fechaServicio);
+        if (franjas.isEmpty()) {
+            throw new BadRequestAlertException("Service not available at this time", ENTITY_NAME,
+                    "servicenotavailable");
+        }
+        long ocupados = servicioContratadoRepository.sumCantidadByServicioIdAndFechaServicioAndEstadoIn(
+                servicioId, fechaServicio, ESTADOS_CON_CUPO);
+        if (ocupados + listaEsperaServicioDTO.getCantidad() <= cupoMaximo(franjas)) {
+            throw new BadRequestAlertException("Slot has free quota, contract the service instead", ENTITY_NAME,
+                    "slotavailable");
+        }
+        if (listaEsperaServicioRepository.existsByReservaIdAndServicioIdAndFechaServicioAndEstado(
+                reserva.getId(), servicioId, fechaServicio, EstadoListaEspera.EN_ESPERA)) {
+            throw new BadRequestAlertException("Reservation is already waiting for this slot", ENTITY_NAME,
+                    "alreadywaiting");
+        }
+
+        ListaEsperaServicio entrada = listaEsperaServicioMapper.toEntity(listaEsperaServicioDTO);
+        entrada.setId(null);
+        entrada.setFechaServicio(fechaServicio);
+        entrada.setFechaSolicitud(Instant.now());
+        entrada.setFechaPromocion(null);
+        entrada.setEstado(EstadoListaEspera.EN_ESPERA);
+        entrada.setServicio(servicioRepository.getReferenceById(servicioId));
+        entrada.setReserva(reserva);
+        entrada.setCliente(reserva.getCliente());
+        entrada.setServicioContratado(null);
+        entrada = listaEsperaServicioRepository.save(entrada);
+
+        ListaEsperaServicioDTO result = listaEsperaServicioMapper.toDto(entrada);
+        result.setPosicion(listaEsperaServicioRepository.countAhead(servicioId, fechaServicio, entrada.getId()) + 1);
+        return result;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ListaEsperaServicioDTO> findAll(Pageable pageable) {
+        LOG.debug("Request to get all ListaEsperaServicios");
+        return listaEsperaServicioRepository.findAllWithToOneRelationships(pageable).map(listaEsperaServicioMapper::toDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<ListaEsperaServicioDTO> findOne(Long id) {
+        LOG.debug("Request to get ListaEsperaServicio : {}", id);
+        return listaEsperaServicioRepository.findOneWithToOneRelationships(id).map(this::toDtoConPosicion);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ListaEsperaServicioDTO> findByReservaId(Long reservaId) {
+        LOG.debug("Request to get ListaEsperaServicios by Reserva : {}", reservaId);
+        return listaEsperaServicioRepository.findByReservaIdOrderByIdAsc(reservaId).stream()
+                .map(this::toDtoConPosicion)
+                .toList();
+    }
+
+    @Override
+    public void cancelar(Long id) {
+        LOG.debug("Request to leave waitlist : {}", id);
+        listaEsperaServicioRepository.findById(id)
+                .filter(entrada -> entrada.getEstado() == EstadoListaEspera.EN_ESPERA)
+                .ifPresent(entrada -> {
+                    entrada.setEstado(EstadoListaEspera.CANCELADO);
+                    listaEsperaServicioRepository.save(entrada);
+                });
+    }
+
+    @Override
+    public int promoverSiguientes(Long servicioId, ZonedDateTime fechaServicio) {
+        if (servicioId == null || fechaServicio == null || !fechaServicio.isAfter(ZonedDateTime.now())) {
+            return 0;
+        }
+        List<ServicioDisponibilidad> franjas = franjas(servicioId,
+                fechaServicio.withZoneSameInstant(ZoneId.systemDefault()));
+        if (franjas.isEmpty()) {
+            return 0;
+        }
+        int cupoMaximo = cupoMaximo(franjas);
+
+        int promovidos = 0;
+        Optional<ListaEsperaServicio> cabeza;
+        while ((cabeza = listaEsperaServicioRepository.findFirstByServicioIdAndFechaServicioAndEstadoOrderByIdAsc(
+                servicioId, fechaServicio, EstadoListaEspera.EN_ESPERA)).isPresent()) {
+            ListaEsperaServicio entrada = cabeza.get();
+            if (!reservaActiva(entrada.getReserva())) {
+                entrada.setEstado(EstadoListaEspera.CANCELADO);
+                listaEsperaServicioRepository.saveAndFlush(entrada);
+                continue;
+            }
+            // Counted again for each guest, with the franjas locked
+            long ocupados = servicioContratadoRepository.sumCantidadByServicioIdAndFechaServicioAndEstadoIn(
+                    servicioId, fechaServicio, ESTADOS_CON_CUPO);
+            if (ocupados + entrada.getCantidad() > cupoMaximo) {
+                break;
+            }
+
+            ServicioContratado contrato = new ServicioContratado()
+                    .fechaContratacion(Instant.now())
+                    .fechaServicio(entrada.getFechaServicio())
+                    .numeroPersonas(entrada.getNumeroPersonas())
+                    .cantidad(entrada.getCantidad())
+                    .precioUnitario(Optional.ofNullable(entrada.getServicio().getPrecio()).orElse(BigDecimal.ZERO))
+                    .estado(EstadoServicioContratado.PENDIENTE)
+                    .servicio(entrada.getServicio())
+                    .reserva(entrada.getReserva())
+                    .cliente(entrada.getCliente());
+            contrato = servicioContratadoRepository.save(contrato);
+
+            entrada.setEstado(EstadoListaEspera.PROMOVIDO);
+            entrada.setFechaPromocion(Instant.now());
+            entrada.setServicioContratado(contrato);
+            listaEsperaServicioRepository.saveAndFlush(entrada);
+
+            promovidos++;
+            eventPublisher.publishEvent(new Promocion(entrada.getId()));
+        }
+
+        if (promovidos > 0) {
+            LOG.info("Promoted {} waitlist entries for Servicio {} at {}", promovidos, servicioId, fechaServicio);
+        }
+        return promovidos;
+    }
+
+    /**
+     * Notifies the promoted guest once the promotion is committed, off the
+     * request thread.
+     */
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPromocion(Promocion promocion) {
+        listaEsperaServicioRepository.findById(promocion.listaEsperaId()).ifPresent(entrada -> {
+            if (entrada.getCliente() == null) {
+                return;
+            }
+            try {
+                String servicioNombre = entrada.getServicio() != null ? entrada.getServicio().getNombre() : "Servicio";
+                String fechaServicio = entrada.getFechaServicio() != null ? entrada.getFechaServicio().toString() : "";
+                String msgText = "🎉 Se liberó un cupo: su solicitud en lista de espera para '" + servicioNombre
+                        + "' el " + fechaServicio + " fue aceptada. Estado: PENDIENTE DE PAGO.";
+                var configOpt = configuracionSistemaService.findByClave(MSG_PROMOVIDO);
+                if (configOpt.isPresent() && configOpt.get().getValor() != null) {
+                    msgText = configOpt.get().getValor()
+                            .replace("{servicioNombre}", servicioNombre)
+                            .replace("{fechaServicio}", fechaServicio);
+                }
+
+                MensajeSoporteDTO mensaje = new MensajeSoporteDTO();
+                mensaje.setMensaje(msgText);
+                mensaje.setFechaMensaje(Instant.now());
+                mensaje.setUserId(entrada.getCliente().getKeycloakId());
+                String nombre = Optional.ofNullable(entrada.getCliente().getNombre()).orElse("Cliente");
+                String apellido = Optional.ofNullable(entrada.getCliente().getApellido()).orElse("");
+                mensaje.setUserName((nombre + " " + apellido).trim());
+                mensaje.setLeido(false);
+                mensaje.setActivo(true);
+                mensaje.setRemitente("SISTEMA");
+                mensajeSoporteService.save(mensaje);
+            } catch (Exception e) {
+                LOG.error("Error sending waitlist promotion message for entry {}", promocion.listaEsperaId(), e);
+            }
+        });
+    }
+
+    private ListaEsperaServicioDTO toDtoConPosicion(ListaEsperaServicio entrada) {
+        ListaEsperaServicioDTO dto = listaEsperaServicioMapper.toDto(entrada);
+        if (entrada.getEstado() == EstadoListaEspera.EN_ESPERA && entrada.getServicio() != null) {
+            dto.setPosicion(listaEsperaServicioRepository.countAhead(
+                    entrada.getServicio().getId(), entrada.getFechaServicio(), entrada.getId()) + 1);
+        }
+        return dto;
+    }
+
+    private List<ServicioDisponibilidad> franjas(Long servicioId, ZonedDateTime fechaServicio) {
+        return servicioDisponibilidadRepository
+                .findForUpdateByServicioIdAndDiaSemana(servicioId,
+                        HorarioServicio.diaSemana(fechaServicio.getDayOfWeek()))
+                .stream()
+                .filter(disp -> HorarioServicio.admite(disp, fechaServicio.toLocalTime()))
+                .toList();
+    }
+
+    /**
+     * Contracting accepts a request if any matching slot has room, so the
+     * effective quota is the largest one.
+     */
+    private static int cupoMaximo(List<ServicioDisponibilidad> franjas) {
+        return franjas.stream().mapToInt(ServicioDisponibilidad::getCupoMaximo).max().orElse(0);
+    }
+
+    private static boolean reservaActiva(Reserva reserva) {
+        return reserva != null
+                && (reserva.getEstado() == EstadoReserva.CONFIRMADA || reserva.getEstado() == EstadoReserva.CHECK_IN);
+    }
+}
@@ -41,6 +41,14 @@ public class MensajeSoporteServiceImpl implements MensajeSoporteService {
         return mensajeSoporteMapper.toDto(mensajeSoporte);
     }
 
+    @Override
+    public void saveAll(java.util.List<MensajeSoporteDTO> mensajeSoporteDTOs) {
+        LOG.debug("Request to save {} MensajeSoportes", mensajeSoporteDTOs.size());
+        if (!mensajeSoporteDTOs.isEmpty()) {
+            mensajeSoporteRepository.saveAll(mensajeSoporteMapper.toEntity(mensajeSoporteDTOs));
+        }
+    }
+
     @Override
     public MensajeSoporteDTO update(MensajeSoporteDTO mensajeSoporteDTO) {
         LOG.debug("Request to update MensajeSoporte : {}", mensajeSoporteDTO);
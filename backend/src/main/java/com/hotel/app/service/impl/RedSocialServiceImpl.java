@@ -1,18 +1,19 @@
 package com.hotel.app.service.impl;
 
-import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.domain.RedSocial;
 import com.hotel.app.repository.RedSocialRepository;
+import com.hotel.app.service.ImagenCleanupService;
+import com.hotel.app.service.ImagenContentStore;
 import com.hotel.app.service.RedSocialService;
 import com.hotel.app.service.dto.RedSocialDTO;
 import com.hotel.app.service.mapper.RedSocialMapper;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -28,19 +29,21 @@ import org.springframework.transaction.annotation.Transactional;
 public class RedSocialServiceImpl implements RedSocialService {
 
     private static final Logger LOG = LoggerFactory.getLogger(RedSocialServiceImpl.class);
-    private static final String REDES_FOLDER = "redes";
 
     private final RedSocialRepository redSocialRepository;
     private final RedSocialMapper redSocialMapper;
-    private final ApplicationProperties applicationProperties;
+    private final ImagenContentStore imagenContentStore;
+    private final ImagenCleanupService imagenCleanupService;
 
     public RedSocialServiceImpl(
             RedSocialRepository redSocialRepository,
             RedSocialMapper redSocialMapper,
-            ApplicationProperties applicationProperties) {
+            ImagenContentStore imagenContentStore,
+            ImagenCleanupService imagenCleanupService) {
         this.redSocialRepository = redSocialRepository;
         this.redSocialMapper = redSocialMapper;
-        this.applicationProperties = applicationProperties;
+        this.imagenContentStore = imagenContentStore;
+        this.imagenCleanupService = imagenCleanupService;
     }
 
     @Override
@@ -136,7 +139,7 @@ public class RedSocialServiceImpl implements RedSocialService {
         // Delete image file if exists
         redSocialRepository.findById(id).ifPresent(redSocial -> {
             if (redSocial.getIconoUrl() != null) {
-                deleteFileFromLocal(redSocial.getIconoUrl());
+                programarBorrado(redSocial.getIconoUrl());
             }
         });
 
@@ -144,34 +147,20 @@ public class RedSocialServiceImpl implements RedSocialService {
     }
 
     private String saveImageToFile(String base64Data, String contentType, String oldImagePath) throws IOException {
-        // Delete old image if exists
+        // The old icon goes once the new one is committed, unless something else still uses it
         if (oldImagePath != null && !oldImagePath.isEmpty()) {
-            deleteFileFromLocal(oldImagePath);
+            programarBorrado(oldImagePath);
         }
 
-        // Decode base64
-        byte[] imageBytes = Base64.getDecoder().decode(base64Data);
-
-        // Generate filename
-        String extension = getExtensionFromContentType(contentType);
-        String fileName = "icon_" + UUID.randomUUID().toString() + extension;
-
-        // Create directory if not exists
-        Path rootPath = Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-        Path targetFolder = rootPath.resolve(REDES_FOLDER);
-        Files.createDirectories(targetFolder);
-
-        // Write file
-        Path targetPath = targetFolder.resolve(fileName);
-        Files.write(targetPath, imageBytes);
-
-        // Return relative path
-        String relativePath = REDES_FOLDER + "/" + fileName;
-        LOG.debug("Image saved successfully: {}", relativePath);
-        return relativePath;
+        // Decode base64 while storing
+        try (InputStream in = Base64.getDecoder().wrap(new ByteArrayInputStream(base64Data.getBytes(StandardCharsets.US_ASCII)))) {
+            String relativePath = imagenContentStore.store(in, contentType != null ? contentType : "image/png").path();
+            LOG.debug("Image saved successfully: {}", relativePath);
+            return relativePath;
+        }
     }
 
-    private void deleteFileFromLocal(String relativePath) {
+    private void programarBorrado(String relativePath) {
         if (relativePath == null || relativePath.isEmpty() || relativePath.toLowerCase().startsWith("http")) {
             return;
         }
@@ -179,35 +168,6 @@ public class RedSocialServiceImpl implements RedSocialService {
         if (!relativePath.contains("/") && !relativePath.contains(".")) {
             return;
         }
-
-        try {
-            Path rootPath = Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-            Path targetPath = rootPath.resolve(relativePath);
-            if (Files.exists(targetPath)) {
-                Files.delete(targetPath);
-                LOG.debug("Deleted old icon: {}", targetPath);
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not delete file from local storage: {}", relativePath, e);
-        }
-    }
-
-    private String getExtensionFromContentType(String contentType) {
-        if (contentType == null)
-            return ".png"; // Default
-        switch (contentType.toLowerCase()) {
-            case "image/jpeg":
-                return ".jpg";
-            case "image/png":
-                return ".png";
-            case "image/gif":
-                return ".gif";
-            case "image/webp":
-                return ".webp";
-            case "image/svg+xml":
-                return ".svg";
-            default:
-                return ".png";
-        }
+        imagenCleanupService.programarBorrado(List.of(relativePath));
     }
 }
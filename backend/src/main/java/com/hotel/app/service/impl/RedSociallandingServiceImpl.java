@@ -2,6 +2,7 @@ package com.hotel.app.service.impl;
 
 import com.hotel.app.domain.RedSociallanding;
 import com.hotel.app.repository.RedSociallandingRepository;
+import com.hotel.app.service.LandingSnapshotService;
 import com.hotel.app.service.RedSociallandingService;
 import com.hotel.app.service.dto.RedSociallandingDTO;
 import com.hotel.app.service.mapper.RedSociallandingMapper;
@@ -26,9 +27,15 @@ public class RedSociallandingServiceImpl implements RedSociallandingService {
 
     private final RedSociallandingMapper redSociallandingMapper;
 
-    public RedSociallandingServiceImpl(RedSociallandingRepository redSociallandingRepository, RedSociallandingMapper redSociallandingMapper) {
+    private final LandingSnapshotService landingSnapshotService;
+
+    public RedSociallandingServiceImpl(
+            RedSociallandingRepository redSociallandingRepository,
+            RedSociallandingMapper redSociallandingMapper,
+            LandingSnapshotService landingSnapshotService) {
         this.redSociallandingRepository = redSociallandingRepository;
         this.redSociallandingMapper = redSociallandingMapper;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -36,6 +43,7 @@ public class RedSociallandingServiceImpl implements RedSociallandingService {
         LOG.debug("Request to save RedSociallanding : {}", redSociallandingDTO);
         RedSociallanding redSociallanding = redSociallandingMapper.toEntity(redSociallandingDTO);
         redSociallanding = redSociallandingRepository.save(redSociallanding);
+        landingSnapshotService.invalidate();
         return redSociallandingMapper.toDto(redSociallanding);
     }
 
@@ -44,12 +52,14 @@ public class RedSociallandingServiceImpl implements RedSociallandingService {
         LOG.debug("Request to update RedSociallanding : {}", redSociallandingDTO);
         RedSociallanding redSociallanding = redSociallandingMapper.toEntity(redSociallandingDTO);
         redSociallanding = redSociallandingRepository.save(redSociallanding);
+        landingSnapshotService.invalidate();
         return redSociallandingMapper.toDto(redSociallanding);
     }
 
     @Override
     public Optional<RedSociallandingDTO> partialUpdate(RedSociallandingDTO redSociallandingDTO) {
         LOG.debug("Request to partially update RedSociallanding : {}", redSociallandingDTO);
+        landingSnapshotService.invalidate();
 
         return redSociallandingRepository
             .findById(redSociallandingDTO.getId())
@@ -80,5 +90,6 @@ public class RedSociallandingServiceImpl implements RedSociallandingService {
     public void delete(Long id) {
         LOG.debug("Request to delete RedSociallanding : {}", id);
         redSociallandingRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 }
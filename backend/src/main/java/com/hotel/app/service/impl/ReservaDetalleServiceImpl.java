@@ -1,13 +1,16 @@
 package com.hotel.app.service.impl;
 
+import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.domain.Reserva;
 import com.hotel.app.domain.ReservaDetalle;
 import com.hotel.app.repository.ReservaDetalleRepository;
 import com.hotel.app.repository.ReservaRepository;
 import com.hotel.app.service.ReservaDetalleService;
 import com.hotel.app.service.dto.ReservaDetalleDTO;
+import com.hotel.app.service.job.ReservaHoldExpiryJob;
 import com.hotel.app.service.mapper.ReservaDetalleMapper;
 import com.hotel.app.web.rest.errors.BadRequestAlertException;
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -33,13 +36,17 @@ public class ReservaDetalleServiceImpl implements ReservaDetalleService {
 
     private final ReservaRepository reservaRepository;
 
+    private final ApplicationProperties applicationProperties;
+
     public ReservaDetalleServiceImpl(
             ReservaDetalleRepository reservaDetalleRepository,
             ReservaDetalleMapper reservaDetalleMapper,
-            ReservaRepository reservaRepository) {
+            ReservaRepository reservaRepository,
+            ApplicationProperties applicationProperties) {
         this.reservaDetalleRepository = reservaDetalleRepository;
         this.reservaDetalleMapper = reservaDetalleMapper;
         this.reservaRepository = reservaRepository;
+        this.applicationProperties = applicationProperties;
     }
 
     @Override
@@ -81,7 +88,8 @@ public class ReservaDetalleServiceImpl implements ReservaDetalleService {
         // Check for overlaps with other active reservations
         List<Long> occupiedIds = reservaDetalleRepository.findOccupiedHabitacionIds(
                 reserva.getFechaInicio(),
-                reserva.getFechaFin());
+                reserva.getFechaFin(),
+                ReservaHoldExpiryJob.limiteHolds(applicationProperties.getReservas(), Instant.now()));
 
         if (occupiedIds.contains(habitacionId)) {
             // For updates, we must ensure we aren't colliding with OURSELVES
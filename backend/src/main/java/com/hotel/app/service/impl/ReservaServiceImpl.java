@@ -1,8 +1,11 @@
 package com.hotel.app.service.impl;
 
+import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.domain.Reserva;
 import com.hotel.app.domain.ReservaDetalle;
+import com.hotel.app.domain.enumeration.EstadoPago;
 import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.repository.PagoRepository;
 import com.hotel.app.repository.ReservaDetalleRepository;
 import com.hotel.app.repository.ReservaRepository;
 import com.hotel.app.service.ReservaService;
@@ -12,6 +15,8 @@ import com.hotel.app.service.ConfiguracionSistemaService;
 import com.hotel.app.service.ServicioContratadoService;
 import com.hotel.app.service.dto.ServicioContratadoDTO;
 import com.hotel.app.service.dto.MensajeSoporteDTO;
+import com.hotel.app.service.job.ExpiryScheduler;
+import com.hotel.app.service.job.ReservaHoldExpiryJob;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -50,22 +55,33 @@ public class ReservaServiceImpl implements ReservaService {
 
     private final ReservaDetalleRepository reservaDetalleRepository;
 
+    private final PagoRepository pagoRepository;
+
     private final MensajeSoporteService mensajeSoporteService;
 
     private final ConfiguracionSistemaService configuracionSistemaService;
 
     private final ServicioContratadoService servicioContratadoService;
 
+    private final ExpiryScheduler expiryScheduler;
+
+    private final ApplicationProperties.Reservas reservasProperties;
+
     public ReservaServiceImpl(ReservaRepository reservaRepository, ReservaMapper reservaMapper,
-            ReservaDetalleRepository reservaDetalleRepository, MensajeSoporteService mensajeSoporteService,
+            ReservaDetalleRepository reservaDetalleRepository, PagoRepository pagoRepository,
+            MensajeSoporteService mensajeSoporteService,
             ConfiguracionSistemaService configuracionSistemaService,
-            ServicioContratadoService servicioContratadoService) {
+            ServicioContratadoService servicioContratadoService, ExpiryScheduler expiryScheduler,
+            ApplicationProperties applicationProperties) {
         this.reservaRepository = reservaRepository;
         this.reservaMapper = reservaMapper;
         this.reservaDetalleRepository = reservaDetalleRepository;
+        this.pagoRepository = pagoRepository;
         this.mensajeSoporteService = mensajeSoporteService;
         this.configuracionSistemaService = configuracionSistemaService;
         this.servicioContratadoService = servicioContratadoService;
+        this.expiryScheduler = expiryScheduler;
+        this.reservasProperties = applicationProperties.getReservas();
     }
 
     @Override
@@ -79,7 +95,8 @@ public class ReservaServiceImpl implements ReservaService {
 
         // If this is an update (ID exists), check status transition
         if (reservaDTO.getId() != null) {
-            reservaRepository.findById(reservaDTO.getId()).ifPresent(existingReserva -> {
+            reservaRepository.findByIdForUpdate(reservaDTO.getId()).ifPresent(existingReserva -> {
+                verificarTransicion(existingReserva, reservaDTO.getEstado());
                 // Check for Canceled - Cascade services
                 if (existingReserva.getEstado() != EstadoReserva.CANCELADA
                         && reservaDTO.getEstado() == EstadoReserva.CANCELADA) {
@@ -90,7 +107,12 @@ public class ReservaServiceImpl implements ReservaService {
         }
 
         Reserva reserva = reservaMapper.toEntity(reservaDTO);
+        if (isNewReserva) {
+            // Booked through the public flow: nobody will collect a later payment, so the rooms are only held
+            reserva.setExpiraSinPago(SecurityUtils.hasCurrentUserThisAuthority(AuthoritiesConstants.ANONYMOUS));
+        }
         reserva = reservaRepository.save(reserva);
+        programarCheckout(reserva);
 
         // Send notification for new reservations
         if (isNewReserva && reserva.getCliente() != null) {
@@ -105,7 +127,8 @@ public class ReservaServiceImpl implements ReservaService {
     public ReservaDTO update(ReservaDTO reservaDTO) {
         LOG.debug("Request to update Reserva : {}", reservaDTO);
 
-        reservaRepository.findById(reservaDTO.getId()).ifPresent(existingReserva -> {
+        reservaRepository.findByIdForUpdate(reservaDTO.getId()).ifPresent(existingReserva -> {
+            verificarTransicion(existingReserva, reservaDTO.getEstado());
             // Check for Finalized
             if (existingReserva.getEstado() != EstadoReserva.FINALIZADA
                     && reservaDTO.getEstado() == EstadoReserva.FINALIZADA) {
@@ -132,6 +155,7 @@ public class ReservaServiceImpl implements ReservaService {
 
         Reserva reserva = reservaMapper.toEntity(reservaDTO);
         reserva = reservaRepository.save(reserva);
+        programarCheckout(reserva);
         return reservaMapper.toDto(reserva);
     }
 
@@ -140,8 +164,9 @@ public class ReservaServiceImpl implements ReservaService {
         LOG.debug("Request to partially update Reserva : {}", reservaDTO);
 
         return reservaRepository
-                .findById(reservaDTO.getId())
+                .findByIdForUpdate(reservaDTO.getId())
                 .map(existingReserva -> {
+                    verificarTransicion(existingReserva, reservaDTO.getEstado());
                     if (existingReserva.getEstado() != EstadoReserva.FINALIZADA
                             && reservaDTO.getEstado() == EstadoReserva.FINALIZADA) {
 
@@ -169,9 +194,57 @@ public class ReservaServiceImpl implements ReservaService {
                     return existingReserva;
                 })
                 .map(reservaRepository::save)
+                .map(reserva -> {
+                    programarCheckout(reserva);
+                    return reserva;
+                })
                 .map(reservaMapper::toDto);
     }
 
+    /**
+     * Keeps the exact-time auto-checkout in sync with the fecha de fin and the
+     * estado of the reserva.
+     */
+    private void programarCheckout(Reserva reserva) {
+        expiryScheduler.programarReserva(reserva.getId(), reserva.getFechaFin(), reserva.getEstado());
+    }
+
+    /**
+     * A cancelled reserva, or an unpaid anonymous hold past its window, may have lost its
+     * rooms to another booking: it can keep its estado or be cancelled, nothing
+     * else. Expects the reserva to be locked.
+     */
+    private void verificarTransicion(Reserva existente, EstadoReserva nuevoEstado) {
+        if (nuevoEstado == null || nuevoEstado == existente.getEstado() || nuevoEstado == EstadoReserva.CANCELADA) {
+            return;
+        }
+        verificarVigente(existente);
+    }
+
+    private void verificarVigente(Reserva reserva) {
+        if (reserva.getEstado() == EstadoReserva.CANCELADA) {
+            throw new BadRequestAlertException("La reserva está cancelada", "reserva", "reservaCancelada");
+        }
+        if (holdVencido(reserva, ReservaHoldExpiryJob.limiteHolds(reservasProperties, Instant.now()))) {
+            throw new BadRequestAlertException(
+                    "La reserva pendiente de pago ha vencido y sus habitaciones ya no están retenidas",
+                    "reserva",
+                    "reservaHoldVencido");
+        }
+    }
+
+    /**
+     * Whether the reserva is an anonymous PENDIENTE booking created before the
+     * limit and not paid; staff-created and "pay later" reservas never expire.
+     */
+    private boolean holdVencido(Reserva reserva, Instant limite) {
+        return reserva.getEstado() == EstadoReserva.PENDIENTE
+                && Boolean.TRUE.equals(reserva.getExpiraSinPago())
+                && reserva.getFechaReserva() != null
+                && reserva.getFechaReserva().isBefore(limite)
+                && !pagoRepository.existsByReservaIdAndEstadoAndActivoTrue(reserva.getId(), EstadoPago.COMPLETADO);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ReservaDTO> findAll(Pageable pageable) {
@@ -247,18 +320,71 @@ public class ReservaServiceImpl implements ReservaService {
     public void activate(Long id) {
         LOG.debug("Request to activate Reserva : {}", id);
         reservaRepository
-                .findById(id)
+                .findByIdForUpdate(id)
                 .ifPresent(reserva -> {
-                    reserva.setActivo(true);
-                    reservaRepository.save(reserva);
-
-                    // Cascade to details
-                    List<ReservaDetalle> details = reservaDetalleRepository.findAllByReservaId(id);
-                    details.forEach(detail -> detail.setActivo(true));
-                    reservaDetalleRepository.saveAll(details);
+                    // A deactivated (so cancelled) reserva can still be restored
+                    if (reserva.getEstado() != EstadoReserva.CANCELADA || Boolean.TRUE.equals(reserva.getActivo())) {
+                        verificarVigente(reserva);
+                    }
+                    activar(reserva);
                 });
     }
 
+    @Override
+    public void verificarPagable(Long id) {
+        LOG.debug("Request to check that Reserva : {} can be paid", id);
+        reservaRepository.findByIdForUpdate(id).ifPresent(this::verificarVigente);
+    }
+
+    @Override
+    public boolean registrarPago(Long id) {
+        LOG.debug("Request to register the payment of Reserva : {}", id);
+        return reservaRepository
+                .findByIdForUpdate(id)
+                .map(reserva -> {
+                    if (reserva.getEstado() == EstadoReserva.CANCELADA
+                            || holdVencido(reserva, ReservaHoldExpiryJob.limiteHolds(reservasProperties, Instant.now()))) {
+                        LOG.info("Payment received for Reserva {} in estado {} after its hold ended", id, reserva.getEstado());
+                        return false;
+                    }
+                    // Paid: no longer a hold the expiry job could cancel
+                    if (reserva.getEstado() == EstadoReserva.PENDIENTE) {
+                        reserva.setEstado(EstadoReserva.CONFIRMADA);
+                    }
+                    activar(reserva);
+                    programarCheckout(reserva);
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Override
+    public boolean cancelarHoldVencido(Long id, Instant limite) {
+        Reserva reserva = reservaRepository.findByIdForUpdate(id).orElse(null);
+        if (reserva == null || !holdVencido(reserva, limite)) {
+            // Paid, confirmed or cancelled since the job selected it
+            return false;
+        }
+        LOG.debug("Cancelling expired hold of Reserva : {}", id);
+        cancelAssociatedServices(reserva);
+        sendCanceladaMessage(reserva);
+        reserva.setEstado(EstadoReserva.CANCELADA);
+        reserva = reservaRepository.save(reserva);
+        reservaDetalleRepository.deactivateByReservaIdIn(List.of(id));
+        programarCheckout(reserva);
+        return true;
+    }
+
+    private void activar(Reserva reserva) {
+        reserva.setActivo(true);
+        reservaRepository.save(reserva);
+
+        // Cascade to details
+        List<ReservaDetalle> details = reservaDetalleRepository.findAllByReservaId(reserva.getId());
+        details.forEach(detail -> detail.setActivo(true));
+        reservaDetalleRepository.saveAll(details);
+    }
+
     @Override
     public void deactivate(Long id) {
         LOG.debug("Request to deactivate Reserva : {}", id);
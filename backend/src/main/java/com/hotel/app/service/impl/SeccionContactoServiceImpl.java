@@ -1,18 +1,20 @@
 package com.hotel.app.service.impl;
 
-import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.domain.SeccionContacto;
 import com.hotel.app.repository.SeccionContactoRepository;
+import com.hotel.app.service.ImagenCleanupService;
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.LandingSnapshotService;
 import com.hotel.app.service.SeccionContactoService;
 import com.hotel.app.service.dto.SeccionContactoDTO;
 import com.hotel.app.service.mapper.SeccionContactoMapper;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.List;
 import java.util.Optional;
-import java.util.UUID;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -29,19 +31,24 @@ import org.springframework.transaction.annotation.Transactional;
 public class SeccionContactoServiceImpl implements SeccionContactoService {
 
     private static final Logger LOG = LoggerFactory.getLogger(SeccionContactoServiceImpl.class);
-    private static final String CONTACT_FOLDER = "contactos";
 
     private final SeccionContactoRepository seccionContactoRepository;
     private final SeccionContactoMapper seccionContactoMapper;
-    private final ApplicationProperties applicationProperties;
+    private final ImagenContentStore imagenContentStore;
+    private final ImagenCleanupService imagenCleanupService;
+    private final LandingSnapshotService landingSnapshotService;
 
     public SeccionContactoServiceImpl(
             SeccionContactoRepository seccionContactoRepository,
             SeccionContactoMapper seccionContactoMapper,
-            ApplicationProperties applicationProperties) {
+            ImagenContentStore imagenContentStore,
+            ImagenCleanupService imagenCleanupService,
+            LandingSnapshotService landingSnapshotService) {
         this.seccionContactoRepository = seccionContactoRepository;
         this.seccionContactoMapper = seccionContactoMapper;
-        this.applicationProperties = applicationProperties;
+        this.imagenContentStore = imagenContentStore;
+        this.imagenCleanupService = imagenCleanupService;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -57,6 +64,7 @@ public class SeccionContactoServiceImpl implements SeccionContactoService {
         }
 
         seccionContacto = seccionContactoRepository.save(seccionContacto);
+        landingSnapshotService.invalidate();
         return seccionContactoMapper.toDto(seccionContacto);
     }
 
@@ -78,34 +86,19 @@ public class SeccionContactoServiceImpl implements SeccionContactoService {
         }
 
         seccionContacto = seccionContactoRepository.save(seccionContacto);
+        landingSnapshotService.invalidate();
         return seccionContactoMapper.toDto(seccionContacto);
     }
 
     private String saveImageToFile(String base64Data, String contentType, String oldImagePath) {
-        try {
-            // Delete old image if exists
-            if (oldImagePath != null && !oldImagePath.isEmpty()) {
-                deleteFileFromLocal(oldImagePath);
-            }
-
-            // Decode base64
-            byte[] imageBytes = Base64.getDecoder().decode(base64Data);
-
-            // Generate filename
-            String extension = getExtensionFromContentType(contentType);
-            String fileName = "fondo_" + UUID.randomUUID().toString() + extension;
-
-            // Create directory if not exists
-            Path rootPath = Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-            Path contactosPath = rootPath.resolve(CONTACT_FOLDER);
-            Files.createDirectories(contactosPath);
-
-            // Write file
-            Path targetPath = contactosPath.resolve(fileName);
-            Files.write(targetPath, imageBytes);
+        // The old image goes once the new one is committed, unless something else still uses it
+        if (oldImagePath != null && !oldImagePath.isEmpty()) {
+            programarBorrado(oldImagePath);
+        }
 
-            // Return relative path
-            String relativePath = CONTACT_FOLDER + "/" + fileName;
+        // Decode base64 while storing
+        try (InputStream in = Base64.getDecoder().wrap(new ByteArrayInputStream(base64Data.getBytes(StandardCharsets.US_ASCII)))) {
+            String relativePath = imagenContentStore.store(in, contentType != null ? contentType : "image/jpeg").path();
             LOG.debug("Image saved successfully: {}", relativePath);
             return relativePath;
         } catch (IOException e) {
@@ -114,41 +107,17 @@ public class SeccionContactoServiceImpl implements SeccionContactoService {
         }
     }
 
-    private void deleteFileFromLocal(String relativePath) {
+    private void programarBorrado(String relativePath) {
         if (relativePath == null || relativePath.isEmpty() || relativePath.toLowerCase().startsWith("http")) {
             return;
         }
-        try {
-            Path rootPath = Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-            Path targetPath = rootPath.resolve(relativePath);
-            if (Files.exists(targetPath)) {
-                Files.delete(targetPath);
-                LOG.debug("Deleted old background image: {}", targetPath);
-            }
-        } catch (Exception e) {
-            LOG.warn("Could not delete file from local storage: {}", relativePath, e);
-            // We do not throw exception here to avoid transaction rollback just because
-            // file deletion failed
-        }
-    }
-
-    private String getExtensionFromContentType(String contentType) {
-        if (contentType == null)
-            return ".jpg";
-        if (contentType.contains("png"))
-            return ".png";
-        if (contentType.contains("gif"))
-            return ".gif";
-        if (contentType.contains("webp"))
-            return ".webp";
-        if (contentType.contains("jpeg") || contentType.contains("jpg"))
-            return ".jpg";
-        return ".jpg";
+        imagenCleanupService.programarBorrado(List.of(relativePath));
     }
 
     @Override
     public Optional<SeccionContactoDTO> partialUpdate(SeccionContactoDTO seccionContactoDTO) {
         LOG.debug("Request to partially update SeccionContacto : {}", seccionContactoDTO);
+        landingSnapshotService.invalidate();
 
         return seccionContactoRepository
                 .findById(seccionContactoDTO.getId())
@@ -180,9 +149,10 @@ public class SeccionContactoServiceImpl implements SeccionContactoService {
         // Delete associated image file before deleting entity
         seccionContactoRepository.findById(id).ifPresent(seccion -> {
             if (seccion.getImagenFondoUrl() != null) {
-                deleteFileFromLocal(seccion.getImagenFondoUrl());
+                programarBorrado(seccion.getImagenFondoUrl());
             }
         });
         seccionContactoRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 }
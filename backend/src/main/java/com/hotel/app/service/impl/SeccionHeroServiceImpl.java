@@ -2,6 +2,7 @@ package com.hotel.app.service.impl;
 
 import com.hotel.app.domain.SeccionHero;
 import com.hotel.app.repository.SeccionHeroRepository;
+import com.hotel.app.service.LandingSnapshotService;
 import com.hotel.app.service.SeccionHeroService;
 import com.hotel.app.service.dto.SeccionHeroDTO;
 import com.hotel.app.service.mapper.SeccionHeroMapper;
@@ -26,9 +27,15 @@ public class SeccionHeroServiceImpl implements SeccionHeroService {
 
     private final SeccionHeroMapper seccionHeroMapper;
 
-    public SeccionHeroServiceImpl(SeccionHeroRepository seccionHeroRepository, SeccionHeroMapper seccionHeroMapper) {
+    private final LandingSnapshotService landingSnapshotService;
+
+    public SeccionHeroServiceImpl(
+            SeccionHeroRepository seccionHeroRepository,
+            SeccionHeroMapper seccionHeroMapper,
+            LandingSnapshotService landingSnapshotService) {
         this.seccionHeroRepository = seccionHeroRepository;
         this.seccionHeroMapper = seccionHeroMapper;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -36,6 +43,7 @@ public class SeccionHeroServiceImpl implements SeccionHeroService {
         LOG.debug("Request to save SeccionHero : {}", seccionHeroDTO);
         SeccionHero seccionHero = seccionHeroMapper.toEntity(seccionHeroDTO);
         seccionHero = seccionHeroRepository.save(seccionHero);
+        landingSnapshotService.invalidate();
         return seccionHeroMapper.toDto(seccionHero);
     }
 
@@ -44,12 +52,14 @@ public class SeccionHeroServiceImpl implements SeccionHeroService {
         LOG.debug("Request to update SeccionHero : {}", seccionHeroDTO);
         SeccionHero seccionHero = seccionHeroMapper.toEntity(seccionHeroDTO);
         seccionHero = seccionHeroRepository.save(seccionHero);
+        landingSnapshotService.invalidate();
         return seccionHeroMapper.toDto(seccionHero);
     }
 
     @Override
     public Optional<SeccionHeroDTO> partialUpdate(SeccionHeroDTO seccionHeroDTO) {
         LOG.debug("Request to partially update SeccionHero : {}", seccionHeroDTO);
+        landingSnapshotService.invalidate();
 
         return seccionHeroRepository
             .findById(seccionHeroDTO.getId())
@@ -80,5 +90,6 @@ public class SeccionHeroServiceImpl implements SeccionHeroService {
     public void delete(Long id) {
         LOG.debug("Request to delete SeccionHero : {}", id);
         seccionHeroRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 }
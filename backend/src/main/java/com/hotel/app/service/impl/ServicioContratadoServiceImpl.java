@@ -6,10 +6,12 @@ import com.hotel.app.repository.ReservaRepository;
 import com.hotel.app.repository.ServicioContratadoRepository;
 import com.hotel.app.repository.ServicioDisponibilidadRepository;
 import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.ListaEsperaServicioService;
 import com.hotel.app.service.MensajeSoporteService;
 import com.hotel.app.service.ServicioContratadoService;
 import com.hotel.app.service.dto.MensajeSoporteDTO;
 import com.hotel.app.service.dto.ServicioContratadoDTO;
+import com.hotel.app.service.job.ExpiryScheduler;
 import java.time.Instant;
 import com.hotel.app.service.mapper.ServicioContratadoMapper;
 import com.hotel.app.security.AuthoritiesConstants;
@@ -48,19 +50,27 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
 
     private final ConfiguracionSistemaService configuracionSistemaService;
 
+    private final ListaEsperaServicioService listaEsperaServicioService;
+
+    private final ExpiryScheduler expiryScheduler;
+
     public ServicioContratadoServiceImpl(
             ServicioContratadoRepository servicioContratadoRepository,
             ServicioContratadoMapper servicioContratadoMapper,
             ReservaRepository reservaRepository,
             ServicioDisponibilidadRepository servicioDisponibilidadRepository,
             MensajeSoporteService mensajeSoporteService,
-            ConfiguracionSistemaService configuracionSistemaService) {
+            ConfiguracionSistemaService configuracionSistemaService,
+            ListaEsperaServicioService listaEsperaServicioService,
+            ExpiryScheduler expiryScheduler) {
         this.servicioContratadoRepository = servicioContratadoRepository;
         this.servicioContratadoMapper = servicioContratadoMapper;
         this.reservaRepository = reservaRepository;
         this.servicioDisponibilidadRepository = servicioDisponibilidadRepository;
         this.mensajeSoporteService = mensajeSoporteService;
         this.configuracionSistemaService = configuracionSistemaService;
+        this.listaEsperaServicioService = listaEsperaServicioService;
+        this.expiryScheduler = expiryScheduler;
     }
 
     @Override
@@ -101,10 +111,11 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
             // 2. Validate Service Availability - REQUIRED FOR ALL ROLES
             if (servicioContratadoDTO.getServicio() != null) {
                 ZonedDateTime fechaServicio = servicioContratadoDTO.getFechaServicio().withZoneSameInstant(systemZone);
-                DiaSemana diaSemana = mapDayOfWeek(fechaServicio.getDayOfWeek());
+                DiaSemana diaSemana = HorarioServicio.diaSemana(fechaServicio.getDayOfWeek());
 
+                // Locked so the quota check cannot interleave with a waitlist promotion
                 var disponibilidades = servicioDisponibilidadRepository
-                        .findByServicioIdAndDiaSemanaAndActivoTrue(servicioContratadoDTO.getServicio().getId(),
+                        .findForUpdateByServicioIdAndDiaSemana(servicioContratadoDTO.getServicio().getId(),
                                 diaSemana);
 
                 if (disponibilidades.isEmpty()) {
@@ -115,21 +126,7 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
                 // Check time and quota
                 boolean timeValid = false;
                 for (var disp : disponibilidades) {
-                    boolean thisSlotTimeValid = false;
-
-                    if (Boolean.TRUE.equals(disp.getHoraFija())) {
-                        if (disp.getHoraInicio().getHour() == fechaServicio.getHour() &&
-                                disp.getHoraInicio().getMinute() == fechaServicio.getMinute()) {
-                            thisSlotTimeValid = true;
-                        }
-                    } else {
-                        // Range
-                        if (!fechaServicio.toLocalTime().isBefore(disp.getHoraInicio()) &&
-                                (disp.getHoraFin() == null
-                                        || !fechaServicio.toLocalTime().isAfter(disp.getHoraFin()))) {
-                            thisSlotTimeValid = true;
-                        }
-                    }
+                    boolean thisSlotTimeValid = HorarioServicio.admite(disp, fechaServicio.toLocalTime());
 
                     if (thisSlotTimeValid) {
                         // Check Quota
@@ -165,6 +162,7 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
 
         ServicioContratado servicioContratado = servicioContratadoMapper.toEntity(servicioContratadoDTO);
         servicioContratado = servicioContratadoRepository.save(servicioContratado);
+        programarCompletado(servicioContratado);
 
         // Send notification for new service contracts
         if (isNewService && servicioContratado.getCliente() != null) {
@@ -185,6 +183,7 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
 
         ServicioContratado servicioContratado = servicioContratadoMapper.toEntity(servicioContratadoDTO);
         servicioContratado = servicioContratadoRepository.save(servicioContratado);
+        programarCompletado(servicioContratado);
         return servicioContratadoMapper.toDto(servicioContratado);
     }
 
@@ -211,9 +210,22 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
                     return existingServicioContratado;
                 })
                 .map(servicioContratadoRepository::save)
+                .map(servicioContratado -> {
+                    programarCompletado(servicioContratado);
+                    return servicioContratado;
+                })
                 .map(servicioContratadoMapper::toDto);
     }
 
+    /**
+     * Keeps the exact-time auto-completion in sync with the fecha and the estado
+     * of the servicio.
+     */
+    private void programarCompletado(ServicioContratado servicioContratado) {
+        expiryScheduler.programarServicio(servicioContratado.getId(), servicioContratado.getFechaServicio(),
+                servicioContratado.getEstado());
+    }
+
     @Override
     @Transactional(readOnly = true)
     public Page<ServicioContratadoDTO> findAll(Pageable pageable) {
@@ -266,6 +278,7 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
             LOG.info("Found ServicioContratado, current state: {}", servicioContratado.getEstado());
             servicioContratado.setEstado(com.hotel.app.domain.enumeration.EstadoServicioContratado.CONFIRMADO);
             servicioContratadoRepository.save(servicioContratado);
+            programarCompletado(servicioContratado);
             LOG.info("Updated ServicioContratado {} to CONFIRMADO state", id);
             sendMessage(servicioContratado, "MSG_SERVICE_CONFIRMADO");
             LOG.info("Sent confirmation message for ServicioContratado {}", id);
@@ -294,6 +307,7 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
 
             servicioContratado.setEstado(com.hotel.app.domain.enumeration.EstadoServicioContratado.COMPLETADO);
             servicioContratadoRepository.save(servicioContratado);
+            programarCompletado(servicioContratado);
             sendMessage(servicioContratado, notificationKey != null ? notificationKey : "MSG_SERVICE_COMPLETADO");
         });
     }
@@ -346,9 +360,18 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
     public void cancelar(Long id, String notificationKey) {
         LOG.debug("Request to cancel ServicioContratado : {} with key {}", id, notificationKey);
         servicioContratadoRepository.findById(id).ifPresent(servicioContratado -> {
+            boolean liberaCupo = servicioContratado
+                    .getEstado() != com.hotel.app.domain.enumeration.EstadoServicioContratado.CANCELADO;
             servicioContratado.setEstado(com.hotel.app.domain.enumeration.EstadoServicioContratado.CANCELADO);
             servicioContratadoRepository.save(servicioContratado);
+            programarCompletado(servicioContratado);
             sendMessage(servicioContratado, notificationKey != null ? notificationKey : "MSG_SERVICE_CANCELADO");
+
+            // The freed quota goes to the waitlist of the same slot, in this transaction
+            if (liberaCupo && servicioContratado.getServicio() != null) {
+                listaEsperaServicioService.promoverSiguientes(
+                        servicioContratado.getServicio().getId(), servicioContratado.getFechaServicio());
+            }
         });
     }
 
@@ -428,27 +451,6 @@ public class ServicioContratadoServiceImpl implements ServicioContratadoService
         }
     }
 
-    private DiaSemana mapDayOfWeek(java.time.DayOfWeek dayOfWeek) {
-        switch (dayOfWeek) {
-            case MONDAY:
-                return DiaSemana.LUNES;
-            case TUESDAY:
-                return DiaSemana.MARTES;
-            case WEDNESDAY:
-                return DiaSemana.MIERCOLES;
-            case THURSDAY:
-                return DiaSemana.JUEVES;
-            case FRIDAY:
-                return DiaSemana.VIERNES;
-            case SATURDAY:
-                return DiaSemana.SABADO;
-            case SUNDAY:
-                return DiaSemana.DOMINGO;
-            default:
-                throw new IllegalArgumentException("Invalid day");
-        }
-    }
-
     @Override
     @Transactional(readOnly = true)
     public List<ServicioContratadoDTO> findByClienteAndServicioAndFechaRange(
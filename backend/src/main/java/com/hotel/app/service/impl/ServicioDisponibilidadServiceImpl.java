@@ -1,23 +1,28 @@
 package com.hotel.app.service.impl;
 
 import com.hotel.app.domain.ServicioDisponibilidad;
-import com.hotel.app.domain.ServicioContratado;
 import com.hotel.app.domain.enumeration.DiaSemana;
 import com.hotel.app.domain.enumeration.EstadoServicioContratado;
 import com.hotel.app.repository.ServicioDisponibilidadRepository;
 import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.repository.ServicioContratadoRepository.CantidadPorHorario;
+import com.hotel.app.service.ServicioCatalogService;
 import com.hotel.app.service.ServicioDisponibilidadService;
 import com.hotel.app.service.dto.ServicioDisponibilidadDTO;
 import com.hotel.app.service.dto.ServicioDisponibilidadConCuposDTO;
 import com.hotel.app.service.mapper.ServicioDisponibilidadMapper;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalTime;
 import java.time.ZonedDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
@@ -43,13 +48,17 @@ public class ServicioDisponibilidadServiceImpl implements ServicioDisponibilidad
 
     private final ServicioContratadoRepository servicioContratadoRepository;
 
+    private final ServicioCatalogService servicioCatalogService;
+
     public ServicioDisponibilidadServiceImpl(
             ServicioDisponibilidadRepository servicioDisponibilidadRepository,
             ServicioDisponibilidadMapper servicioDisponibilidadMapper,
-            ServicioContratadoRepository servicioContratadoRepository) {
+            ServicioContratadoRepository servicioContratadoRepository,
+            ServicioCatalogService servicioCatalogService) {
         this.servicioDisponibilidadRepository = servicioDisponibilidadRepository;
         this.servicioDisponibilidadMapper = servicioDisponibilidadMapper;
         this.servicioContratadoRepository = servicioContratadoRepository;
+        this.servicioCatalogService = servicioCatalogService;
     }
 
     @Override
@@ -58,6 +67,7 @@ public class ServicioDisponibilidadServiceImpl implements ServicioDisponibilidad
         ServicioDisponibilidad servicioDisponibilidad = servicioDisponibilidadMapper
                 .toEntity(servicioDisponibilidadDTO);
         servicioDisponibilidad = servicioDisponibilidadRepository.save(servicioDisponibilidad);
+        servicioCatalogService.invalidate();
         return servicioDisponibilidadMapper.toDto(servicioDisponibilidad);
     }
 
@@ -67,12 +77,14 @@ public class ServicioDisponibilidadServiceImpl implements ServicioDisponibilidad
         ServicioDisponibilidad servicioDisponibilidad = servicioDisponibilidadMapper
                 .toEntity(servicioDisponibilidadDTO);
         servicioDisponibilidad = servicioDisponibilidadRepository.save(servicioDisponibilidad);
+        servicioCatalogService.invalidate();
         return servicioDisponibilidadMapper.toDto(servicioDisponibilidad);
     }
 
     @Override
     public Optional<ServicioDisponibilidadDTO> partialUpdate(ServicioDisponibilidadDTO servicioDisponibilidadDTO) {
         log.debug("Request to partially update ServicioDisponibilidad : {}", servicioDisponibilidadDTO);
+        servicioCatalogService.invalidate();
 
         return servicioDisponibilidadRepository
                 .findById(servicioDisponibilidadDTO.getId())
@@ -104,6 +116,7 @@ public class ServicioDisponibilidadServiceImpl implements ServicioDisponibilidad
     public void delete(Long id) {
         log.debug("Request to delete ServicioDisponibilidad : {}", id);
         servicioDisponibilidadRepository.deleteById(id);
+        servicioCatalogService.invalidate();
     }
 
     @Override
@@ -126,15 +139,46 @@ public class ServicioDisponibilidadServiceImpl implements ServicioDisponibilidad
         log.debug("Request to get disponibilidad con cupos for servicio {} from {} to {}",
                 servicioId, fechaInicio, fechaFin);
 
-        // Obtener todas las configuraciones de disponibilidad para este servicio
-        List<ServicioDisponibilidad> disponibilidades = servicioDisponibilidadRepository
-                .findByServicioIdAndActivoTrue(servicioId);
+        return findDisponibilidadConCupos(List.of(servicioId), fechaInicio, fechaFin)
+                .getOrDefault(servicioId, new ArrayList<>());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, List<ServicioDisponibilidadConCuposDTO>> findDisponibilidadConCupos(
+            Collection<Long> servicioIds,
+            LocalDate fechaInicio,
+            LocalDate fechaFin) {
+
+        log.debug("Request to get disponibilidad con cupos for servicios {} from {} to {}",
+                servicioIds, fechaInicio, fechaFin);
+
+        Map<Long, List<ServicioDisponibilidadConCuposDTO>> resultado = new LinkedHashMap<>();
+        if (servicioIds == null || servicioIds.isEmpty()) {
+            return resultado;
+        }
 
-        if (disponibilidades.isEmpty()) {
-            return new ArrayList<>();
+        // Obtener todas las configuraciones de disponibilidad de los servicios,
+        // agrupadas por servicio y día de la semana
+        Map<Long, Map<DiaSemana, List<ServicioDisponibilidad>>> disponibilidadesPorServicio = new HashMap<>();
+        Map<Long, ServicioDisponibilidadDTO> baseDTOs = new HashMap<>();
+        for (ServicioDisponibilidad disp : servicioDisponibilidadRepository.findByServicioIdInAndActivoTrue(servicioIds)) {
+            if (disp.getServicio() == null || disp.getDiaSemana() == null) {
+                continue;
+            }
+            disponibilidadesPorServicio
+                    .computeIfAbsent(disp.getServicio().getId(), id -> new EnumMap<>(DiaSemana.class))
+                    .computeIfAbsent(disp.getDiaSemana(), dia -> new ArrayList<>())
+                    .add(disp);
+            baseDTOs.put(disp.getId(), servicioDisponibilidadMapper.toDto(disp));
         }
 
-        // Obtener todos los servicios contratados en este rango (no cancelados)
+        if (disponibilidadesPorServicio.isEmpty()) {
+            return resultado;
+        }
+
+        // Sumas de cupos contratados (no cancelados) por servicio, fecha y hora,
+        // calculadas por la base de datos en una única consulta
         ZonedDateTime fechaInicioZ = fechaInicio.atStartOfDay(ZoneId.systemDefault());
         ZonedDateTime fechaFinZ = fechaFin.plusDays(1).atStartOfDay(ZoneId.systemDefault());
 
@@ -142,56 +186,37 @@ public class ServicioDisponibilidadServiceImpl implements ServicioDisponibilidad
                 EstadoServicioContratado.PENDIENTE,
                 EstadoServicioContratado.CONFIRMADO);
 
-        List<ServicioContratado> serviciosContratados = servicioContratadoRepository.findByServicioAndFechaRange(
-                servicioId, fechaInicioZ, fechaFinZ, estadosActivos);
-
-        // Generar lista de disponibilidades con cupos para cada día en el rango
-        List<ServicioDisponibilidadConCuposDTO> resultado = new ArrayList<>();
-
-        LocalDate currentDate = fechaInicio;
-        while (!currentDate.isAfter(fechaFin)) {
-            DayOfWeek dayOfWeek = currentDate.getDayOfWeek();
-            DiaSemana diaSemana = convertDayOfWeekToDiaSemana(dayOfWeek);
-
-            // Buscar disponibilidad configurada para este día de la semana
-            for (ServicioDisponibilidad disp : disponibilidades) {
-                if (disp.getDiaSemana().equals(diaSemana)) {
-                    ServicioDisponibilidadDTO baseDTO = servicioDisponibilidadMapper.toDto(disp);
-                    ServicioDisponibilidadConCuposDTO dtoConCupos = new ServicioDisponibilidadConCuposDTO(baseDTO);
-                    dtoConCupos.setFecha(currentDate);
-
-                    // Contar cupos ocupados para este día y hora
-                    final LocalDate fecha = currentDate;
-                    long cuposOcupados = serviciosContratados.stream()
-                            .filter(sc -> {
-                                LocalDate fechaSc = sc.getFechaServicio().toLocalDate();
-                                if (!fechaSc.equals(fecha)) {
-                                    return false;
-                                }
-
-                                // Validar tiempo
-                                LocalTime horaSc = sc.getFechaServicio().toLocalTime();
-                                if (Boolean.TRUE.equals(disp.getHoraFija())) {
-                                    // Para hora fija, debe coincidir exactamente
-                                    return disp.getHoraInicio().getHour() == horaSc.getHour() &&
-                                           disp.getHoraInicio().getMinute() == horaSc.getMinute();
-                                } else {
-                                    // Para rangos, si el servicio fue contratado dentro del rango
-                                    // Nota: Esto asume que el cupo es para todo el rango
-                                    boolean afterStart = !horaSc.isBefore(disp.getHoraInicio());
-                                    boolean beforeEnd = disp.getHoraFin() == null || !horaSc.isAfter(disp.getHoraFin());
-                                    return afterStart && beforeEnd;
-                                }
-                            })
-                            .mapToLong(sc -> sc.getCantidad() != null ? sc.getCantidad() : 0)
-                            .sum();
-
-                    dtoConCupos.setCuposOcupados((int) cuposOcupados);
-                    resultado.add(dtoConCupos);
-                }
+        CuposOcupadosIndex cuposOcupados = new CuposOcupadosIndex();
+        for (CantidadPorHorario cantidad : servicioContratadoRepository.sumCantidadByServiciosAndFechaRangeGroupByHorario(
+                disponibilidadesPorServicio.keySet(), fechaInicioZ, fechaFinZ, estadosActivos)) {
+            cuposOcupados.add(cantidad.getServicioId(), cantidad.getFechaServicio(),
+                    cantidad.getCantidad() != null ? cantidad.getCantidad() : 0);
+        }
+
+        // Generar lista de disponibilidades con cupos para cada servicio y día en el
+        // rango
+        for (Long servicioId : servicioIds) {
+            Map<DiaSemana, List<ServicioDisponibilidad>> porDia = disponibilidadesPorServicio.get(servicioId);
+            if (porDia == null || resultado.containsKey(servicioId)) {
+                continue;
             }
 
-            currentDate = currentDate.plusDays(1);
+            List<ServicioDisponibilidadConCuposDTO> lista = new ArrayList<>();
+            LocalDate currentDate = fechaInicio;
+            while (!currentDate.isAfter(fechaFin)) {
+                List<ServicioDisponibilidad> delDia = porDia.get(convertDayOfWeekToDiaSemana(currentDate.getDayOfWeek()));
+                if (delDia != null) {
+                    for (ServicioDisponibilidad disp : delDia) {
+                        ServicioDisponibilidadConCuposDTO dtoConCupos = new ServicioDisponibilidadConCuposDTO(
+                                baseDTOs.get(disp.getId()));
+                        dtoConCupos.setFecha(currentDate);
+                        dtoConCupos.setCuposOcupados((int) cuposOcupados.cuposOcupados(servicioId, currentDate, disp));
+                        lista.add(dtoConCupos);
+                    }
+                }
+                currentDate = currentDate.plusDays(1);
+            }
+            resultado.put(servicioId, lista);
         }
 
         return resultado;
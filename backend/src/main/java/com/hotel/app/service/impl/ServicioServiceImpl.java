@@ -2,6 +2,7 @@ package com.hotel.app.service.impl;
 
 import com.hotel.app.domain.Servicio;
 import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.service.ServicioCatalogService;
 import com.hotel.app.service.ServicioService;
 import com.hotel.app.service.dto.ServicioDTO;
 import com.hotel.app.service.mapper.ServicioMapper;
@@ -27,11 +28,14 @@ public class ServicioServiceImpl implements ServicioService {
     private final ServicioMapper servicioMapper;
     private final com.hotel.app.service.ImagenService imagenService;
 
+    private final ServicioCatalogService servicioCatalogService;
+
     public ServicioServiceImpl(ServicioRepository servicioRepository, ServicioMapper servicioMapper,
-            com.hotel.app.service.ImagenService imagenService) {
+            com.hotel.app.service.ImagenService imagenService, ServicioCatalogService servicioCatalogService) {
         this.servicioRepository = servicioRepository;
         this.servicioMapper = servicioMapper;
         this.imagenService = imagenService;
+        this.servicioCatalogService = servicioCatalogService;
     }
 
     @Override
@@ -39,6 +43,7 @@ public class ServicioServiceImpl implements ServicioService {
         LOG.debug("Request to save Servicio : {}", servicioDTO);
         Servicio servicio = servicioMapper.toEntity(servicioDTO);
         servicio = servicioRepository.save(servicio);
+        servicioCatalogService.invalidate();
         return servicioMapper.toDto(servicio);
     }
 
@@ -47,12 +52,14 @@ public class ServicioServiceImpl implements ServicioService {
         LOG.debug("Request to update Servicio : {}", servicioDTO);
         Servicio servicio = servicioMapper.toEntity(servicioDTO);
         servicio = servicioRepository.save(servicio);
+        servicioCatalogService.invalidate();
         return servicioMapper.toDto(servicio);
     }
 
     @Override
     public Optional<ServicioDTO> partialUpdate(ServicioDTO servicioDTO) {
         LOG.debug("Request to partially update Servicio : {}", servicioDTO);
+        servicioCatalogService.invalidate();
 
         return servicioRepository
                 .findById(servicioDTO.getId())
@@ -87,6 +94,7 @@ public class ServicioServiceImpl implements ServicioService {
         LOG.debug("Request to delete Servicio : {}", id);
         imagenService.deleteByServicioId(id);
         servicioRepository.deleteById(id);
+        servicioCatalogService.invalidate();
     }
 
     @Override
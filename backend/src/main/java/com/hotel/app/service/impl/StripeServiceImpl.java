@@ -10,10 +10,13 @@ import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
 import com.stripe.model.EventDataObjectDeserializer;
 import com.stripe.model.PaymentIntent;
+import com.stripe.model.Refund;
 import com.stripe.model.StripeObject;
 import com.stripe.net.ApiResource;
+import com.stripe.net.RequestOptions;
 import com.stripe.net.Webhook;
 import com.stripe.param.PaymentIntentCreateParams;
+import com.stripe.param.RefundCreateParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -41,6 +44,10 @@ public class StripeServiceImpl implements StripeService {
     @Value("${stripe.webhook-secret}")
     private String webhookSecret;
 
+    // stripe-mock or the load test stub; empty for the real API
+    @Value("${stripe.api-base:}")
+    private String apiBase;
+
     public StripeServiceImpl(
             ReservaService reservaService,
             ServicioContratadoService servicioContratadoService,
@@ -56,7 +63,12 @@ public class StripeServiceImpl implements StripeService {
     public PaymentIntentResponse createPaymentIntent(PaymentIntentRequest request) throws StripeException {
         LOG.debug("Request to create Payment Intent: {}", request);
 
-        Stripe.apiKey = stripeSecretKey;
+        // No payment for a reserva that was cancelled or whose hold already expired
+        if (request.getServicioContratadoId() == null && request.getReservaId() != null) {
+            reservaService.verificarPagable(request.getReservaId());
+        }
+
+        configurarStripe();
 
         Long amountInCents = request.getAmount().multiply(new java.math.BigDecimal(100)).longValue();
 
@@ -84,6 +96,13 @@ public class StripeServiceImpl implements StripeService {
         return new PaymentIntentResponse(paymentIntent.getClientSecret(), paymentIntent.getId());
     }
 
+    private void configurarStripe() {
+        Stripe.apiKey = stripeSecretKey;
+        if (!apiBase.isEmpty()) {
+            Stripe.overrideApiBase(apiBase);
+        }
+    }
+
     @Override
     public void handleWebhook(String payload, String sigHeader) throws Exception {
         LOG.debug("Handling Stripe webhook");
@@ -119,7 +138,7 @@ public class StripeServiceImpl implements StripeService {
         }
     }
 
-    private void handlePaymentIntentSucceeded(Event event) {
+    private void handlePaymentIntentSucceeded(Event event) throws StripeException {
         LOG.debug("Handling payment_intent.succeeded event");
 
         EventDataObjectDeserializer dataObjectDeserializer = event.getDataObjectDeserializer();
@@ -148,12 +167,19 @@ public class StripeServiceImpl implements StripeService {
                 if (reservaIdStr != null) {
                     Long reservaId = Long.parseLong(reservaIdStr);
                     LOG.debug("Confirming reservation with ID: {}", reservaId);
+                    boolean reembolsar = false;
                     try {
-                        reservaService.activate(reservaId);
-                        sendPaymentSuccessMessageReserva(reservaId, paymentIntent.getAmount());
+                        if (reservaService.registrarPago(reservaId)) {
+                            sendPaymentSuccessMessageReserva(reservaId, paymentIntent.getAmount());
+                        } else {
+                            reembolsar = true;
+                        }
                     } catch (Exception e) {
                         LOG.error("Error confirming reservation", e);
                     }
+                    if (reembolsar) {
+                        reembolsar(paymentIntent, reservaId);
+                    }
                 }
             } else if ("servicio".equals(type)) {
                 String servicioIdStr = paymentIntent.getMetadata().get("servicioContratadoId");
@@ -171,6 +197,24 @@ public class StripeServiceImpl implements StripeService {
         }
     }
 
+    /**
+     * Refunds a payment that arrived for a reserva that can no longer be paid
+     * (cancelled, or its hold expired and its rooms were released) and tells the
+     * guest. A failed refund is thrown, so Stripe redelivers the event and the
+     * refund is retried; the idempotency key keeps it from being refunded twice.
+     */
+    private void reembolsar(PaymentIntent paymentIntent, Long reservaId) throws StripeException {
+        LOG.warn("Refunding payment {} of Reserva {}: the reserva can no longer be paid", paymentIntent.getId(), reservaId);
+        configurarStripe();
+        Refund.create(
+                RefundCreateParams.builder()
+                        .setPaymentIntent(paymentIntent.getId())
+                        .setReason(RefundCreateParams.Reason.REQUESTED_BY_CUSTOMER)
+                        .build(),
+                RequestOptions.builder().setIdempotencyKey("reembolso-" + paymentIntent.getId()).build());
+        sendPaymentRefundedMessage(reservaId, paymentIntent.getAmount());
+    }
+
     private void handlePaymentIntentFailed(Event event) {
         LOG.debug("Handling payment_intent.payment_failed event");
 
@@ -247,6 +291,48 @@ public class StripeServiceImpl implements StripeService {
         }
     }
 
+    private void sendPaymentRefundedMessage(Long reservaId, Long amountInCents) {
+        try {
+            reservaService.findOne(reservaId).ifPresent(reserva -> {
+                if (reserva.getCliente() == null || reserva.getCliente().getKeycloakId() == null) {
+                    return;
+                }
+
+                double amount = amountInCents / 100.0;
+                String msgText = "↩️ Pago reembolsado. La reserva #" + reservaId
+                        + " ya no estaba disponible cuando se recibió su pago de $" + String.format("%.2f", amount)
+                        + ", por lo que se le ha reembolsado.";
+
+                try {
+                    var configOpt = configuracionSistemaService.findByClave("MSG_PAGO_REEMBOLSADO");
+                    if (configOpt.isPresent() && configOpt.get().getValor() != null) {
+                        msgText = configOpt.get().getValor()
+                                .replace("{monto}", String.format("%.2f", amount))
+                                .replace("{reservaId}", reservaId.toString());
+                    }
+                } catch (Exception e) {
+                    LOG.debug("Using default payment refunded message");
+                }
+
+                MensajeSoporteDTO mensaje = new MensajeSoporteDTO();
+                mensaje.setUserId(reserva.getCliente().getKeycloakId());
+                mensaje.setUserName(((reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre() : "")
+                        + " "
+                        + (reserva.getCliente().getApellido() != null ? reserva.getCliente().getApellido() : ""))
+                        .trim());
+                mensaje.setMensaje(msgText);
+                mensaje.setRemitente("SISTEMA");
+                mensaje.setLeido(false);
+                mensaje.setActivo(true);
+                mensaje.setFechaMensaje(Instant.now());
+
+                mensajeSoporteService.save(mensaje);
+            });
+        } catch (Exception e) {
+            LOG.error("Error sending payment refunded message", e);
+        }
+    }
+
     private void sendPaymentSuccessMessageServicio(Long servicioId, Long amountInCents) {
         try {
             servicioContratadoService.findOne(servicioId).ifPresent(servicio -> {
@@ -2,6 +2,7 @@ package com.hotel.app.service.impl;
 
 import com.hotel.app.domain.Telefono;
 import com.hotel.app.repository.TelefonoRepository;
+import com.hotel.app.service.LandingSnapshotService;
 import com.hotel.app.service.TelefonoService;
 import com.hotel.app.service.dto.TelefonoDTO;
 import com.hotel.app.service.mapper.TelefonoMapper;
@@ -26,9 +27,15 @@ public class TelefonoServiceImpl implements TelefonoService {
 
     private final TelefonoMapper telefonoMapper;
 
-    public TelefonoServiceImpl(TelefonoRepository telefonoRepository, TelefonoMapper telefonoMapper) {
+    private final LandingSnapshotService landingSnapshotService;
+
+    public TelefonoServiceImpl(
+            TelefonoRepository telefonoRepository,
+            TelefonoMapper telefonoMapper,
+            LandingSnapshotService landingSnapshotService) {
         this.telefonoRepository = telefonoRepository;
         this.telefonoMapper = telefonoMapper;
+        this.landingSnapshotService = landingSnapshotService;
     }
 
     @Override
@@ -36,6 +43,7 @@ public class TelefonoServiceImpl implements TelefonoService {
         LOG.debug("Request to save Telefono : {}", telefonoDTO);
         Telefono telefono = telefonoMapper.toEntity(telefonoDTO);
         telefono = telefonoRepository.save(telefono);
+        landingSnapshotService.invalidate();
         return telefonoMapper.toDto(telefono);
     }
 
@@ -44,12 +52,14 @@ public class TelefonoServiceImpl implements TelefonoService {
         LOG.debug("Request to update Telefono : {}", telefonoDTO);
         Telefono telefono = telefonoMapper.toEntity(telefonoDTO);
         telefono = telefonoRepository.save(telefono);
+        landingSnapshotService.invalidate();
         return telefonoMapper.toDto(telefono);
     }
 
     @Override
     public Optional<TelefonoDTO> partialUpdate(TelefonoDTO telefonoDTO) {
         LOG.debug("Request to partially update Telefono : {}", telefonoDTO);
+        landingSnapshotService.invalidate();
 
         return telefonoRepository
             .findById(telefonoDTO.getId())
@@ -80,5 +90,6 @@ public class TelefonoServiceImpl implements TelefonoService {
     public void delete(Long id) {
         LOG.debug("Request to delete Telefono : {}", id);
         telefonoRepository.deleteById(id);
+        landingSnapshotService.invalidate();
     }
 }
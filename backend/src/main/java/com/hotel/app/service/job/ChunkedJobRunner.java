@@ -0,0 +1,283 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.JobCheckpoint;
+import com.hotel.app.domain.JobRun;
+import com.hotel.app.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.Tags;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Runs a scheduled job as a sequence of chunks, each one in its own transaction.
+ * <p>
+ * A run selects rows with keyset paging over their ids, up to a cut-off instant
+ * fixed when the run starts. After each chunk the highest processed id is stored
+ * in {@link JobCheckpoint} within the same transaction, so a run that fails or is
+ * interrupted is resumed from that point, with the same cut-off, on the next
+ * trigger.
+ * <p>
+ * A chunk that fails {@code application.jobs.max-chunk-attempts} runs in a row
+ * is then processed one row at a time: the rows that still fail are skipped,
+ * logged and listed in the run history, so one bad row cannot stall the job.
+ * The {@code hotel.job.stalled} gauge is the number of runs in a row that
+ * failed on the current chunk, and {@code hotel.job.skipped} counts the
+ * skipped rows.
+ * <p>
+ * Every run is recorded in the job run history, see {@link JobRunHistory}.
+ */
+@Component
+public class ChunkedJobRunner {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ChunkedJobRunner.class);
+
+    /**
+     * Processes one chunk inside the transaction opened by the runner.
+     */
+    @FunctionalInterface
+    public interface ChunkProcessor {
+        /**
+         * @param cutoff  the cut-off instant of the run.
+         * @param afterId only rows with a greater id belong to this chunk.
+         * @param limit   the maximum number of rows to select.
+         * @return what was done with the chunk.
+         */
+        Chunk process(Instant cutoff, long afterId, int limit);
+    }
+
+    /**
+     * Selects, without processing them, the ids of the rows a chunk would
+     * process, in ascending order; used to skip the rows of a failing chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkSelector {
+        List<Long> select(Instant cutoff, long afterId, int limit);
+    }
+
+    /**
+     * Result of a chunk: rows selected, highest selected id and rows actually
+     * updated.
+     */
+    public record Chunk(int selected, long lastId, int updated) {
+        public static final Chunk EMPTY = new Chunk(0, 0, 0);
+    }
+
+    /**
+     * Summary of a run; {@code error} describes the failure that stopped it, if
+     * any.
+     */
+    public record RunResult(
+            String job, long rows, int chunks, int failures, Duration duration, boolean completed, String error) {}
+
+    private final JobCheckpointRepository jobCheckpointRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final JobRunHistory jobRunHistory;
+
+    private final Map<String, AtomicInteger> stalled = new ConcurrentHashMap<>();
+
+    public ChunkedJobRunner(
+            JobCheckpointRepository jobCheckpointRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            ApplicationProperties applicationProperties,
+            JobRunHistory jobRunHistory) {
+        this.jobCheckpointRepository = jobCheckpointRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.applicationProperties = applicationProperties;
+        this.jobRunHistory = jobRunHistory;
+    }
+
+    /**
+     * Run a job until no rows are left or a chunk fails.
+     *
+     * @param job       the job name, used for the checkpoint and the metrics.
+     * @param processor the chunk processor.
+     * @param selector  selects the ids of a chunk, to skip the failing ones.
+     * @return the run summary.
+     */
+    public RunResult run(String job, ChunkProcessor processor, ChunkSelector selector) {
+        long start = System.nanoTime();
+        JobRun jobRun = jobRunHistory.start(job);
+        int chunkSize = Math.max(1, applicationProperties.getJobs().getChunkSize());
+        int maxAttempts = Math.max(1, applicationProperties.getJobs().getMaxChunkAttempts());
+        AtomicInteger stall = stalled.computeIfAbsent(job,
+                j -> meterRegistry.gauge("hotel.job.stalled", Tags.of("job", j), new AtomicInteger()));
+
+        long rows = 0;
+        int chunks = 0;
+        int failures = 0;
+        List<Long> skipped = new ArrayList<>();
+        boolean completed = false;
+        String error = null;
+        try {
+            JobCheckpoint checkpoint = transactionTemplate.execute(status -> startOrResume(job));
+            stall.set(checkpoint.getFailedAttempts());
+            long afterId = checkpoint.getLastId();
+            while (true) {
+                long from = afterId;
+                Chunk chunk;
+                try {
+                    chunk = transactionTemplate.execute(status -> {
+                        Chunk result = processor.process(checkpoint.getCutoff(), from, chunkSize);
+                        if (result.selected() > 0) {
+                            saveCheckpoint(checkpoint.lastId(result.lastId()).failedAttempts(0).completed(false));
+                        }
+                        return result;
+                    });
+                } catch (RuntimeException e) {
+                    failures++;
+                    int attempts = checkpoint.getFailedAttempts() + 1;
+                    List<Long> failed = new ArrayList<>();
+                    chunk = null;
+                    if (attempts >= maxAttempts) {
+                        LOG.error("Job {} failed after id {} ({} of {} attempts), processing the chunk one row at a time",
+                                job, from, attempts, maxAttempts, e);
+                        chunk = processRowByRow(job, checkpoint, processor, selector, from, chunkSize, failed);
+                    }
+                    if (chunk == null) {
+                        transactionTemplate.executeWithoutResult(
+                                status -> saveCheckpoint(checkpoint.failedAttempts(attempts)));
+                        stall.set(attempts);
+                        error = (skipped.isEmpty() ? "" : "Skipped ids " + skipped + "; ") + "Failed after id " + from
+                                + ": " + e;
+                        LOG.error("Job {} failed after id {} ({} of {} attempts), it will resume from there on the next run",
+                                job, from, attempts, maxAttempts, e);
+                        break;
+                    }
+                    skipped.addAll(failed);
+                    stall.set(0);
+                    if (!failed.isEmpty()) {
+                        error = "Skipped ids " + skipped + ", the last ones after id " + from + " failed " + attempts
+                                + " times: " + e;
+                    }
+                }
+                if (chunk.selected() > 0) {
+                    chunks++;
+                    rows += chunk.updated();
+                    afterId = chunk.lastId();
+                }
+                if (chunk.selected() < chunkSize) {
+                    completed = true;
+                    break;
+                }
+            }
+
+            if (completed) {
+                transactionTemplate.executeWithoutResult(status -> saveCheckpoint(checkpoint.completed(true)));
+            }
+        } catch (RuntimeException e) {
+            // The checkpoint could not be read or written
+            failures++;
+            completed = false;
+            error = e.toString();
+            LOG.error("Job {} failed", job, e);
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        Timer.builder("hotel.job.duration").tag("job", job).register(meterRegistry).record(duration);
+        Counter.builder("hotel.job.rows").tag("job", job).register(meterRegistry).increment(rows);
+        Counter.builder("hotel.job.failures").tag("job", job).register(meterRegistry).increment(failures);
+        Counter.builder("hotel.job.skipped").tag("job", job).register(meterRegistry).increment(skipped.size());
+        Counter.builder("hotel.job.runs")
+                .tag("job", job)
+                .tag("outcome", error == null ? "completed" : "failed")
+                .register(meterRegistry)
+                .increment();
+
+        RunResult result = new RunResult(job, rows, chunks, failures, duration, completed, error);
+        jobRunHistory.finish(jobRun, result);
+        if (rows > 0 || failures > 0) {
+            LOG.info("Job {} processed {} rows in {} chunks ({} failures, {} skipped) in {} ms", job, rows, chunks,
+                    failures, skipped.size(), duration.toMillis());
+        } else {
+            LOG.debug("Job {} had nothing to process", job);
+        }
+        return result;
+    }
+
+    /**
+     * Processes the rows of a chunk that keeps failing one at a time, each in
+     * its own transaction, and moves the checkpoint past the ones that fail.
+     *
+     * @param failed receives the ids of the skipped rows.
+     * @return the chunk as a whole, or {@code null} if its rows could not be
+     *         selected.
+     */
+    private Chunk processRowByRow(String job, JobCheckpoint checkpoint, ChunkProcessor processor,
+            ChunkSelector selector, long from, int chunkSize, List<Long> failed) {
+        List<Long> ids;
+        try {
+            ids = transactionTemplate.execute(status -> selector.select(checkpoint.getCutoff(), from, chunkSize));
+        } catch (RuntimeException e) {
+            LOG.error("Job {} could not select the rows after id {}", job, from, e);
+            return null;
+        }
+        if (ids.isEmpty()) {
+            // Nothing to skip: the failure is not in the rows
+            return null;
+        }
+        long afterId = from;
+        int updated = 0;
+        for (Long id : ids) {
+            if (id <= afterId) {
+                // Already processed along with a previous row
+                continue;
+            }
+            long after = afterId;
+            try {
+                Chunk row = transactionTemplate.execute(status -> {
+                    Chunk result = processor.process(checkpoint.getCutoff(), after, 1);
+                    saveCheckpoint(checkpoint.lastId(Math.max(id, result.lastId())).failedAttempts(0).completed(false));
+                    return result;
+                });
+                updated += row.updated();
+                afterId = Math.max(id, row.lastId());
+            } catch (RuntimeException e) {
+                LOG.error("Job {} skips id {}, which keeps failing", job, id, e);
+                failed.add(id);
+                transactionTemplate.executeWithoutResult(
+                        status -> saveCheckpoint(checkpoint.lastId(id).failedAttempts(0).completed(false)));
+                afterId = id;
+            }
+        }
+        return new Chunk(ids.size(), afterId, updated);
+    }
+
+    private JobCheckpoint startOrResume(String job) {
+        return jobCheckpointRepository
+                .findById(job)
+                .filter(checkpoint -> !Boolean.TRUE.equals(checkpoint.getCompleted()))
+                .map(checkpoint -> {
+                    LOG.info("Resuming job {} after id {} (cut-off {})", job, checkpoint.getLastId(),
+                            checkpoint.getCutoff());
+                    return checkpoint;
+                })
+                .orElseGet(() -> saveCheckpoint(
+                        new JobCheckpoint().jobName(job).cutoff(Instant.now()).lastId(0L).failedAttempts(0)
+                                .completed(false)));
+    }
+
+    private JobCheckpoint saveCheckpoint(JobCheckpoint checkpoint) {
+        return jobCheckpointRepository.save(checkpoint.updatedAt(Instant.now()));
+    }
+}
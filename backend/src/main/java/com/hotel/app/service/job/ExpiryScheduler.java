@@ -0,0 +1,274 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Finalizes reservas and completes servicios contratados at the exact time they
+ * expire, instead of waiting for the next sweep of
+ * {@link ReservaAutoCheckoutJob} or {@link ServicioAutoCompletionJob}.
+ * <p>
+ * The deadlines of the next {@code application.jobs.expiry.horizon-hours} are
+ * kept in a {@link DelayQueue} consumed by a single daemon thread. They are
+ * loaded from the database at startup and every
+ * {@code application.jobs.expiry.reload-minutes}, and the services register
+ * the new deadline of an entity after each committed change. Only the latest
+ * deadline of each entity counts; older queue entries are skipped.
+ * <p>
+ * The jobs check the state and the date again in the database, with the rows
+ * locked, and the sweeps lock each chunk the same way before changing it, so a
+ * stale deadline, several nodes firing the same deadline or a sweep running at
+ * the same time finalize each entity and send its message once. The sweeps
+ * remain as a safety net, e.g. for deadlines that expired while no node was
+ * running.
+ */
+@Component
+public class ExpiryScheduler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExpiryScheduler.class);
+
+    private static final List<EstadoReserva> ESTADOS_RESERVA = List.of(EstadoReserva.CONFIRMADA,
+            EstadoReserva.CHECK_IN);
+
+    private static final int MAX_LOTE = 100;
+
+    public enum Tipo {
+        RESERVA,
+        SERVICIO,
+    }
+
+    record Clave(Tipo tipo, Long id) {}
+
+    static final class Vencimiento implements Delayed {
+
+        private final Clave clave;
+
+        private final Instant fecha;
+
+        Vencimiento(Clave clave, Instant fecha) {
+            this.clave = clave;
+            this.fecha = fecha;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(Duration.between(Instant.now(), fecha));
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return fecha.compareTo(((Vencimiento) other).fecha);
+        }
+    }
+
+    private final DelayQueue<Vencimiento> cola = new DelayQueue<>();
+
+    /**
+     * Latest deadline of each entity; a queue entry only fires if it still
+     * matches.
+     */
+    private final Map<Clave, Instant> vigentes = new ConcurrentHashMap<>();
+
+    private final ReservaRepository reservaRepository;
+
+    private final ServicioContratadoRepository servicioContratadoRepository;
+
+    private final ReservaAutoCheckoutJob reservaAutoCheckoutJob;
+
+    private final ServicioAutoCompletionJob servicioAutoCompletionJob;
+
+    private final ApplicationProperties.Jobs.Expiry properties;
+
+    private final Counter reservasDisparadas;
+
+    private final Counter serviciosDisparados;
+
+    private volatile Thread consumidor;
+
+    public ExpiryScheduler(
+            ReservaRepository reservaRepository,
+            ServicioContratadoRepository servicioContratadoRepository,
+            ReservaAutoCheckoutJob reservaAutoCheckoutJob,
+            ServicioAutoCompletionJob servicioAutoCompletionJob,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
+        this.reservaRepository = reservaRepository;
+        this.servicioContratadoRepository = servicioContratadoRepository;
+        this.reservaAutoCheckoutJob = reservaAutoCheckoutJob;
+        this.servicioAutoCompletionJob = servicioAutoCompletionJob;
+        this.properties = applicationProperties.getJobs().getExpiry();
+        Gauge.builder("hotel.expiry.pending", vigentes, Map::size).register(meterRegistry);
+        this.reservasDisparadas = Counter.builder("hotel.expiry.fired").tag("tipo", "reserva")
+                .register(meterRegistry);
+        this.serviciosDisparados = Counter.builder("hotel.expiry.fired").tag("tipo", "servicio")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Loads the deadlines of the horizon and starts the consumer thread.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void iniciar() {
+        if (!properties.isEnabled() || consumidor != null) {
+            return;
+        }
+        recargar();
+        Thread thread = new Thread(this::consumir, "expiry-scheduler");
+        thread.setDaemon(true);
+        thread.start();
+        consumidor = thread;
+        LOG.info("Expiry scheduler started with {} deadlines in the next {} hours", vigentes.size(),
+                properties.getHorizonHours());
+    }
+
+    @PreDestroy
+    public synchronized void detener() {
+        if (consumidor != null) {
+            consumidor.interrupt();
+            consumidor = null;
+        }
+    }
+
+    /**
+     * Adds the deadlines entering the horizon, including those of entities
+     * changed on other nodes.
+     */
+    @Scheduled(fixedDelayString = "${application.jobs.expiry.reload-minutes:60}",
+            initialDelayString = "${application.jobs.expiry.reload-minutes:60}", timeUnit = TimeUnit.MINUTES)
+    public void recargar() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Instant desde = Instant.now();
+        Instant hasta = horizonte();
+        reservaRepository.findVencimientos(desde, hasta, ESTADOS_RESERVA)
+                .forEach(v -> aplicar(new Clave(Tipo.RESERVA, v.getId()), v.getFechaFin()));
+        ZoneId zona = ZoneId.systemDefault();
+        servicioContratadoRepository.findVencimientos(EstadoServicioContratado.CONFIRMADO,
+                ZonedDateTime.ofInstant(desde, zona), ZonedDateTime.ofInstant(hasta, zona))
+                .forEach(v -> aplicar(new Clave(Tipo.SERVICIO, v.getId()), v.getFechaServicio().toInstant()));
+        LOG.debug("Expiry deadlines reloaded, {} pending", vigentes.size());
+    }
+
+    /**
+     * Registers the end of a reserva, or forgets it if the reserva is no longer
+     * active. Within a transaction it takes effect after the commit.
+     */
+    public void programarReserva(Long id, Instant fechaFin, EstadoReserva estado) {
+        programar(new Clave(Tipo.RESERVA, id), estado != null && ESTADOS_RESERVA.contains(estado) ? fechaFin : null);
+    }
+
+    /**
+     * Registers the date of a servicio contratado, or forgets it if the servicio
+     * is no longer CONFIRMADO. Within a transaction it takes effect after the
+     * commit.
+     */
+    public void programarServicio(Long id, ZonedDateTime fechaServicio, EstadoServicioContratado estado) {
+        Instant fecha = estado == EstadoServicioContratado.CONFIRMADO && fechaServicio != null
+                ? fechaServicio.toInstant()
+                : null;
+        programar(new Clave(Tipo.SERVICIO, id), fecha);
+    }
+
+    /**
+     * @return the number of deadlines currently held.
+     */
+    public int pendientes() {
+        return vigentes.size();
+    }
+
+    private void programar(Clave clave, Instant fecha) {
+        if (!properties.isEnabled() || clave.id() == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    aplicar(clave, fecha);
+                }
+            });
+        } else {
+            aplicar(clave, fecha);
+        }
+    }
+
+    private void aplicar(Clave clave, Instant fecha) {
+        if (fecha == null || fecha.isAfter(horizonte())) {
+            vigentes.remove(clave);
+            return;
+        }
+        if (!fecha.equals(vigentes.put(clave, fecha))) {
+            cola.offer(new Vencimiento(clave, fecha));
+        }
+    }
+
+    private Instant horizonte() {
+        return Instant.now().plus(Duration.ofHours(properties.getHorizonHours()));
+    }
+
+    private void consumir() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Vencimiento> vencidos = new ArrayList<>();
+                vencidos.add(cola.take());
+                cola.drainTo(vencidos, MAX_LOTE - 1);
+                disparar(vencidos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    void disparar(List<Vencimiento> vencidos) {
+        List<Long> reservas = new ArrayList<>();
+        List<Long> servicios = new ArrayList<>();
+        for (Vencimiento vencimiento : vencidos) {
+            if (!vigentes.remove(vencimiento.clave, vencimiento.fecha)) {
+                continue; // rescheduled or cancelled since it was queued
+            }
+            (vencimiento.clave.tipo() == Tipo.RESERVA ? reservas : servicios).add(vencimiento.clave.id());
+        }
+        // On failure the sweep picks up whatever was left
+        if (!reservas.isEmpty()) {
+            try {
+                reservasDisparadas.increment(reservaAutoCheckoutJob.finalizarVencidas(reservas));
+            } catch (RuntimeException e) {
+                LOG.error("Could not finalize expired Reservas {}", reservas, e);
+            }
+        }
+        if (!servicios.isEmpty()) {
+            try {
+                serviciosDisparados.increment(servicioAutoCompletionJob.completarVencidos(servicios));
+            } catch (RuntimeException e) {
+                LOG.error("Could not complete expired ServicioContratados {}", servicios, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.aop.lock.SchedulerLock;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.ImagenContentStore.StoredContent;
+import com.hotel.app.service.ServicioCatalogService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import com.hotel.app.service.job.ChunkedJobRunner.RunResult;
+import com.hotel.app.service.storage.ImagenStorage.ObjectInfo;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Moves the image content still held in the legacy {@code imagen.fichero}
+ * column to the {@link ImagenContentStore} and empties the column.
+ * <p>
+ * Images are processed in id order and in chunks (see
+ * {@link ChunkedJobRunner}); each blob is streamed from its own query, so only
+ * one image is read at a time. When the file written by the former upload code
+ * still exists at {@code nombreArchivo} it is kept and only hashed; otherwise
+ * the blob is stored under its SHA-256 and {@code nombreArchivo} repointed. An
+ * image whose file cannot be written is logged and left for the next run.
+ */
+@Service
+public class ImagenBlobMigrationJob implements ManagedJob {
+
+    static final String JOB_NAME = "imagenBlobMigration";
+
+    private static final String SELECT_FICHERO = "select fichero, fichero_content_type, nombre_archivo from imagen where id = ?";
+
+    private final Logger log = LoggerFactory.getLogger(ImagenBlobMigrationJob.class);
+
+    private final ImagenRepository imagenRepository;
+    private final ImagenContentStore contentStore;
+    private final JdbcTemplate jdbcTemplate;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final ServicioCatalogService servicioCatalogService;
+
+    public ImagenBlobMigrationJob(
+            ImagenRepository imagenRepository,
+            ImagenContentStore contentStore,
+            JdbcTemplate jdbcTemplate,
+            ChunkedJobRunner chunkedJobRunner,
+            ServicioCatalogService servicioCatalogService) {
+        this.imagenRepository = imagenRepository;
+        this.contentStore = contentStore;
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkedJobRunner = chunkedJobRunner;
+        this.servicioCatalogService = servicioCatalogService;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Cron: {@code application.imagenes.blob-migration-cron}, nightly by default.
+     */
+    @Override
+    @Scheduled(cron = "${application.imagenes.blob-migration-cron:0 30 3 * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT1H", lockAtLeastFor = "PT1M")
+    public void run() {
+        log.debug("Running {} job", JOB_NAME);
+        RunResult result = chunkedJobRunner.run(JOB_NAME, this::procesarLote, this::seleccionarLote);
+        if (result.rows() > 0) {
+            // Image URLs may have changed
+            servicioCatalogService.invalidate();
+        }
+    }
+
+    /**
+     * Migrates one chunk of the images that still have content in the
+     * {@code fichero} column.
+     */
+    Chunk procesarLote(Instant cutoff, long afterId, int limit) {
+        List<Long> ids = seleccionarLote(cutoff, afterId, limit);
+        if (ids.isEmpty()) {
+            return Chunk.EMPTY;
+        }
+        int migradas = 0;
+        for (Long id : ids) {
+            try {
+                StoredContent stored = jdbcTemplate.query(SELECT_FICHERO, this::almacenar, id);
+                if (stored != null) {
+                    migradas += imagenRepository.moveFichero(id, stored.path(), stored.sha256(), stored.size());
+                }
+            } catch (UncheckedIOException e) {
+                log.warn("Could not migrate the content of Imagen {}", id, e);
+            }
+        }
+        log.info("Migrated the content of {} of {} images to the file store", migradas, ids.size());
+        return new Chunk(ids.size(), ids.get(ids.size() - 1), migradas);
+    }
+
+    /**
+     * Ids of the images {@link #procesarLote} would migrate.
+     */
+    List<Long> seleccionarLote(Instant cutoff, long afterId, int limit) {
+        return imagenRepository.findChunkIdsWithFichero(afterId, limit);
+    }
+
+    private StoredContent almacenar(ResultSet rs) throws SQLException {
+        if (!rs.next()) {
+            return null;
+        }
+        String nombreArchivo = rs.getString("nombre_archivo");
+        String contentType = rs.getString("fichero_content_type");
+        try {
+            Optional<ObjectInfo> existente = contentStore.info(nombreArchivo);
+            if (existente.isPresent()) {
+                try (InputStream in = contentStore.open(nombreArchivo, 0, -1)) {
+                    return new StoredContent(contentStore.hash(in), nombreArchivo, existente.get().size(), contentType);
+                }
+            }
+            try (InputStream in = rs.getBinaryStream("fichero")) {
+                return in != null ? contentStore.store(in, contentType) : null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,333 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.aop.lock.SchedulerLock;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.JobRun;
+import com.hotel.app.service.ImagenCleanupService;
+import com.hotel.app.service.job.ChunkedJobRunner.RunResult;
+import com.hotel.app.service.storage.ImagenStorage;
+import com.hotel.app.service.storage.ImagenStorage.ListedObject;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Reconciles the stored image files with the database: files under
+ * {@code application.imagenes.huerfanos.prefijos} that no row points to (left
+ * by failed deletes, replaced uploads...) are moved to
+ * {@code .quarantine/<yyyyMMdd>/<path>}, and deleted once they have been there
+ * for {@code retencion}. A quarantined file that is referenced again is moved
+ * back.
+ * <p>
+ * The tree is streamed ({@link ImagenStorage#list(String)}) and checked against
+ * the database {@code lote} files at a time, so memory does not grow with the
+ * number of files. Files younger than {@code edad-minima} are skipped, their row
+ * may not be committed yet.
+ * <p>
+ * With {@code dry-run} (the default) nothing is moved or deleted: the run only
+ * reports what it would do, see {@link #getUltimoInforme()}.
+ */
+@Service
+public class ImagenOrphanJob implements ManagedJob {
+
+    static final String JOB_NAME = "imagenHuerfanas";
+
+    static final String QUARANTINE_DIR = ".quarantine";
+
+    private static final DateTimeFormatter DIA = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenOrphanJob.class);
+
+    /**
+     * Outcome of a run. The counts are what was done, or with {@code dryRun} what
+     * would have been done; {@code muestra} lists some of the orphans found.
+     */
+    public record Informe(
+            Instant inicio,
+            boolean dryRun,
+            long revisados,
+            long recientes,
+            long huerfanos,
+            long bytesHuerfanos,
+            long restaurados,
+            long borrados,
+            List<String> muestra,
+            Duration duracion,
+            String error) {}
+
+    private final ImagenStorage storage;
+
+    private final ImagenCleanupService imagenCleanupService;
+
+    private final JobRunHistory jobRunHistory;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
+    private volatile Informe ultimoInforme;
+
+    public ImagenOrphanJob(
+            ImagenStorage storage,
+            ImagenCleanupService imagenCleanupService,
+            JobRunHistory jobRunHistory,
+            ApplicationProperties applicationProperties,
+            MeterRegistry meterRegistry) {
+        this.storage = storage;
+        this.imagenCleanupService = imagenCleanupService;
+        this.jobRunHistory = jobRunHistory;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Cron: {@code application.imagenes.huerfanos.cron}, nightly by default.
+     */
+    @Override
+    @Scheduled(cron = "${application.imagenes.huerfanos.cron:0 45 4 * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT2H", lockAtLeastFor = "PT1M")
+    public void run() {
+        LOG.debug("Running {} job", JOB_NAME);
+        ejecutar(applicationProperties.getImagenes().getHuerfanos().isDryRun());
+    }
+
+    /**
+     * @return the report of the latest run on this node, if any.
+     */
+    public Optional<Informe> getUltimoInforme() {
+        return Optional.ofNullable(ultimoInforme);
+    }
+
+    /**
+     * Reconciles the files now.
+     *
+     * @param dryRun only report, without moving or deleting anything.
+     */
+    public Informe ejecutar(boolean dryRun) {
+        long start = System.nanoTime();
+        Instant inicio = Instant.now();
+        JobRun jobRun = jobRunHistory.start(JOB_NAME);
+        ApplicationProperties.Imagenes.Huerfanos config = applicationProperties.getImagenes().getHuerfanos();
+        Recuento recuento = new Recuento(dryRun, QUARANTINE_DIR + "/" + DIA.format(LocalDate.ofInstant(inicio, ZoneOffset.UTC)) + "/",
+                inicio.minus(config.getEdadMinima()), Math.max(0, config.getMuestra()));
+
+        String error = null;
+        try {
+            for (String prefijo : config.getPrefijos()) {
+                if (prefijo.startsWith(QUARANTINE_DIR) || prefijo.startsWith(".")) {
+                    continue;
+                }
+                try (Stream<ListedObject> objetos = storage.list(prefijo)) {
+                    porLotes(objetos.iterator(), config.getLote(), lote -> revisar(lote, recuento));
+                }
+            }
+            try (Stream<ListedObject> objetos = storage.list(QUARANTINE_DIR + "/")) {
+                LocalDate caducidad = LocalDate.ofInstant(inicio.minus(config.getRetencion()), ZoneOffset.UTC);
+                porLotes(objetos.iterator(), config.getLote(), lote -> revisarCuarentena(lote, caducidad, recuento));
+            }
+        } catch (IOException | RuntimeException e) {
+            error = e.toString();
+            LOG.error("Job {} failed", JOB_NAME, e);
+        }
+
+        Duration duracion = Duration.ofNanos(System.nanoTime() - start);
+        Informe informe = new Informe(inicio, dryRun, recuento.revisados, recuento.recientes, recuento.huerfanos,
+                recuento.bytesHuerfanos, recuento.restaurados, recuento.borrados, List.copyOf(recuento.muestra), duracion, error);
+        ultimoInforme = informe;
+        registrar(informe);
+        jobRunHistory.finish(jobRun, new RunResult(JOB_NAME, informe.huerfanos(), recuento.lotes, error == null ? 0 : 1,
+                duracion, error == null, error));
+        LOG.info("Job {}{}: {} files checked, {} orphans ({} bytes), {} restored, {} deleted in {} ms", JOB_NAME,
+                dryRun ? " (dry run)" : "", informe.revisados(), informe.huerfanos(), informe.bytesHuerfanos(),
+                informe.restaurados(), informe.borrados(), duracion.toMillis());
+        return informe;
+    }
+
+    /**
+     * Quarantines the files of the batch that no row points to.
+     */
+    private void revisar(List<ListedObject> lote, Recuento recuento) throws IOException {
+        recuento.lotes++;
+        List<ListedObject> candidatos = new ArrayList<>(lote.size());
+        for (ListedObject objeto : lote) {
+            recuento.revisados++;
+            if (objeto.lastModified().isAfter(recuento.limiteEdad)) {
+                recuento.recientes++;
+            } else {
+                candidatos.add(objeto);
+            }
+        }
+        Set<String> referenciadas = imagenCleanupService.referenciadas(candidatos.stream().map(ListedObject::key).toList());
+        List<String> movidas = new ArrayList<>();
+        for (ListedObject objeto : candidatos) {
+            if (referenciadas.contains(objeto.key())) {
+                continue;
+            }
+            recuento.huerfanos++;
+            recuento.bytesHuerfanos += objeto.size();
+            if (recuento.muestra.size() < recuento.maxMuestra) {
+                recuento.muestra.add(objeto.key());
+            }
+            if (!recuento.dryRun) {
+                storage.move(objeto.key(), recuento.cuarentena + objeto.key());
+                movidas.add(objeto.key());
+            }
+        }
+        if (!movidas.isEmpty()) {
+            // Referenced while the batch was being moved: put them back right away
+            for (String ruta : imagenCleanupService.referenciadas(movidas)) {
+                storage.move(recuento.cuarentena + ruta, ruta);
+                recuento.huerfanos--;
+                recuento.restaurados++;
+            }
+        }
+    }
+
+    /**
+     * Restores the quarantined files referenced again and deletes those past the
+     * retention.
+     */
+    private void revisarCuarentena(List<ListedObject> lote, LocalDate caducidad, Recuento recuento) throws IOException {
+        recuento.lotes++;
+        List<String> rutas = new ArrayList<>(lote.size());
+        for (ListedObject objeto : lote) {
+            rutas.add(rutaOriginal(objeto.key()));
+        }
+        Set<String> referenciadas = imagenCleanupService.referenciadas(rutas.stream().filter(Objects::nonNull).toList());
+        for (int i = 0; i < lote.size(); i++) {
+            String clave = lote.get(i).key();
+            String ruta = rutas.get(i);
+            if (ruta != null && referenciadas.contains(ruta)) {
+                recuento.restaurados++;
+                if (!recuento.dryRun) {
+                    storage.move(clave, ruta);
+                }
+            } else if (ruta == null || !diaDe(clave).isAfter(caducidad)) {
+                recuento.borrados++;
+                if (!recuento.dryRun) {
+                    storage.delete(clave);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the original path of a quarantined file, or {@code null} if the key
+     *         is not {@code .quarantine/<yyyyMMdd>/<path>}.
+     */
+    static String rutaOriginal(String clave) {
+        String resto = clave.substring(QUARANTINE_DIR.length() + 1);
+        int barra = resto.indexOf('/');
+        if (barra != 8 || barra == resto.length() - 1) {
+            return null;
+        }
+        return resto.substring(barra + 1);
+    }
+
+    private static LocalDate diaDe(String clave) {
+        try {
+            return LocalDate.parse(clave.substring(QUARANTINE_DIR.length() + 1, QUARANTINE_DIR.length() + 9), DIA);
+        } catch (DateTimeParseException | IndexOutOfBoundsException e) {
+            return LocalDate.MIN;
+        }
+    }
+
+    private void registrar(Informe informe) {
+        Timer.builder("hotel.job.duration").tag("job", JOB_NAME).register(meterRegistry).record(informe.duracion());
+        Counter.builder("hotel.job.rows").tag("job", JOB_NAME).register(meterRegistry).increment(informe.huerfanos());
+        Counter.builder("hotel.job.failures").tag("job", JOB_NAME).register(meterRegistry)
+                .increment(informe.error() == null ? 0 : 1);
+        Counter.builder("hotel.job.runs")
+                .tag("job", JOB_NAME)
+                .tag("outcome", informe.error() == null ? "completed" : "failed")
+                .register(meterRegistry)
+                .increment();
+        if (!informe.dryRun()) {
+            meterRegistry.counter("hotel.imagen.huerfanas", "accion", "cuarentena").increment(informe.huerfanos());
+            meterRegistry.counter("hotel.imagen.huerfanas", "accion", "restaurada").increment(informe.restaurados());
+            meterRegistry.counter("hotel.imagen.huerfanas", "accion", "borrada").increment(informe.borrados());
+        }
+    }
+
+    @FunctionalInterface
+    private interface Lote {
+        void procesar(List<ListedObject> objetos) throws IOException;
+    }
+
+    private void porLotes(Iterator<ListedObject> objetos, int tamano, Lote lote) throws IOException {
+        List<ListedObject> actual = new ArrayList<>(Math.max(1, tamano));
+        while (objetos.hasNext()) {
+            actual.add(objetos.next());
+            if (actual.size() >= tamano) {
+                lote.procesar(actual);
+                actual.clear();
+            }
+        }
+        if (!actual.isEmpty()) {
+            lote.procesar(actual);
+        }
+    }
+
+    /**
+     * Counts of a run in progress.
+     */
+    private static final class Recuento {
+
+        final boolean dryRun;
+
+        /**
+         * Where this run quarantines files: {@code .quarantine/<yyyyMMdd>/}.
+         */
+        final String cuarentena;
+
+        final Instant limiteEdad;
+
+        final int maxMuestra;
+
+        final List<String> muestra = new ArrayList<>();
+
+        long revisados;
+
+        long recientes;
+
+        long huerfanos;
+
+        long bytesHuerfanos;
+
+        long restaurados;
+
+        long borrados;
+
+        int lotes;
+
+        Recuento(boolean dryRun, String cuarentena, Instant limiteEdad, int maxMuestra) {
+            this.dryRun = dryRun;
+            this.cuarentena = cuarentena;
+            this.limiteEdad = limiteEdad;
+            this.maxMuestra = maxMuestra;
+        }
+    }
+}
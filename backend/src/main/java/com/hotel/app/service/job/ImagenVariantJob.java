@@ -0,0 +1,84 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.aop.lock.SchedulerLock;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.service.ImagenVariantService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Generates the variants of the images that have none, or whose variants were
+ * generated for other sizes than {@code application.imagenes.variantes.anchos}:
+ * uploads that did not fit in the queue of {@link ImagenVariantService}, images
+ * migrated from the {@code fichero} column and every image after a size
+ * change.
+ */
+@Service
+public class ImagenVariantJob implements ManagedJob {
+
+    static final String JOB_NAME = "imagenVariantes";
+
+    private final Logger log = LoggerFactory.getLogger(ImagenVariantJob.class);
+
+    private final ImagenRepository imagenRepository;
+    private final ImagenVariantService imagenVariantService;
+    private final ChunkedJobRunner chunkedJobRunner;
+
+    public ImagenVariantJob(
+            ImagenRepository imagenRepository,
+            ImagenVariantService imagenVariantService,
+            ChunkedJobRunner chunkedJobRunner) {
+        this.imagenRepository = imagenRepository;
+        this.imagenVariantService = imagenVariantService;
+        this.chunkedJobRunner = chunkedJobRunner;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Cron: {@code application.imagenes.variantes.cron}, nightly by default.
+     */
+    @Override
+    @Scheduled(cron = "${application.imagenes.variantes.cron:0 15 4 * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT2H", lockAtLeastFor = "PT1M")
+    public void run() {
+        log.debug("Running {} job", JOB_NAME);
+        chunkedJobRunner.run(JOB_NAME, this::procesarLote, this::seleccionarLote);
+    }
+
+    /**
+     * Generates the variants of one chunk of the images whose variants are
+     * missing or outdated.
+     */
+    Chunk procesarLote(Instant cutoff, long afterId, int limit) {
+        List<Long> ids = seleccionarLote(cutoff, afterId, limit);
+        if (ids.isEmpty()) {
+            return Chunk.EMPTY;
+        }
+        int generadas = 0;
+        for (Long id : ids) {
+            if (imagenVariantService.generar(id)) {
+                generadas++;
+            }
+        }
+        log.info("Generated the variants of {} of {} images", generadas, ids.size());
+        return new Chunk(ids.size(), ids.get(ids.size() - 1), generadas);
+    }
+
+    /**
+     * Ids of the images {@link #procesarLote} would generate the variants of.
+     */
+    List<Long> seleccionarLote(Instant cutoff, long afterId, int limit) {
+        return imagenRepository.findChunkIdsWithVariantesPendientes(imagenVariantService.firma(), afterId,
+                PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,115 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.aop.lock.JdbcLockProvider;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.JobRun;
+import com.hotel.app.domain.enumeration.JobRunOutcome;
+import com.hotel.app.repository.JobRunRepository;
+import com.hotel.app.service.dto.JobRunDTO;
+import com.hotel.app.service.job.ChunkedJobRunner.RunResult;
+import com.hotel.app.service.mapper.JobRunMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records the runs of the scheduled jobs in the {@code job_run} table.
+ * <p>
+ * Each write commits on its own, so a RUNNING row is visible while the job is
+ * still running and a failed run keeps its row. A failure to write the history
+ * is logged and never fails the job.
+ */
+@Component
+public class JobRunHistory {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobRunHistory.class);
+
+    private static final int MAX_ERROR_LENGTH = 2000;
+
+    private final JobRunRepository jobRunRepository;
+
+    private final JobRunMapper jobRunMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final String node;
+
+    public JobRunHistory(
+            JobRunRepository jobRunRepository,
+            JobRunMapper jobRunMapper,
+            PlatformTransactionManager transactionManager,
+            ApplicationProperties applicationProperties,
+            JdbcLockProvider jdbcLockProvider) {
+        this.jobRunRepository = jobRunRepository;
+        this.jobRunMapper = jobRunMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.applicationProperties = applicationProperties;
+        this.node = jdbcLockProvider.getHolderId();
+    }
+
+    /**
+     * Records the start of a run.
+     *
+     * @return the RUNNING row, or {@code null} if it could not be written.
+     */
+    public JobRun start(String job) {
+        try {
+            return transactionTemplate.execute(status -> jobRunRepository.save(
+                    new JobRun().jobName(job).node(node).startedAt(Instant.now()).outcome(JobRunOutcome.RUNNING)));
+        } catch (RuntimeException e) {
+            LOG.warn("Could not record the start of job {}", job, e);
+            return null;
+        }
+    }
+
+    /**
+     * Records the end of a run and purges the history older than
+     * {@code application.jobs.history-days}.
+     */
+    public void finish(JobRun run, RunResult result) {
+        if (run == null) {
+            return;
+        }
+        run.finishedAt(Instant.now())
+                .rowsProcessed(result.rows())
+                .chunks(result.chunks())
+                .outcome(result.error() == null ? JobRunOutcome.COMPLETED : JobRunOutcome.FAILED)
+                .error(truncate(result.error()));
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jobRunRepository.save(run);
+                jobRunRepository.deleteByStartedAtBefore(
+                        Instant.now().minus(Duration.ofDays(applicationProperties.getJobs().getHistoryDays())));
+            });
+        } catch (RuntimeException e) {
+            LOG.warn("Could not record the end of job {}", run.getJobName(), e);
+        }
+    }
+
+    /**
+     * @param job the job name, or {@code null} for all the jobs.
+     * @return the latest runs, newest first.
+     */
+    public List<JobRunDTO> findRecent(String job, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return transactionTemplate.execute(status -> (job == null
+                ? jobRunRepository.findAllByOrderByStartedAtDesc(page)
+                : jobRunRepository.findByJobNameOrderByStartedAtDesc(job, page))
+                .map(jobRunMapper::toDto)
+                .getContent());
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+}
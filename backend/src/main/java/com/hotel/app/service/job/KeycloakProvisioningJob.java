@@ -0,0 +1,76 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.aop.lock.SchedulerLock;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.service.KeycloakProvisioningService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Queues the Keycloak accounts that are due for an attempt in
+ * {@link KeycloakProvisioningService}: requests that did not fit in its queue,
+ * and retries lost with a restart.
+ */
+@Service
+public class KeycloakProvisioningJob implements ManagedJob {
+
+    static final String JOB_NAME = "keycloakProvisioning";
+
+    private final Logger log = LoggerFactory.getLogger(KeycloakProvisioningJob.class);
+
+    private final ClienteRepository clienteRepository;
+    private final KeycloakProvisioningService keycloakProvisioningService;
+    private final ChunkedJobRunner chunkedJobRunner;
+
+    public KeycloakProvisioningJob(
+            ClienteRepository clienteRepository,
+            KeycloakProvisioningService keycloakProvisioningService,
+            ChunkedJobRunner chunkedJobRunner) {
+        this.clienteRepository = clienteRepository;
+        this.keycloakProvisioningService = keycloakProvisioningService;
+        this.chunkedJobRunner = chunkedJobRunner;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Cron: {@code application.keycloak.provisioning.cron}, every 10 minutes by
+     * default.
+     */
+    @Override
+    @Scheduled(cron = "${application.keycloak.provisioning.cron:0 */10 * * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT30M", lockAtLeastFor = "PT1M")
+    public void run() {
+        log.debug("Running {} job", JOB_NAME);
+        chunkedJobRunner.run(JOB_NAME, this::procesarLote, this::seleccionarLote);
+    }
+
+    /**
+     * Queues one chunk of the accounts that are due for an attempt.
+     */
+    Chunk procesarLote(Instant cutoff, long afterId, int limit) {
+        List<Long> ids = seleccionarLote(cutoff, afterId, limit);
+        if (ids.isEmpty()) {
+            return Chunk.EMPTY;
+        }
+        ids.forEach(id -> keycloakProvisioningService.programar(id, Duration.ZERO));
+        log.info("Queued the Keycloak accounts of {} clientes", ids.size());
+        return new Chunk(ids.size(), ids.get(ids.size() - 1), ids.size());
+    }
+
+    /**
+     * Ids of the clientes {@link #procesarLote} would queue.
+     */
+    List<Long> seleccionarLote(Instant cutoff, long afterId, int limit) {
+        return clienteRepository.findChunkIdsConProvisionPendiente(cutoff, afterId, limit);
+    }
+}
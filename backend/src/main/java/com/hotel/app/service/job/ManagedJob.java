@@ -0,0 +1,33 @@
+package com.hotel.app.service.job;
+
+/**
+ * A scheduled job that can also be triggered by hand from
+ * {@code /management/jobs}.
+ */
+public interface ManagedJob {
+    /**
+     * @return the job name, as recorded in the job run history.
+     */
+    String getJobName();
+
+    /**
+     * @return the name of the cluster lock the runs take; the job name unless
+     *         overridden.
+     */
+    default String getLockName() {
+        return getJobName();
+    }
+
+    /**
+     * @return whether the job does anything at all; a disabled job returns from
+     *         {@link #run()} straight away. Enabled unless overridden.
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Runs the job now, under the same cluster lock as the scheduled runs.
+     */
+    void run();
+}
@@ -1,21 +1,30 @@
 package com.hotel.app.service.job;
 
+import com.hotel.app.aop.lock.SchedulerLock;
 import com.hotel.app.domain.Reserva;
-import com.hotel.app.domain.ServicioContratado;
 import com.hotel.app.domain.enumeration.EstadoReserva;
 import com.hotel.app.domain.enumeration.EstadoServicioContratado;
 import com.hotel.app.repository.ReservaRepository;
 import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class ReservaAutoCheckoutJob {
+public class ReservaAutoCheckoutJob implements ManagedJob {
+
+    static final String JOB_NAME = "reservaAutoCheckout";
+
+    private static final List<EstadoReserva> ESTADOS_ACTIVOS = List.of(EstadoReserva.CONFIRMADA,
+            EstadoReserva.CHECK_IN);
 
     private final Logger log = LoggerFactory.getLogger(ReservaAutoCheckoutJob.class);
 
@@ -24,111 +33,168 @@ public class ReservaAutoCheckoutJob {
     private final com.hotel.app.service.MensajeSoporteService mensajeSoporteService;
     private final com.hotel.app.service.ConfiguracionSistemaService configuracionSistemaService;
     private final com.hotel.app.service.mapper.ReservaMapper reservaMapper;
+    private final ChunkedJobRunner chunkedJobRunner;
 
     public ReservaAutoCheckoutJob(
             ReservaRepository reservaRepository,
             ServicioContratadoRepository servicioContratadoRepository,
             com.hotel.app.service.MensajeSoporteService mensajeSoporteService,
             com.hotel.app.service.ConfiguracionSistemaService configuracionSistemaService,
-            com.hotel.app.service.mapper.ReservaMapper reservaMapper) {
+            com.hotel.app.service.mapper.ReservaMapper reservaMapper,
+            ChunkedJobRunner chunkedJobRunner) {
         this.reservaRepository = reservaRepository;
         this.servicioContratadoRepository = servicioContratadoRepository;
         this.mensajeSoporteService = mensajeSoporteService;
         this.configuracionSistemaService = configuracionSistemaService;
         this.reservaMapper = reservaMapper;
+        this.chunkedJobRunner = chunkedJobRunner;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Safety-net sweep for reservations that need auto-checkout: they are
+     * normally finalized at their exact end time by {@link ExpiryScheduler}.
+     * Cron: {@code application.jobs.sweep-cron}, every 6 hours by default.
+     * <p>
+     * Reservations are processed in chunks, one transaction per chunk; see
+     * {@link ChunkedJobRunner}.
+     */
+    @Override
+    @Scheduled(cron = "${application.jobs.sweep-cron:0 0 */6 * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT50M")
+    public void run() {
+        log.debug("Running {} job", JOB_NAME);
+        chunkedJobRunner.run(JOB_NAME, this::procesarLote, this::seleccionarLote);
     }
 
     /**
-     * Run every hour to check for reservations that need auto-checkout.
-     * Cron: At second 0, minute 0 of every hour.
+     * Finalizes one chunk of expired reservas (end date before the cutoff, in
+     * CONFIRMADA or CHECK_IN), completes or cancels their servicios and sends the
+     * messages of the whole chunk at once.
+     * <p>
+     * The chunk is read again with its rows locked, as in
+     * {@link #finalizarVencidas(Collection)}: reservas finalized or cancelled in
+     * the meantime by {@link ExpiryScheduler} or by a user are left out and do
+     * not get a second message.
+     */
+    Chunk procesarLote(Instant cutoff, long afterId, int limit) {
+        List<Reserva> reservas = reservaRepository.findChunkByFechaFinBeforeAndEstadoIn(cutoff, ESTADOS_ACTIVOS,
+                afterId, PageRequest.of(0, limit));
+        if (reservas.isEmpty()) {
+            return Chunk.EMPTY;
+        }
+        List<Reserva> bloqueadas = reservaRepository.findVencidasForUpdate(
+                reservas.stream().map(Reserva::getId).toList(), cutoff, ESTADOS_ACTIVOS);
+        int finalizadas = bloqueadas.isEmpty() ? 0 : finalizar(bloqueadas);
+        return new Chunk(reservas.size(), reservas.get(reservas.size() - 1).getId(), finalizadas);
+    }
+
+    /**
+     * Ids of the reservas {@link #procesarLote} would finalize.
+     */
+    List<Long> seleccionarLote(Instant cutoff, long afterId, int limit) {
+        return reservaRepository.findChunkByFechaFinBeforeAndEstadoIn(cutoff, ESTADOS_ACTIVOS, afterId,
+                PageRequest.of(0, limit)).stream().map(Reserva::getId).toList();
+    }
+
+    /**
+     * Finalizes those of the given reservas that are still active and whose end
+     * date has passed. Used by {@link ExpiryScheduler} when each reserva expires.
+     *
+     * @return the number of reservas finalized.
      */
-    @Scheduled(cron = "0 0 * * * *")
     @Transactional
-    public void autoCheckoutReservas() {
-        log.debug("Running autoCheckoutReservas job");
-        Instant now = Instant.now();
+    public int finalizarVencidas(Collection<Long> ids) {
+        List<Reserva> reservas = reservaRepository.findVencidasForUpdate(ids, Instant.now(), ESTADOS_ACTIVOS);
+        if (reservas.isEmpty()) {
+            return 0;
+        }
+        return finalizar(reservas);
+    }
 
-        // Reservas que ya pasaron su fecha de fin y siguen en estado CONFIRMADA o
-        // CHECK_IN
-        List<EstadoReserva> estadosActivos = List.of(EstadoReserva.CONFIRMADA, EstadoReserva.CHECK_IN);
-        List<Reserva> reservasExpiradas = reservaRepository.findByFechaFinBeforeAndEstadoIn(now, estadosActivos);
+    private int finalizar(List<Reserva> reservas) {
+        List<Long> ids = reservas.stream().map(Reserva::getId).toList();
+        log.info("Auto-checkout para Reservas ID: {}", ids);
 
-        for (Reserva reserva : reservasExpiradas) {
-            log.info("Auto-checkout para Reserva ID: {}", reserva.getId());
+        // 1. Finalizar Reservas
+        int finalizadas = reservaRepository.updateEstadoByIdInAndEstadoIn(ids, ESTADOS_ACTIVOS,
+                EstadoReserva.FINALIZADA);
 
-            // 1. Finalizar Reserva
-            reserva.setEstado(EstadoReserva.FINALIZADA);
-            reservaRepository.save(reserva);
+        // 2. Completar Servicios Asociados (CONFIRMADO -> COMPLETADO, PENDIENTE ->
+        // CANCELADO)
+        int completados = servicioContratadoRepository.updateEstadoByReservaIdInAndEstado(ids,
+                EstadoServicioContratado.CONFIRMADO, EstadoServicioContratado.COMPLETADO);
+        int cancelados = servicioContratadoRepository.updateEstadoByReservaIdInAndEstado(ids,
+                EstadoServicioContratado.PENDIENTE, EstadoServicioContratado.CANCELADO);
+        log.debug("Servicios de Reservas {}: {} completados, {} cancelados", ids, completados, cancelados);
 
-            // 2. Completar Servicios Asociados
-            completarServiciosDeReserva(reserva);
+        // 3. Enviar mensajes de notificación
+        sendAutoCheckoutMessages(reservas);
 
-            // 3. Enviar mensaje de notificación
-            sendAutoCheckoutMessage(reserva);
-        }
+        return finalizadas;
     }
 
-    private void completarServiciosDeReserva(Reserva reserva) {
-        List<ServicioContratado> servicios = servicioContratadoRepository.findByReservaId(reserva.getId());
-
-        for (ServicioContratado servicio : servicios) {
-            if (servicio.getEstado() == EstadoServicioContratado.CONFIRMADO) {
-                log.debug("Auto-completando Servicio Contratado ID: {} de Reserva ID: {}", servicio.getId(),
-                        reserva.getId());
-                servicio.setEstado(EstadoServicioContratado.COMPLETADO);
-                servicioContratadoRepository.save(servicio);
-            } else if (servicio.getEstado() == EstadoServicioContratado.PENDIENTE) {
-                log.debug("Cancelando Servicio Contratado PENDIENTE ID: {} de Reserva ID: {}", servicio.getId(),
-                        reserva.getId());
-                servicio.setEstado(EstadoServicioContratado.CANCELADO);
-                servicioContratadoRepository.save(servicio);
+    private void sendAutoCheckoutMessages(List<Reserva> reservas) {
+        String plantilla = null;
+        try {
+            var configOpt = configuracionSistemaService.findByClave("MSG_RESERVA_AUTO_CHECKOUT");
+            if (configOpt.isPresent()) {
+                plantilla = configOpt.get().getValor();
             }
+        } catch (Exception e) {
+            log.error("Error al obtener plantilla de mensaje auto-checkout", e);
         }
-    }
-
-    private void sendAutoCheckoutMessage(Reserva reserva) {
-        if (reserva.getCliente() != null) {
-            String msgText = "Su reserva #" + reserva.getId()
-                    + " ha finalizado automáticamente. Gracias por su estancia.";
-
-            try {
-                var configOpt = configuracionSistemaService.findByClave("MSG_RESERVA_AUTO_CHECKOUT");
-                if (configOpt.isPresent() && configOpt.get().getValor() != null) {
-                    msgText = configOpt.get().getValor()
-                            .replace("{reservaId}", reserva.getId().toString())
-                            .replace("{clienteNombre}",
-                                    reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre()
-                                            : "Cliente");
-                }
-            } catch (Exception e) {
-                log.error("Error al obtener plantilla de mensaje auto-checkout", e);
-            }
-
-            com.hotel.app.service.dto.MensajeSoporteDTO mensaje = new com.hotel.app.service.dto.MensajeSoporteDTO();
-            mensaje.setMensaje(msgText);
-            mensaje.setFechaMensaje(Instant.now());
 
-            if (reserva.getCliente().getKeycloakId() != null) {
-                mensaje.setUserId(reserva.getCliente().getKeycloakId());
-            } else {
-                mensaje.setUserId("unknown");
+        List<com.hotel.app.service.dto.MensajeSoporteDTO> mensajes = new ArrayList<>();
+        for (Reserva reserva : reservas) {
+            if (reserva.getCliente() != null) {
+                mensajes.add(buildAutoCheckoutMessage(reserva, plantilla));
             }
+        }
+        mensajeSoporteService.saveAll(mensajes);
+    }
 
-            String nombre = reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre() : "Cliente";
-            String apellido = reserva.getCliente().getApellido() != null ? reserva.getCliente().getApellido() : "";
-            mensaje.setUserName((nombre + " " + apellido).trim());
+    private com.hotel.app.service.dto.MensajeSoporteDTO buildAutoCheckoutMessage(Reserva reserva, String plantilla) {
+        String msgText = "Su reserva #" + reserva.getId()
+                + " ha finalizado automáticamente. Gracias por su estancia.";
+        if (plantilla != null) {
+            msgText = plantilla
+                    .replace("{reservaId}", reserva.getId().toString())
+                    .replace("{clienteNombre}",
+                            reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre()
+                                    : "Cliente");
+        }
 
-            mensaje.setLeido(false);
-            mensaje.setActivo(true);
-            mensaje.setRemitente("SISTEMA");
+        com.hotel.app.service.dto.MensajeSoporteDTO mensaje = new com.hotel.app.service.dto.MensajeSoporteDTO();
+        mensaje.setMensaje(msgText);
+        mensaje.setFechaMensaje(Instant.now());
 
-            try {
-                mensaje.setReserva(reservaMapper.toDto(reserva));
-            } catch (Exception e) {
-                log.warn("Could not map reservation to DTO for message", e);
-            }
+        if (reserva.getCliente().getKeycloakId() != null) {
+            mensaje.setUserId(reserva.getCliente().getKeycloakId());
+        } else {
+            mensaje.setUserId("unknown");
+        }
 
-            mensajeSoporteService.save(mensaje);
+        String nombre = reserva.getCliente().getNombre() != null ? reserva.getCliente().getNombre() : "Cliente";
+        String apellido = reserva.getCliente().getApellido() != null ? reserva.getCliente().getApellido() : "";
+        mensaje.setUserName((nombre + " " + apellido).trim());
+
+        mensaje.setLeido(false);
+        mensaje.setActivo(true);
+        mensaje.setRemitente("SISTEMA");
+
+        try {
+            var reservaDTO = reservaMapper.toDto(reserva);
+            // The entity was updated in bulk and still holds the previous state
+            reservaDTO.setEstado(EstadoReserva.FINALIZADA);
+            mensaje.setReserva(reservaDTO);
+        } catch (Exception e) {
+            log.warn("Could not map reservation to DTO for message", e);
         }
+        return mensaje;
     }
 }
@@ -0,0 +1,128 @@
+package com.hotel.app.service.job;
+
+import com.hotel.app.aop.lock.SchedulerLock;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.service.ReservaService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cancels the unpaid holds older than
+ * {@code application.reservas.hold-ttl-minutes} and releases their rooms. A
+ * hold is a PENDIENTE reserva booked anonymously (see
+ * {@link com.hotel.app.domain.Reserva#getExpiraSinPago()}) without a completed
+ * pago: staff-created reservas, the "pay later" bookings of signed-in guests
+ * and paid reservas keep their rooms.
+ * <p>
+ * The availability queries already ignore expired holds (see
+ * {@link #limiteHolds(ApplicationProperties.Reservas, Instant)}); this job
+ * makes it permanent. Each hold is cancelled through
+ * {@link ReservaService#cancelarHoldVencido(Long, Instant)}, under a row lock
+ * and with the side effects of any other cancellation: the guest is notified,
+ * the services are cancelled (promoting their waiting lists), the rooms are
+ * released and the exact-time checkout is unscheduled.
+ * <p>
+ * Off unless the TTL is set.
+ */
+@Service
+public class ReservaHoldExpiryJob implements ManagedJob {
+
+    static final String JOB_NAME = "reservaHoldExpiry";
+
+    private final Logger log = LoggerFactory.getLogger(ReservaHoldExpiryJob.class);
+
+    private final ReservaRepository reservaRepository;
+    private final ReservaService reservaService;
+    private final ChunkedJobRunner chunkedJobRunner;
+    private final ApplicationProperties.Reservas properties;
+
+    public ReservaHoldExpiryJob(
+            ReservaRepository reservaRepository,
+            ReservaService reservaService,
+            ChunkedJobRunner chunkedJobRunner,
+            ApplicationProperties applicationProperties) {
+        this.reservaRepository = reservaRepository;
+        this.reservaService = reservaService;
+        this.chunkedJobRunner = chunkedJobRunner;
+        this.properties = applicationProperties.getReservas();
+    }
+
+    /**
+     * Holds created before the returned instant have expired.
+     *
+     * @param properties the reservas properties.
+     * @param ahora      the current instant.
+     * @return the limit, or {@link Instant#EPOCH} if holds never expire.
+     */
+    public static Instant limiteHolds(ApplicationProperties.Reservas properties, Instant ahora) {
+        long ttl = properties.getHoldTtlMinutes();
+        return ttl > 0 ? ahora.minus(Duration.ofMinutes(ttl)) : Instant.EPOCH;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
+    }
+
+    /**
+     * Holds only expire with a positive {@code application.reservas.hold-ttl-minutes}.
+     */
+    @Override
+    public boolean isEnabled() {
+        return properties.getHoldTtlMinutes() > 0;
+    }
+
+    /**
+     * Cron: {@code application.reservas.hold-expiry-cron}, every 5 minutes by
+     * default. Holds are processed in chunks; see {@link ChunkedJobRunner}.
+     */
+    @Override
+    @Scheduled(cron = "${application.reservas.hold-expiry-cron:0 */5 * * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT4M", lockAtLeastFor = "PT30S")
+    public void run() {
+        if (!isEnabled()) {
+            return;
+        }
+        log.debug("Running {} job", JOB_NAME);
+        chunkedJobRunner.run(JOB_NAME, this::procesarLote, this::seleccionarLote);
+    }
+
+    /**
+     * Cancels one chunk of the holds created before the hold limit computed
+     * from the cutoff. A reserva paid or cancelled since it was selected is left
+     * alone and not counted.
+     */
+    Chunk procesarLote(Instant cutoff, long afterId, int limit) {
+        Instant limite = limiteHolds(properties, cutoff);
+        List<Long> ids = seleccionarLote(cutoff, afterId, limit);
+        if (ids.isEmpty()) {
+            return Chunk.EMPTY;
+        }
+
+        int canceladas = 0;
+        for (Long id : ids) {
+            if (reservaService.cancelarHoldVencido(id, limite)) {
+                canceladas++;
+            }
+        }
+        log.info("Cancelled {} expired unpaid reservas of {}", canceladas, ids);
+
+        return new Chunk(ids.size(), ids.get(ids.size() - 1), canceladas);
+    }
+
+    /**
+     * Ids of the holds {@link #procesarLote} would cancel.
+     */
+    List<Long> seleccionarLote(Instant cutoff, long afterId, int limit) {
+        return reservaRepository.findChunkIdsOfHoldsBefore(limiteHolds(properties, cutoff), afterId,
+                PageRequest.of(0, limit));
+    }
+}
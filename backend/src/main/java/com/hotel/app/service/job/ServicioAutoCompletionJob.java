@@ -1,91 +1,169 @@
 package com.hotel.app.service.job;
 
+import com.hotel.app.aop.lock.SchedulerLock;
 import com.hotel.app.domain.ServicioContratado;
 import com.hotel.app.domain.enumeration.EstadoServicioContratado;
 import com.hotel.app.repository.ServicioContratadoRepository;
 import com.hotel.app.service.ConfiguracionSistemaService;
 import com.hotel.app.service.MensajeSoporteService;
 import com.hotel.app.service.dto.MensajeSoporteDTO;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
 import java.time.Instant;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
-public class ServicioAutoCompletionJob {
+public class ServicioAutoCompletionJob implements ManagedJob {
+
+    static final String JOB_NAME = "servicioAutoCompletion";
 
     private final Logger log = LoggerFactory.getLogger(ServicioAutoCompletionJob.class);
 
     private final ServicioContratadoRepository servicioContratadoRepository;
     private final MensajeSoporteService mensajeSoporteService;
     private final ConfiguracionSistemaService configuracionSistemaService;
+    private final ChunkedJobRunner chunkedJobRunner;
 
     public ServicioAutoCompletionJob(
             ServicioContratadoRepository servicioContratadoRepository,
             MensajeSoporteService mensajeSoporteService,
-            ConfiguracionSistemaService configuracionSistemaService) {
+            ConfiguracionSistemaService configuracionSistemaService,
+            ChunkedJobRunner chunkedJobRunner) {
         this.servicioContratadoRepository = servicioContratadoRepository;
         this.mensajeSoporteService = mensajeSoporteService;
         this.configuracionSistemaService = configuracionSistemaService;
+        this.chunkedJobRunner = chunkedJobRunner;
+    }
+
+    @Override
+    public String getJobName() {
+        return JOB_NAME;
     }
 
     /**
-     * Run every hour to autocomplete past services.
+     * Safety-net sweep that autocompletes past services, in chunks; see
+     * {@link ChunkedJobRunner}. Services are normally completed at their exact
+     * time by {@link ExpiryScheduler}.
      */
-    @Scheduled(cron = "0 0 * * * *")
-    @Transactional
-    public void autocompleteServices() {
-        log.debug("Running autocompleteServices job");
-        ZonedDateTime now = ZonedDateTime.now();
-        List<ServicioContratado> expiredServices = servicioContratadoRepository.findByEstadoAndFechaServicioBefore(
+    @Override
+    @Scheduled(cron = "${application.jobs.sweep-cron:0 0 */6 * * *}")
+    @SchedulerLock(name = JOB_NAME, lockAtMostFor = "PT50M")
+    public void run() {
+        log.debug("Running {} job", JOB_NAME);
+        chunkedJobRunner.run(JOB_NAME, this::procesarLote, this::seleccionarLote);
+    }
+
+    /**
+     * Completes one chunk of CONFIRMADO servicios whose date is before the
+     * cutoff and sends the messages of the whole chunk at once.
+     * <p>
+     * The chunk is read again with its rows locked, as in
+     * {@link #completarVencidos(Collection)}: servicios completed or cancelled
+     * in the meantime are left out and do not get a second message.
+     */
+    Chunk procesarLote(Instant cutoff, long afterId, int limit) {
+        ZonedDateTime fecha = ZonedDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+        List<ServicioContratado> servicios = servicioContratadoRepository.findChunkByEstadoAndFechaServicioBefore(
                 EstadoServicioContratado.CONFIRMADO,
-                now);
+                fecha,
+                afterId,
+                PageRequest.of(0, limit));
+        if (servicios.isEmpty()) {
+            return Chunk.EMPTY;
+        }
+        List<ServicioContratado> bloqueados = servicioContratadoRepository.findVencidosForUpdate(
+                servicios.stream().map(ServicioContratado::getId).toList(), EstadoServicioContratado.CONFIRMADO, fecha);
+        int completados = bloqueados.isEmpty() ? 0 : completar(bloqueados);
+        return new Chunk(servicios.size(), servicios.get(servicios.size() - 1).getId(), completados);
+    }
+
+    /**
+     * Ids of the servicios {@link #procesarLote} would complete.
+     */
+    List<Long> seleccionarLote(Instant cutoff, long afterId, int limit) {
+        return servicioContratadoRepository.findChunkByEstadoAndFechaServicioBefore(EstadoServicioContratado.CONFIRMADO,
+                ZonedDateTime.ofInstant(cutoff, ZoneId.systemDefault()), afterId, PageRequest.of(0, limit))
+                .stream()
+                .map(ServicioContratado::getId)
+                .toList();
+    }
 
-        for (ServicioContratado servicio : expiredServices) {
-            log.info("Completing expired service: {}", servicio.getId());
-            servicio.setEstado(EstadoServicioContratado.COMPLETADO);
-            servicioContratadoRepository.save(servicio);
-            sendCompletionMessage(servicio);
+    /**
+     * Completes those of the given servicios that are still CONFIRMADO and whose
+     * date has passed. Used by {@link ExpiryScheduler} when each servicio
+     * expires.
+     *
+     * @return the number of servicios completed.
+     */
+    @Transactional
+    public int completarVencidos(Collection<Long> ids) {
+        List<ServicioContratado> servicios = servicioContratadoRepository.findVencidosForUpdate(ids,
+                EstadoServicioContratado.CONFIRMADO, ZonedDateTime.now());
+        if (servicios.isEmpty()) {
+            return 0;
         }
+        return completar(servicios);
     }
 
-    private void sendCompletionMessage(ServicioContratado servicio) {
-        if (servicio.getCliente() != null) {
-            String msgText = "✔️ El servicio \""
-                    + (servicio.getServicio() != null ? servicio.getServicio().getNombre() : "Servicio")
-                    + "\" ha sido marcado como completado.";
-
-            try {
-                var configOpt = configuracionSistemaService.findByClave("MSG_SERVICE_COMPLETADO");
-                if (configOpt.isPresent() && configOpt.get().getValor() != null) {
-                    msgText = configOpt.get().getValor()
-                            .replace("{servicioNombre}",
-                                    servicio.getServicio() != null ? servicio.getServicio().getNombre() : "")
-                            .replace("{fechaServicio}",
-                                    servicio.getFechaServicio() != null ? servicio.getFechaServicio().toString() : "");
-                }
-            } catch (Exception e) {
-                log.error("Error fetching completion message template", e);
-            }
+    private int completar(List<ServicioContratado> servicios) {
+        List<Long> ids = servicios.stream().map(ServicioContratado::getId).toList();
+        log.info("Completing expired services: {}", ids);
 
-            MensajeSoporteDTO mensaje = new MensajeSoporteDTO();
-            mensaje.setMensaje(msgText);
-            mensaje.setFechaMensaje(Instant.now());
-            mensaje.setUserId(servicio.getCliente().getKeycloakId());
-            mensaje.setUserName(servicio.getCliente().getNombre() + " " + servicio.getCliente().getApellido());
-            mensaje.setLeido(false);
-            mensaje.setActivo(true);
-            mensaje.setRemitente("SISTEMA");
+        int completados = servicioContratadoRepository.updateEstadoByIdInAndEstado(ids,
+                EstadoServicioContratado.CONFIRMADO, EstadoServicioContratado.COMPLETADO);
+        sendCompletionMessages(servicios);
+        return completados;
+    }
 
-            // Note: Not setting ReservaDTO relation here to keep it simple or user can add
-            // if needed
-            // If needed, we map service.getReserva() to DTO.
+    private void sendCompletionMessages(List<ServicioContratado> servicios) {
+        String plantilla = null;
+        try {
+            var configOpt = configuracionSistemaService.findByClave("MSG_SERVICE_COMPLETADO");
+            if (configOpt.isPresent()) {
+                plantilla = configOpt.get().getValor();
+            }
+        } catch (Exception e) {
+            log.error("Error fetching completion message template", e);
+        }
+
+        List<MensajeSoporteDTO> mensajes = new ArrayList<>();
+        for (ServicioContratado servicio : servicios) {
+            if (servicio.getCliente() != null) {
+                mensajes.add(buildCompletionMessage(servicio, plantilla));
+            }
+        }
+        mensajeSoporteService.saveAll(mensajes);
+    }
 
-            mensajeSoporteService.save(mensaje);
+    private MensajeSoporteDTO buildCompletionMessage(ServicioContratado servicio, String plantilla) {
+        String msgText = "✔️ El servicio \""
+                + (servicio.getServicio() != null ? servicio.getServicio().getNombre() : "Servicio")
+                + "\" ha sido marcado como completado.";
+        if (plantilla != null) {
+            msgText = plantilla
+                    .replace("{servicioNombre}",
+                            servicio.getServicio() != null ? servicio.getServicio().getNombre() : "")
+                    .replace("{fechaServicio}",
+                            servicio.getFechaServicio() != null ? servicio.getFechaServicio().toString() : "");
         }
+
+        MensajeSoporteDTO mensaje = new MensajeSoporteDTO();
+        mensaje.setMensaje(msgText);
+        mensaje.setFechaMensaje(Instant.now());
+        mensaje.setUserId(servicio.getCliente().getKeycloakId());
+        mensaje.setUserName(servicio.getCliente().getNombre() + " " + servicio.getCliente().getApellido());
+        mensaje.setLeido(false);
+        mensaje.setActivo(true);
+        mensaje.setRemitente("SISTEMA");
+        return mensaje;
     }
 }
@@ -11,7 +11,7 @@ import org.mapstruct.*;
 /**
  * Mapper for the entity {@link CarouselItem} and its DTO {@link CarouselItemDTO}.
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = ImagenMapper.class)
 public interface CarouselItemMapper extends EntityMapper<CarouselItemDTO, CarouselItem> {
     @Mapping(target = "imagen", source = "imagen", qualifiedByName = "imagenNombre")
     @Mapping(target = "configuracion", source = "configuracion", qualifiedByName = "configuracionSistemaClave")
@@ -21,6 +21,8 @@ public interface CarouselItemMapper extends EntityMapper<CarouselItemDTO, Carous
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
     @Mapping(target = "nombre", source = "nombre")
+    @Mapping(target = "nombreArchivo", source = "nombreArchivo")
+    @Mapping(target = "srcset", source = "variantesRutas", qualifiedByName = "srcset")
     ImagenDTO toDtoImagenNombre(Imagen imagen);
 
     @Named("configuracionSistemaClave")
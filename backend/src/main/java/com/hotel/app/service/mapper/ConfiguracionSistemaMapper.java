@@ -9,7 +9,7 @@ import org.mapstruct.*;
 /**
  * Mapper for the entity {@link ConfiguracionSistema} and its DTO {@link ConfiguracionSistemaDTO}.
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = ImagenMapper.class)
 public interface ConfiguracionSistemaMapper extends EntityMapper<ConfiguracionSistemaDTO, ConfiguracionSistema> {
     @Mapping(target = "imagen", source = "imagen", qualifiedByName = "imagenNombre")
     ConfiguracionSistemaDTO toDto(ConfiguracionSistema s);
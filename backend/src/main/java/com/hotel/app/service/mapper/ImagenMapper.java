@@ -3,9 +3,12 @@ package com.hotel.app.service.mapper;
 import com.hotel.app.domain.Habitacion;
 import com.hotel.app.domain.Imagen;
 import com.hotel.app.domain.Servicio;
+import com.hotel.app.service.ImagenVariantService;
 import com.hotel.app.service.dto.HabitacionDTO;
 import com.hotel.app.service.dto.ImagenDTO;
+import com.hotel.app.service.dto.ImagenVarianteDTO;
 import com.hotel.app.service.dto.ServicioDTO;
+import java.util.List;
 import org.mapstruct.*;
 
 /**
@@ -15,8 +18,32 @@ import org.mapstruct.*;
 public interface ImagenMapper extends EntityMapper<ImagenDTO, Imagen> {
     @Mapping(target = "habitacion", source = "habitacion", qualifiedByName = "habitacionNumero")
     @Mapping(target = "servicio", source = "servicio", qualifiedByName = "servicioNombre")
+    @Mapping(target = "variantes", source = "variantesRutas", qualifiedByName = "variantes")
+    @Mapping(target = "srcset", source = "variantesRutas", qualifiedByName = "srcset")
     ImagenDTO toDto(Imagen s);
 
+    @Override
+    @Mapping(target = "variantesRutas", ignore = true)
+    @Mapping(target = "variantesFirma", ignore = true)
+    Imagen toEntity(ImagenDTO dto);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "variantesRutas", ignore = true)
+    @Mapping(target = "variantesFirma", ignore = true)
+    void partialUpdate(@MappingTarget Imagen entity, ImagenDTO dto);
+
+    @Named("variantes")
+    default List<ImagenVarianteDTO> toDtoVariantes(String variantes) {
+        return ImagenVariantService.leerVariantes(variantes);
+    }
+
+    @Named("srcset")
+    default String toDtoSrcset(String variantes) {
+        return ImagenVariantService.srcset(ImagenVariantService.leerVariantes(variantes));
+    }
+
     @Named("habitacionNumero")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
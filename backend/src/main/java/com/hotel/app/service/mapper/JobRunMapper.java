@@ -0,0 +1,11 @@
+package com.hotel.app.service.mapper;
+
+import com.hotel.app.domain.JobRun;
+import com.hotel.app.service.dto.JobRunDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link JobRun} and its DTO {@link JobRunDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface JobRunMapper extends EntityMapper<JobRunDTO, JobRun> {}
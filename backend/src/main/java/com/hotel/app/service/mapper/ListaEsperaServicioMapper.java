@@ -0,0 +1,49 @@
+package com.hotel.app.service.mapper;
+
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.ListaEsperaServicio;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.service.dto.ClienteDTO;
+import com.hotel.app.service.dto.ListaEsperaServicioDTO;
+import com.hotel.app.service.dto.ReservaDTO;
+import com.hotel.app.service.dto.ServicioContratadoDTO;
+import com.hotel.app.service.dto.ServicioDTO;
+import org.mapstruct.*;
+
+/**
+ * Mapper for the entity {@link ListaEsperaServicio} and its DTO {@link ListaEsperaServicioDTO}.
+ */
+@Mapper(componentModel = "spring")
+public interface ListaEsperaServicioMapper extends EntityMapper<ListaEsperaServicioDTO, ListaEsperaServicio> {
+    @Mapping(target = "servicio", source = "servicio", qualifiedByName = "servicioNombre")
+    @Mapping(target = "reserva", source = "reserva", qualifiedByName = "reservaId")
+    @Mapping(target = "cliente", source = "cliente", qualifiedByName = "clienteNombre")
+    @Mapping(target = "servicioContratado", source = "servicioContratado", qualifiedByName = "servicioContratadoId")
+    @Mapping(target = "posicion", ignore = true)
+    ListaEsperaServicioDTO toDto(ListaEsperaServicio s);
+
+    @Named("servicioNombre")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "nombre", source = "nombre")
+    ServicioDTO toDtoServicioNombre(Servicio servicio);
+
+    @Named("reservaId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    ReservaDTO toDtoReservaId(Reserva reserva);
+
+    @Named("clienteNombre")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "nombre", source = "nombre")
+    ClienteDTO toDtoClienteNombre(Cliente cliente);
+
+    @Named("servicioContratadoId")
+    @BeanMapping(ignoreByDefault = true)
+    @Mapping(target = "id", source = "id")
+    @Mapping(target = "estado", source = "estado")
+    ServicioContratadoDTO toDtoServicioContratadoId(ServicioContratado servicioContratado);
+}
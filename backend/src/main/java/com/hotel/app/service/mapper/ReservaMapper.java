@@ -14,6 +14,16 @@ public interface ReservaMapper extends EntityMapper<ReservaDTO, Reserva> {
     @Mapping(target = "cliente", source = "cliente", qualifiedByName = "clienteNombre")
     ReservaDTO toDto(Reserva s);
 
+    @Override
+    @Mapping(target = "expiraSinPago", ignore = true)
+    Reserva toEntity(ReservaDTO dto);
+
+    @Override
+    @Named("partialUpdate")
+    @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
+    @Mapping(target = "expiraSinPago", ignore = true)
+    void partialUpdate(@MappingTarget Reserva entity, ReservaDTO dto);
+
     @Named("clienteNombre")
     @BeanMapping(ignoreByDefault = true)
     @Mapping(target = "id", source = "id")
@@ -10,5 +10,7 @@ import org.mapstruct.*;
 @Mapper(componentModel = "spring")
 public interface ServicioMapper extends EntityMapper<ServicioDTO, Servicio> {
     @Mapping(target = "imagenes", ignore = true)
+    @Mapping(target = "disponibilidades", ignore = true)
+    @Mapping(target = "imagenUrls", ignore = true)
     ServicioDTO toDto(Servicio s);
 }
@@ -0,0 +1,109 @@
+package com.hotel.app.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Where the image files are kept, by key (their path relative to the image
+ * root, as held in {@code Imagen.nombreArchivo}).
+ * <p>
+ * Selected by {@code application.imagenes.storage.type}:
+ * {@link LocalImagenStorage} (default) or {@link S3ImagenStorage}. Objects are
+ * written once and never modified in place: content-addressed keys change
+ * with their content.
+ */
+public interface ImagenStorage {
+
+    /**
+     * Metadata of a stored object.
+     */
+    record ObjectInfo(long size, Instant lastModified, String contentType) {}
+
+    /**
+     * An object found by {@link #list(String)}.
+     */
+    record ListedObject(String key, long size, Instant lastModified) {}
+
+    /**
+     * Stores a file under the key, replacing any object with that key.
+     *
+     * @param source a local file, which may be moved by the call.
+     */
+    void put(String key, Path source, String contentType) throws IOException;
+
+    /**
+     * @return the metadata of the object, if it exists.
+     */
+    Optional<ObjectInfo> get(String key) throws IOException;
+
+    /**
+     * Opens the bytes {@code [offset, offset + length)} of the object.
+     *
+     * @param length the number of bytes, or {@code -1} up to the end.
+     * @throws java.nio.file.NoSuchFileException if the object does not exist.
+     */
+    InputStream stream(String key, long offset, long length) throws IOException;
+
+    /**
+     * Deletes the object; missing objects are ignored.
+     *
+     * @return whether the call may have deleted an object.
+     */
+    boolean delete(String key) throws IOException;
+
+    /**
+     * Marks the object as just written, as {@link #put(String, Path, String)}
+     * would, so that cleanups treat it as new. By default the object is copied
+     * to a temporary file and stored again.
+     *
+     * @throws java.nio.file.NoSuchFileException if the object does not exist.
+     */
+    default void touch(String key) throws IOException {
+        Path tmp = Files.createTempFile("touch-", ".part");
+        try {
+            try (InputStream in = stream(key, 0, -1)) {
+                Files.copy(in, tmp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            put(key, tmp, get(key).map(ObjectInfo::contentType).orElse(null));
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Moves an object to another key, replacing any object with that key.
+     *
+     * @throws java.nio.file.NoSuchFileException if the object does not exist.
+     */
+    void move(String from, String to) throws IOException;
+
+    /**
+     * Lists the objects under a directory of keys (e.g. {@code cas/}), lazily:
+     * directories (or result pages) are read as the stream is consumed, so memory
+     * does not grow with the number of objects. The stream must be closed; read
+     * errors are thrown as {@link java.io.UncheckedIOException}.
+     */
+    Stream<ListedObject> list(String prefix) throws IOException;
+
+    /**
+     * @return a URL clients may download the object from directly for the given
+     *         time, if the storage has one.
+     */
+    Optional<URI> presign(String key, Duration ttl);
+
+    /**
+     * @return the object as a local file, if the storage is the local disk and
+     *         the object exists; enables zero-copy transfers.
+     */
+    default Optional<Path> localFile(String key) {
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,179 @@
+package com.hotel.app.service.storage;
+
+import com.hotel.app.config.ApplicationProperties;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps the image files on the local disk, under {@code application.image-path}.
+ * Files are moved into place atomically, so a reader never sees a partial file.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.imagenes.storage", name = "type", havingValue = "local", matchIfMissing = true)
+public class LocalImagenStorage implements ImagenStorage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LocalImagenStorage.class);
+
+    private final ApplicationProperties applicationProperties;
+
+    public LocalImagenStorage(ApplicationProperties applicationProperties) {
+        this.applicationProperties = applicationProperties;
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        Path target = path(key);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // Same content (the key is its hash): only the date has to be refreshed
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> get(String key) throws IOException {
+        Optional<Path> file = localFile(key);
+        if (file.isEmpty()) {
+            return Optional.empty();
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file.get(), BasicFileAttributes.class);
+        return Optional.of(new ObjectInfo(
+                attributes.size(),
+                attributes.lastModifiedTime().toInstant(),
+                MediaTypeFactory.getMediaType(key).map(Object::toString).orElse(null)));
+    }
+
+    @Override
+    public InputStream stream(String key, long offset, long length) throws IOException {
+        Path file = localFile(key).orElseThrow(() -> new NoSuchFileException(key));
+        SeekableByteChannel channel = Files.newByteChannel(file);
+        channel.position(offset);
+        InputStream in = Channels.newInputStream(channel);
+        return length < 0 ? in : new LimitedInputStream(in, length);
+    }
+
+    @Override
+    public boolean delete(String key) throws IOException {
+        Optional<Path> file = localFile(key);
+        if (file.isEmpty()) {
+            return false;
+        }
+        Files.delete(file.get());
+        LOG.debug("Deleted image file {}", file.get());
+        return true;
+    }
+
+    @Override
+    public void touch(String key) throws IOException {
+        Path file = localFile(key).orElseThrow(() -> new NoSuchFileException(key));
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now()));
+    }
+
+    @Override
+    public void move(String from, String to) throws IOException {
+        Path source = localFile(from).orElseThrow(() -> new NoSuchFileException(from));
+        Path target = path(to);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Walks the directory depth-first; only the open directories are held in
+     * memory.
+     */
+    @Override
+    public Stream<ListedObject> list(String prefix) throws IOException {
+        Path root = root();
+        Path dir = root.resolve(prefix).normalize();
+        if (!dir.startsWith(root) || !Files.isDirectory(dir)) {
+            return Stream.empty();
+        }
+        return Files.walk(dir)
+                .map(file -> {
+                    try {
+                        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (!attributes.isRegularFile()) {
+                            return null;
+                        }
+                        return new ListedObject(key(root, file), attributes.size(), attributes.lastModifiedTime().toInstant());
+                    } catch (NoSuchFileException e) {
+                        // Deleted while walking
+                        return null;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                })
+                .filter(Objects::nonNull);
+    }
+
+    @Override
+    public Optional<URI> presign(String key, Duration ttl) {
+        // Served by /images/**
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<Path> localFile(String key) {
+        if (key == null || key.isBlank()) {
+            return Optional.empty();
+        }
+        Path root = root();
+        Path file = root.resolve(key).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        return Optional.of(file);
+    }
+
+    /**
+     * @return the absolute image root.
+     */
+    public Path root() {
+        return Paths.get(applicationProperties.getImagePath()).toAbsolutePath().normalize();
+    }
+
+    private static String key(Path root, Path file) {
+        return root.relativize(file).toString().replace(File.separatorChar, '/');
+    }
+
+    private Path path(String key) {
+        Path root = root();
+        Path target = root.resolve(key).normalize();
+        if (!target.startsWith(root) || target.equals(root)) {
+            throw new IllegalArgumentException("Path outside the image root: " + key);
+        }
+        return target;
+    }
+}
@@ -0,0 +1,304 @@
+package com.hotel.app.service.storage;
+
+import com.hotel.app.config.ApplicationProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.checksums.RequestChecksumCalculation;
+import software.amazon.awssdk.core.checksums.ResponseChecksumValidation;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.MetadataDirective;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.multipart.MultipartConfiguration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.FileUpload;
+
+/**
+ * Keeps the image files in an S3-compatible bucket (AWS S3, MinIO...), so every
+ * node sees the same files without a shared mount.
+ * <p>
+ * Uses the AWS SDK pointed at {@code application.imagenes.storage.s3.endpoint}.
+ * Uploads go through the {@link S3TransferManager}: files larger than
+ * {@code part-size} are sent as a multipart upload whose parts are read from the
+ * file in parallel, at most {@code parallelism} at a time over all uploads, and
+ * a failed upload is aborted. Without an access key the SDK's default
+ * credentials (environment, instance role...) are used.
+ */
+@Service
+@ConditionalOnProperty(prefix = "application.imagenes.storage", name = "type", havingValue = "s3")
+public class S3ImagenStorage implements ImagenStorage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(S3ImagenStorage.class);
+
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    private final ApplicationProperties.Imagenes.Storage.S3 config;
+
+    private final S3Client s3;
+
+    private final S3AsyncClient s3Async;
+
+    private final S3TransferManager transferManager;
+
+    private final S3Presigner presigner;
+
+    public S3ImagenStorage(ApplicationProperties applicationProperties) {
+        this.config = applicationProperties.getImagenes().getStorage().getS3();
+        if (config.getEndpoint() == null || config.getBucket() == null) {
+            throw new IllegalStateException("application.imagenes.storage.s3.endpoint and bucket are required");
+        }
+        URI endpoint = URI.create(config.getEndpoint());
+        Region region = Region.of(config.getRegion());
+        AwsCredentialsProvider credentials = config.getAccessKey() != null
+            ? StaticCredentialsProvider.create(AwsBasicCredentials.create(config.getAccessKey(), config.getSecretKey()))
+            : DefaultCredentialsProvider.create();
+        long partSize = config.getPartSize().toBytes();
+
+        // Checksums only where S3 requires them: not every S3-compatible service accepts the newer ones
+        this.s3 = S3Client.builder()
+            .endpointOverride(endpoint)
+            .region(region)
+            .credentialsProvider(credentials)
+            .forcePathStyle(config.isPathStyle())
+            .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+            .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+            .build();
+        this.s3Async = S3AsyncClient.builder()
+            .endpointOverride(endpoint)
+            .region(region)
+            .credentialsProvider(credentials)
+            .forcePathStyle(config.isPathStyle())
+            .requestChecksumCalculation(RequestChecksumCalculation.WHEN_REQUIRED)
+            .responseChecksumValidation(ResponseChecksumValidation.WHEN_REQUIRED)
+            .multipartEnabled(true)
+            .multipartConfiguration(MultipartConfiguration.builder().thresholdInBytes(partSize).minimumPartSizeInBytes(partSize).build())
+            .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(Math.max(1, config.getParallelism())))
+            .build();
+        this.transferManager = S3TransferManager.builder().s3Client(s3Async).build();
+        this.presigner = S3Presigner.builder()
+            .endpointOverride(endpoint)
+            .region(region)
+            .credentialsProvider(credentials)
+            .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(config.isPathStyle()).build())
+            .build();
+        LOG.info("Storing images in bucket {} at {}", config.getBucket(), config.getEndpoint());
+    }
+
+    @PreDestroy
+    public void detener() {
+        transferManager.close();
+        s3Async.close();
+        s3.close();
+        presigner.close();
+    }
+
+    @Override
+    public void put(String key, Path source, String contentType) throws IOException {
+        FileUpload upload = transferManager.uploadFile(u ->
+            u.source(source).putObjectRequest(p -> p.bucket(config.getBucket()).key(objectKey(key)).contentType(contentType))
+        );
+        try {
+            upload.completionFuture().get();
+        } catch (InterruptedException e) {
+            upload.completionFuture().cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted uploading " + key);
+        } catch (ExecutionException e) {
+            throw new IOException("Could not upload " + key, e.getCause());
+        }
+    }
+
+    @Override
+    public Optional<ObjectInfo> get(String key) throws IOException {
+        try {
+            HeadObjectResponse response = s3.headObject(h -> h.bucket(config.getBucket()).key(objectKey(key)));
+            return Optional.of(
+                new ObjectInfo(
+                    response.contentLength() != null ? response.contentLength() : 0,
+                    response.lastModified() != null ? response.lastModified() : Instant.EPOCH,
+                    response.contentType()
+                )
+            );
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                return Optional.empty();
+            }
+            throw error("HEAD", key, e);
+        } catch (SdkException e) {
+            throw error("HEAD", key, e);
+        }
+    }
+
+    @Override
+    public InputStream stream(String key, long offset, long length) throws IOException {
+        String range = offset > 0 || length >= 0 ? "bytes=" + offset + "-" + (length >= 0 ? String.valueOf(offset + length - 1) : "") : null;
+        try {
+            return s3.getObject(g -> g.bucket(config.getBucket()).key(objectKey(key)).range(range));
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw error("GET", key, e);
+        } catch (SdkException e) {
+            throw error("GET", key, e);
+        }
+    }
+
+    /**
+     * S3 does not tell whether the object existed, so this always returns
+     * {@code true}.
+     */
+    @Override
+    public boolean delete(String key) throws IOException {
+        try {
+            s3.deleteObject(d -> d.bucket(config.getBucket()).key(objectKey(key)));
+            return true;
+        } catch (SdkException e) {
+            throw error("DELETE", key, e);
+        }
+    }
+
+    /**
+     * Copies the object onto itself, which gives it a new modification date
+     * without transferring its bytes.
+     */
+    @Override
+    public void touch(String key) throws IOException {
+        ObjectInfo info = get(key).orElseThrow(() -> new NoSuchFileException(key));
+        try {
+            s3.copyObject(c ->
+                c
+                    .sourceBucket(config.getBucket())
+                    .sourceKey(objectKey(key))
+                    .destinationBucket(config.getBucket())
+                    .destinationKey(objectKey(key))
+                    .metadataDirective(MetadataDirective.REPLACE)
+                    .contentType(info.contentType())
+            );
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new NoSuchFileException(key);
+            }
+            throw error("COPY", key, e);
+        } catch (SdkException e) {
+            throw error("COPY", key, e);
+        }
+    }
+
+    /**
+     * Server-side copy followed by a delete of the source.
+     */
+    @Override
+    public void move(String from, String to) throws IOException {
+        try {
+            s3.copyObject(c ->
+                c
+                    .sourceBucket(config.getBucket())
+                    .sourceKey(objectKey(from))
+                    .destinationBucket(config.getBucket())
+                    .destinationKey(objectKey(to))
+            );
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new NoSuchFileException(from);
+            }
+            throw error("COPY", from, e);
+        } catch (SdkException e) {
+            throw error("COPY", from, e);
+        }
+        delete(from);
+    }
+
+    /**
+     * Pages through {@code ListObjectsV2}, {@value #LIST_PAGE_SIZE} keys at a
+     * time; the next page is only requested once the previous one is consumed.
+     */
+    @Override
+    public Stream<ListedObject> list(String prefix) throws IOException {
+        Iterator<S3Object> pages = s3
+            .listObjectsV2Paginator(l -> l.bucket(config.getBucket()).prefix(objectKey(prefix)).maxKeys(LIST_PAGE_SIZE))
+            .contents()
+            .iterator();
+        Iterator<S3Object> objects = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                try {
+                    return pages.hasNext();
+                } catch (SdkException e) {
+                    throw new UncheckedIOException(error("LIST", prefix, e));
+                }
+            }
+
+            @Override
+            public S3Object next() {
+                try {
+                    return pages.next();
+                } catch (SdkException e) {
+                    throw new UncheckedIOException(error("LIST", prefix, e));
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(objects, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .filter(o -> o.key().startsWith(config.getPrefix()))
+            .map(o ->
+                new ListedObject(
+                    o.key().substring(config.getPrefix().length()),
+                    o.size() != null ? o.size() : 0,
+                    o.lastModified() != null ? o.lastModified() : Instant.EPOCH
+                )
+            );
+    }
+
+    @Override
+    public Optional<URI> presign(String key, Duration ttl) {
+        try {
+            return Optional.of(
+                presigner
+                    .presignGetObject(p -> p.signatureDuration(ttl).getObjectRequest(g -> g.bucket(config.getBucket()).key(objectKey(key))))
+                    .url()
+                    .toURI()
+            );
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid presigned URL for " + key, e);
+        }
+    }
+
+    private String objectKey(String key) {
+        return config.getPrefix() + key;
+    }
+
+    private static IOException error(String operation, String key, SdkException e) {
+        return new IOException("S3 " + operation + " " + key + ": " + e.getMessage(), e);
+    }
+}
@@ -0,0 +1,108 @@
+package com.hotel.app.web.rest;
+
+import com.hotel.app.service.ClienteImportService;
+import com.hotel.app.service.ClienteImportService.Formato;
+import com.hotel.app.service.ClienteImportService.ImportacionNoValidaException;
+import com.hotel.app.service.dto.ClienteImportDTO;
+import com.hotel.app.web.rest.errors.BadRequestAlertException;
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for bulk imports of {@link com.hotel.app.domain.Cliente}s.
+ * <p>
+ * The file is the raw request body, so it is never parsed as a multipart form
+ * nor held in memory: {@code text/csv} with a header row, or
+ * {@code application/x-ndjson}. See {@link ClienteImportService} for the
+ * columns and the rules.
+ */
+@RestController
+@RequestMapping("/api/clientes/import")
+@PreAuthorize("hasAuthority('ROLE_ADMIN')")
+public class ClienteImportResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ClienteImportResource.class);
+
+    private static final String ENTITY_NAME = "hotelAppCliente";
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private final ClienteImportService clienteImportService;
+
+    public ClienteImportResource(ClienteImportService clienteImportService) {
+        this.clienteImportService = clienteImportService;
+    }
+
+    /**
+     * {@code POST  /clientes/import} : Start an import of clientes.
+     *
+     * @param cuentas whether to create the Keycloak accounts of the imported
+     *                clientes.
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and
+     *         with body the report of the import, to be followed at its
+     *         {@code Location}; or with status {@code 503 (Service Unavailable)}
+     *         if too many imports are running.
+     * @throws IOException if the file cannot be read.
+     */
+    @PostMapping(value = "", consumes = { "text/csv", NDJSON })
+    public ResponseEntity<ClienteImportDTO> importClientes(
+            HttpServletRequest request,
+            @RequestParam(name = "cuentas", defaultValue = "true") boolean cuentas) throws IOException {
+        Formato formato = MediaType.parseMediaType(request.getContentType()).isCompatibleWith(MediaType.parseMediaType(NDJSON))
+                ? Formato.NDJSON
+                : Formato.CSV;
+        LOG.debug("REST request to import Clientes from {}, accounts: {}", formato, cuentas);
+        Optional<ClienteImportDTO> importacion;
+        try (InputStream in = request.getInputStream()) {
+            importacion = clienteImportService.iniciar(in, formato, cuentas);
+        } catch (ImportacionNoValidaException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getKey());
+        }
+        return importacion
+                .map(dto -> ResponseEntity.accepted().location(URI.create("/api/clientes/import/" + dto.getId())).body(dto))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build());
+    }
+
+    /**
+     * {@code GET  /clientes/import} : get the latest imports, without their
+     * errors.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         list of imports in body.
+     */
+    @GetMapping("")
+    public List<ClienteImportDTO> getAllImports() {
+        LOG.debug("REST request to get the Cliente imports");
+        return clienteImportService.findAll();
+    }
+
+    /**
+     * {@code GET  /clientes/import/:id} : get the progress of the "id" import.
+     *
+     * @param id the id of the import.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with
+     *         body the report, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<ClienteImportDTO> getImport(@PathVariable("id") String id) {
+        LOG.debug("REST request to get Cliente import : {}", id);
+        return ResponseUtil.wrapOrNotFound(clienteImportService.findOne(id));
+    }
+}
@@ -1,8 +1,13 @@
 package com.hotel.app.web.rest;
 
 import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.security.AuthoritiesConstants;
+import com.hotel.app.security.SecurityUtils;
+import com.hotel.app.service.ClienteOverviewService;
 import com.hotel.app.service.ClienteService;
+import com.hotel.app.service.ClienteValidator;
 import com.hotel.app.service.dto.ClienteDTO;
+import com.hotel.app.service.dto.ClienteOverviewDTO;
 import com.hotel.app.web.rest.errors.BadRequestAlertException;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
@@ -24,7 +29,6 @@ import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.PaginationUtil;
 import tech.jhipster.web.util.ResponseUtil;
-import com.hotel.app.service.KeycloakService;
 
 /**
  * REST controller for managing {@link com.hotel.app.domain.Cliente}.
@@ -44,13 +48,15 @@ public class ClienteResource {
 
     private final ClienteRepository clienteRepository;
 
-    private final KeycloakService keycloakService;
+    private final ClienteOverviewService clienteOverviewService;
 
-    public ClienteResource(ClienteService clienteService, ClienteRepository clienteRepository,
-            KeycloakService keycloakService) {
+    public ClienteResource(
+            ClienteService clienteService,
+            ClienteRepository clienteRepository,
+            ClienteOverviewService clienteOverviewService) {
         this.clienteService = clienteService;
         this.clienteRepository = clienteRepository;
-        this.keycloakService = keycloakService;
+        this.clienteOverviewService = clienteOverviewService;
     }
 
     /**
@@ -72,19 +78,7 @@ public class ClienteResource {
             throw new BadRequestAlertException("A new cliente cannot already have an ID", ENTITY_NAME, "idexists");
         }
 
-        // Create Keycloak user ONLY if explicitly requested via "not-linked"
-        if ("not-linked".equals(clienteDTO.getKeycloakId())) {
-            String keycloakId = keycloakService.createUser(
-                    clienteDTO.getCorreo(),
-                    clienteDTO.getNombre(),
-                    clienteDTO.getApellido());
-            if (keycloakId != null) {
-                clienteDTO.setKeycloakId(keycloakId);
-            } else {
-                throw new BadRequestAlertException("Could not create Keycloak user", ENTITY_NAME, "keycloakerror");
-            }
-        }
-
+        // A Keycloak id "not-linked" asks for an account, created in the background
         clienteDTO = clienteService.save(clienteDTO);
         return ResponseEntity.created(new URI("/api/clientes/" + clienteDTO.getId()))
                 .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME,
@@ -130,20 +124,8 @@ public class ClienteResource {
             }
         });
 
-        // Create Keycloak user if explicitly requested via "not-linked" (Conversion
-        // Flow)
-        if ("not-linked".equals(clienteDTO.getKeycloakId())) {
-            String keycloakId = keycloakService.createUser(
-                    clienteDTO.getCorreo(),
-                    clienteDTO.getNombre(),
-                    clienteDTO.getApellido());
-            if (keycloakId != null) {
-                clienteDTO.setKeycloakId(keycloakId);
-            } else {
-                throw new BadRequestAlertException("Could not create Keycloak user", ENTITY_NAME, "keycloakerror");
-            }
-        }
-
+        // A Keycloak id "not-linked" asks for an account (conversion flow), created
+        // in the background
         clienteDTO = clienteService.update(clienteDTO);
         return ResponseEntity.ok()
                 .headers(HeaderUtil.createEntityUpdateAlert(applicationName, false, ENTITY_NAME,
@@ -244,6 +226,21 @@ public class ClienteResource {
         return ResponseUtil.wrapOrNotFound(clienteDTO);
     }
 
+    /**
+     * {@code GET  /clientes/:id/overview} : get the "id" cliente with its
+     * reservas, servicios, pagos and latest messages.
+     *
+     * @param id the id of the cliente.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+     *         the overview, or with status {@code 404 (Not Found)}.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE')")
+    @GetMapping("/{id}/overview")
+    public ResponseEntity<ClienteOverviewDTO> getClienteOverview(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the overview of Cliente : {}", id);
+        return ResponseUtil.wrapOrNotFound(clienteOverviewService.findOverview(id));
+    }
+
     /**
      * {@code GET  /clientes/inactive} : get all the inactive clientes.
      *
@@ -262,6 +259,30 @@ public class ClienteResource {
         return ResponseEntity.ok().headers(headers).body(page.getContent());
     }
 
+    /**
+     * {@code GET  /clientes/search?q=} : search the clientes by partial name,
+     * email, phone or identification number, best matches first. Clients only
+     * get their own record back, when they search its exact email.
+     *
+     * @param q     the text to look for, at least 3 characters.
+     * @param limit the maximum number of results, 50 at most.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of clientes in body.
+     */
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_CLIENT')")
+    @GetMapping("/search")
+    public ResponseEntity<List<ClienteDTO>> searchClientes(
+            @RequestParam("q") String q,
+            @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        LOG.debug("REST request to search Clientes : {}", q);
+        List<ClienteDTO> clientes = clienteService.search(q, limit);
+        if (!SecurityUtils.hasCurrentUserAnyOfAuthorities(AuthoritiesConstants.ADMIN, AuthoritiesConstants.EMPLOYEE)) {
+            String correo = q.trim();
+            clientes = clientes.stream().filter(c -> correo.equalsIgnoreCase(c.getCorreo())).toList();
+        }
+        return ResponseEntity.ok().body(clientes);
+    }
+
     /**
      * {@code DELETE  /clientes/:id} : delete the "id" cliente.
      *
@@ -307,12 +328,9 @@ public class ClienteResource {
     }
 
     private void validateCliente(ClienteDTO clienteDTO) {
-        // Validate Age >= 18 ONLY if DOB available
-        if (clienteDTO.getFechaNacimiento() != null) {
-            if (java.time.Period.between(clienteDTO.getFechaNacimiento(), java.time.LocalDate.now()).getYears() < 18) {
-                throw new BadRequestAlertException("User must be at least 18 years old", ENTITY_NAME,
-                        "fechaNacimientoInvalid");
-            }
+        Optional<ClienteValidator.Error> error = ClienteValidator.validar(clienteDTO);
+        if (error.isPresent() && error.get() == ClienteValidator.Error.MENOR_DE_EDAD) {
+            throw new BadRequestAlertException(error.get().getMensaje(), ENTITY_NAME, error.get().getClave());
         }
 
         // Validate Unique NumeroIdentificacion
@@ -327,36 +345,8 @@ public class ClienteResource {
             }
         }
 
-        // Validate Cedula matches DOB (Nicaragua format: XXX-DDMMYY-XXXXL)
-        if (com.hotel.app.domain.enumeration.TipoIdentificacion.CEDULA.equals(clienteDTO.getTipoIdentificacion())) {
-            String cedula = clienteDTO.getNumeroIdentificacion();
-            if (cedula != null) {
-                String datePart = null;
-                // Remove any whitespace
-                cedula = cedula.trim();
-
-                if (cedula.contains("-")) {
-                    String[] parts = cedula.split("-");
-                    if (parts.length >= 2) {
-                        datePart = parts[1];
-                    }
-                } else if (cedula.length() >= 9) {
-                    // Assuming format without hyphens matches the sequence order: XXXDDMMYY...
-                    // 012345678...
-                    // 281270200... -> index 3 to 9
-                    datePart = cedula.substring(3, 9);
-                }
-
-                if (datePart != null && datePart.length() == 6 && datePart.matches("\\d+")
-                        && clienteDTO.getFechaNacimiento() != null) {
-                    String dobFormatted = clienteDTO.getFechaNacimiento()
-                            .format(java.time.format.DateTimeFormatter.ofPattern("ddMMyy"));
-                    if (!datePart.equals(dobFormatted)) {
-                        throw new BadRequestAlertException("Cedula does not match date of birth", ENTITY_NAME,
-                                "cedulaMismatch");
-                    }
-                }
-            }
+        if (error.isPresent()) {
+            throw new BadRequestAlertException(error.get().getMensaje(), ENTITY_NAME, error.get().getClave());
         }
     }
 }
@@ -116,16 +116,16 @@ public class HabitacionResource {
             try {
                 ImagenDTO imagenDTO = new ImagenDTO();
                 imagenDTO.setNombre(image.getOriginalFilename());
-                imagenDTO.setFichero(image.getBytes());
-                imagenDTO.setFicheroContentType(image.getContentType());
                 imagenDTO.setActivo(true);
 
                 HabitacionDTO habLink = new HabitacionDTO();
                 habLink.setId(habitacionDTO.getId());
                 imagenDTO.setHabitacion(habLink);
 
-                imagenService.save(imagenDTO);
+                imagenService.saveContenido(imagenDTO, image);
                 habitacionDTO = habitacionService.findOne(habitacionDTO.getId()).orElse(habitacionDTO);
+            } catch (BadRequestAlertException e) {
+                throw e;
             } catch (Exception e) {
                 LOG.error("Error saving image for new habitacion", e);
                 throw new RuntimeException("Could not save image", e);
@@ -217,8 +217,6 @@ public class HabitacionResource {
             try {
                 ImagenDTO imagenDTO = new ImagenDTO();
                 imagenDTO.setNombre(image.getOriginalFilename());
-                imagenDTO.setFichero(image.getBytes());
-                imagenDTO.setFicheroContentType(image.getContentType());
                 imagenDTO.setActivo(true);
 
                 HabitacionDTO habLink = new HabitacionDTO();
@@ -226,10 +224,12 @@ public class HabitacionResource {
                 imagenDTO.setHabitacion(habLink);
 
                 // This call will delete the old file physically
-                ImagenDTO savedImagen = imagenService.save(imagenDTO);
+                ImagenDTO savedImagen = imagenService.saveContenido(imagenDTO, image);
 
                 // Update DTO with the server-generated path
                 habitacionDTO.setImagen(savedImagen.getNombreArchivo());
+            } catch (BadRequestAlertException e) {
+                throw e;
             } catch (Exception e) {
                 LOG.error("Error saving updated image", e);
                 throw new RuntimeException("Could not save image", e);
@@ -0,0 +1,249 @@
+package com.hotel.app.web.rest;
+
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.ImagenHotCache;
+import com.hotel.app.service.ImagenHotCache.Entrada;
+import com.hotel.app.service.storage.ImagenStorage.ObjectInfo;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.undertow.servlet.spec.ServletOutputStreamImpl;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.util.UrlPathHelper;
+
+/**
+ * Serves the stored image files ({@link ImagenContentStore}) at
+ * {@code /images/**}; the only handler for that path.
+ * <ul>
+ * <li>Content-addressed files ({@code cas/}, {@code variants/}) never change:
+ * they are served with {@code Cache-Control: public, max-age=31536000,
+ * immutable} and their hash as strong ETag.</li>
+ * <li>Other (legacy) names are revalidated on every use, with a strong ETag
+ * from their size and modification time, and {@code Last-Modified}.</li>
+ * <li>{@code If-None-Match}, {@code If-Modified-Since} and a single
+ * {@code Range} (with {@code If-Range}) are supported.</li>
+ * <li>Whole files are sent with {@link FileChannel} transfers, which Undertow
+ * turns into {@code sendfile}: the content is not copied through the
+ * heap.</li>
+ * <li>The most requested files are sent from memory ({@link ImagenHotCache}),
+ * without any filesystem access.</li>
+ * <li>With a remote storage, files too large for the memory cache are
+ * redirected to a presigned URL; the others are streamed through.</li>
+ * </ul>
+ * Metrics: {@code hotel.images.requests{status}}, {@code hotel.images.bytes}
+ * and {@code hotel.images.not_modified.ratio}.
+ */
+@RestController
+public class ImagenFileResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ImagenFileResource.class);
+
+    private static final String PREFIX = "/images/";
+
+    private static final String CACHE_IMMUTABLE = "public, max-age=31536000, immutable";
+
+    private static final String CACHE_REVALIDATE = "public, no-cache";
+
+    private static final Pattern HASHED = Pattern.compile("^(?:cas|variants)/(?:[0-9a-f]{2}/)+([0-9a-f]{64}(?:-[0-9a-z]+)?)(?:\\.[a-z0-9]+)?$");
+
+    private final ImagenContentStore contentStore;
+
+    private final ImagenHotCache hotCache;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Integer, Counter> requests = new ConcurrentHashMap<>();
+
+    private final Counter bytes;
+
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+
+    public ImagenFileResource(ImagenContentStore contentStore, ImagenHotCache hotCache, MeterRegistry meterRegistry) {
+        this.contentStore = contentStore;
+        this.hotCache = hotCache;
+        this.meterRegistry = meterRegistry;
+        this.bytes = Counter.builder("hotel.images.bytes").baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("hotel.images.not_modified.ratio", this, ImagenFileResource::notModifiedRatio).register(meterRegistry);
+        LOG.info("Serving images: {}** -> {}", PREFIX, contentStore.root());
+    }
+
+    /**
+     * {@code GET /images/**} (and {@code HEAD}) : the image file.
+     */
+    @GetMapping(PREFIX + "**")
+    public void getImage(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String path = urlPathHelper.getPathWithinApplication(request);
+        String ruta = path.startsWith(PREFIX) ? path.substring(PREFIX.length()) : path;
+        Entrada hot = hotCache.get(ruta).orElse(null);
+        boolean enMemoria = hot != null;
+        Path file = null;
+        long size;
+        long lastModified;
+        if (enMemoria) {
+            size = hot.contenido().length;
+            lastModified = hot.lastModified();
+        } else {
+            Optional<Path> local = contentStore.resolve(ruta);
+            if (local.isPresent()) {
+                file = local.get();
+                BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                size = attributes.size();
+                lastModified = attributes.lastModifiedTime().toMillis();
+            } else {
+                Optional<ObjectInfo> remote = contentStore.info(ruta);
+                if (remote.isEmpty()) {
+                    response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                    count(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+                size = remote.get().size();
+                lastModified = remote.get().lastModified().toEpochMilli();
+                Optional<URI> presigned = hotCache.admite(size) ? Optional.empty() : contentStore.presign(ruta);
+                if (presigned.isPresent()) {
+                    // Large files are downloaded from the storage directly
+                    response.setStatus(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+                    response.setHeader(HttpHeaders.LOCATION, presigned.get().toString());
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+                    count(HttpServletResponse.SC_TEMPORARY_REDIRECT);
+                    return;
+                }
+            }
+            hot = hotCache.cargar(ruta, size, lastModified, () -> contentStore.open(ruta, 0, -1));
+            if (hot != null) {
+                size = hot.contenido().length;
+            }
+        }
+
+        Matcher hashed = HASHED.matcher(ruta);
+        String etag = "\"" + (hashed.matches() ? hashed.group(1) : Long.toHexString(size) + "-" + Long.toHexString(lastModified)) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, hashed.matches() ? CACHE_IMMUTABLE : CACHE_REVALIDATE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            count(response.getStatus());
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(ruta)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM)
+                .toString());
+        long start = 0;
+        long length = size;
+        Optional<HttpRange> range = range(request, etag, lastModified);
+        if (range.isPresent()) {
+            if (size == 0 || range.get().getRangeStart(size) >= size) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                count(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            start = range.get().getRangeStart(size);
+            length = range.get().getRangeEnd(size) - start + 1;
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (start + length - 1) + "/" + size);
+        }
+        response.setContentLengthLong(length);
+        count(response.getStatus());
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (hot != null) {
+            response.getOutputStream().write(hot.contenido(), (int) start, (int) length);
+            if (enMemoria) {
+                hotCache.servido(length);
+            }
+            bytes.increment(length);
+            return;
+        }
+        if (file == null) {
+            try (InputStream in = contentStore.open(ruta, start, length)) {
+                in.transferTo(response.getOutputStream());
+            }
+            bytes.increment(length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ServletOutputStream out = response.getOutputStream();
+            if (start == 0 && length == size && out instanceof ServletOutputStreamImpl undertow) {
+                // sendfile
+                undertow.transferFrom(channel);
+            } else {
+                long sent = 0;
+                var target = Channels.newChannel(out);
+                while (sent < length) {
+                    sent += channel.transferTo(start + sent, length - sent, target);
+                }
+            }
+        }
+        bytes.increment(length);
+    }
+
+    /**
+     * @return the single range to serve, if requested and still valid for the
+     *         current file ({@code If-Range}); several ranges are served as the
+     *         whole file.
+     */
+    private static Optional<HttpRange> range(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return Optional.empty();
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange != null && !ifRange.equals(etag)) {
+            if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+                return Optional.empty();
+            }
+            try {
+                long fecha = request.getDateHeader(HttpHeaders.IF_RANGE);
+                if (fecha == -1 || lastModified / 1000 > fecha / 1000) {
+                    return Optional.empty();
+                }
+            } catch (IllegalArgumentException e) {
+                return Optional.empty();
+            }
+        }
+        try {
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? Optional.of(ranges.get(0)) : Optional.empty();
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void count(int status) {
+        requests.computeIfAbsent(status, s -> meterRegistry.counter("hotel.images.requests", "status", String.valueOf(s)))
+                .increment();
+    }
+
+    private double notModifiedRatio() {
+        double total = requests.values().stream().mapToDouble(Counter::count).sum();
+        Counter notModified = requests.get(HttpServletResponse.SC_NOT_MODIFIED);
+        return total == 0 || notModified == null ? 0 : notModified.count() / total;
+    }
+}
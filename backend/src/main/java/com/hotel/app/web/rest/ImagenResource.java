@@ -14,9 +14,11 @@ import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
@@ -193,6 +195,31 @@ public class ImagenResource {
         return ResponseUtil.wrapOrNotFound(imagenDTO);
     }
 
+    /**
+     * {@code GET  /imagens/:id/contenido} : get the content of the "id" imagen.
+     * The other endpoints never return the image bytes.
+     *
+     * @param id the id of the imagen.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         content in body, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}/contenido")
+    public ResponseEntity<Resource> getImagenContenido(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get the content of Imagen : {}", id);
+        return imagenService.findContenido(id)
+                .map(contenido -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                            .contentType(contenido.contentType() != null
+                                    ? MediaType.parseMediaType(contenido.contentType())
+                                    : MediaType.APPLICATION_OCTET_STREAM);
+                    if (contenido.sha256() != null) {
+                        response.eTag(contenido.sha256());
+                    }
+                    return response.body(contenido.resource());
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     /**
      * {@code DELETE  /imagens/:id} : delete the "id" imagen.
      *
@@ -0,0 +1,107 @@
+package com.hotel.app.web.rest;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.LandingSnapshotService;
+import com.hotel.app.service.LandingSnapshotService.Documento;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * REST controller for the public home page document.
+ */
+@RestController
+@RequestMapping("/api/public")
+public class LandingResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LandingResource.class);
+
+    private static final String GZIP = "gzip";
+
+    private final LandingSnapshotService landingSnapshotService;
+
+    private final CacheControl cacheControl;
+
+    public LandingResource(LandingSnapshotService landingSnapshotService, ApplicationProperties applicationProperties) {
+        this.landingSnapshotService = landingSnapshotService;
+        long maxAge = applicationProperties.getLanding().getCacheMaxAge();
+        this.cacheControl = maxAge > 0
+                ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache().cachePublic();
+    }
+
+    /**
+     * {@code GET  /public/landing} : everything the home page shows in one
+     * document.
+     * <p>
+     * The body is written as precomputed bytes, gzip-encoded when the client
+     * accepts it. Each encoding has its own strong ETag; requests whose
+     * {@code If-None-Match} matches get a {@code 304 (Not Modified)}.
+     *
+     * @param acceptEncoding the {@code Accept-Encoding} header of the request.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         {@link com.hotel.app.service.dto.LandingDTO} as JSON in body.
+     */
+    @GetMapping("/landing")
+    public ResponseEntity<byte[]> getLanding(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        LOG.debug("REST request to get the landing document");
+        Documento documento = landingSnapshotService.get();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        // Spring answers 304 for a matching If-None-Match on GET/HEAD
+        if (acceptsGzip(acceptEncoding)) {
+            return response
+                    .header(HttpHeaders.CONTENT_ENCODING, GZIP)
+                    .eTag(documento.sha256() + "-" + GZIP)
+                    .body(documento.gzip());
+        }
+        return response.eTag(documento.sha256()).body(documento.json());
+    }
+
+    /**
+     * @return whether {@code Accept-Encoding} lists {@code gzip} (or {@code *})
+     *         with a non-zero quality.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Boolean gzip = null;
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            boolean accepted = quality(parts) > 0;
+            if (GZIP.equalsIgnoreCase(name) || "x-gzip".equalsIgnoreCase(name)) {
+                gzip = accepted;
+            } else if ("*".equals(name)) {
+                wildcard = accepted;
+            }
+        }
+        return gzip != null ? gzip : Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,134 @@
+package com.hotel.app.web.rest;
+
+import com.hotel.app.service.ListaEsperaServicioService;
+import com.hotel.app.service.dto.ListaEsperaServicioDTO;
+import com.hotel.app.web.rest.errors.BadRequestAlertException;
+import jakarta.validation.Valid;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.PaginationUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link com.hotel.app.domain.ListaEsperaServicio}.
+ */
+@RestController
+@RequestMapping("/api/lista-espera-servicios")
+public class ListaEsperaServicioResource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ListaEsperaServicioResource.class);
+
+    private static final String ENTITY_NAME = "hotelAppListaEsperaServicio";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final ListaEsperaServicioService listaEsperaServicioService;
+
+    public ListaEsperaServicioResource(ListaEsperaServicioService listaEsperaServicioService) {
+        this.listaEsperaServicioService = listaEsperaServicioService;
+    }
+
+    /**
+     * {@code POST  /lista-espera-servicios} : Join the waitlist of a full service
+     * slot.
+     *
+     * @param listaEsperaServicioDTO the entry to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with
+     *         body the new entry and its position, or with status
+     *         {@code 400 (Bad Request)} if the slot is not full or the entry is
+     *         invalid.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_CLIENT')")
+    public ResponseEntity<ListaEsperaServicioDTO> createListaEsperaServicio(
+            @Valid @RequestBody ListaEsperaServicioDTO listaEsperaServicioDTO) throws URISyntaxException {
+        LOG.debug("REST request to join waitlist : {}", listaEsperaServicioDTO);
+        if (listaEsperaServicioDTO.getId() != null) {
+            throw new BadRequestAlertException("A new listaEsperaServicio cannot already have an ID", ENTITY_NAME,
+                    "idexists");
+        }
+        listaEsperaServicioDTO = listaEsperaServicioService.unirse(listaEsperaServicioDTO);
+        return ResponseEntity.created(new URI("/api/lista-espera-servicios/" + listaEsperaServicioDTO.getId()))
+                .headers(HeaderUtil.createEntityCreationAlert(applicationName, false, ENTITY_NAME,
+                        listaEsperaServicioDTO.getId().toString()))
+                .body(listaEsperaServicioDTO);
+    }
+
+    /**
+     * {@code GET  /lista-espera-servicios} : get all the waitlist entries.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of entries in body.
+     */
+    @GetMapping("")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE')")
+    public ResponseEntity<List<ListaEsperaServicioDTO>> getAllListaEsperaServicios(
+            @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
+        LOG.debug("REST request to get a page of ListaEsperaServicios");
+        Page<ListaEsperaServicioDTO> page = listaEsperaServicioService.findAll(pageable);
+        HttpHeaders headers = PaginationUtil
+                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /lista-espera-servicios/:id} : get the "id" waitlist entry.
+     *
+     * @param id the id of the entry to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body
+     *         the entry, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/{id}")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_CLIENT')")
+    public ResponseEntity<ListaEsperaServicioDTO> getListaEsperaServicio(@PathVariable("id") Long id) {
+        LOG.debug("REST request to get ListaEsperaServicio : {}", id);
+        Optional<ListaEsperaServicioDTO> listaEsperaServicioDTO = listaEsperaServicioService.findOne(id);
+        return ResponseUtil.wrapOrNotFound(listaEsperaServicioDTO);
+    }
+
+    /**
+     * {@code GET  /lista-espera-servicios/reserva/:reservaId} : get the waitlist
+     * entries of a reserva.
+     *
+     * @param reservaId the id of the reserva.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list
+     *         of entries in body.
+     */
+    @GetMapping("/reserva/{reservaId}")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_CLIENT')")
+    public ResponseEntity<List<ListaEsperaServicioDTO>> getListaEsperaServiciosByReserva(
+            @PathVariable("reservaId") Long reservaId) {
+        LOG.debug("REST request to get ListaEsperaServicios by Reserva : {}", reservaId);
+        return ResponseEntity.ok().body(listaEsperaServicioService.findByReservaId(reservaId));
+    }
+
+    /**
+     * {@code PUT  /lista-espera-servicios/:id/cancelar} : Leave the waitlist.
+     *
+     * @param id the id of the entry.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)}.
+     */
+    @PutMapping("/{id}/cancelar")
+    @PreAuthorize("hasAnyAuthority('ROLE_ADMIN', 'ROLE_EMPLOYEE', 'ROLE_CLIENT')")
+    public ResponseEntity<Void> cancelListaEsperaServicio(@PathVariable("id") Long id) {
+        LOG.debug("REST request to leave waitlist : {}", id);
+        listaEsperaServicioService.cancelar(id);
+        return ResponseEntity.ok().build();
+    }
+}
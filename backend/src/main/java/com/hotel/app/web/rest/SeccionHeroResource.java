@@ -1,6 +1,7 @@
 package com.hotel.app.web.rest;
 
 import com.hotel.app.repository.SeccionHeroRepository;
+import com.hotel.app.service.ImagenContentStore;
 import com.hotel.app.service.SeccionHeroService;
 import com.hotel.app.service.dto.SeccionHeroDTO;
 import com.hotel.app.web.rest.errors.BadRequestAlertException;
@@ -42,12 +43,12 @@ public class SeccionHeroResource {
 
     private final SeccionHeroRepository seccionHeroRepository;
 
-    private final com.hotel.app.config.ApplicationProperties applicationProperties;
+    private final ImagenContentStore imagenContentStore;
 
-    public SeccionHeroResource(SeccionHeroService seccionHeroService, SeccionHeroRepository seccionHeroRepository, com.hotel.app.config.ApplicationProperties applicationProperties) {
+    public SeccionHeroResource(SeccionHeroService seccionHeroService, SeccionHeroRepository seccionHeroRepository, ImagenContentStore imagenContentStore) {
         this.seccionHeroService = seccionHeroService;
         this.seccionHeroRepository = seccionHeroRepository;
-        this.applicationProperties = applicationProperties;
+        this.imagenContentStore = imagenContentStore;
     }
 
     /**
@@ -62,19 +63,11 @@ public class SeccionHeroResource {
         if (file.isEmpty()) {
             throw new BadRequestAlertException("File cannot be empty", ENTITY_NAME, "fileempty");
         }
-        try {
-            // Define path: images/landing/filename.ext
-            String fileName = System.currentTimeMillis() + "_" + file.getOriginalFilename();
-            java.nio.file.Path rootPath = java.nio.file.Paths.get(applicationProperties.getImagePath()).toAbsolutePath();
-            java.nio.file.Path landingPath = rootPath.resolve("landing");
-            if (!java.nio.file.Files.exists(landingPath)) {
-                java.nio.file.Files.createDirectories(landingPath);
-            }
-            java.nio.file.Path targetPath = landingPath.resolve(fileName);
-            java.nio.file.Files.copy(file.getInputStream(), targetPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-
-            String relativePath = "landing/" + fileName;
-            return ResponseEntity.ok(relativePath);
+        try (java.io.InputStream in = file.getInputStream()) {
+            // Streamed to the content-addressed store: images/cas/..
+            return ResponseEntity.ok(imagenContentStore.storeUpload(in).path());
+        } catch (ImagenContentStore.ContenidoNoValidoException e) {
+            throw new BadRequestAlertException(e.getMessage(), ENTITY_NAME, e.getKey());
         } catch (java.io.IOException e) {
             LOG.error("Failed to store file", e);
             throw new BadRequestAlertException("Failed to store file", ENTITY_NAME, "fileuploaderror");
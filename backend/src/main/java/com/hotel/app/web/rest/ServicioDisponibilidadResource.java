@@ -12,6 +12,7 @@ import java.net.URISyntaxException;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import org.slf4j.Logger;
@@ -261,4 +262,41 @@ public class ServicioDisponibilidadResource {
             throw new BadRequestAlertException("Invalid date format. Use yyyy-MM-dd", ENTITY_NAME, "invaliddateformat");
         }
     }
+
+    /**
+     * {@code GET  /servicio-disponibilidads/cupos} : get disponibilidad con cupos
+     * for several services in a date range with a single request.
+     *
+     * @param servicioIds the service ids
+     * @param fechaInicio the start date (format: yyyy-MM-dd)
+     * @param fechaFin    the end date (format: yyyy-MM-dd)
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the
+     *         disponibilidades with cupos keyed by service id
+     */
+    @GetMapping("/cupos")
+    public ResponseEntity<Map<Long, List<ServicioDisponibilidadConCuposDTO>>> getServiciosDisponibilidadConCupos(
+            @RequestParam(value = "servicioIds") List<Long> servicioIds,
+            @RequestParam(value = "fechaInicio", required = false) String fechaInicio,
+            @RequestParam(value = "fechaFin", required = false) String fechaFin) {
+
+        log.debug("REST request to get ServicioDisponibilidad con cupos for servicios {} from {} to {}",
+                servicioIds, fechaInicio, fechaFin);
+
+        try {
+            LocalDate inicio = fechaInicio != null ? LocalDate.parse(fechaInicio) : LocalDate.now();
+            LocalDate fin = fechaFin != null ? LocalDate.parse(fechaFin) : LocalDate.now().plusMonths(1);
+
+            if (fin.isBefore(inicio)) {
+                throw new BadRequestAlertException("End date cannot be before start date", ENTITY_NAME,
+                        "invaliddaterange");
+            }
+
+            Map<Long, List<ServicioDisponibilidadConCuposDTO>> result = servicioDisponibilidadService
+                    .findDisponibilidadConCupos(servicioIds, inicio, fin);
+
+            return ResponseEntity.ok().body(result);
+        } catch (DateTimeParseException e) {
+            throw new BadRequestAlertException("Invalid date format. Use yyyy-MM-dd", ENTITY_NAME, "invaliddateformat");
+        }
+    }
 }
@@ -1,7 +1,10 @@
 package com.hotel.app.web.rest;
 
+import com.hotel.app.config.ApplicationProperties;
 import com.hotel.app.domain.enumeration.TipoServicio;
 import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.service.ServicioCatalogService;
+import com.hotel.app.service.ServicioCatalogService.Vista;
 import com.hotel.app.service.ServicioService;
 import com.hotel.app.service.dto.ServicioDTO;
 import com.hotel.app.web.rest.errors.BadRequestAlertException;
@@ -13,11 +16,14 @@ import java.net.URISyntaxException;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -44,9 +50,22 @@ public class ServicioResource {
 
     private final ServicioRepository servicioRepository;
 
-    public ServicioResource(ServicioService servicioService, ServicioRepository servicioRepository) {
+    private final ServicioCatalogService servicioCatalogService;
+
+    private final CacheControl catalogCacheControl;
+
+    public ServicioResource(
+            ServicioService servicioService,
+            ServicioRepository servicioRepository,
+            ServicioCatalogService servicioCatalogService,
+            ApplicationProperties applicationProperties) {
         this.servicioService = servicioService;
         this.servicioRepository = servicioRepository;
+        this.servicioCatalogService = servicioCatalogService;
+        long maxAge = applicationProperties.getServicioCatalog().getCacheMaxAge();
+        this.catalogCacheControl = maxAge > 0
+                ? CacheControl.maxAge(maxAge, TimeUnit.SECONDS).cachePublic()
+                : CacheControl.noCache().cachePublic();
     }
 
     /**
@@ -163,10 +182,7 @@ public class ServicioResource {
     public ResponseEntity<List<ServicioDTO>> getAllServicios(
             @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Servicios");
-        Page<ServicioDTO> page = servicioService.findAll(pageable);
-        HttpHeaders headers = PaginationUtil
-                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return getCatalogPage(Vista.TODOS, pageable, () -> servicioService.findAll(pageable));
     }
 
     /**
@@ -181,10 +197,7 @@ public class ServicioResource {
     public ResponseEntity<List<ServicioDTO>> getServiciosDisponibles(
             @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Available Servicios");
-        Page<ServicioDTO> page = servicioService.findAllByDisponible(pageable);
-        HttpHeaders headers = PaginationUtil
-                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return getCatalogPage(Vista.DISPONIBLES, pageable, () -> servicioService.findAllByDisponible(pageable));
     }
 
     /**
@@ -199,10 +212,7 @@ public class ServicioResource {
     public ResponseEntity<List<ServicioDTO>> getServiciosGratuitos(
             @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Free Servicios");
-        Page<ServicioDTO> page = servicioService.findAllByTipoAndDisponible(TipoServicio.GRATUITO, true, pageable);
-        HttpHeaders headers = PaginationUtil
-                .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        return getCatalogPage(Vista.GRATUITOS, pageable, () -> servicioService.findAllByTipoAndDisponible(TipoServicio.GRATUITO, true, pageable));
     }
 
     /**
@@ -217,10 +227,30 @@ public class ServicioResource {
     public ResponseEntity<List<ServicioDTO>> getServiciosPago(
             @org.springdoc.core.annotations.ParameterObject Pageable pageable) {
         LOG.debug("REST request to get a page of Paid Servicios");
-        Page<ServicioDTO> page = servicioService.findAllByTipoAndDisponible(TipoServicio.PAGO, true, pageable);
+        return getCatalogPage(Vista.PAGO, pageable, () -> servicioService.findAllByTipoAndDisponible(TipoServicio.PAGO, true, pageable));
+    }
+
+    /**
+     * Serves a page of the catalog from the in-memory snapshot, with a strong
+     * ETag and {@code Cache-Control}. Requests whose {@code If-None-Match}
+     * matches get a {@code 304 (Not Modified)} without touching the database.
+     * Sorts the snapshot cannot apply are delegated to the database.
+     */
+    private ResponseEntity<List<ServicioDTO>> getCatalogPage(
+            Vista vista, Pageable pageable, Supplier<Page<ServicioDTO>> fallback) {
+        Optional<ServicioCatalogService.CatalogPage> catalogPage = servicioCatalogService.findPage(vista, pageable);
+        Page<ServicioDTO> page = catalogPage.map(ServicioCatalogService.CatalogPage::page).orElseGet(fallback);
         HttpHeaders headers = PaginationUtil
                 .generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return ResponseEntity.ok().headers(headers).body(page.getContent());
+        if (catalogPage.isEmpty()) {
+            return ResponseEntity.ok().headers(headers).body(page.getContent());
+        }
+        // Spring answers 304 for a matching If-None-Match on GET/HEAD
+        return ResponseEntity.ok()
+                .headers(headers)
+                .eTag(catalogPage.get().etag())
+                .cacheControl(catalogCacheControl)
+                .body(page.getContent());
     }
 
     /**
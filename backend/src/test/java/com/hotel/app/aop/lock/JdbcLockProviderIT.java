@@ -0,0 +1,89 @@
+package com.hotel.app.aop.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hotel.app.IntegrationTest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link JdbcLockProvider}, with two providers standing
+ * for two nodes.
+ */
+@IntegrationTest
+class JdbcLockProviderIT {
+
+    private static final String LOCK = "jdbcLockProviderIT";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcLockProvider nodeA;
+
+    private JdbcLockProvider nodeB;
+
+    @BeforeEach
+    void setUp() {
+        nodeA = new JdbcLockProvider(jdbcTemplate, transactionManager, "node-a");
+        nodeB = new JdbcLockProvider(jdbcTemplate, transactionManager, "node-b");
+    }
+
+    @AfterEach
+    void cleanup() {
+        jdbcTemplate.update("DELETE FROM scheduler_lock WHERE name = ?", LOCK);
+    }
+
+    @Test
+    void onlyOneNodeHoldsTheLock() {
+        Optional<JdbcLockProvider.Lease> lease = nodeA.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)));
+
+        assertThat(lease).isPresent();
+        assertThat(nodeB.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)))).isEmpty();
+        assertThat(nodeA.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)))).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("SELECT locked_by FROM scheduler_lock WHERE name = ?", String.class, LOCK)).isEqualTo(
+            "node-a"
+        );
+    }
+
+    @Test
+    void releasedLockCanBeTakenByAnotherNode() {
+        JdbcLockProvider.Lease lease = nodeA.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5))).orElseThrow();
+
+        nodeA.unlock(lease, Instant.now().minusSeconds(1));
+
+        assertThat(nodeB.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)))).isPresent();
+    }
+
+    @Test
+    void lockAtLeastForKeepsTheLockAfterRelease() {
+        JdbcLockProvider.Lease lease = nodeA.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5))).orElseThrow();
+
+        nodeA.unlock(lease, Instant.now().plus(Duration.ofMinutes(1)));
+
+        assertThat(nodeB.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)))).isEmpty();
+    }
+
+    @Test
+    void expiredLeaseCanBeTakenOver() {
+        JdbcLockProvider.Lease stale = nodeA.tryLock(LOCK, Instant.now().minusSeconds(1)).orElseThrow();
+
+        assertThat(nodeB.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)))).isPresent();
+
+        // The stale holder must not release the new lease
+        nodeA.unlock(stale, Instant.now().minusSeconds(1));
+        assertThat(jdbcTemplate.queryForObject("SELECT locked_by FROM scheduler_lock WHERE name = ?", String.class, LOCK)).isEqualTo(
+            "node-b"
+        );
+        assertThat(nodeA.tryLock(LOCK, Instant.now().plus(Duration.ofMinutes(5)))).isEmpty();
+    }
+}
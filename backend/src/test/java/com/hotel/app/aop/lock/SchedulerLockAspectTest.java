@@ -0,0 +1,96 @@
+package com.hotel.app.aop.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+class SchedulerLockAspectTest {
+
+    private JdbcLockProvider lockProvider;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Job target;
+
+    private Job job;
+
+    @BeforeEach
+    void setUp() {
+        lockProvider = mock(JdbcLockProvider.class);
+        meterRegistry = new SimpleMeterRegistry();
+        target = new Job();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new SchedulerLockAspect(lockProvider, meterRegistry));
+        job = factory.getProxy();
+    }
+
+    @Test
+    void shouldRunAndReleaseWhenLockIsAcquired() {
+        JdbcLockProvider.Lease lease = new JdbcLockProvider.Lease("job", Instant.now());
+        when(lockProvider.tryLock(eq("job"), any())).thenReturn(Optional.of(lease));
+
+        Instant before = Instant.now();
+        job.run();
+
+        assertThat(target.runs.get()).isEqualTo(1);
+        ArgumentCaptor<Instant> lockUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(lockProvider).tryLock(eq("job"), lockUntil.capture());
+        assertThat(lockUntil.getValue()).isAfterOrEqualTo(before.plus(Duration.ofMinutes(10)));
+        ArgumentCaptor<Instant> releaseUntil = ArgumentCaptor.forClass(Instant.class);
+        verify(lockProvider).unlock(eq(lease), releaseUntil.capture());
+        assertThat(releaseUntil.getValue()).isAfterOrEqualTo(before.plusSeconds(30));
+        assertThat(meterRegistry.get("hotel.scheduler.lock.acquired").tag("name", "job").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hotel.scheduler.lock.duration").tag("name", "job").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipWhenLockIsHeldElsewhere() {
+        when(lockProvider.tryLock(eq("job"), any())).thenReturn(Optional.empty());
+
+        job.run();
+
+        assertThat(target.runs.get()).isZero();
+        verify(lockProvider, never()).unlock(any(), any());
+        assertThat(meterRegistry.get("hotel.scheduler.lock.contention").tag("name", "job").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldReleaseWhenJobFails() {
+        JdbcLockProvider.Lease lease = new JdbcLockProvider.Lease("job", Instant.now());
+        when(lockProvider.tryLock(eq("job"), any())).thenReturn(Optional.of(lease));
+        target.fail = true;
+
+        assertThatThrownBy(job::run).isInstanceOf(IllegalStateException.class);
+        verify(lockProvider).unlock(eq(lease), any());
+    }
+
+    static class Job {
+
+        final AtomicInteger runs = new AtomicInteger();
+
+        boolean fail;
+
+        @SchedulerLock(name = "job", lockAtMostFor = "PT10M", lockAtLeastFor = "PT30S")
+        public void run() {
+            if (fail) {
+                throw new IllegalStateException("boom");
+            }
+            runs.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.hotel.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Unit tests for the {@link AsyncConfiguration.QueueingTaskExecutor} used with
+ * virtual threads.
+ */
+class AsyncConfigurationTest {
+
+    @Test
+    void shouldQueueTasksOverTheLimitInsteadOfBlocking() throws Exception {
+        AsyncConfiguration.QueueingTaskExecutor executor = new AsyncConfiguration.QueueingTaskExecutor(new SimpleAsyncTaskExecutor(), 2, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            done.countDown();
+        };
+        executor.execute(blocked);
+        executor.execute(blocked);
+
+        CountDownLatch queued = new CountDownLatch(1);
+        executor.execute(queued::countDown);
+        assertThat(queued.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        // The queue is full
+        assertThatThrownBy(() -> executor.execute(() -> {})).isInstanceOf(TaskRejectedException.class);
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldRunEveryQueuedTask() throws Exception {
+        AsyncConfiguration.QueueingTaskExecutor executor = new AsyncConfiguration.QueueingTaskExecutor(new SimpleAsyncTaskExecutor(), 3, 1000);
+        CountDownLatch ran = new CountDownLatch(500);
+        for (int i = 0; i < 500; i++) {
+            executor.execute(ran::countDown);
+        }
+        assertThat(ran.await(10, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void shouldReleaseThePermitOfAFailedTask() throws Exception {
+        AsyncConfiguration.QueueingTaskExecutor executor = new AsyncConfiguration.QueueingTaskExecutor(new SimpleAsyncTaskExecutor(), 1, 1);
+        CountDownLatch failed = new CountDownLatch(1);
+        executor.execute(() -> {
+            failed.countDown();
+            throw new IllegalStateException("boom");
+        });
+        assertThat(failed.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CountDownLatch ran = new CountDownLatch(1);
+        executor.execute(ran::countDown);
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
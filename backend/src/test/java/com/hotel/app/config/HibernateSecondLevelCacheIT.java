@@ -0,0 +1,177 @@
+package com.hotel.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.hotel.app.IntegrationTest;
+import com.hotel.app.domain.CategoriaHabitacion;
+import com.hotel.app.domain.ConfiguracionSistema;
+import com.hotel.app.domain.EstadoHabitacion;
+import com.hotel.app.domain.Habitacion;
+import com.hotel.app.domain.enumeration.CategoriaHabitacionNombre;
+import com.hotel.app.domain.enumeration.EstadoHabitacionNombre;
+import com.hotel.app.domain.enumeration.TipoConfiguracion;
+import com.hotel.app.repository.CategoriaHabitacionRepository;
+import com.hotel.app.repository.ConfiguracionSistemaRepository;
+import com.hotel.app.repository.EstadoHabitacionRepository;
+import com.hotel.app.repository.HabitacionRepository;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+/**
+ * Query counts of the room endpoints with the second-level cache, which the
+ * other tests run without. Nothing runs in a test transaction: the cache is
+ * only filled and read by committed transactions.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@TestPropertySource(
+    properties = {
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=true",
+    }
+)
+class HibernateSecondLevelCacheIT {
+
+    private static final int HABITACIONES = 6;
+
+    @Autowired
+    private HabitacionRepository habitacionRepository;
+
+    @Autowired
+    private CategoriaHabitacionRepository categoriaHabitacionRepository;
+
+    @Autowired
+    private EstadoHabitacionRepository estadoHabitacionRepository;
+
+    @Autowired
+    private ConfiguracionSistemaRepository configuracionSistemaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<Habitacion> habitaciones = new ArrayList<>();
+
+    private final List<CategoriaHabitacion> categorias = new ArrayList<>();
+
+    private EstadoHabitacion estado;
+
+    private ConfiguracionSistema configuracion;
+
+    @BeforeEach
+    void initTest() {
+        estado = estadoHabitacionRepository.save(new EstadoHabitacion().nombre(EstadoHabitacionNombre.DISPONIBLE).activo(true));
+        categorias.add(
+            categoriaHabitacionRepository.save(
+                new CategoriaHabitacion().nombre(CategoriaHabitacionNombre.SENCILLA).precioBase(new BigDecimal("60.00")).activo(true)
+            )
+        );
+        categorias.add(
+            categoriaHabitacionRepository.save(
+                new CategoriaHabitacion().nombre(CategoriaHabitacionNombre.SUITE).precioBase(new BigDecimal("150.00")).activo(true)
+            )
+        );
+        for (int i = 0; i < HABITACIONES; i++) {
+            habitaciones.add(
+                habitacionRepository.save(
+                    new Habitacion()
+                        .numero("L2-" + UUID.randomUUID().toString().substring(0, 8))
+                        .capacidad(2)
+                        .activo(true)
+                        .categoriaHabitacion(categorias.get(i % categorias.size()))
+                        .estadoHabitacion(estado)
+                )
+            );
+        }
+        entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictAllRegions();
+    }
+
+    @AfterEach
+    void cleanup() {
+        habitacionRepository.deleteAll(habitaciones);
+        habitaciones.clear();
+        categoriaHabitacionRepository.deleteAll(categorias);
+        categorias.clear();
+        estadoHabitacionRepository.delete(estado);
+        if (configuracion != null) {
+            configuracionSistemaRepository.delete(configuracion);
+            configuracion = null;
+        }
+    }
+
+    @Test
+    void roomListReadsCategoriasAndEstadosFromTheCache() throws Exception {
+        // Our rooms have the highest ids, so they fill the page
+        RequestBuilder listado = get("/api/habitacions?sort=id,desc&size={size}", HABITACIONES);
+
+        long cold = queries(listado);
+        long warm = queries(listado);
+
+        // Page and count only; the two categorias and the estado no longer hit the database
+        assertThat(warm).isLessThanOrEqualTo(2);
+        assertThat(cold - warm).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void availabilityReadsCategoriasAndEstadosFromTheCache() throws Exception {
+        RequestBuilder disponibles = get(
+            "/api/habitacions/available?fechaInicio={inicio}&fechaFin={fin}&sort=id,desc&size={size}",
+            "2090-01-10T15:00:00Z",
+            "2090-01-12T11:00:00Z",
+            HABITACIONES
+        );
+
+        long cold = queries(disponibles);
+        long warm = queries(disponibles);
+
+        // Occupied rooms, page and count
+        assertThat(warm).isLessThanOrEqualTo(3);
+        assertThat(cold - warm).isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void configuracionLookupsUseTheQueryCacheUntilTheTableChanges() {
+        String clave = "L2_" + UUID.randomUUID().toString().substring(0, 8);
+        configuracion = configuracionSistemaRepository.save(
+            new ConfiguracionSistema().clave(clave).valor("Hola").tipo(TipoConfiguracion.MENSAJE).activo(true)
+        );
+
+        QueryCountInspector.reset();
+        assertThat(configuracionSistemaRepository.findByClave(clave)).isPresent();
+        assertThat(QueryCountInspector.count()).isEqualTo(1);
+
+        QueryCountInspector.reset();
+        assertThat(configuracionSistemaRepository.findByClave(clave)).hasValueSatisfying(c -> assertThat(c.getValor()).isEqualTo("Hola"));
+        assertThat(QueryCountInspector.count()).isZero();
+
+        configuracion = configuracionSistemaRepository.save(configuracion.valor("Adios"));
+
+        QueryCountInspector.reset();
+        assertThat(configuracionSistemaRepository.findByClave(clave)).hasValueSatisfying(c -> assertThat(c.getValor()).isEqualTo("Adios"));
+        assertThat(QueryCountInspector.count()).isEqualTo(1);
+    }
+
+    private long queries(RequestBuilder request) throws Exception {
+        QueryCountInspector.reset();
+        mockMvc.perform(request).andExpect(status().isOk()).andExpect(jsonPath("$.length()").value(HABITACIONES));
+        return QueryCountInspector.count();
+    }
+}
@@ -0,0 +1,88 @@
+package com.hotel.app.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.aop.lock.JdbcLockProvider;
+import com.hotel.app.service.job.JobRunHistory;
+import com.hotel.app.service.job.ManagedJob;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.task.TaskRejectedException;
+
+/**
+ * Unit tests for the manual trigger of {@link JobsEndpoint}.
+ */
+class JobsEndpointTest {
+
+    private ManagedJob job;
+
+    private Executor executor;
+
+    private JdbcLockProvider lockProvider;
+
+    private JobsEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        job = mock(ManagedJob.class);
+        when(job.getJobName()).thenReturn("reservaHoldExpiry");
+        when(job.getLockName()).thenReturn("reservaHoldExpiry");
+        when(job.isEnabled()).thenReturn(true);
+        executor = mock(Executor.class);
+        lockProvider = mock(JdbcLockProvider.class);
+        endpoint = new JobsEndpoint(List.of(job), mock(JobRunHistory.class), executor, lockProvider);
+    }
+
+    @Test
+    void shouldRunTheJobInTheBackground() {
+        WebEndpointResponse<Map<String, String>> response = endpoint.trigger("reservaHoldExpiry");
+
+        assertThat(response.getStatus()).isEqualTo(202);
+        assertThat(response.getBody()).containsEntry("status", "triggered");
+        verify(executor).execute(any());
+    }
+
+    @Test
+    void shouldAnswerConflictWhenTheLockIsHeld() {
+        when(lockProvider.isLocked("reservaHoldExpiry")).thenReturn(true);
+
+        WebEndpointResponse<Map<String, String>> response = endpoint.trigger("reservaHoldExpiry");
+
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getBody()).containsEntry("status", "skipped: lock held");
+        verify(executor, never()).execute(any());
+    }
+
+    @Test
+    void shouldAnswerConflictWhenTheJobIsDisabled() {
+        when(job.isEnabled()).thenReturn(false);
+
+        WebEndpointResponse<Map<String, String>> response = endpoint.trigger("reservaHoldExpiry");
+
+        assertThat(response.getStatus()).isEqualTo(409);
+        assertThat(response.getBody()).containsEntry("status", "disabled");
+        verify(executor, never()).execute(any());
+    }
+
+    @Test
+    void shouldAnswerUnavailableWhenTheExecutorRejectsTheRun() {
+        doThrow(new TaskRejectedException("full")).when(executor).execute(any());
+
+        assertThat(endpoint.trigger("reservaHoldExpiry").getStatus()).isEqualTo(503);
+    }
+
+    @Test
+    void shouldAnswerNotFoundForUnknownJobs() {
+        assertThat(endpoint.trigger("otro").getStatus()).isEqualTo(404);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ClienteImportParserTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldReadCsvWithQuotesAndMultilineValues() throws IOException {
+        List<ClienteImportParser.Fila> filas = leer(
+            ClienteImportService.Formato.CSV,
+            "\uFEFFNombre,Apellido,numero_identificacion\r\n" + "Ana,\"Pérez, \"\"la jefa\"\"\",001\r\n" + "\r\n" + "Luis,\"Línea\nsegunda\",002\n"
+        );
+
+        assertThat(filas).hasSize(2);
+        assertThat(filas.get(0).linea()).isEqualTo(2);
+        assertThat(filas.get(0).campos()).containsEntry("nombre", "Ana").containsEntry("apellido", "Pérez, \"la jefa\"");
+        assertThat(filas.get(0).campos()).containsEntry("numeroidentificacion", "001");
+        assertThat(filas.get(1).linea()).isEqualTo(4);
+        assertThat(filas.get(1).campos()).containsEntry("apellido", "Línea\nsegunda");
+    }
+
+    @Test
+    void shouldDetectSemicolonSeparator() throws IOException {
+        List<ClienteImportParser.Fila> filas = leer(ClienteImportService.Formato.CSV, "nombre;correo\nAna;ana@hotel.com");
+
+        assertThat(filas).singleElement().satisfies(f -> assertThat(f.campos()).containsEntry("correo", "ana@hotel.com"));
+    }
+
+    @Test
+    void shouldReportRowsWithTooManyValues() throws IOException {
+        List<ClienteImportParser.Fila> filas = leer(ClienteImportService.Formato.CSV, "nombre\nAna,Pérez\n");
+
+        assertThat(filas).singleElement().satisfies(f -> assertThat(f.error()).contains("More values"));
+    }
+
+    @Test
+    void shouldFailOnUnclosedQuote() {
+        assertThatThrownBy(() -> leer(ClienteImportService.Formato.CSV, "nombre\n\"Ana\n")).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void shouldReadNdjsonAndReportInvalidLines() throws IOException {
+        List<ClienteImportParser.Fila> filas = leer(
+            ClienteImportService.Formato.NDJSON,
+            "{\"nombre\":\"Ana\",\"activo\":false,\"direccion\":null}\n\n{nombre\n[1]\n"
+        );
+
+        assertThat(filas).hasSize(3);
+        assertThat(filas.get(0).campos()).containsEntry("nombre", "Ana").containsEntry("activo", "false").containsEntry("direccion", null);
+        assertThat(filas.get(1).linea()).isEqualTo(3);
+        assertThat(filas.get(1).error()).startsWith("Invalid JSON");
+        assertThat(filas.get(2).error()).isEqualTo("Not a JSON object");
+    }
+
+    private List<ClienteImportParser.Fila> leer(ClienteImportService.Formato formato, String contenido) throws IOException {
+        List<ClienteImportParser.Fila> filas = new ArrayList<>();
+        try (ClienteImportParser parser = new ClienteImportParser(new StringReader(contenido), formato, objectMapper)) {
+            ClienteImportParser.Fila fila;
+            while ((fila = parser.siguiente()) != null) {
+                filas.add(fila);
+            }
+        }
+        return filas;
+    }
+}
@@ -0,0 +1,258 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.service.ClienteImportService.Formato;
+import com.hotel.app.service.ClienteImportService.ImportacionNoValidaException;
+import com.hotel.app.service.dto.ClienteImportDTO;
+import com.hotel.app.service.mapper.ClienteMapperImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+class ClienteImportServiceTest {
+
+    private static final String CABECERA = "nombre,apellido,correo,telefono,tipo_identificacion,numero_identificacion,fecha_nacimiento\n";
+
+    @TempDir
+    Path tempDir;
+
+    private ClienteRepository clienteRepository;
+
+    private KeycloakProvisioningService keycloakProvisioningService;
+
+    private ApplicationProperties properties;
+
+    private ClienteImportService importService;
+
+    private final List<List<Cliente>> lotes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository = mock(ClienteRepository.class);
+        keycloakProvisioningService = mock(KeycloakProvisioningService.class);
+        AtomicLong ids = new AtomicLong(1000);
+        doAnswer(invocation -> {
+            List<Cliente> clientes = new ArrayList<>();
+            invocation.<Iterable<Cliente>>getArgument(0).forEach(clientes::add);
+            clientes.forEach(c -> c.setId(ids.incrementAndGet()));
+            lotes.add(clientes);
+            return clientes;
+        }).when(clienteRepository).saveAll(any());
+        properties = new ApplicationProperties();
+        properties.getClientes().getImportacion().setLote(2);
+        importService = new ClienteImportService(
+            clienteRepository,
+            new ClienteMapperImpl(),
+            keycloakProvisioningService,
+            new ObjectMapper(),
+            properties,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        importService.detener();
+    }
+
+    @Test
+    void shouldInsertValidRowsInBatchesAndReportTheOthers() throws Exception {
+        ClienteImportDTO reporte = importar(
+            false,
+            CABECERA +
+            "Ana,Pérez,ana@hotel.com,555,,,\n" +
+            "Luis,Gómez,luis@hotel.com,556,PASAPORTE,P1,1990-01-31\n" +
+            "Eva,Ruiz,correo-malo,557,,,\n" +
+            "Eva,Ruiz,eva@hotel.com,557,TARJETA,,\n" +
+            "Eva,Ruiz,eva@hotel.com,557,,,2015-01-01\n" +
+            "Eva,Ruiz,eva@hotel.com,557,CEDULA,001-010190-0000A,1991-01-01\n" +
+            "Eva,Ruiz,,557,,,\n" +
+            "Eva,Ruiz,eva@hotel.com,557,,,\n" +
+            "Ana,Otra,ANA@hotel.com,558,,,\n" +
+            "Leo,Díaz,leo@hotel.com,559,PASAPORTE,P1,\n"
+        );
+
+        assertThat(reporte.getEstado()).isEqualTo("COMPLETADA");
+        assertThat(reporte.getLeidas()).isEqualTo(10);
+        assertThat(reporte.getImportadas()).isEqualTo(3);
+        assertThat(reporte.getInvalidas()).isEqualTo(5);
+        assertThat(reporte.getDuplicadas()).isEqualTo(2);
+        assertThat(reporte.getErrores())
+            .extracting(ClienteImportDTO.Error::getLinea, ClienteImportDTO.Error::getMensaje)
+            .contains(
+                tuple(4L, "Invalid email: correo-malo"),
+                tuple(6L, "User must be at least 18 years old"),
+                tuple(7L, "Cedula does not match date of birth"),
+                tuple(8L, "Missing correo")
+            );
+        assertThat(lotes).hasSize(2);
+        assertThat(lotes.get(0)).extracting(Cliente::getCorreo).containsExactly("ana@hotel.com", "luis@hotel.com");
+        assertThat(lotes.get(1)).extracting(Cliente::getCorreo).containsExactly("eva@hotel.com");
+        assertThat(lotes.get(1).get(0).getActivo()).isTrue();
+        verify(clienteRepository, never()).marcarProvisionesPendientes(anyCollection(), any());
+        verify(keycloakProvisioningService, never()).provisionar(anyLong());
+    }
+
+    @Test
+    void shouldSkipClientesAlreadyInTheDatabaseWithOneQueryPerBatch() throws Exception {
+        when(clienteRepository.findCorreosExistentes(anyCollection())).thenReturn(List.of("ana@hotel.com"));
+        when(clienteRepository.findNumerosIdentificacionExistentes(anyCollection())).thenReturn(List.of("P2"));
+
+        ClienteImportDTO reporte = importar(
+            false,
+            CABECERA + "Ana,Pérez,Ana@Hotel.com,555,,,\n" + "Luis,Gómez,luis@hotel.com,556,PASAPORTE,P2,\n" + "Eva,Ruiz,eva@hotel.com,557,,,\n"
+        );
+
+        assertThat(reporte.getImportadas()).isEqualTo(1);
+        assertThat(reporte.getDuplicadas()).isEqualTo(2);
+        verify(clienteRepository, times(2)).findCorreosExistentes(anyCollection());
+        verify(clienteRepository, times(1)).findNumerosIdentificacionExistentes(anyCollection());
+    }
+
+    @Test
+    void shouldInsertRowByRowWhenABatchFails() throws Exception {
+        doAnswer(invocation -> {
+            List<Cliente> clientes = new ArrayList<>();
+            invocation.<Iterable<Cliente>>getArgument(0).forEach(clientes::add);
+            if (clientes.size() > 1 || "luis@hotel.com".equals(clientes.get(0).getCorreo())) {
+                throw new DataIntegrityViolationException("duplicate key value violates unique constraint");
+            }
+            clientes.forEach(c -> c.setId(1L));
+            return clientes;
+        }).when(clienteRepository).saveAll(any());
+
+        ClienteImportDTO reporte = importar(false, CABECERA + "Ana,Pérez,ana@hotel.com,555,,,\n" + "Luis,Gómez,luis@hotel.com,556,,,\n");
+
+        assertThat(reporte.getImportadas()).isEqualTo(1);
+        assertThat(reporte.getInvalidas()).isEqualTo(1);
+        assertThat(reporte.getErrores()).singleElement().satisfies(e -> {
+            assertThat(e.getLinea()).isEqualTo(3);
+            assertThat(e.getMensaje()).startsWith("Could not be saved");
+        });
+    }
+
+    @Test
+    void shouldCreateTheAccountsOfTheImportedClientes() throws Exception {
+        when(keycloakProvisioningService.provisionar(1001L)).thenReturn(true);
+        when(keycloakProvisioningService.provisionar(1002L)).thenReturn(false);
+        when(keycloakProvisioningService.provisionar(1003L)).thenThrow(new IllegalStateException("Keycloak is down"));
+
+        ClienteImportDTO reporte = importar(
+            true,
+            CABECERA + "Ana,Pérez,ana@hotel.com,555,,,\n" + "Luis,Gómez,luis@hotel.com,556,,,\n" + "Eva,Ruiz,eva@hotel.com,557,,,\n"
+        );
+
+        assertThat(reporte.getEstado()).isEqualTo("COMPLETADA");
+        assertThat(reporte.getCuentasCreadas()).isEqualTo(1);
+        assertThat(reporte.getCuentasPendientes()).isEqualTo(2);
+        verify(clienteRepository).marcarProvisionesPendientes(eq(List.of(1001L, 1002L)), any());
+        verify(clienteRepository).marcarProvisionesPendientes(eq(List.of(1003L)), any());
+    }
+
+    @Test
+    void shouldImportNdjson() throws Exception {
+        ClienteImportDTO reporte = importar(
+            Formato.NDJSON,
+            false,
+            "{\"nombre\":\"Ana\",\"apellido\":\"Pérez\",\"correo\":\"ana@hotel.com\",\"telefono\":\"555\",\"activo\":false}\n{\"nombre\":\n"
+        );
+
+        assertThat(reporte.getImportadas()).isEqualTo(1);
+        assertThat(reporte.getInvalidas()).isEqualTo(1);
+        assertThat(lotes.get(0).get(0).getActivo()).isFalse();
+    }
+
+    @Test
+    void shouldRejectFilesOverTheLimit() {
+        properties.getClientes().getImportacion().setMaxSize(DataSize.ofBytes(10));
+        ClienteImportService limitado = new ClienteImportService(
+            clienteRepository,
+            new ClienteMapperImpl(),
+            keycloakProvisioningService,
+            new ObjectMapper(),
+            properties,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry()
+        );
+        try {
+            assertThatThrownBy(() ->
+                limitado.iniciar(new ByteArrayInputStream(CABECERA.getBytes(StandardCharsets.UTF_8)), Formato.CSV, false)
+            )
+                .isInstanceOfSatisfying(ImportacionNoValidaException.class, e -> assertThat(e.getKey()).isEqualTo("importtoolarge"));
+        } finally {
+            limitado.detener();
+        }
+    }
+
+    @Test
+    void shouldRunUploadsInTheBackground() throws Exception {
+        ClienteImportDTO inicial = importService
+            .iniciar(new ByteArrayInputStream((CABECERA + "Ana,Pérez,ana@hotel.com,555,,,\n").getBytes(StandardCharsets.UTF_8)), Formato.CSV, false)
+            .orElseThrow();
+
+        assertThat(inicial.getId()).isNotNull();
+        ClienteImportDTO reporte = esperar(inicial.getId());
+        assertThat(reporte.getImportadas()).isEqualTo(1);
+        assertThat(importService.findAll()).extracting(ClienteImportDTO::getId).containsExactly(inicial.getId());
+    }
+
+    private ClienteImportDTO importar(boolean cuentas, String contenido) throws Exception {
+        return importar(Formato.CSV, cuentas, contenido);
+    }
+
+    private ClienteImportDTO importar(Formato formato, boolean cuentas, String contenido) throws Exception {
+        Path archivo = tempDir.resolve("clientes." + formato.name().toLowerCase());
+        Files.writeString(archivo, contenido);
+        ClienteImportService.Importacion importacion = new ClienteImportService.Importacion(formato, cuentas, 100);
+        importService.importar(importacion, archivo);
+        return esperar(importacion);
+    }
+
+    private ClienteImportDTO esperar(ClienteImportService.Importacion importacion) throws InterruptedException {
+        for (int i = 0; i < 500 && !importacion.terminada(); i++) {
+            Thread.sleep(10);
+        }
+        return importacion.toDto();
+    }
+
+    private ClienteImportDTO esperar(String id) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            ClienteImportDTO dto = importService.findOne(id).orElseThrow();
+            if ("COMPLETADA".equals(dto.getEstado()) || "FALLIDA".equals(dto.getEstado())) {
+                return dto;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import " + id + " did not finish");
+    }
+}
@@ -0,0 +1,184 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.dto.EmployeeDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.ws.rs.ProcessingException;
+import java.sql.ResultSet;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.keycloak.admin.client.resource.RealmResource;
+import org.keycloak.admin.client.resource.RoleMappingResource;
+import org.keycloak.admin.client.resource.RoleResource;
+import org.keycloak.admin.client.resource.RoleScopeResource;
+import org.keycloak.admin.client.resource.RolesResource;
+import org.keycloak.admin.client.resource.UserResource;
+import org.keycloak.admin.client.resource.UsersResource;
+import org.keycloak.representations.idm.RoleRepresentation;
+import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class EmployeeDirectoryServiceTest {
+
+    private RealmResource realm;
+
+    private RoleResource admins;
+
+    private RoleResource employees;
+
+    private UsersResource users;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ApplicationProperties properties;
+
+    private EmployeeDirectoryService directoryService;
+
+    @BeforeEach
+    void setUp() {
+        Keycloak keycloak = mock(Keycloak.class);
+        realm = mock(RealmResource.class);
+        RolesResource roles = mock(RolesResource.class);
+        admins = mock(RoleResource.class);
+        employees = mock(RoleResource.class);
+        users = mock(UsersResource.class);
+        when(keycloak.realm("jhipster")).thenReturn(realm);
+        when(realm.roles()).thenReturn(roles);
+        when(realm.users()).thenReturn(users);
+        when(roles.get(EmployeeDirectoryService.ROLE_ADMIN)).thenReturn(admins);
+        when(roles.get(EmployeeDirectoryService.ROLE_EMPLOYEE)).thenReturn(employees);
+
+        jdbcTemplate = mock(JdbcTemplate.class);
+        properties = new ApplicationProperties();
+        properties.getKeycloak().getEmpleados().setPageSize(2);
+        directoryService = new EmployeeDirectoryService(
+            keycloak,
+            properties,
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @Test
+    void shouldListEachEmployeeOnceWithAdminsFirst() {
+        when(admins.getUserMembers(0, 2)).thenReturn(List.of(user("Jefe")));
+        when(employees.getUserMembers(0, 2)).thenReturn(List.of(user("ana"), user("jefe")));
+        when(employees.getUserMembers(2, 2)).thenReturn(List.of(user("luis")));
+
+        assertThat(directoryService.findAll())
+            .extracting(EmployeeDTO::getLogin, EmployeeDTO::getRole)
+            .containsExactly(
+                tuple("Jefe", "ADMIN"),
+                tuple("ana", "EMPLOYEE"),
+                tuple("luis", "EMPLOYEE")
+            );
+        assertThat(directoryService.findByLogin("JEFE")).map(EmployeeDTO::getRole).contains("ADMIN");
+        verify(jdbcTemplate).batchUpdate(anyString(), any(List.class));
+    }
+
+    @Test
+    void shouldServeReadsFromMemory() {
+        when(admins.getUserMembers(0, 2)).thenReturn(List.of(user("jefe")));
+        when(employees.getUserMembers(0, 2)).thenReturn(List.of());
+
+        directoryService.findAll();
+        directoryService.findAll();
+        directoryService.findByLogin("jefe");
+
+        verify(admins).getUserMembers(0, 2);
+    }
+
+    @Test
+    void shouldKeepTheLastDirectoryWhenKeycloakIsDown() {
+        when(admins.getUserMembers(0, 2)).thenReturn(List.of(user("jefe")));
+        when(employees.getUserMembers(0, 2)).thenReturn(List.of());
+        assertThat(directoryService.findAll()).hasSize(1);
+
+        when(admins.getUserMembers(0, 2)).thenThrow(new ProcessingException("Connection refused"));
+
+        assertThat(directoryService.refrescar()).isFalse();
+        assertThat(directoryService.findAll()).extracting(EmployeeDTO::getLogin).containsExactly("jefe");
+    }
+
+    @Test
+    void shouldServeTheStoredCopyWhenKeycloakIsDownAtStartup() throws Exception {
+        when(admins.getUserMembers(0, 2)).thenThrow(new ProcessingException("Connection refused"));
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("login")).thenReturn("jefe");
+        when(rs.getString("role")).thenReturn("ADMIN");
+        when(rs.getBoolean("active")).thenReturn(true);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+
+        assertThat(directoryService.findAll()).extracting(EmployeeDTO::getLogin).containsExactly("jefe");
+        assertThat(directoryService.findAll()).hasSize(1);
+        verify(admins).getUserMembers(0, 2);
+    }
+
+    @Test
+    void shouldReReadOnlyTheChangedEmployee() {
+        when(admins.getUserMembers(0, 2)).thenReturn(List.of());
+        when(employees.getUserMembers(0, 2)).thenReturn(List.of(user("ana"), user("luis")));
+        directoryService.findAll();
+
+        UserRepresentation ana = user("ana");
+        ana.setEnabled(false);
+        when(users.search("ana", true)).thenReturn(List.of(ana));
+        realmRoles(ana, "ROLE_EMPLOYEE");
+        UserRepresentation luis = user("luis");
+        when(users.search("luis", true)).thenReturn(List.of(luis));
+        realmRoles(luis, "ROLE_ADMIN");
+        UserRepresentation nuevo = user("nuevo");
+        when(users.search("nuevo", true)).thenReturn(List.of(nuevo));
+        realmRoles(nuevo, "ROLE_CLIENT");
+
+        directoryService.actualizar("ana");
+        directoryService.actualizar("luis");
+        directoryService.actualizar("nuevo");
+
+        assertThat(directoryService.findAll())
+            .extracting(EmployeeDTO::getLogin, EmployeeDTO::getRole, EmployeeDTO::isActive)
+            .containsExactly(
+                tuple("luis", "ADMIN", true),
+                tuple("ana", "EMPLOYEE", false)
+            );
+        verify(jdbcTemplate).update("delete from employee_directory where login = ?", "nuevo");
+    }
+
+    private void realmRoles(UserRepresentation user, String role) {
+        UserResource userResource = mock(UserResource.class);
+        RoleMappingResource mappings = mock(RoleMappingResource.class);
+        RoleScopeResource realmLevel = mock(RoleScopeResource.class);
+        when(users.get(user.getId())).thenReturn(userResource);
+        when(userResource.roles()).thenReturn(mappings);
+        when(mappings.realmLevel()).thenReturn(realmLevel);
+        RoleRepresentation representation = new RoleRepresentation();
+        representation.setName(role);
+        when(realmLevel.listAll()).thenReturn(List.of(representation));
+    }
+
+    private static UserRepresentation user(String username) {
+        UserRepresentation user = new UserRepresentation();
+        user.setId("id-" + username);
+        user.setUsername(username);
+        user.setEmail(username + "@hotel.com");
+        user.setEnabled(true);
+        return user;
+    }
+}
@@ -0,0 +1,196 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.ImagenContentStore.ContenidoNoValidoException;
+import com.hotel.app.service.ImagenContentStore.StoredContent;
+import com.hotel.app.service.storage.LocalImagenStorage;
+import com.sun.management.ThreadMXBean;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class ImagenContentStoreTest {
+
+    // SHA-256 of "hola"
+    private static final String SHA_HOLA = "b221d9dbb083a7f33428d7c2a3c3198ae925614d70210e28716ccaa7cd4ddb79";
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A };
+
+    @TempDir
+    Path tmp;
+
+    private Path root;
+
+    private ApplicationProperties properties;
+
+    private ImagenContentStore store;
+
+    @BeforeEach
+    void setUp() {
+        root = tmp.resolve("images");
+        properties = new ApplicationProperties();
+        properties.setImagePath(root.toString());
+        store = new ImagenContentStore(properties, new LocalImagenStorage(properties));
+    }
+
+    @Test
+    void shouldStoreContentUnderItsHash() throws Exception {
+        StoredContent stored = store.store(bytes("hola"), "image/png");
+
+        assertThat(stored.sha256()).isEqualTo(SHA_HOLA);
+        assertThat(stored.size()).isEqualTo(4);
+        assertThat(stored.path()).isEqualTo("cas/b2/21/" + SHA_HOLA + ".png");
+        assertThat(Files.readString(root.resolve(stored.path()))).isEqualTo("hola");
+    }
+
+    @Test
+    void shouldStoreIdenticalContentOnce() throws Exception {
+        StoredContent first = store.store(bytes("hola"), "image/png");
+        StoredContent second = store.store(bytes("hola"), "image/png");
+
+        assertThat(second).isEqualTo(first);
+        try (Stream<Path> files = Files.walk(root.resolve("cas"))) {
+            assertThat(files.filter(Files::isRegularFile)).hasSize(1);
+        }
+        try (Stream<Path> parts = Files.list(root.resolve(".tmp"))) {
+            assertThat(parts).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldRefreshTheDateOfContentStoredAgain() throws Exception {
+        StoredContent first = store.store(bytes("hola"), "image/png");
+        Path file = root.resolve(first.path());
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        store.store(bytes("hola"), "image/png");
+
+        assertThat(Files.getLastModifiedTime(file).toInstant()).isAfter(Instant.now().minus(1, ChronoUnit.MINUTES));
+    }
+
+    @Test
+    void shouldTouchDerivedFilesThatAlreadyExist() throws Exception {
+        assertThat(store.put("variants/b2/derivada.jpg", out -> out.write(1))).isTrue();
+        Path file = root.resolve("variants/b2/derivada.jpg");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(1, ChronoUnit.DAYS)));
+
+        assertThat(store.put("variants/b2/derivada.jpg", out -> out.write(2))).isFalse();
+
+        assertThat(Files.readAllBytes(file)).containsExactly(1);
+        assertThat(Files.getLastModifiedTime(file).toInstant()).isAfter(Instant.now().minus(1, ChronoUnit.MINUTES));
+    }
+
+    @Test
+    void shouldResolveOnlyFilesUnderTheRoot() throws Exception {
+        StoredContent stored = store.store(bytes("hola"), "image/jpeg");
+        Files.writeString(tmp.resolve("fuera.txt"), "x");
+
+        assertThat(store.resolve(stored.path())).contains(root.resolve(stored.path()).toAbsolutePath().normalize());
+        assertThat(store.resolve("../fuera.txt")).isEmpty();
+        assertThat(store.resolve("cas/no/existe.png")).isEmpty();
+        assertThat(store.delete(stored.path())).isTrue();
+        assertThat(store.resolve(stored.path())).isEmpty();
+    }
+
+    @Test
+    void shouldSniffUploadType() throws Exception {
+        StoredContent stored = store.storeUpload(png(100));
+
+        assertThat(stored.contentType()).isEqualTo("image/png");
+        assertThat(stored.path()).endsWith(".png");
+        assertThat(stored.size()).isEqualTo(100);
+    }
+
+    @Test
+    void shouldRejectUploadsThatAreNotImages() {
+        assertThatThrownBy(() -> store.storeUpload(bytes("<svg onload=alert(1)>")))
+            .isInstanceOf(ContenidoNoValidoException.class)
+            .extracting("key")
+            .isEqualTo("imagetypeinvalid");
+        assertThatThrownBy(() -> store.storeUpload(bytes("")))
+            .isInstanceOf(ContenidoNoValidoException.class)
+            .extracting("key")
+            .isEqualTo("imageempty");
+    }
+
+    @Test
+    void shouldRejectUploadsOverTheLimitWithoutKeepingThem() throws Exception {
+        properties.getImagenes().setMaxUploadSize(DataSize.ofKilobytes(64));
+
+        assertThatThrownBy(() -> store.storeUpload(png(64 * 1024 + 1)))
+            .isInstanceOf(ContenidoNoValidoException.class)
+            .extracting("key")
+            .isEqualTo("imagetoolarge");
+        assertThat(root.resolve("cas")).doesNotExist();
+        try (Stream<Path> parts = Files.list(root.resolve(".tmp"))) {
+            assertThat(parts).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldStreamUploadsWithoutBufferingThem() throws Exception {
+        long size = DataSize.ofMegabytes(16).toBytes();
+        properties.getImagenes().setMaxUploadSize(DataSize.ofMegabytes(32));
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        store.storeUpload(png(DataSize.ofMegabytes(1).toBytes()));
+
+        long before = threads.getThreadAllocatedBytes(thread);
+        StoredContent stored = store.storeUpload(png(size));
+        long allocated = threads.getThreadAllocatedBytes(thread) - before;
+
+        assertThat(stored.size()).isEqualTo(size);
+        assertThat(Files.size(root.resolve(stored.path()))).isEqualTo(size);
+        // A byte[] copy of the upload alone would be 16 MB
+        assertThat(allocated).isLessThan(DataSize.ofKilobytes(512).toBytes());
+    }
+
+    /**
+     * A PNG signature followed by filler, generated without allocating.
+     */
+    private static InputStream png(long size) {
+        return new InputStream() {
+            private long pos;
+
+            @Override
+            public int read() {
+                return pos < size ? next() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                if (pos >= size) {
+                    return -1;
+                }
+                int n = (int) Math.min(len, size - pos);
+                for (int i = 0; i < n; i++) {
+                    b[off + i] = next();
+                }
+                return n;
+            }
+
+            private byte next() {
+                long i = pos++;
+                return i < PNG_SIGNATURE.length ? PNG_SIGNATURE[(int) i] : (byte) i;
+            }
+        };
+    }
+
+    private static ByteArrayInputStream bytes(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,177 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Imagen;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.service.ImagenContentStore.StoredContent;
+import com.hotel.app.service.dto.ImagenVarianteDTO;
+import com.hotel.app.service.storage.LocalImagenStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import javax.imageio.ImageIO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class ImagenVariantServiceTest {
+
+    @TempDir
+    Path root;
+
+    private ApplicationProperties properties;
+
+    private ImagenContentStore store;
+
+    private ImagenRepository imagenRepository;
+
+    private LandingSnapshotService landingSnapshotService;
+
+    private ImagenVariantService service;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApplicationProperties();
+        properties.setImagePath(root.toString());
+        properties.getImagenes().getVariantes().setAnchos(Map.of("thumb", 100, "card", 300, "hero", 1000));
+        store = new ImagenContentStore(properties, new LocalImagenStorage(properties));
+        imagenRepository = mock(ImagenRepository.class);
+        landingSnapshotService = mock(LandingSnapshotService.class);
+        service = new ImagenVariantService(
+            imagenRepository,
+            store,
+            properties,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(),
+            landingSnapshotService
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.detener();
+    }
+
+    @Test
+    void shouldGenerateVariantsNarrowerThanTheOriginal() throws Exception {
+        StoredContent original = store.storeUpload(new ByteArrayInputStream(image(600, 400, "jpg")));
+
+        List<ImagenVarianteDTO> variantes = service.generarVariantes(original.sha256(), root.resolve(original.path()), original.path());
+
+        assertThat(variantes).extracting(ImagenVarianteDTO::getNombre).containsExactly("thumb", "card", "hero");
+        assertThat(variantes).extracting(ImagenVarianteDTO::getAncho).containsExactly(100, 300, 600);
+        BufferedImage thumb = ImageIO.read(root.resolve(variantes.get(0).getRuta()).toFile());
+        assertThat(thumb.getWidth()).isEqualTo(100);
+        assertThat(thumb.getHeight()).isEqualTo(67);
+        assertThat(variantes.get(0).getRuta()).isEqualTo(
+            "variants/" + original.sha256().substring(0, 2) + "/" + original.sha256() + "-100q82.jpg"
+        );
+        // The original is narrower than hero
+        assertThat(variantes.get(2).getRuta()).isEqualTo(original.path());
+    }
+
+    @Test
+    void shouldKeepTransparencyAsPng() throws Exception {
+        StoredContent original = store.storeUpload(new ByteArrayInputStream(image(400, 400, "png")));
+
+        List<ImagenVarianteDTO> variantes = service.generarVariantes(original.sha256(), root.resolve(original.path()), original.path());
+
+        assertThat(variantes.get(0).getRuta()).endsWith("-100q82.png");
+        assertThat(ImageIO.read(root.resolve(variantes.get(0).getRuta()).toFile()).getColorModel().hasAlpha()).isTrue();
+    }
+
+    @Test
+    void shouldSubsampleTallImagesOnBothAxes() throws Exception {
+        properties.getImagenes().getVariantes().setAnchos(Map.of("thumb", 20, "card", 60, "hero", 100));
+        StoredContent original = store.storeUpload(new ByteArrayInputStream(image(200, 20000, "jpg")));
+
+        List<ImagenVarianteDTO> variantes = service.generarVariantes(original.sha256(), root.resolve(original.path()), original.path());
+
+        // Decoded at a tenth of each side (20x2000); its width alone would not subsample it
+        assertThat(variantes).extracting(ImagenVarianteDTO::getAncho).containsExactly(20, 60, 100);
+        BufferedImage hero = ImageIO.read(root.resolve(variantes.get(2).getRuta()).toFile());
+        assertThat(hero.getWidth()).isEqualTo(100);
+        assertThat(hero.getHeight()).isEqualTo(10000);
+    }
+
+    @Test
+    void shouldSkipImagesOverThePixelLimit() throws Exception {
+        properties.getImagenes().getVariantes().setMaxPixeles(600 * 400 - 1);
+        StoredContent original = store.storeUpload(new ByteArrayInputStream(image(600, 400, "jpg")));
+
+        assertThat(service.generarVariantes(original.sha256(), root.resolve(original.path()), original.path())).isEmpty();
+        assertThat(root.resolve("variants")).doesNotExist();
+    }
+
+    @Test
+    void shouldInvalidateTheLandingOnceTheVariantsAreRecorded() throws Exception {
+        StoredContent original = store.storeUpload(new ByteArrayInputStream(image(600, 400, "jpg")));
+        Imagen imagen = new Imagen().nombreArchivo(original.path());
+        imagen.setId(1L);
+        imagen.setSha256(original.sha256());
+        when(imagenRepository.findById(1L)).thenReturn(Optional.of(imagen));
+        when(imagenRepository.updateVariantes(eq(1L), eq(original.sha256()), anyString(), anyString())).thenReturn(1);
+
+        assertThat(service.generar(1L)).isTrue();
+        verify(landingSnapshotService).invalidate();
+
+        // The content changed meanwhile: nothing recorded, nothing to invalidate
+        when(imagenRepository.updateVariantes(eq(1L), eq(original.sha256()), anyString(), anyString())).thenReturn(0);
+        assertThat(service.generar(1L)).isFalse();
+        verifyNoMoreInteractions(landingSnapshotService);
+    }
+
+    @Test
+    void shouldRoundTripRecordedVariantsAndBuildSrcset() {
+        List<ImagenVarianteDTO> variantes = List.of(
+            new ImagenVarianteDTO("thumb", 100, "variants/ab/x-100q82.jpg"),
+            new ImagenVarianteDTO("card", 300, "variants/ab/x-300q82.jpg")
+        );
+
+        String recorded = ImagenVariantService.escribirVariantes(variantes);
+
+        assertThat(ImagenVariantService.leerVariantes(recorded)).isEqualTo(variantes);
+        assertThat(ImagenVariantService.srcset(variantes)).isEqualTo(
+            "/images/variants/ab/x-100q82.jpg 100w, /images/variants/ab/x-300q82.jpg 300w"
+        );
+        assertThat(ImagenVariantService.srcset(ImagenVariantService.leerVariantes(null))).isNull();
+    }
+
+    @Test
+    void shouldChangeSignatureWithTheConfiguredSizes() {
+        String firma = service.firma();
+
+        assertThat(firma).isEqualTo("thumb:100,card:300,hero:1000;q82");
+        properties.getImagenes().getVariantes().setAnchos(Map.of("thumb", 120, "card", 300, "hero", 1000));
+        assertThat(service.firma()).isNotEqualTo(firma);
+    }
+
+    private static byte[] image(int width, int height, String format) throws Exception {
+        boolean alpha = "png".equals(format);
+        BufferedImage image = new BufferedImage(width, height, alpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(alpha ? new Color(255, 0, 0, 128) : Color.BLUE);
+        g.fillRect(0, 0, width / 2, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, format, out);
+        return out.toByteArray();
+    }
+}
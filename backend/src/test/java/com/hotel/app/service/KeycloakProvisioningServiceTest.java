@@ -0,0 +1,231 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.config.KeycloakConfiguration;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.repository.ClienteRepository.ProvisionKeycloak;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.keycloak.admin.client.Keycloak;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Against an in-process stub of the Keycloak token endpoint and admin API.
+ */
+class KeycloakProvisioningServiceTest {
+
+    private static final String REALM = "jhipster";
+
+    private HttpServer server;
+
+    private final AtomicInteger tokenRequests = new AtomicInteger();
+
+    private final AtomicInteger failedCreates = new AtomicInteger();
+
+    private final AtomicInteger userIds = new AtomicInteger();
+
+    private final Set<String> emails = ConcurrentHashMap.newKeySet();
+
+    private final List<String> authorizations = new CopyOnWriteArrayList<>();
+
+    private ApplicationProperties properties;
+
+    private Keycloak keycloak;
+
+    private ClienteRepository clienteRepository;
+
+    private KeycloakProvisioningService provisioningService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+
+        properties = new ApplicationProperties();
+        ApplicationProperties.Keycloak kc = properties.getKeycloak();
+        kc.setServerUrl("http://localhost:" + server.getAddress().getPort());
+        kc.setRealm(REALM);
+        kc.setPoolSize(4);
+        kc.getProvisioning().setHilos(1);
+        kc.getProvisioning().setMaxIntentos(3);
+        kc.getProvisioning().setEspera(Duration.ofMillis(20));
+        kc.getProvisioning().setEsperaMaxima(Duration.ofMillis(50));
+        keycloak = KeycloakConfiguration.keycloak(kc);
+
+        clienteRepository = mock(ClienteRepository.class);
+        when(clienteRepository.vincularKeycloak(anyLong(), anyString())).thenReturn(1);
+        provisioningService = new KeycloakProvisioningService(
+            clienteRepository,
+            new KeycloakService(keycloak, properties),
+            properties,
+            mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        provisioningService.detener();
+        keycloak.close();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldLinkAccountsLoggingInOnce() {
+        pendiente(1L, "ana@hotel.com", 0);
+        pendiente(2L, "luis@hotel.com", 0);
+
+        assertThat(provisioningService.provisionar(1L)).isTrue();
+        assertThat(provisioningService.provisionar(2L)).isTrue();
+
+        verify(clienteRepository).vincularKeycloak(1L, "u-1");
+        verify(clienteRepository).vincularKeycloak(2L, "u-2");
+        assertThat(tokenRequests).hasValue(1);
+        assertThat(authorizations).isNotEmpty().allMatch("Bearer token-1"::equals);
+    }
+
+    @Test
+    void shouldReuseAnExistingAccount() {
+        emails.add("ana@hotel.com");
+        pendiente(1L, "ana@hotel.com", 0);
+
+        assertThat(provisioningService.provisionar(1L)).isTrue();
+
+        verify(clienteRepository).vincularKeycloak(1L, "existing-ana@hotel.com");
+    }
+
+    @Test
+    void shouldRetryWithBackoffUntilKeycloakRecovers() {
+        failedCreates.set(1);
+        ProvisionKeycloak primero = provision(1L, "ana@hotel.com", "PENDIENTE", 0);
+        ProvisionKeycloak segundo = provision(1L, "ana@hotel.com", "PENDIENTE", 1);
+        when(clienteRepository.findProvisionKeycloakById(1L)).thenReturn(Optional.of(primero), Optional.of(segundo));
+
+        assertThat(provisioningService.provisionar(1L)).isFalse();
+
+        verify(clienteRepository).registrarFalloProvision(eq(1L), eq("PENDIENTE"), eq(1), any(Instant.class), contains("503"));
+        verify(clienteRepository, timeout(5000)).vincularKeycloak(1L, "u-1");
+    }
+
+    @Test
+    void shouldGiveUpAfterTheLastAttempt() {
+        failedCreates.set(1);
+        pendiente(1L, "ana@hotel.com", 2);
+
+        assertThat(provisioningService.provisionar(1L)).isFalse();
+
+        verify(clienteRepository).registrarFalloProvision(eq(1L), eq("FALLIDO"), eq(3), isNull(), anyString());
+        verify(clienteRepository, never()).vincularKeycloak(anyLong(), anyString());
+    }
+
+    @Test
+    void shouldSkipClientesNotWaitingForAnAccount() {
+        ProvisionKeycloak fallido = provision(1L, "ana@hotel.com", "FALLIDO", 3);
+        when(clienteRepository.findProvisionKeycloakById(1L)).thenReturn(Optional.of(fallido));
+
+        assertThat(provisioningService.provisionar(1L)).isFalse();
+
+        assertThat(tokenRequests).hasValue(0);
+        verify(clienteRepository, never()).registrarFalloProvision(anyLong(), anyString(), anyInt(), any(), any());
+    }
+
+    @Test
+    void shouldDoubleTheWaitUpToTheMaximum() {
+        assertThat(provisioningService.espera(1)).isEqualTo(Duration.ofMillis(20));
+        assertThat(provisioningService.espera(2)).isEqualTo(Duration.ofMillis(40));
+        assertThat(provisioningService.espera(3)).isEqualTo(Duration.ofMillis(50));
+        assertThat(provisioningService.espera(30)).isEqualTo(Duration.ofMillis(50));
+    }
+
+    private void pendiente(Long id, String correo, int intentos) {
+        ProvisionKeycloak provision = provision(id, correo, "PENDIENTE", intentos);
+        when(clienteRepository.findProvisionKeycloakById(id)).thenReturn(Optional.of(provision));
+    }
+
+    private static ProvisionKeycloak provision(Long id, String correo, String estado, int intentos) {
+        ProvisionKeycloak provision = mock(ProvisionKeycloak.class);
+        when(provision.getId()).thenReturn(id);
+        when(provision.getCorreo()).thenReturn(correo);
+        when(provision.getNombre()).thenReturn("Nombre");
+        when(provision.getApellido()).thenReturn("Apellido");
+        when(provision.getEstado()).thenReturn(estado);
+        when(provision.getIntentos()).thenReturn(intentos);
+        return provision;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+            String admin = "/admin/realms/" + REALM;
+            if ("POST".equals(method) && path.equals("/realms/" + REALM + "/protocol/openid-connect/token")) {
+                int token = tokenRequests.incrementAndGet();
+                json(exchange, 200, "{\"access_token\":\"token-" + token + "\",\"expires_in\":300,\"refresh_expires_in\":1800," +
+                    "\"refresh_token\":\"refresh-" + token + "\",\"token_type\":\"Bearer\"}");
+                return;
+            }
+            authorizations.add(exchange.getRequestHeaders().getFirst("Authorization"));
+            if ("POST".equals(method) && path.equals(admin + "/users")) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                if (failedCreates.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                    exchange.sendResponseHeaders(503, -1);
+                } else if (emails.stream().anyMatch(email -> body.contains("\"" + email + "\""))) {
+                    exchange.sendResponseHeaders(409, -1);
+                } else {
+                    exchange.getResponseHeaders().add("Location", "http://localhost" + admin + "/users/u-" + userIds.incrementAndGet());
+                    exchange.sendResponseHeaders(201, -1);
+                }
+            } else if ("GET".equals(method) && path.equals(admin + "/users")) {
+                String query = exchange.getRequestURI().getQuery();
+                String email = query.replaceAll(".*username=([^&]*).*", "$1");
+                json(exchange, 200, "[{\"id\":\"existing-" + email + "\",\"username\":\"" + email + "\"}]");
+            } else if ("GET".equals(method) && path.equals(admin + "/roles/ROLE_CLIENT")) {
+                json(exchange, 200, "{\"id\":\"role-client\",\"name\":\"ROLE_CLIENT\"}");
+            } else if ("POST".equals(method) && path.matches(admin + "/users/[^/]+/role-mappings/realm")) {
+                exchange.getRequestBody().readAllBytes();
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                exchange.sendResponseHeaders(404, -1);
+            }
+        }
+    }
+
+    private static void json(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
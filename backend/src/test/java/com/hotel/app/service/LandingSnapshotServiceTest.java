@@ -0,0 +1,172 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.CarouselItem;
+import com.hotel.app.domain.SeccionHero;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.Telefono;
+import com.hotel.app.domain.enumeration.TipoServicio;
+import com.hotel.app.repository.CarouselItemRepository;
+import com.hotel.app.repository.CategoriaHabitacionRepository;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.repository.RedSociallandingRepository;
+import com.hotel.app.repository.SeccionContactoRepository;
+import com.hotel.app.repository.SeccionHeroRepository;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.repository.TelefonoRepository;
+import com.hotel.app.repository.UbicacionRepository;
+import com.hotel.app.service.LandingSnapshotService.Documento;
+import com.hotel.app.service.mapper.CarouselItemMapperImpl;
+import com.hotel.app.service.mapper.CategoriaHabitacionMapperImpl;
+import com.hotel.app.service.mapper.RedSociallandingMapperImpl;
+import com.hotel.app.service.mapper.SeccionContactoMapperImpl;
+import com.hotel.app.service.mapper.SeccionHeroMapperImpl;
+import com.hotel.app.service.mapper.ServicioDisponibilidadMapperImpl;
+import com.hotel.app.service.mapper.ServicioMapperImpl;
+import com.hotel.app.service.mapper.TelefonoMapperImpl;
+import com.hotel.app.service.mapper.UbicacionMapperImpl;
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+class LandingSnapshotServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private SeccionHeroRepository seccionHeroRepository;
+
+    private TelefonoRepository telefonoRepository;
+
+    private ServicioRepository servicioRepository;
+
+    private ServicioCatalogService servicioCatalogService;
+
+    private LandingSnapshotService landingSnapshotService;
+
+    @BeforeEach
+    void setUp() {
+        seccionHeroRepository = mock(SeccionHeroRepository.class);
+        CarouselItemRepository carouselItemRepository = mock(CarouselItemRepository.class);
+        telefonoRepository = mock(TelefonoRepository.class);
+        servicioRepository = mock(ServicioRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+        ApplicationProperties properties = new ApplicationProperties();
+
+        when(seccionHeroRepository.findAll(any(Sort.class))).thenReturn(
+            List.of(new SeccionHero().id(1L).titulo("Bienvenidos").orden(1).activo(true), new SeccionHero().id(2L).titulo("Oculto").activo(false))
+        );
+        when(carouselItemRepository.findAllWithEagerRelationships()).thenReturn(
+            List.of(
+                new CarouselItem().id(3L).titulo("Tercero").orden(null).activo(true),
+                new CarouselItem().id(2L).titulo("Segundo").orden(2).activo(true),
+                new CarouselItem().id(1L).titulo("Primero").orden(1).activo(true)
+            )
+        );
+        when(telefonoRepository.findAll(any(Sort.class))).thenReturn(List.of(new Telefono().id(1L).numeroTel("+34 600 000 000").activo(true)));
+        when(servicioRepository.findAll(any(Sort.class))).thenReturn(
+            List.of(servicio(1L, "Spa", true), servicio(2L, "Tour", false))
+        );
+
+        servicioCatalogService = new ServicioCatalogService(
+            servicioRepository,
+            mock(ServicioDisponibilidadRepository.class),
+            mock(ImagenRepository.class),
+            new ServicioMapperImpl(),
+            new ServicioDisponibilidadMapperImpl(),
+            objectMapper,
+            transactionManager,
+            properties
+        );
+        landingSnapshotService = new LandingSnapshotService(
+            seccionHeroRepository,
+            carouselItemRepository,
+            mock(RedSociallandingRepository.class),
+            mock(SeccionContactoRepository.class),
+            telefonoRepository,
+            mock(UbicacionRepository.class),
+            mock(CategoriaHabitacionRepository.class),
+            new SeccionHeroMapperImpl(),
+            new CarouselItemMapperImpl(),
+            new RedSociallandingMapperImpl(),
+            new SeccionContactoMapperImpl(),
+            new TelefonoMapperImpl(),
+            new UbicacionMapperImpl(),
+            new CategoriaHabitacionMapperImpl(),
+            servicioCatalogService,
+            objectMapper,
+            transactionManager,
+            properties
+        );
+    }
+
+    @Test
+    void shouldBuildActiveRowsInDisplayOrder() throws Exception {
+        JsonNode landing = objectMapper.readTree(landingSnapshotService.get().json());
+
+        assertThat(landing.get("heroes")).extracting(hero -> hero.get("id").asLong()).containsExactly(1L);
+        assertThat(landing.get("carousel")).extracting(item -> item.get("id").asLong()).containsExactly(1L, 2L, 3L);
+        assertThat(landing.get("telefonos")).hasSize(1);
+        assertThat(landing.get("servicios")).extracting(servicio -> servicio.get("id").asLong()).containsExactly(1L);
+        assertThat(landing.get("ubicaciones")).isEmpty();
+    }
+
+    @Test
+    void shouldServeTheSameDocumentUntilInvalidated() {
+        Documento first = landingSnapshotService.get();
+        Documento second = landingSnapshotService.get();
+        assertThat(second).isSameAs(first);
+        verify(seccionHeroRepository, times(1)).findAll(any(Sort.class));
+
+        landingSnapshotService.invalidate();
+        Documento rebuilt = landingSnapshotService.get();
+        assertThat(rebuilt.sha256()).isEqualTo(first.sha256());
+        verify(seccionHeroRepository, times(2)).findAll(any(Sort.class));
+
+        when(telefonoRepository.findAll(any(Sort.class))).thenReturn(List.of());
+        landingSnapshotService.invalidate();
+        assertThat(landingSnapshotService.get().sha256()).isNotEqualTo(first.sha256());
+    }
+
+    @Test
+    void shouldRebuildWhenTheServicioCatalogChanges() {
+        Documento first = landingSnapshotService.get();
+
+        when(servicioRepository.findAll(any(Sort.class))).thenReturn(List.of(servicio(1L, "Spa", true), servicio(2L, "Tour", true)));
+        servicioCatalogService.invalidate();
+
+        assertThat(landingSnapshotService.get().sha256()).isNotEqualTo(first.sha256());
+        verify(seccionHeroRepository, times(2)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void shouldPrecompressTheDocument() throws Exception {
+        Documento documento = landingSnapshotService.get();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(documento.gzip()))) {
+            assertThat(gzip.readAllBytes()).isEqualTo(documento.json());
+        }
+        assertThat(documento.sha256()).hasSize(64);
+    }
+
+    private static Servicio servicio(Long id, String nombre, boolean disponible) {
+        return new Servicio().id(id).nombre(nombre).tipo(TipoServicio.PAGO).precio(BigDecimal.TEN).disponible(disponible);
+    }
+}
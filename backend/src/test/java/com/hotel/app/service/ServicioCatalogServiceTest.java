@@ -0,0 +1,104 @@
+package com.hotel.app.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.enumeration.TipoServicio;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.service.ServicioCatalogService.Vista;
+import com.hotel.app.service.mapper.ServicioDisponibilidadMapperImpl;
+import com.hotel.app.service.mapper.ServicioMapperImpl;
+import java.math.BigDecimal;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+class ServicioCatalogServiceTest {
+
+    private ServicioRepository servicioRepository;
+
+    private ServicioCatalogService servicioCatalogService;
+
+    @BeforeEach
+    void setUp() {
+        servicioRepository = mock(ServicioRepository.class);
+        ServicioDisponibilidadRepository servicioDisponibilidadRepository = mock(ServicioDisponibilidadRepository.class);
+        ImagenRepository imagenRepository = mock(ImagenRepository.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        when(servicioRepository.findAll(any(Sort.class))).thenReturn(
+            List.of(
+                servicio(1L, "Spa", TipoServicio.PAGO, true),
+                servicio(2L, "Wifi", TipoServicio.GRATUITO, true),
+                servicio(3L, "Tour", TipoServicio.PAGO, false)
+            )
+        );
+
+        servicioCatalogService = new ServicioCatalogService(
+            servicioRepository,
+            servicioDisponibilidadRepository,
+            imagenRepository,
+            new ServicioMapperImpl(),
+            new ServicioDisponibilidadMapperImpl(),
+            new ObjectMapper().registerModule(new JavaTimeModule()),
+            transactionManager,
+            new ApplicationProperties()
+        );
+    }
+
+    @Test
+    void shouldServeViewsFromSnapshot() {
+        var todos = servicioCatalogService.findPage(Vista.TODOS, PageRequest.of(0, 20)).orElseThrow();
+        var pago = servicioCatalogService.findPage(Vista.PAGO, PageRequest.of(0, 20)).orElseThrow();
+        var gratuitos = servicioCatalogService.findPage(Vista.GRATUITOS, PageRequest.of(0, 20)).orElseThrow();
+
+        assertThat(todos.page().getContent()).extracting("id").containsExactly(1L, 2L, 3L);
+        assertThat(pago.page().getContent()).extracting("id").containsExactly(1L);
+        assertThat(gratuitos.page().getContent()).extracting("id").containsExactly(2L);
+        verify(servicioRepository, times(1)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void shouldKeepEtagUntilInvalidatedWithChanges() {
+        var pageable = PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "id"));
+        var first = servicioCatalogService.findPage(Vista.TODOS, pageable).orElseThrow();
+        var second = servicioCatalogService.findPage(Vista.TODOS, pageable).orElseThrow();
+        assertThat(second.etag()).isEqualTo(first.etag());
+        assertThat(first.page().getContent()).extracting("id").containsExactly(3L, 2L);
+        assertThat(first.page().getTotalElements()).isEqualTo(3);
+
+        servicioCatalogService.invalidate();
+        var rebuilt = servicioCatalogService.findPage(Vista.TODOS, pageable).orElseThrow();
+        assertThat(rebuilt.etag()).isEqualTo(first.etag());
+
+        when(servicioRepository.findAll(any(Sort.class))).thenReturn(List.of(servicio(1L, "Spa", TipoServicio.PAGO, false)));
+        servicioCatalogService.invalidate();
+        var changed = servicioCatalogService.findPage(Vista.TODOS, pageable).orElseThrow();
+        assertThat(changed.etag()).isNotEqualTo(first.etag());
+        verify(servicioRepository, times(3)).findAll(any(Sort.class));
+    }
+
+    @Test
+    void shouldNotServeUnsupportedSort() {
+        assertThat(servicioCatalogService.findPage(Vista.TODOS, PageRequest.of(0, 20, Sort.by("descripcion")))).isEmpty();
+    }
+
+    private static Servicio servicio(Long id, String nombre, TipoServicio tipo, boolean disponible) {
+        return new Servicio().id(id).nombre(nombre).tipo(tipo).precio(BigDecimal.TEN).disponible(disponible);
+    }
+}
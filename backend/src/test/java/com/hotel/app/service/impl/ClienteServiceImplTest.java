@@ -0,0 +1,95 @@
+package com.hotel.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.service.KeycloakProvisioningService;
+import com.hotel.app.service.KeycloakService;
+import com.hotel.app.service.dto.ClienteDTO;
+import com.hotel.app.service.mapper.ClienteMapperImpl;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClienteServiceImplTest {
+
+    private ClienteRepository clienteRepository;
+
+    private KeycloakProvisioningService keycloakProvisioningService;
+
+    private ClienteServiceImpl clienteService;
+
+    @BeforeEach
+    void setUp() {
+        clienteRepository = mock(ClienteRepository.class);
+        keycloakProvisioningService = mock(KeycloakProvisioningService.class);
+        clienteService = new ClienteServiceImpl(clienteRepository, new ClienteMapperImpl(), mock(KeycloakService.class),
+            keycloakProvisioningService);
+    }
+
+    @Test
+    void shouldRequestTheKeycloakAccountInsteadOfSavingNotLinked() {
+        when(clienteRepository.save(any(Cliente.class))).thenAnswer(invocation -> invocation.<Cliente>getArgument(0).id(7L));
+        ClienteDTO clienteDTO = new ClienteDTO();
+        clienteDTO.setKeycloakId(KeycloakProvisioningService.NOT_LINKED);
+
+        ClienteDTO resultado = clienteService.save(clienteDTO);
+
+        assertThat(resultado.getKeycloakId()).isNull();
+        verify(keycloakProvisioningService).solicitar(7L);
+    }
+
+    @Test
+    void shouldKeepTheLinkedKeycloakAccountOnUpdate() {
+        when(clienteRepository.findKeycloakIdById(7L)).thenReturn(Optional.of("u-1"));
+        when(clienteRepository.save(any(Cliente.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ClienteDTO clienteDTO = new ClienteDTO();
+        clienteDTO.setId(7L);
+        clienteDTO.setKeycloakId(KeycloakProvisioningService.NOT_LINKED);
+
+        assertThat(clienteService.update(clienteDTO).getKeycloakId()).isEqualTo("u-1");
+        verifyNoInteractions(keycloakProvisioningService);
+    }
+
+    @Test
+    void shouldNormalizeLikeTheSearchColumn() {
+        assertThat(ClienteServiceImpl.normalizar("  José   MUÑOZ ")).isEqualTo("jose munoz");
+        assertThat(ClienteServiceImpl.normalizar("Ana.Pérez@Hotel.COM")).isEqualTo("ana.perez@hotel.com");
+        assertThat(ClienteServiceImpl.normalizar(null)).isEmpty();
+    }
+
+    @Test
+    void shouldSearchWithEscapedPatternsAndCappedLimit() {
+        when(clienteRepository.buscar(anyString(), anyString(), anyString(), anyInt())).thenReturn(
+            List.of(new Cliente().id(1L).nombre("José").apellido("Muñoz"))
+        );
+
+        List<ClienteDTO> resultado = clienteService.search("Jose_M%", 500);
+
+        assertThat(resultado).extracting(ClienteDTO::getId).containsExactly(1L);
+        verify(clienteRepository).buscar("jose_m%", "%jose\\_m\\%%", "%jose\\_m\\%%", ClienteServiceImpl.SEARCH_MAX_RESULTS);
+    }
+
+    @Test
+    void shouldCompactPhonesAndIdentifications() {
+        clienteService.search("+34 600-12", 10);
+
+        verify(clienteRepository).buscar("+34 600-12", "%+34 600-12%", "%3460012%", 10);
+    }
+
+    @Test
+    void shouldNotQueryTooShortText() {
+        assertThat(clienteService.search(" a ", 20)).isEmpty();
+        assertThat(clienteService.search(null, 20)).isEmpty();
+        verifyNoInteractions(clienteRepository);
+    }
+}
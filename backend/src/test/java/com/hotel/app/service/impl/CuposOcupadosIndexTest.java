@@ -0,0 +1,60 @@
+package com.hotel.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hotel.app.domain.ServicioDisponibilidad;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class CuposOcupadosIndexTest {
+
+    private static final LocalDate FECHA = LocalDate.of(2025, 3, 10);
+
+    private CuposOcupadosIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CuposOcupadosIndex();
+        index.add(1L, at(FECHA, LocalTime.of(10, 0)), 2);
+        index.add(1L, at(FECHA, LocalTime.of(10, 0, 30)), 1);
+        index.add(1L, at(FECHA, LocalTime.of(11, 0)), 3);
+        index.add(1L, at(FECHA, LocalTime.of(12, 0)), 4);
+        index.add(1L, at(FECHA.plusDays(1), LocalTime.of(10, 0)), 5);
+        index.add(2L, at(FECHA, LocalTime.of(10, 0)), 7);
+    }
+
+    @Test
+    void shouldCountFixedSlotByMinute() {
+        var disp = new ServicioDisponibilidad().horaFija(true).horaInicio(LocalTime.of(10, 0));
+
+        assertThat(index.cuposOcupados(1L, FECHA, disp)).isEqualTo(3);
+        assertThat(index.cuposOcupados(1L, FECHA.plusDays(1), disp)).isEqualTo(5);
+        assertThat(index.cuposOcupados(2L, FECHA, disp)).isEqualTo(7);
+        assertThat(index.cuposOcupados(3L, FECHA, disp)).isZero();
+    }
+
+    @Test
+    void shouldCountRangeSlotInclusive() {
+        var disp = new ServicioDisponibilidad().horaFija(false).horaInicio(LocalTime.of(10, 0)).horaFin(LocalTime.of(11, 0));
+        var abierta = new ServicioDisponibilidad().horaFija(false).horaInicio(LocalTime.of(11, 0));
+
+        assertThat(index.cuposOcupados(1L, FECHA, disp)).isEqualTo(6);
+        assertThat(index.cuposOcupados(1L, FECHA, abierta)).isEqualTo(7);
+    }
+
+    @Test
+    void shouldHandleLastMinuteOfDay() {
+        index.add(1L, at(FECHA, LocalTime.of(23, 59)), 2);
+        var disp = new ServicioDisponibilidad().horaFija(true).horaInicio(LocalTime.of(23, 59));
+
+        assertThat(index.cuposOcupados(1L, FECHA, disp)).isEqualTo(2);
+    }
+
+    private static ZonedDateTime at(LocalDate fecha, LocalTime hora) {
+        return fecha.atTime(hora).atZone(ZoneId.systemDefault());
+    }
+}
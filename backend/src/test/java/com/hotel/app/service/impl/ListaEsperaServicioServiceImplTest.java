@@ -0,0 +1,190 @@
+package com.hotel.app.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.domain.ListaEsperaServicio;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.domain.ServicioDisponibilidad;
+import com.hotel.app.domain.enumeration.EstadoListaEspera;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.repository.ListaEsperaServicioRepository;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.repository.ServicioDisponibilidadRepository;
+import com.hotel.app.repository.ServicioRepository;
+import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.MensajeSoporteService;
+import com.hotel.app.service.mapper.ListaEsperaServicioMapper;
+import java.math.BigDecimal;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+class ListaEsperaServicioServiceImplTest {
+
+    private static final ZonedDateTime FECHA = ZonedDateTime.now(ZoneId.systemDefault())
+        .plusDays(2)
+        .withHour(10)
+        .truncatedTo(ChronoUnit.HOURS);
+
+    private final Servicio servicio = new Servicio().id(1L).nombre("Spa").precio(BigDecimal.TEN);
+
+    private ListaEsperaServicioRepository listaEsperaServicioRepository;
+
+    private ServicioContratadoRepository servicioContratadoRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private ListaEsperaServicioServiceImpl service;
+
+    private Deque<ListaEsperaServicio> cola;
+
+    /** Quota taken in the slot by other contracts; the saved ones are added to it */
+    private long ocupados;
+
+    @BeforeEach
+    void setUp() {
+        listaEsperaServicioRepository = mock(ListaEsperaServicioRepository.class);
+        servicioContratadoRepository = mock(ServicioContratadoRepository.class);
+        ServicioDisponibilidadRepository servicioDisponibilidadRepository = mock(ServicioDisponibilidadRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+
+        when(servicioDisponibilidadRepository.findForUpdateByServicioIdAndDiaSemana(eq(1L), any())).thenReturn(
+            List.of(new ServicioDisponibilidad().horaFija(true).horaInicio(LocalTime.of(10, 0)).cupoMaximo(5))
+        );
+        when(servicioContratadoRepository.save(any(ServicioContratado.class))).thenAnswer(invocation -> {
+            ServicioContratado contrato = invocation.getArgument(0);
+            ocupados += contrato.getCantidad();
+            return contrato;
+        });
+        when(servicioContratadoRepository.sumCantidadByServicioIdAndFechaServicioAndEstadoIn(eq(1L), eq(FECHA), anyList())).thenAnswer(
+            invocation -> ocupados
+        );
+
+        // The repository queue: the head is removed once its estado changes
+        cola = new ArrayDeque<>();
+        when(
+            listaEsperaServicioRepository.findFirstByServicioIdAndFechaServicioAndEstadoOrderByIdAsc(1L, FECHA, EstadoListaEspera.EN_ESPERA)
+        ).thenAnswer(invocation -> {
+            cola.removeIf(entrada -> entrada.getEstado() != EstadoListaEspera.EN_ESPERA);
+            return Optional.ofNullable(cola.peekFirst());
+        });
+
+        service = new ListaEsperaServicioServiceImpl(
+            listaEsperaServicioRepository,
+            mock(ListaEsperaServicioMapper.class),
+            servicioContratadoRepository,
+            servicioDisponibilidadRepository,
+            mock(ServicioRepository.class),
+            mock(ReservaRepository.class),
+            mock(MensajeSoporteService.class),
+            mock(ConfiguracionSistemaService.class),
+            eventPublisher
+        );
+    }
+
+    @Test
+    void shouldPromoteInOrderWhileQuotaFits() {
+        ocupados = 2;
+        ListaEsperaServicio primera = entrada(1L, 2, EstadoReserva.CONFIRMADA);
+        ListaEsperaServicio segunda = entrada(2L, 1, EstadoReserva.CHECK_IN);
+        ListaEsperaServicio tercera = entrada(3L, 1, EstadoReserva.CONFIRMADA);
+        cola.addAll(List.of(primera, segunda, tercera));
+
+        int promovidos = service.promoverSiguientes(1L, FECHA);
+
+        assertThat(promovidos).isEqualTo(2);
+        assertThat(primera.getEstado()).isEqualTo(EstadoListaEspera.PROMOVIDO);
+        assertThat(segunda.getEstado()).isEqualTo(EstadoListaEspera.PROMOVIDO);
+        assertThat(tercera.getEstado()).isEqualTo(EstadoListaEspera.EN_ESPERA);
+
+        ArgumentCaptor<ServicioContratado> contratos = ArgumentCaptor.forClass(ServicioContratado.class);
+        verify(servicioContratadoRepository, times(2)).save(contratos.capture());
+        assertThat(contratos.getAllValues()).extracting(ServicioContratado::getCantidad).containsExactly(2, 1);
+        assertThat(contratos.getAllValues()).allMatch(contrato -> contrato.getEstado() == EstadoServicioContratado.PENDIENTE);
+        assertThat(primera.getServicioContratado()).isSameAs(contratos.getAllValues().get(0));
+        verify(eventPublisher, times(2)).publishEvent(any(ListaEsperaServicioServiceImpl.Promocion.class));
+    }
+
+    @Test
+    void shouldNotLetLaterEntriesOvertakeHead() {
+        ocupados = 4;
+        ListaEsperaServicio grande = entrada(1L, 3, EstadoReserva.CONFIRMADA);
+        ListaEsperaServicio pequena = entrada(2L, 1, EstadoReserva.CONFIRMADA);
+        cola.addAll(List.of(grande, pequena));
+
+        assertThat(service.promoverSiguientes(1L, FECHA)).isZero();
+        assertThat(pequena.getEstado()).isEqualTo(EstadoListaEspera.EN_ESPERA);
+        verify(servicioContratadoRepository, never()).save(any(ServicioContratado.class));
+    }
+
+    @Test
+    void shouldDropEntriesOfInactiveReservations() {
+        ocupados = 4;
+        ListaEsperaServicio cancelada = entrada(1L, 1, EstadoReserva.CANCELADA);
+        ListaEsperaServicio activa = entrada(2L, 1, EstadoReserva.CONFIRMADA);
+        cola.addAll(List.of(cancelada, activa));
+
+        assertThat(service.promoverSiguientes(1L, FECHA)).isEqualTo(1);
+        assertThat(cancelada.getEstado()).isEqualTo(EstadoListaEspera.CANCELADO);
+        assertThat(activa.getEstado()).isEqualTo(EstadoListaEspera.PROMOVIDO);
+    }
+
+    @Test
+    void shouldRecountTheQuotaBeforeEachPromotion() {
+        ocupados = 2;
+        ListaEsperaServicio primera = entrada(1L, 1, EstadoReserva.CONFIRMADA);
+        ListaEsperaServicio segunda = entrada(2L, 1, EstadoReserva.CONFIRMADA);
+        cola.addAll(List.of(primera, segunda));
+        // Another contract of the slot is committed right after the first promotion
+        when(listaEsperaServicioRepository.saveAndFlush(primera)).thenAnswer(invocation -> {
+            ocupados += 2;
+            return primera;
+        });
+
+        assertThat(service.promoverSiguientes(1L, FECHA)).isEqualTo(1);
+        assertThat(segunda.getEstado()).isEqualTo(EstadoListaEspera.EN_ESPERA);
+    }
+
+    @Test
+    void shouldIgnorePastSlots() {
+        cola.add(entrada(1L, 1, EstadoReserva.CONFIRMADA));
+
+        assertThat(service.promoverSiguientes(1L, ZonedDateTime.now().minusHours(1))).isZero();
+        verify(listaEsperaServicioRepository, never()).findFirstByServicioIdAndFechaServicioAndEstadoOrderByIdAsc(any(), any(), any());
+    }
+
+    private ListaEsperaServicio entrada(Long id, int cantidad, EstadoReserva estadoReserva) {
+        Reserva reserva = new Reserva();
+        reserva.setId(id);
+        reserva.setEstado(estadoReserva);
+        return new ListaEsperaServicio()
+            .id(id)
+            .fechaServicio(FECHA)
+            .numeroPersonas(cantidad)
+            .cantidad(cantidad)
+            .estado(EstadoListaEspera.EN_ESPERA)
+            .servicio(servicio)
+            .reserva(reserva);
+    }
+}
@@ -0,0 +1,224 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.JobCheckpoint;
+import com.hotel.app.domain.JobRun;
+import com.hotel.app.repository.JobCheckpointRepository;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import com.hotel.app.service.job.ChunkedJobRunner.RunResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+class ChunkedJobRunnerTest {
+
+    private static final String JOB = "test";
+
+    private final Map<String, JobCheckpoint> checkpoints = new HashMap<>();
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private JobRunHistory jobRunHistory;
+
+    private ChunkedJobRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        JobCheckpointRepository repository = mock(JobCheckpointRepository.class);
+        when(repository.findById(any())).thenAnswer(invocation -> Optional.ofNullable(checkpoints.get(invocation.<String>getArgument(0))));
+        when(repository.save(any())).thenAnswer(invocation -> {
+            JobCheckpoint checkpoint = invocation.getArgument(0);
+            // Store a copy, like a committed row
+            checkpoints.put(
+                checkpoint.getJobName(),
+                new JobCheckpoint()
+                    .jobName(checkpoint.getJobName())
+                    .cutoff(checkpoint.getCutoff())
+                    .lastId(checkpoint.getLastId())
+                    .failedAttempts(checkpoint.getFailedAttempts())
+                    .completed(checkpoint.getCompleted())
+                    .updatedAt(checkpoint.getUpdatedAt())
+            );
+            return checkpoint;
+        });
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(mock(TransactionStatus.class));
+
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getJobs().setChunkSize(3);
+        meterRegistry = new SimpleMeterRegistry();
+        jobRunHistory = mock(JobRunHistory.class);
+        runner = new ChunkedJobRunner(repository, transactionManager, meterRegistry, properties, jobRunHistory);
+    }
+
+    @Test
+    void shouldProcessAllRowsInChunks() {
+        FakeTable table = new FakeTable(1, 2, 3, 4, 5, 6, 7);
+
+        RunResult result = runner.run(JOB, table, table);
+
+        assertThat(result.completed()).isTrue();
+        assertThat(result.rows()).isEqualTo(7);
+        assertThat(result.chunks()).isEqualTo(3);
+        assertThat(table.afterIds).containsExactly(0L, 3L, 6L);
+        assertThat(checkpoints.get(JOB).getCompleted()).isTrue();
+        assertThat(meterRegistry.get("hotel.job.rows").tag("job", JOB).counter().count()).isEqualTo(7);
+        assertThat(meterRegistry.get("hotel.job.duration").tag("job", JOB).timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldResumeInterruptedRunWithSameCutoff() {
+        FakeTable table = new FakeTable(1, 2, 3, 4, 5, 6, 7);
+        table.failAfterId = 3L;
+
+        RunResult first = runner.run(JOB, table, table);
+
+        assertThat(first.completed()).isFalse();
+        assertThat(first.failures()).isEqualTo(1);
+        assertThat(first.rows()).isEqualTo(3);
+        JobCheckpoint checkpoint = checkpoints.get(JOB);
+        assertThat(checkpoint.getLastId()).isEqualTo(3L);
+        assertThat(checkpoint.getCompleted()).isFalse();
+        Instant cutoff = checkpoint.getCutoff();
+
+        table.failAfterId = null;
+        table.afterIds.clear();
+        RunResult second = runner.run(JOB, table, table);
+
+        assertThat(second.completed()).isTrue();
+        assertThat(second.rows()).isEqualTo(4);
+        assertThat(table.afterIds).containsExactly(3L, 6L);
+        assertThat(table.cutoffs).containsOnly(cutoff);
+        assertThat(table.pending).isEmpty();
+    }
+
+    @Test
+    void shouldRecordRunInHistory() {
+        JobRun jobRun = new JobRun().jobName(JOB);
+        when(jobRunHistory.start(JOB)).thenReturn(jobRun);
+        FakeTable table = new FakeTable(1, 2, 3, 4);
+        table.failAfterId = 3L;
+
+        runner.run(JOB, table, table);
+
+        ArgumentCaptor<RunResult> result = ArgumentCaptor.forClass(RunResult.class);
+        verify(jobRunHistory).finish(eq(jobRun), result.capture());
+        assertThat(result.getValue().rows()).isEqualTo(3);
+        assertThat(result.getValue().error()).contains("after id 3").contains("boom");
+        assertThat(meterRegistry.get("hotel.job.runs").tag("job", JOB).tag("outcome", "failed").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSkipRowsThatKeepFailing() {
+        FakeTable table = new FakeTable(1, 2, 3, 4, 5, 6, 7);
+        table.failingIds = Set.of(5L);
+
+        assertThat(runner.run(JOB, table, table).completed()).isFalse();
+        assertThat(runner.run(JOB, table, table).completed()).isFalse();
+        assertThat(checkpoints.get(JOB).getLastId()).isEqualTo(3L);
+        assertThat(meterRegistry.get("hotel.job.stalled").tag("job", JOB).gauge().value()).isEqualTo(2);
+
+        // Third attempt: the chunk is processed row by row
+        RunResult third = runner.run(JOB, table, table);
+
+        assertThat(third.completed()).isTrue();
+        assertThat(third.rows()).isEqualTo(3);
+        assertThat(third.error()).contains("Skipped ids [5]").contains("boom");
+        assertThat(table.pending).containsExactly(5L);
+        assertThat(checkpoints.get(JOB).getCompleted()).isTrue();
+        assertThat(checkpoints.get(JOB).getFailedAttempts()).isZero();
+        assertThat(meterRegistry.get("hotel.job.stalled").tag("job", JOB).gauge().value()).isZero();
+        assertThat(meterRegistry.get("hotel.job.skipped").tag("job", JOB).counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldNotSkipRowsThatSucceedAlone() {
+        FakeTable table = new FakeTable(1, 2, 3, 4);
+        table.failAfterId = 0L;
+
+        assertThat(runner.run(JOB, table, table).completed()).isFalse();
+        assertThat(runner.run(JOB, table, table).completed()).isFalse();
+        RunResult third = runner.run(JOB, table, table);
+
+        assertThat(third.completed()).isTrue();
+        assertThat(third.error()).isNull();
+        assertThat(table.pending).isEmpty();
+        assertThat(meterRegistry.get("hotel.job.skipped").tag("job", JOB).counter().count()).isZero();
+    }
+
+    @Test
+    void shouldStartNewRunAfterCompletion() {
+        FakeTable table = new FakeTable();
+        runner.run(JOB, table, table);
+        Instant firstCutoff = checkpoints.get(JOB).getCutoff();
+
+        table.pending.add(10L);
+        table.afterIds.clear();
+        RunResult result = runner.run(JOB, table, table);
+
+        assertThat(result.rows()).isEqualTo(1);
+        assertThat(table.afterIds).containsExactly(0L);
+        assertThat(checkpoints.get(JOB).getCutoff()).isAfterOrEqualTo(firstCutoff);
+    }
+
+    private static final class FakeTable implements ChunkedJobRunner.ChunkProcessor, ChunkedJobRunner.ChunkSelector {
+
+        private final TreeSet<Long> pending = new TreeSet<>();
+
+        private final List<Long> afterIds = new ArrayList<>();
+
+        private final List<Instant> cutoffs = new ArrayList<>();
+
+        private Long failAfterId;
+
+        private Set<Long> failingIds = Set.of();
+
+        FakeTable(long... ids) {
+            for (long id : ids) {
+                pending.add(id);
+            }
+        }
+
+        @Override
+        public Chunk process(Instant cutoff, long afterId, int limit) {
+            afterIds.add(afterId);
+            cutoffs.add(cutoff);
+            if (failAfterId != null && failAfterId == afterId && limit > 1) {
+                throw new IllegalStateException("boom");
+            }
+            List<Long> chunk = select(cutoff, afterId, limit);
+            if (chunk.stream().anyMatch(failingIds::contains)) {
+                throw new IllegalStateException("boom");
+            }
+            if (chunk.isEmpty()) {
+                return Chunk.EMPTY;
+            }
+            chunk.forEach(pending::remove);
+            return new Chunk(chunk.size(), chunk.get(chunk.size() - 1), chunk.size());
+        }
+
+        @Override
+        public List<Long> select(Instant cutoff, long afterId, int limit) {
+            return pending.tailSet(afterId, false).stream().limit(limit).toList();
+        }
+    }
+}
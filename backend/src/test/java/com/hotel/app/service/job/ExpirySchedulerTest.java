@@ -0,0 +1,108 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ExpirySchedulerTest {
+
+    private ReservaRepository reservaRepository;
+
+    private ServicioContratadoRepository servicioContratadoRepository;
+
+    private ReservaAutoCheckoutJob reservaAutoCheckoutJob;
+
+    private ServicioAutoCompletionJob servicioAutoCompletionJob;
+
+    private ExpiryScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        servicioContratadoRepository = mock(ServicioContratadoRepository.class);
+        reservaAutoCheckoutJob = mock(ReservaAutoCheckoutJob.class);
+        servicioAutoCompletionJob = mock(ServicioAutoCompletionJob.class);
+
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.getJobs().getExpiry().setHorizonHours(1);
+        scheduler = new ExpiryScheduler(
+            reservaRepository,
+            servicioContratadoRepository,
+            reservaAutoCheckoutJob,
+            servicioAutoCompletionJob,
+            properties,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.detener();
+    }
+
+    @Test
+    void shouldFireDeadlinesLoadedAtStartup() {
+        ReservaRepository.Vencimiento reserva = mock(ReservaRepository.Vencimiento.class);
+        when(reserva.getId()).thenReturn(1L);
+        when(reserva.getFechaFin()).thenReturn(Instant.now().plusMillis(200));
+        when(reservaRepository.findVencimientos(any(), any(), any())).thenReturn(List.of(reserva));
+        ServicioContratadoRepository.Vencimiento servicio = mock(ServicioContratadoRepository.Vencimiento.class);
+        when(servicio.getId()).thenReturn(2L);
+        when(servicio.getFechaServicio()).thenReturn(ZonedDateTime.now().plusNanos(300_000_000));
+        when(servicioContratadoRepository.findVencimientos(any(), any(), any())).thenReturn(List.of(servicio));
+
+        // Loaded before the consumer thread exists, so none of them can have fired yet
+        scheduler.recargar();
+        assertThat(scheduler.pendientes()).isEqualTo(2);
+
+        scheduler.iniciar();
+
+        verify(reservaAutoCheckoutJob, timeout(2000)).finalizarVencidas(List.of(1L));
+        verify(servicioAutoCompletionJob, timeout(2000)).completarVencidos(List.of(2L));
+        assertThat(scheduler.pendientes()).isZero();
+    }
+
+    @Test
+    void shouldOnlyFireLatestDeadline() {
+        scheduler.iniciar();
+
+        scheduler.programarReserva(1L, Instant.now().plusMillis(100), EstadoReserva.CONFIRMADA);
+        scheduler.programarReserva(1L, Instant.now().plusMillis(600), EstadoReserva.CHECK_IN);
+
+        verify(reservaAutoCheckoutJob, after(400).never()).finalizarVencidas(anyCollection());
+        verify(reservaAutoCheckoutJob, timeout(2000)).finalizarVencidas(List.of(1L));
+    }
+
+    @Test
+    void shouldForgetCancelledOrDistantDeadlines() {
+        scheduler.iniciar();
+
+        scheduler.programarServicio(1L, ZonedDateTime.now().plusNanos(100_000_000), EstadoServicioContratado.CONFIRMADO);
+        scheduler.programarServicio(1L, ZonedDateTime.now().plusNanos(100_000_000), EstadoServicioContratado.CANCELADO);
+        scheduler.programarReserva(2L, Instant.now().plusSeconds(7200), EstadoReserva.CONFIRMADA);
+        scheduler.programarReserva(3L, Instant.now().plusMillis(100), null);
+
+        assertThat(scheduler.pendientes()).isZero();
+        verify(servicioAutoCompletionJob, after(400).never()).completarVencidos(anyCollection());
+        verify(reservaAutoCheckoutJob, never()).finalizarVencidas(anyCollection());
+    }
+}
@@ -0,0 +1,101 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.ServicioCatalogService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import com.hotel.app.service.storage.LocalImagenStorage;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+class ImagenBlobMigrationJobTest {
+
+    // SHA-256 of "hola"
+    private static final String SHA_HOLA = "b221d9dbb083a7f33428d7c2a3c3198ae925614d70210e28716ccaa7cd4ddb79";
+
+    @TempDir
+    Path root;
+
+    private ImagenRepository imagenRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ImagenBlobMigrationJob job;
+
+    @BeforeEach
+    void setUp() {
+        imagenRepository = mock(ImagenRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.setImagePath(root.toString());
+        job = new ImagenBlobMigrationJob(
+            imagenRepository,
+            new ImagenContentStore(properties, new LocalImagenStorage(properties)),
+            jdbcTemplate,
+            mock(ChunkedJobRunner.class),
+            mock(ServicioCatalogService.class)
+        );
+    }
+
+    @Test
+    void shouldMoveBlobToContentStore() throws Exception {
+        when(imagenRepository.findChunkIdsWithFichero(0L, 10)).thenReturn(List.of(3L));
+        givenRow(3L, "habitaciones/borrado.png", "hola");
+        when(imagenRepository.moveFichero(eq(3L), anyString(), eq(SHA_HOLA), eq(4L))).thenReturn(1);
+
+        Chunk chunk = job.procesarLote(Instant.now(), 0L, 10);
+
+        assertThat(chunk).isEqualTo(new Chunk(1, 3L, 1));
+        String path = "cas/b2/21/" + SHA_HOLA + ".png";
+        verify(imagenRepository).moveFichero(3L, path, SHA_HOLA, 4L);
+        assertThat(Files.readString(root.resolve(path))).isEqualTo("hola");
+    }
+
+    @Test
+    void shouldKeepExistingLegacyFile() throws Exception {
+        Files.createDirectories(root.resolve("servicios"));
+        Files.writeString(root.resolve("servicios/spa.png"), "hola");
+        when(imagenRepository.findChunkIdsWithFichero(0L, 10)).thenReturn(List.of(5L));
+        ResultSet rs = givenRow(5L, "servicios/spa.png", "otro contenido");
+        when(imagenRepository.moveFichero(5L, "servicios/spa.png", SHA_HOLA, 4L)).thenReturn(1);
+
+        Chunk chunk = job.procesarLote(Instant.now(), 0L, 10);
+
+        assertThat(chunk).isEqualTo(new Chunk(1, 5L, 1));
+        verify(rs, never()).getBinaryStream("fichero");
+        assertThat(root.resolve("cas")).doesNotExist();
+    }
+
+    @SuppressWarnings("unchecked")
+    private ResultSet givenRow(Long id, String nombreArchivo, String contenido) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.next()).thenReturn(true);
+        when(rs.getString("nombre_archivo")).thenReturn(nombreArchivo);
+        when(rs.getString("fichero_content_type")).thenReturn("image/png");
+        when(rs.getBinaryStream("fichero")).thenReturn(new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)));
+        when(jdbcTemplate.query(anyString(), any(ResultSetExtractor.class), eq(id))).thenAnswer(invocation ->
+            invocation.<ResultSetExtractor<?>>getArgument(1).extractData(rs)
+        );
+        return rs;
+    }
+}
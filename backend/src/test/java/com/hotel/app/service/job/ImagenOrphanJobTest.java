@@ -0,0 +1,173 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.repository.ImagenRepository;
+import com.hotel.app.service.ImagenCleanupService;
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.ImagenHotCache;
+import com.hotel.app.service.job.ImagenOrphanJob.Informe;
+import com.hotel.app.service.storage.LocalImagenStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ImagenOrphanJobTest {
+
+    private static final String SHA = "b221d9dbb083a7f33428d7c2a3c3198ae925614d70210e28716ccaa7cd4ddb79";
+
+    private static final String OTRO_SHA = "ff21d9dbb083a7f33428d7c2a3c3198ae925614d70210e28716ccaa7cd4ddb79";
+
+    @TempDir
+    Path root;
+
+    private final Set<String> referencias = new HashSet<>();
+
+    private final Set<String> shas = new HashSet<>();
+
+    private ApplicationProperties properties;
+
+    private ImagenCleanupService cleanupService;
+
+    private ImagenOrphanJob job;
+
+    @BeforeEach
+    void setUp() {
+        properties = new ApplicationProperties();
+        properties.setImagePath(root.toString());
+        properties.getImagenes().getHuerfanos().setLote(2);
+        ImagenRepository imagenRepository = mock(ImagenRepository.class);
+        when(imagenRepository.findRutasReferenciadas(anyCollection())).thenAnswer(i ->
+            i.<Collection<String>>getArgument(0).stream().filter(referencias::contains).toList()
+        );
+        when(imagenRepository.findShasReferenciados(anyCollection())).thenAnswer(i ->
+            i.<Collection<String>>getArgument(0).stream().filter(shas::contains).toList()
+        );
+        LocalImagenStorage storage = new LocalImagenStorage(properties);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        cleanupService = new ImagenCleanupService(
+            imagenRepository,
+            new ImagenContentStore(properties, storage),
+            new ImagenHotCache(properties, meterRegistry),
+            Runnable::run,
+            meterRegistry
+        );
+        job = new ImagenOrphanJob(storage, cleanupService, mock(JobRunHistory.class), properties, meterRegistry);
+    }
+
+    @Test
+    void shouldOnlyReportOrphansOnDryRun() throws Exception {
+        archivo("cas/b2/21/" + SHA + ".png", Duration.ofDays(2));
+        archivo("cas/ff/21/" + OTRO_SHA + ".png", Duration.ofDays(2));
+        referencias.add("cas/b2/21/" + SHA + ".png");
+
+        Informe informe = job.ejecutar(true);
+
+        assertThat(informe.dryRun()).isTrue();
+        assertThat(informe.revisados()).isEqualTo(2);
+        assertThat(informe.huerfanos()).isEqualTo(1);
+        assertThat(informe.muestra()).containsExactly("cas/ff/21/" + OTRO_SHA + ".png");
+        assertThat(root.resolve("cas/ff/21/" + OTRO_SHA + ".png")).exists();
+        assertThat(job.getUltimoInforme()).contains(informe);
+    }
+
+    @Test
+    void shouldQuarantineOrphansButKeepReferencedAndRecentFiles() throws Exception {
+        archivo("cas/b2/21/" + SHA + ".png", Duration.ofDays(2));
+        archivo("variants/b2/" + SHA + "-480q82.jpg", Duration.ofDays(2));
+        archivo("variants/ff/" + OTRO_SHA + "-480q82.jpg", Duration.ofDays(2));
+        archivo("cas/aa/bb/reciente.png", Duration.ZERO);
+        archivo("cas/cc/dd/hero.png", Duration.ofDays(2));
+        archivo("habitaciones/legacy.jpg", Duration.ofDays(2));
+        referencias.add("cas/b2/21/" + SHA + ".png");
+        referencias.add("/images/cas/cc/dd/hero.png");
+        shas.add(SHA);
+
+        Informe informe = job.ejecutar(false);
+
+        assertThat(informe.error()).isNull();
+        assertThat(informe.revisados()).isEqualTo(5);
+        assertThat(informe.recientes()).isEqualTo(1);
+        assertThat(informe.huerfanos()).isEqualTo(1);
+        assertThat(root.resolve("variants/ff/" + OTRO_SHA + "-480q82.jpg")).doesNotExist();
+        assertThat(root.resolve(".quarantine/" + hoy() + "/variants/ff/" + OTRO_SHA + "-480q82.jpg")).exists();
+        assertThat(root.resolve("cas/b2/21/" + SHA + ".png")).exists();
+        assertThat(root.resolve("variants/b2/" + SHA + "-480q82.jpg")).exists();
+        assertThat(root.resolve("cas/aa/bb/reciente.png")).exists();
+        assertThat(root.resolve("cas/cc/dd/hero.png")).exists();
+        assertThat(root.resolve("habitaciones/legacy.jpg")).exists();
+    }
+
+    @Test
+    void shouldRestoreReferencedAndDeleteExpiredQuarantinedFiles() throws Exception {
+        String antiguo = DateTimeFormatter.BASIC_ISO_DATE.format(LocalDate.now(ZoneOffset.UTC).minusDays(30));
+        archivo(".quarantine/" + antiguo + "/cas/b2/21/" + SHA + ".png", Duration.ofDays(30));
+        archivo(".quarantine/" + antiguo + "/cas/ff/21/" + OTRO_SHA + ".png", Duration.ofDays(30));
+        archivo(".quarantine/" + hoy() + "/cas/aa/bb/nueva.png", Duration.ZERO);
+        referencias.add("cas/b2/21/" + SHA + ".png");
+
+        Informe informe = job.ejecutar(false);
+
+        assertThat(informe.restaurados()).isEqualTo(1);
+        assertThat(informe.borrados()).isEqualTo(1);
+        assertThat(root.resolve("cas/b2/21/" + SHA + ".png")).exists();
+        assertThat(root.resolve(".quarantine/" + antiguo + "/cas/ff/21/" + OTRO_SHA + ".png")).doesNotExist();
+        assertThat(root.resolve(".quarantine/" + hoy() + "/cas/aa/bb/nueva.png")).exists();
+    }
+
+    @Test
+    void shouldDeleteFilesLeftWithoutReferences() throws Exception {
+        archivo("cas/b2/21/" + SHA + ".png", Duration.ofHours(1));
+        archivo("variants/b2/" + SHA + "-480q82.jpg", Duration.ofHours(1));
+        archivo("cas/ff/21/" + OTRO_SHA + ".png", Duration.ofHours(1));
+        referencias.add("cas/ff/21/" + OTRO_SHA + ".png");
+
+        int borrados = cleanupService.borrarSinReferencias(
+            List.of("cas/b2/21/" + SHA + ".png", "variants/b2/" + SHA + "-480q82.jpg", "cas/ff/21/" + OTRO_SHA + ".png")
+        );
+
+        assertThat(borrados).isEqualTo(2);
+        assertThat(root.resolve("cas/b2/21/" + SHA + ".png")).doesNotExist();
+        assertThat(root.resolve("variants/b2/" + SHA + "-480q82.jpg")).doesNotExist();
+        assertThat(root.resolve("cas/ff/21/" + OTRO_SHA + ".png")).exists();
+    }
+
+    @Test
+    void shouldKeepFilesWrittenAgainByARecentUpload() throws Exception {
+        // Deleted image, but an upload of the same content stored it again before committing its row
+        archivo("cas/b2/21/" + SHA + ".png", Duration.ofMinutes(1));
+
+        int borrados = cleanupService.borrarSinReferencias(List.of("cas/b2/21/" + SHA + ".png"));
+
+        assertThat(borrados).isZero();
+        assertThat(root.resolve("cas/b2/21/" + SHA + ".png")).exists();
+    }
+
+    private void archivo(String ruta, Duration edad) throws Exception {
+        Path file = root.resolve(ruta);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, ruta);
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(edad)));
+    }
+
+    private static String hoy() {
+        return DateTimeFormatter.BASIC_ISO_DATE.format(LocalDate.now(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,89 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.MensajeSoporteService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import com.hotel.app.service.mapper.ReservaMapperImpl;
+import java.time.Instant;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservaAutoCheckoutJobTest {
+
+    private static final List<EstadoReserva> ESTADOS = List.of(EstadoReserva.CONFIRMADA, EstadoReserva.CHECK_IN);
+
+    private ReservaRepository reservaRepository;
+
+    private MensajeSoporteService mensajeSoporteService;
+
+    private ReservaAutoCheckoutJob job;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        mensajeSoporteService = mock(MensajeSoporteService.class);
+        job = new ReservaAutoCheckoutJob(
+            reservaRepository,
+            mock(ServicioContratadoRepository.class),
+            mensajeSoporteService,
+            mock(ConfiguracionSistemaService.class),
+            new ReservaMapperImpl(),
+            mock(ChunkedJobRunner.class)
+        );
+    }
+
+    @Test
+    void shouldOnlyFinalizeAndNotifyTheReservasStillActiveUnderTheLock() {
+        Instant cutoff = Instant.parse("2025-12-26T12:00:00Z");
+        Reserva finalizada = reserva(4L);
+        Reserva vigente = reserva(9L);
+        when(reservaRepository.findChunkByFechaFinBeforeAndEstadoIn(eq(cutoff), eq(ESTADOS), eq(0L), any())).thenReturn(
+            List.of(finalizada, vigente)
+        );
+        // ExpiryScheduler finalized #4 between the two selects
+        when(reservaRepository.findVencidasForUpdate(List.of(4L, 9L), cutoff, ESTADOS)).thenReturn(List.of(vigente));
+        when(reservaRepository.updateEstadoByIdInAndEstadoIn(List.of(9L), ESTADOS, EstadoReserva.FINALIZADA)).thenReturn(1);
+
+        Chunk chunk = job.procesarLote(cutoff, 0L, 10);
+
+        assertThat(chunk).isEqualTo(new Chunk(2, 9L, 1));
+        verify(mensajeSoporteService).saveAll(argThat(mensajes -> mensajes.size() == 1 && mensajes.get(0).getReserva().getId() == 9L));
+    }
+
+    @Test
+    void shouldSkipTheChunkWhenNothingIsLeftToFinalize() {
+        Instant cutoff = Instant.parse("2025-12-26T12:00:00Z");
+        when(reservaRepository.findChunkByFechaFinBeforeAndEstadoIn(eq(cutoff), eq(ESTADOS), eq(0L), any())).thenReturn(
+            List.of(reserva(4L))
+        );
+        when(reservaRepository.findVencidasForUpdate(List.of(4L), cutoff, ESTADOS)).thenReturn(List.of());
+
+        Chunk chunk = job.procesarLote(cutoff, 0L, 10);
+
+        assertThat(chunk).isEqualTo(new Chunk(1, 4L, 0));
+        verify(reservaRepository, never()).updateEstadoByIdInAndEstadoIn(anyList(), any(), any());
+        verify(mensajeSoporteService, never()).saveAll(anyList());
+    }
+
+    private static Reserva reserva(Long id) {
+        Reserva reserva = new Reserva().estado(EstadoReserva.CHECK_IN).cliente(new Cliente().nombre("Ana").keycloakId("kc-" + id));
+        reserva.setId(id);
+        return reserva;
+    }
+}
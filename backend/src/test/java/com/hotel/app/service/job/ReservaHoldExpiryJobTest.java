@@ -0,0 +1,77 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.repository.ReservaRepository;
+import com.hotel.app.service.ReservaService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ReservaHoldExpiryJobTest {
+
+    private final ApplicationProperties properties = new ApplicationProperties();
+
+    private ReservaRepository reservaRepository;
+
+    private ReservaService reservaService;
+
+    private ReservaHoldExpiryJob job;
+
+    @BeforeEach
+    void setUp() {
+        reservaRepository = mock(ReservaRepository.class);
+        reservaService = mock(ReservaService.class);
+        properties.getReservas().setHoldTtlMinutes(30);
+        job = new ReservaHoldExpiryJob(reservaRepository, reservaService, mock(ChunkedJobRunner.class), properties);
+    }
+
+    @Test
+    void shouldComputeHoldLimitFromTtl() {
+        Instant ahora = Instant.parse("2025-12-26T12:00:00Z");
+
+        assertThat(ReservaHoldExpiryJob.limiteHolds(properties.getReservas(), ahora)).isEqualTo(ahora.minus(30, ChronoUnit.MINUTES));
+
+        properties.getReservas().setHoldTtlMinutes(0);
+        assertThat(ReservaHoldExpiryJob.limiteHolds(properties.getReservas(), ahora)).isEqualTo(Instant.EPOCH);
+    }
+
+    @Test
+    void shouldCancelExpiredHoldsThroughTheService() {
+        Instant cutoff = Instant.parse("2025-12-26T12:00:00Z");
+        Instant limite = cutoff.minus(30, ChronoUnit.MINUTES);
+        when(reservaRepository.findChunkIdsOfHoldsBefore(eq(limite), eq(0L), any())).thenReturn(List.of(4L, 9L));
+        when(reservaService.cancelarHoldVencido(4L, limite)).thenReturn(true);
+        // Paid between the select and the lock
+        when(reservaService.cancelarHoldVencido(9L, limite)).thenReturn(false);
+
+        Chunk chunk = job.procesarLote(cutoff, 0L, 10);
+
+        assertThat(chunk).isEqualTo(new Chunk(2, 9L, 1));
+    }
+
+    @Test
+    void shouldKeepHoldsByDefault() {
+        ReservaHoldExpiryJob porDefecto = new ReservaHoldExpiryJob(
+            reservaRepository,
+            reservaService,
+            mock(ChunkedJobRunner.class),
+            new ApplicationProperties()
+        );
+
+        assertThat(porDefecto.isEnabled()).isFalse();
+        assertThat(job.isEnabled()).isTrue();
+        porDefecto.run();
+
+        verifyNoInteractions(reservaRepository, reservaService);
+    }
+}
@@ -0,0 +1,76 @@
+package com.hotel.app.service.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.repository.ServicioContratadoRepository;
+import com.hotel.app.service.ConfiguracionSistemaService;
+import com.hotel.app.service.MensajeSoporteService;
+import com.hotel.app.service.job.ChunkedJobRunner.Chunk;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ServicioAutoCompletionJobTest {
+
+    private final ServicioContratadoRepository servicioContratadoRepository = mock(ServicioContratadoRepository.class);
+
+    private final MensajeSoporteService mensajeSoporteService = mock(MensajeSoporteService.class);
+
+    private final ServicioAutoCompletionJob job = new ServicioAutoCompletionJob(
+        servicioContratadoRepository,
+        mensajeSoporteService,
+        mock(ConfiguracionSistemaService.class),
+        mock(ChunkedJobRunner.class)
+    );
+
+    @Test
+    void shouldOnlyCompleteAndNotifyTheServicesStillConfirmedUnderTheLock() {
+        Instant cutoff = Instant.parse("2025-12-26T12:00:00Z");
+        ZonedDateTime fecha = ZonedDateTime.ofInstant(cutoff, ZoneId.systemDefault());
+        ServicioContratado cancelado = servicio(3L);
+        ServicioContratado confirmado = servicio(7L);
+        when(
+            servicioContratadoRepository.findChunkByEstadoAndFechaServicioBefore(
+                eq(EstadoServicioContratado.CONFIRMADO),
+                eq(fecha),
+                eq(0L),
+                any()
+            )
+        ).thenReturn(List.of(cancelado, confirmado));
+        // The guest cancelled #3 between the two selects
+        when(servicioContratadoRepository.findVencidosForUpdate(List.of(3L, 7L), EstadoServicioContratado.CONFIRMADO, fecha)).thenReturn(
+            List.of(confirmado)
+        );
+        when(
+            servicioContratadoRepository.updateEstadoByIdInAndEstado(
+                List.of(7L),
+                EstadoServicioContratado.CONFIRMADO,
+                EstadoServicioContratado.COMPLETADO
+            )
+        ).thenReturn(1);
+
+        Chunk chunk = job.procesarLote(cutoff, 0L, 10);
+
+        assertThat(chunk).isEqualTo(new Chunk(2, 7L, 1));
+        verify(mensajeSoporteService).saveAll(argThat(mensajes -> mensajes.size() == 1 && "kc-7".equals(mensajes.get(0).getUserId())));
+    }
+
+    private static ServicioContratado servicio(Long id) {
+        ServicioContratado servicio = new ServicioContratado()
+            .estado(EstadoServicioContratado.CONFIRMADO)
+            .cliente(new Cliente().nombre("Ana").apellido("Ruiz").keycloakId("kc-" + id));
+        servicio.setId(id);
+        return servicio;
+    }
+}
@@ -5,6 +5,7 @@ import static com.hotel.app.domain.CarouselItemTestSamples.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 class CarouselItemMapperTest {
 
@@ -13,6 +14,7 @@ class CarouselItemMapperTest {
     @BeforeEach
     void setUp() {
         carouselItemMapper = new CarouselItemMapperImpl();
+        ReflectionTestUtils.setField(carouselItemMapper, "imagenMapper", new ImagenMapperImpl());
     }
 
     @Test
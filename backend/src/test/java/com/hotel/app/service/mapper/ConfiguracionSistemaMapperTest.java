@@ -5,6 +5,7 @@ import static com.hotel.app.domain.ConfiguracionSistemaTestSamples.*;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
 
 class ConfiguracionSistemaMapperTest {
 
@@ -13,6 +14,7 @@ class ConfiguracionSistemaMapperTest {
     @BeforeEach
     void setUp() {
         configuracionSistemaMapper = new ConfiguracionSistemaMapperImpl();
+        ReflectionTestUtils.setField(configuracionSistemaMapper, "imagenMapper", new ImagenMapperImpl());
     }
 
     @Test
@@ -0,0 +1,126 @@
+package com.hotel.app.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.hotel.app.config.ApplicationProperties;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Random;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * {@link S3ImagenStorage} against a MinIO container.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class S3ImagenStorageIT {
+
+    private static final String ACCESS_KEY = "minio";
+
+    private static final String SECRET_KEY = "minio-secret";
+
+    private static final String BUCKET = "imagenes";
+
+    @Container
+    static final GenericContainer<?> MINIO = new GenericContainer<>("minio/minio:RELEASE.2025-04-22T22-12-26Z")
+        .withCommand("server", "/data")
+        .withEnv("MINIO_ROOT_USER", ACCESS_KEY)
+        .withEnv("MINIO_ROOT_PASSWORD", SECRET_KEY)
+        .withExposedPorts(9000)
+        .waitingFor(Wait.forHttp("/minio/health/ready").forPort(9000));
+
+    @TempDir
+    Path tmp;
+
+    private S3ImagenStorage storage;
+
+    @BeforeAll
+    static void createBucket() {
+        try (
+            S3Client client = S3Client.builder()
+                .endpointOverride(URI.create(endpoint()))
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(ACCESS_KEY, SECRET_KEY)))
+                .forcePathStyle(true)
+                .build()
+        ) {
+            client.createBucket(b -> b.bucket(BUCKET));
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        ApplicationProperties properties = new ApplicationProperties();
+        ApplicationProperties.Imagenes.Storage.S3 s3 = properties.getImagenes().getStorage().getS3();
+        s3.setEndpoint(endpoint());
+        s3.setBucket(BUCKET);
+        s3.setAccessKey(ACCESS_KEY);
+        s3.setSecretKey(SECRET_KEY);
+        s3.setPartSize(DataSize.ofMegabytes(5));
+        storage = new S3ImagenStorage(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.detener();
+    }
+
+    @Test
+    void shouldStoreReadAndDelete() throws Exception {
+        Path file = Files.writeString(tmp.resolve("hola.png"), "0123456789");
+
+        storage.put("cas/ab/hola.png", file, "image/png");
+
+        assertThat(storage.get("cas/ab/hola.png")).hasValueSatisfying(info -> {
+            assertThat(info.size()).isEqualTo(10);
+            assertThat(info.contentType()).isEqualTo("image/png");
+        });
+        try (InputStream in = storage.stream("cas/ab/hola.png", 3, 2)) {
+            assertThat(in.readAllBytes()).isEqualTo("34".getBytes());
+        }
+        HttpResponse<byte[]> presigned = HttpClient.newHttpClient()
+            .send(
+                HttpRequest.newBuilder(storage.presign("cas/ab/hola.png", Duration.ofMinutes(1)).orElseThrow()).build(),
+                HttpResponse.BodyHandlers.ofByteArray()
+            );
+        assertThat(presigned.body()).isEqualTo("0123456789".getBytes());
+
+        storage.delete("cas/ab/hola.png");
+        assertThat(storage.get("cas/ab/hola.png")).isEmpty();
+    }
+
+    @Test
+    void shouldUploadLargeFilesInParts() throws Exception {
+        byte[] content = new byte[11 * 1024 * 1024];
+        new Random(7).nextBytes(content);
+        Path file = Files.write(tmp.resolve("grande.jpg"), content);
+
+        storage.put("cas/cd/grande.jpg", file, "image/jpeg");
+
+        try (InputStream in = storage.stream("cas/cd/grande.jpg", 0, -1)) {
+            assertThat(in.readAllBytes()).isEqualTo(content);
+        }
+    }
+
+    private static String endpoint() {
+        return "http://" + MINIO.getHost() + ":" + MINIO.getMappedPort(9000);
+    }
+}
@@ -0,0 +1,322 @@
+package com.hotel.app.service.storage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.storage.ImagenStorage.ListedObject;
+import com.hotel.app.service.storage.ImagenStorage.ObjectInfo;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Against an in-process stub of the S3 API; see {@code S3ImagenStorageIT} for
+ * a real MinIO.
+ */
+class S3ImagenStorageTest {
+
+    private static final String BUCKET = "imagenes";
+
+    private static final int PAGE_SIZE = 1000;
+
+    @TempDir
+    Path tmp;
+
+    private HttpServer server;
+
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<Integer, byte[]>> uploads = new ConcurrentHashMap<>();
+
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private final AtomicInteger listPages = new AtomicInteger();
+
+    private volatile boolean failParts;
+
+    private S3ImagenStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+
+        ApplicationProperties properties = new ApplicationProperties();
+        ApplicationProperties.Imagenes.Storage.S3 s3 = properties.getImagenes().getStorage().getS3();
+        s3.setEndpoint("http://localhost:" + server.getAddress().getPort());
+        s3.setBucket(BUCKET);
+        s3.setAccessKey("minio");
+        s3.setSecretKey("minio123");
+        s3.setPrefix("img/");
+        s3.setPartSize(DataSize.ofMegabytes(5));
+        s3.setParallelism(3);
+        storage = new S3ImagenStorage(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        storage.detener();
+        server.stop(0);
+    }
+
+    @Test
+    void shouldPutGetStreamAndDelete() throws Exception {
+        Path file = Files.writeString(tmp.resolve("hola.png"), "0123456789");
+
+        storage.put("cas/ab/hola.png", file, "image/png");
+
+        assertThat(objects).containsKey("img/cas/ab/hola.png");
+        ObjectInfo info = storage.get("cas/ab/hola.png").orElseThrow();
+        assertThat(info.size()).isEqualTo(10);
+        try (InputStream in = storage.stream("cas/ab/hola.png", 2, 4)) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("2345");
+        }
+        assertThat(storage.get("cas/ab/otra.png")).isEmpty();
+        assertThatThrownBy(() -> storage.stream("cas/ab/otra.png", 0, -1)).isInstanceOf(NoSuchFileException.class);
+
+        storage.delete("cas/ab/hola.png");
+        assertThat(objects).isEmpty();
+        assertThat(requests).allMatch(r -> r.contains("AWS4-HMAC-SHA256 Credential=minio/"));
+    }
+
+    @Test
+    void shouldUploadLargeFilesInParallelParts() throws Exception {
+        byte[] content = new byte[12 * 1024 * 1024 + 17];
+        new Random(1).nextBytes(content);
+        Path file = Files.write(tmp.resolve("grande.jpg"), content);
+
+        storage.put("cas/cd/grande.jpg", file, "image/jpeg");
+
+        assertThat(objects.get("img/cas/cd/grande.jpg")).isEqualTo(content);
+        assertThat(requests.stream().filter(r -> r.startsWith("PUT") && r.contains("partNumber="))).hasSize(3);
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+        assertThat(uploads).isEmpty();
+    }
+
+    @Test
+    void shouldAbortFailedUploads() throws Exception {
+        failParts = true;
+        Path file = Files.write(tmp.resolve("grande.jpg"), new byte[11 * 1024 * 1024]);
+
+        assertThatThrownBy(() -> storage.put("cas/cd/grande.jpg", file, "image/jpeg")).isInstanceOf(IOException.class);
+
+        // The SDK aborts the upload after failing it
+        for (int i = 0; i < 50 && !uploads.isEmpty(); i++) {
+            Thread.sleep(100);
+        }
+        assertThat(objects).isEmpty();
+        assertThat(uploads).isEmpty();
+        assertThat(requests).anyMatch(r -> r.startsWith("DELETE") && r.contains("uploadId="));
+    }
+
+    @Test
+    void shouldListLazilyPageByPage() throws Exception {
+        for (int i = 0; i < 2500; i++) {
+            objects.put(String.format("img/cas/%04d.png", i), new byte[i % 7]);
+        }
+        objects.put("img/variants/a.jpg", new byte[1]);
+        objects.put("otro/cas/b.png", new byte[1]);
+
+        try (Stream<ListedObject> listed = storage.list("cas/")) {
+            Iterator<ListedObject> it = listed.iterator();
+            ListedObject first = it.next();
+            assertThat(first.key()).isEqualTo("cas/0000.png");
+            assertThat(first.lastModified()).isEqualTo(Instant.parse("2025-10-01T10:00:00Z"));
+            assertThat(listPages.get()).isEqualTo(1);
+        }
+        listPages.set(0);
+        try (Stream<ListedObject> listed = storage.list("cas/")) {
+            List<ListedObject> all = listed.toList();
+            assertThat(all).hasSize(2500);
+            assertThat(all.get(2499).key()).isEqualTo("cas/2499.png");
+            assertThat(all.get(6).size()).isEqualTo(6);
+        }
+        assertThat(listPages.get()).isEqualTo(3);
+    }
+
+    @Test
+    void shouldMoveWithServerSideCopy() throws Exception {
+        objects.put("img/cas/ab/hola.png", "hola".getBytes(StandardCharsets.UTF_8));
+
+        storage.move("cas/ab/hola.png", ".quarantine/20251001/cas/ab/hola.png");
+
+        assertThat(objects).containsOnlyKeys("img/.quarantine/20251001/cas/ab/hola.png");
+        assertThat(requests).noneMatch(r -> r.startsWith("GET"));
+        assertThatThrownBy(() -> storage.move("cas/ab/otra.png", "x.png")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void shouldTouchWithACopyOntoItself() throws Exception {
+        objects.put("img/cas/ab/hola.png", "hola".getBytes(StandardCharsets.UTF_8));
+
+        storage.touch("cas/ab/hola.png");
+
+        assertThat(objects).containsOnlyKeys("img/cas/ab/hola.png");
+        assertThat(requests).anyMatch(r -> r.startsWith("PUT /imagenes/img/cas/ab/hola.png")).noneMatch(r -> r.startsWith("GET"));
+        assertThatThrownBy(() -> storage.touch("cas/ab/otra.png")).isInstanceOf(NoSuchFileException.class);
+    }
+
+    @Test
+    void shouldPresignPathStyleUrls() {
+        URI uri = storage.presign("cas/ab/foto de día.png", Duration.ofMinutes(5)).orElseThrow();
+
+        assertThat(uri.getRawPath()).isEqualTo("/imagenes/img/cas/ab/foto%20de%20d%C3%ADa.png");
+        assertThat(uri.getRawQuery()).contains("X-Amz-Expires=300").contains("X-Amz-Signature=");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String query = exchange.getRequestURI().getRawQuery();
+        requests.add(method + " " + exchange.getRequestURI() + " " + exchange.getRequestHeaders().getFirst("Authorization"));
+        String key = exchange.getRequestURI().getPath().replaceFirst("^/" + BUCKET + "/?", "");
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        Map<String, String> params = new TreeMap<>();
+        if (query != null) {
+            for (String p : query.split("&")) {
+                String[] kv = p.split("=", 2);
+                params.put(kv[0], kv.length > 1 ? kv[1] : "");
+            }
+        }
+        if ("POST".equals(method) && params.containsKey("uploads")) {
+            String uploadId = "u" + uploads.size();
+            uploads.put(uploadId, new ConcurrentHashMap<>());
+            respond(exchange, 200, "<InitiateMultipartUploadResult><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+        } else if ("PUT".equals(method) && params.containsKey("partNumber")) {
+            int now = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(now, Math::max);
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            inFlight.decrementAndGet();
+            if (failParts) {
+                respond(exchange, 500, "<Error><Code>InternalError</Code></Error>");
+                return;
+            }
+            uploads.get(params.get("uploadId")).put(Integer.valueOf(params.get("partNumber")), body);
+            exchange.getResponseHeaders().add("ETag", "\"etag-" + params.get("partNumber") + "\"");
+            respond(exchange, 200, "");
+        } else if ("POST".equals(method) && params.containsKey("uploadId")) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            for (byte[] part : new TreeMap<>(uploads.remove(params.get("uploadId"))).values()) {
+                out.write(part);
+            }
+            objects.put(key, out.toByteArray());
+            respond(exchange, 200, "<CompleteMultipartUploadResult/>");
+        } else if ("DELETE".equals(method) && params.containsKey("uploadId")) {
+            uploads.remove(params.get("uploadId"));
+            respond(exchange, 204, null);
+        } else if ("GET".equals(method) && params.containsKey("list-type")) {
+            respond(exchange, 200, list(decode(params.get("prefix")), params.get("continuation-token")));
+        } else if ("PUT".equals(method) && exchange.getRequestHeaders().containsKey("x-amz-copy-source")) {
+            String source = decode(exchange.getRequestHeaders().getFirst("x-amz-copy-source")).replaceFirst("^/?" + BUCKET + "/", "");
+            if (!objects.containsKey(source)) {
+                respond(exchange, 404, "<Error><Code>NoSuchKey</Code></Error>");
+                return;
+            }
+            objects.put(key, objects.get(source));
+            respond(exchange, 200, "<CopyObjectResult/>");
+        } else if ("PUT".equals(method)) {
+            objects.put(key, body);
+            respond(exchange, 200, "");
+        } else if ("DELETE".equals(method)) {
+            objects.remove(key);
+            respond(exchange, 204, null);
+        } else if (!objects.containsKey(key)) {
+            respond(exchange, 404, "HEAD".equals(method) ? null : "<Error><Code>NoSuchKey</Code></Error>");
+        } else if ("HEAD".equals(method)) {
+            exchange.getResponseHeaders().add("Last-Modified", "Wed, 01 Oct 2025 10:00:00 GMT");
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(objects.get(key).length));
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        } else {
+            byte[] object = objects.get(key);
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            if (range != null) {
+                String[] bounds = range.substring("bytes=".length()).split("-");
+                int start = Integer.parseInt(bounds[0]);
+                int end = bounds.length > 1 ? Integer.parseInt(bounds[1]) : object.length - 1;
+                byte[] slice = Arrays.copyOfRange(object, start, end + 1);
+                exchange.sendResponseHeaders(206, slice.length);
+                exchange.getResponseBody().write(slice);
+            } else {
+                exchange.sendResponseHeaders(200, object.length);
+                exchange.getResponseBody().write(object);
+            }
+            exchange.close();
+        }
+    }
+
+    /**
+     * Pages of {@value #PAGE_SIZE} keys; the continuation token is the last key
+     * sent.
+     */
+    private String list(String prefix, String token) {
+        List<String> keys = new TreeMap<>(objects).keySet().stream()
+            .filter(k -> k.startsWith(prefix))
+            .filter(k -> token == null || k.compareTo(decode(token)) > 0)
+            .toList();
+        listPages.incrementAndGet();
+        StringBuilder xml = new StringBuilder("<ListBucketResult>");
+        keys.stream().limit(PAGE_SIZE).forEach(k ->
+            xml.append("<Contents><Key>").append(k.replace("&", "&amp;")).append("</Key><LastModified>2025-10-01T10:00:00.000Z</LastModified>")
+                .append("<Size>").append(objects.get(k).length).append("</Size></Contents>")
+        );
+        if (keys.size() > PAGE_SIZE) {
+            xml.append("<IsTruncated>true</IsTruncated><NextContinuationToken>").append(keys.get(PAGE_SIZE - 1)).append("</NextContinuationToken>");
+        } else {
+            xml.append("<IsTruncated>false</IsTruncated>");
+        }
+        return xml.append("</ListBucketResult>").toString();
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value.replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+            exchange.getResponseBody().write(bytes);
+        }
+        exchange.close();
+    }
+}
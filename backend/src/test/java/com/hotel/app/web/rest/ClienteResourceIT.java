@@ -10,12 +10,30 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.hotel.app.IntegrationTest;
+import com.hotel.app.config.QueryCountInspector;
 import com.hotel.app.domain.Cliente;
+import com.hotel.app.domain.Habitacion;
+import com.hotel.app.domain.MensajeSoporte;
+import com.hotel.app.domain.Pago;
+import com.hotel.app.domain.Reserva;
+import com.hotel.app.domain.ReservaDetalle;
+import com.hotel.app.domain.Servicio;
+import com.hotel.app.domain.ServicioContratado;
+import com.hotel.app.domain.enumeration.EstadoPago;
+import com.hotel.app.domain.enumeration.EstadoReserva;
+import com.hotel.app.domain.enumeration.EstadoServicioContratado;
+import com.hotel.app.domain.enumeration.MetodoPago;
 import com.hotel.app.domain.enumeration.TipoIdentificacion;
+import com.hotel.app.domain.enumeration.TipoServicio;
 import com.hotel.app.repository.ClienteRepository;
+import com.hotel.app.service.ClienteOverviewService;
 import com.hotel.app.service.dto.ClienteDTO;
 import com.hotel.app.service.mapper.ClienteMapper;
 import jakarta.persistence.EntityManager;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.AfterEach;
@@ -342,6 +360,44 @@ class ClienteResourceIT {
             .andExpect(jsonPath("$.[*].activo").value(hasItem(DEFAULT_ACTIVO)));
     }
 
+    @Test
+    @Transactional
+    @WithMockUser(authorities = "ROLE_EMPLOYEE")
+    void searchClientes() throws Exception {
+        // Initialize the database
+        insertedCliente = clienteRepository.saveAndFlush(
+            createEntity().nombre("José").apellido("Muñoz").correo("Jose.Munoz@Example.com").telefono("+34 600 123 456")
+        );
+
+        restClienteMockMvc
+            .perform(get(ENTITY_API_URL + "/search?q=munoz"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(insertedCliente.getId().intValue())));
+        restClienteMockMvc
+            .perform(get(ENTITY_API_URL + "/search?q=600 123"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(insertedCliente.getId().intValue())));
+        restClienteMockMvc
+            .perform(get(ENTITY_API_URL + "/search?q=jose.munoz@example.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].id").value(insertedCliente.getId().intValue()));
+        restClienteMockMvc.perform(get(ENTITY_API_URL + "/search?q=mu")).andExpect(status().isOk()).andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = "ROLE_CLIENT")
+    void searchClientesAsClientOnlyMatchesTheExactEmail() throws Exception {
+        // Initialize the database
+        insertedCliente = clienteRepository.saveAndFlush(createEntity().nombre("José").apellido("Muñoz").correo("Jose.Munoz@Example.com"));
+
+        restClienteMockMvc.perform(get(ENTITY_API_URL + "/search?q=munoz")).andExpect(status().isOk()).andExpect(jsonPath("$").isEmpty());
+        restClienteMockMvc
+            .perform(get(ENTITY_API_URL + "/search?q=jose.munoz@example.com"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(hasItem(insertedCliente.getId().intValue())));
+    }
+
     @Test
     @Transactional
     void getCliente() throws Exception {
@@ -372,6 +428,74 @@ class ClienteResourceIT {
         restClienteMockMvc.perform(get(ENTITY_API_URL_ID, Long.MAX_VALUE)).andExpect(status().isNotFound());
     }
 
+    @Test
+    @Transactional
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    void getClienteOverviewWithinQueryBudget() throws Exception {
+        // Initialize the database
+        cliente.setActivo(true);
+        em.persist(cliente);
+        Servicio servicio = new Servicio().nombre("Spa").tipo(TipoServicio.PAGO).precio(new BigDecimal("25.00")).disponible(true);
+        em.persist(servicio);
+        Instant ahora = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        for (int i = 0; i < 3; i++) {
+            Reserva reserva = new Reserva().estado(EstadoReserva.CONFIRMADA).activo(true).cliente(cliente);
+            reserva.setFechaReserva(ahora);
+            reserva.setFechaInicio(ahora.plus(i, ChronoUnit.DAYS));
+            reserva.setFechaFin(ahora.plus(i + 1, ChronoUnit.DAYS));
+            em.persist(reserva);
+            for (int j = 0; j < 2; j++) {
+                Habitacion habitacion = new Habitacion().numero("OV-" + i + "-" + j).capacidad(2).activo(true);
+                em.persist(habitacion);
+                em.persist(new ReservaDetalle().activo(true).reserva(reserva).habitacion(habitacion));
+            }
+            Pago pago = new Pago().monto(new BigDecimal("100.00")).estado(EstadoPago.COMPLETADO).activo(true).reserva(reserva);
+            pago.setFechaPago(ahora);
+            pago.setMetodoPago(MetodoPago.TARJETA);
+            em.persist(pago);
+            ServicioContratado servicioContratado = new ServicioContratado()
+                .cantidad(1)
+                .estado(EstadoServicioContratado.CONFIRMADO)
+                .servicio(servicio)
+                .reserva(reserva)
+                .cliente(cliente)
+                .pago(pago);
+            servicioContratado.setFechaContratacion(ahora);
+            servicioContratado.setFechaServicio(ZonedDateTime.now());
+            servicioContratado.setNumeroPersonas(1);
+            servicioContratado.setPrecioUnitario(new BigDecimal("25.00"));
+            em.persist(servicioContratado);
+            MensajeSoporte mensaje = new MensajeSoporte().mensaje("Mensaje " + i).leido(false).activo(true).reserva(reserva);
+            mensaje.setFechaMensaje(ahora);
+            mensaje.setUserId(DEFAULT_KEYCLOAK_ID);
+            em.persist(mensaje);
+        }
+        em.flush();
+        em.clear();
+
+        QueryCountInspector.reset();
+        restClienteMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/overview", cliente.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.cliente.id").value(cliente.getId().intValue()))
+            .andExpect(jsonPath("$.reservas.length()").value(3))
+            .andExpect(jsonPath("$.reservas[0].habitaciones.length()").value(2))
+            .andExpect(jsonPath("$.servicios.length()").value(3))
+            .andExpect(jsonPath("$.servicios[0].servicio").value("Spa"))
+            .andExpect(jsonPath("$.pagos.length()").value(3))
+            .andExpect(jsonPath("$.mensajes.length()").value(3))
+            .andExpect(jsonPath("$.totalPagado").value(300.0));
+
+        assertThat(QueryCountInspector.count()).isLessThanOrEqualTo(ClienteOverviewService.QUERY_BUDGET);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser(authorities = "ROLE_ADMIN")
+    void getNonExistingClienteOverview() throws Exception {
+        restClienteMockMvc.perform(get(ENTITY_API_URL_ID + "/overview", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
     @Test
     @Transactional
     void putExistingCliente() throws Exception {
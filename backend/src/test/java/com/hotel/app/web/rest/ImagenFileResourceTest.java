@@ -0,0 +1,150 @@
+package com.hotel.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.ImagenContentStore;
+import com.hotel.app.service.ImagenContentStore.StoredContent;
+import com.hotel.app.service.ImagenHotCache;
+import com.hotel.app.service.storage.LocalImagenStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class ImagenFileResourceTest {
+
+    @TempDir
+    Path tmp;
+
+    private Path root;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ImagenContentStore store;
+
+    private ImagenHotCache hotCache;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        root = tmp.resolve("images");
+        ApplicationProperties properties = new ApplicationProperties();
+        properties.setImagePath(root.toString());
+        store = new ImagenContentStore(properties, new LocalImagenStorage(properties));
+        meterRegistry = new SimpleMeterRegistry();
+        hotCache = new ImagenHotCache(properties, meterRegistry);
+        mockMvc = MockMvcBuilders.standaloneSetup(new ImagenFileResource(store, hotCache, meterRegistry)).build();
+    }
+
+    @Test
+    void shouldServeHashedContentAsImmutable() throws Exception {
+        StoredContent stored = store.store(bytes("hola"), "image/png");
+
+        mockMvc
+            .perform(get("/images/" + stored.path()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + stored.sha256() + "\""))
+            .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+            .andExpect(content().string("hola"));
+
+        assertThat(meterRegistry.get("hotel.images.bytes").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    void shouldRevalidateLegacyNames() throws Exception {
+        Files.createDirectories(root);
+        Files.writeString(root.resolve("legacy.jpg"), "hola");
+
+        MvcResult result = mockMvc
+            .perform(get("/images/legacy.jpg"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, no-cache"))
+            .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+            .andReturn();
+        String etag = result.getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"").doesNotStartWith("W/");
+
+        mockMvc.perform(get("/images/legacy.jpg").header(HttpHeaders.IF_NONE_MATCH, etag)).andExpect(status().isNotModified());
+        mockMvc
+            .perform(get("/images/legacy.jpg").header(HttpHeaders.IF_MODIFIED_SINCE, result.getResponse().getHeader(HttpHeaders.LAST_MODIFIED)))
+            .andExpect(status().isNotModified());
+
+        assertThat(meterRegistry.get("hotel.images.not_modified.ratio").gauge().value()).isEqualTo(2.0 / 3);
+    }
+
+    @Test
+    void shouldServeRanges() throws Exception {
+        StoredContent stored = store.store(bytes("0123456789"), "image/png");
+
+        mockMvc
+            .perform(get("/images/" + stored.path()).header(HttpHeaders.RANGE, "bytes=2-5"))
+            .andExpect(status().isPartialContent())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 2-5/10"))
+            .andExpect(header().string(HttpHeaders.CONTENT_LENGTH, "4"))
+            .andExpect(content().string("2345"));
+        mockMvc
+            .perform(get("/images/" + stored.path()).header(HttpHeaders.RANGE, "bytes=-3"))
+            .andExpect(status().isPartialContent())
+            .andExpect(content().string("789"));
+        mockMvc
+            .perform(get("/images/" + stored.path()).header(HttpHeaders.RANGE, "bytes=20-"))
+            .andExpect(status().isRequestedRangeNotSatisfiable())
+            .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */10"));
+        mockMvc
+            .perform(get("/images/" + stored.path()).header(HttpHeaders.RANGE, "bytes=2-5").header(HttpHeaders.IF_RANGE, "\"otro\""))
+            .andExpect(status().isOk())
+            .andExpect(content().string("0123456789"));
+    }
+
+    @Test
+    void shouldServeFrequentImagesFromMemory() throws Exception {
+        StoredContent stored = store.store(bytes("hola"), "image/png");
+        String url = "/images/" + stored.path();
+
+        // Admitted on its second request
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        mockMvc.perform(get(url)).andExpect(status().isOk());
+        Files.delete(root.resolve(stored.path()));
+
+        mockMvc
+            .perform(get(url))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + stored.sha256() + "\""))
+            .andExpect(content().string("hola"));
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=1-2")).andExpect(content().string("ol"));
+        assertThat(meterRegistry.get("hotel.images.cache.bytes_saved").counter().count()).isEqualTo(6);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "imagenes").tag("result", "hit").functionCounter().count()).isEqualTo(2);
+
+        hotCache.invalidar(List.of(stored.path()));
+        mockMvc.perform(get(url)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void shouldNotServeOutsideTheRoot() throws Exception {
+        Files.createDirectories(root);
+        Files.writeString(tmp.resolve("secret.txt"), "secret");
+
+        mockMvc.perform(get("/images/../secret.txt")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/images/missing.png")).andExpect(status().isNotFound());
+    }
+
+    private static ByteArrayInputStream bytes(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
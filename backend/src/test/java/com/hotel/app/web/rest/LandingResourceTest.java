@@ -0,0 +1,77 @@
+package com.hotel.app.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.hotel.app.config.ApplicationProperties;
+import com.hotel.app.service.LandingSnapshotService;
+import com.hotel.app.service.LandingSnapshotService.Documento;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+class LandingResourceTest {
+
+    private static final byte[] JSON = "{\"heroes\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] GZIP = { 0x1f, (byte) 0x8b, 1, 2, 3 };
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        LandingSnapshotService landingSnapshotService = mock(LandingSnapshotService.class);
+        when(landingSnapshotService.get()).thenReturn(new Documento(JSON, GZIP, "abc"));
+        mockMvc = MockMvcBuilders.standaloneSetup(new LandingResource(landingSnapshotService, new ApplicationProperties())).build();
+    }
+
+    @Test
+    void shouldServePlainJsonWithStrongEtag() throws Exception {
+        mockMvc
+            .perform(get("/api/public/landing"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"))
+            .andExpect(header().string(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andExpect(content().contentTypeCompatibleWith("application/json"))
+            .andExpect(content().bytes(JSON));
+    }
+
+    @Test
+    void shouldServePrecompressedBytesWhenAccepted() throws Exception {
+        mockMvc
+            .perform(get("/api/public/landing").header(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0.8"))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andExpect(header().string(HttpHeaders.ETAG, "\"abc-gzip\""))
+            .andExpect(content().bytes(GZIP));
+    }
+
+    @Test
+    void shouldAnswerNotModifiedForMatchingEtag() throws Exception {
+        mockMvc
+            .perform(get("/api/public/landing").header(HttpHeaders.ACCEPT_ENCODING, "gzip").header(HttpHeaders.IF_NONE_MATCH, "\"abc-gzip\""))
+            .andExpect(status().isNotModified())
+            .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void shouldParseAcceptEncoding() {
+        assertThat(LandingResource.acceptsGzip(null)).isFalse();
+        assertThat(LandingResource.acceptsGzip("identity")).isFalse();
+        assertThat(LandingResource.acceptsGzip("gzip, deflate, br")).isTrue();
+        assertThat(LandingResource.acceptsGzip("GZIP;q=0.5")).isTrue();
+        assertThat(LandingResource.acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(LandingResource.acceptsGzip("*")).isTrue();
+        assertThat(LandingResource.acceptsGzip("*, gzip;q=0")).isFalse();
+    }
+}